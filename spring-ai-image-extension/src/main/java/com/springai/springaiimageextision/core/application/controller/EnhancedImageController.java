@@ -1,13 +1,17 @@
 package com.springai.springaiimageextision.core.application.controller;
 
+import com.springai.springaiimageextision.core.application.dto.ImageBatchRequest;
 import com.springai.springaiimageextision.core.application.service.EnhancedImageService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.List;
 import java.util.Objects;
@@ -56,4 +60,34 @@ public class EnhancedImageController {
                 enhancedImageService.imageStartSolitaire(file, prompt, prompts, step);
     }
 
+    /**
+     * 基于上传的图像或文本提示生成图像接龙，并以SSE方式逐步推送结果
+     * 每完成一步立即推送该步骤的URL、提示词与耗时，无需等待整个接龙结束
+     *
+     * @param file    可选的上传图像文件，为空时从文本开始接龙
+     * @param prompt  初始文本提示
+     * @param prompts 图像编辑提示列表，用于连续生成图像
+     * @param step    接龙步数，控制生成图像的数量
+     * @return SSE事件流
+     */
+    @PostMapping(value = "/solitaire/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter generateImageSolitaireStream(@RequestParam(name = "file", required = false) MultipartFile file,
+                                                   @RequestParam("prompt") String prompt,
+                                                   @RequestParam(name = "prompts", required = false) List<String> prompts,
+                                                   @RequestParam("step") int step) {
+        return enhancedImageService.solitaireStream(file, prompt, prompts, step);
+    }
+
+    /**
+     * 根据多组提示词与选项批量生成图像，并以SSE方式逐个推送结果
+     * 条目以有限并发度执行，每完成一个条目立即推送，单个条目失败不影响整个批量
+     *
+     * @param request 批量生成请求，包含条目列表、默认模型与并发度
+     * @return SSE事件流
+     */
+    @PostMapping(value = "/batch", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter generateImageBatch(@RequestBody ImageBatchRequest request) {
+        return enhancedImageService.batchStream(request);
+    }
+
 }
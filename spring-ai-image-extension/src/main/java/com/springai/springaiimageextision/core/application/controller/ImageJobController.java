@@ -0,0 +1,98 @@
+package com.springai.springaiimageextision.core.application.controller;
+
+import com.springai.springaiimageextision.core.application.dto.ImageJobView;
+import com.springai.springaiimageextision.core.application.service.ImageJobService;
+import com.springai.springaiimageextision.core.client.SolitaireStep;
+import com.springai.springaiimageextision.core.custom.job.ImageJob;
+import com.springai.springaiimageextision.core.custom.job.ImageJobStatus;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.List;
+
+/**
+ * 异步图像接龙任务接口：提交后立即返回任务标识，通过轮询查询进度与结果
+ *
+ * @author 王玉涛
+ * @version 1.0
+ * @since 2025/10/1
+ */
+@Slf4j
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/api/core/images/jobs")
+public class ImageJobController {
+
+    private final ImageJobService imageJobService;
+
+    /**
+     * 提交图像接龙任务
+     *
+     * @param file    可选的上传图像文件，为空时从文本开始接龙
+     * @param prompt  初始文本提示
+     * @param prompts 图像编辑提示列表，用于连续生成图像
+     * @param step    接龙步数，控制生成图像的数量
+     * @return 202 Accepted，Location 指向任务状态地址
+     * @throws IOException 当读取上传图像失败时抛出
+     */
+    @PostMapping
+    public ResponseEntity<ImageJobView> submit(@RequestParam(name = "file", required = false) MultipartFile file,
+                                               @RequestParam("prompt") String prompt,
+                                               @RequestParam(name = "prompts", required = false) List<String> prompts,
+                                               @RequestParam("step") int step) throws IOException {
+        ImageJob job = imageJobService.submitSolitaire(file, prompt, prompts, step);
+        URI location = ServletUriComponentsBuilder.fromCurrentRequest().path("/{id}").buildAndExpand(job.getId())
+                .toUri();
+        return ResponseEntity.accepted().location(location).body(ImageJobView.of(job));
+    }
+
+    /**
+     * 查询任务状态与已完成步骤
+     *
+     * @param id 任务标识
+     * @return 任务状态，不存在或已过期时返回404
+     */
+    @GetMapping("/{id}")
+    public ResponseEntity<ImageJobView> status(@PathVariable("id") String id) {
+        return ResponseEntity.of(imageJobService.find(id).map(ImageJobView::of));
+    }
+
+    /**
+     * 获取任务生成的图像URL列表
+     *
+     * @param id 任务标识
+     * @return 图像URL列表；任务不存在返回404，尚未成功结束返回409
+     */
+    @GetMapping("/{id}/result")
+    public ResponseEntity<List<String>> result(@PathVariable("id") String id) {
+        return imageJobService.find(id)
+                .map(job -> job.getStatus() == ImageJobStatus.SUCCEEDED
+                        ? ResponseEntity.ok(job.getSteps().stream().map(SolitaireStep::url).toList())
+                        : ResponseEntity.status(HttpStatus.CONFLICT).<List<String>>build())
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    /**
+     * 取消任务
+     *
+     * @param id 任务标识
+     * @return 取消后的任务状态，不存在时返回404
+     */
+    @DeleteMapping("/{id}")
+    public ResponseEntity<ImageJobView> cancel(@PathVariable("id") String id) {
+        return ResponseEntity.of(imageJobService.cancel(id).map(ImageJobView::of));
+    }
+}
@@ -0,0 +1,168 @@
+package com.springai.springaiimageextision.core.application.controller;
+
+import com.springai.springaiimageextision.core.custom.store.ImageStore;
+import com.springai.springaiimageextision.core.custom.store.StoredImage;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * 本地图像存储读取接口：按内容摘要提供已保存的图像
+ * <p>
+ * 图像内容由摘要唯一确定、永不变化，因此以摘要作为强 ETag 并允许长期缓存；
+ * 支持 If-None-Match 与单个 Range 请求，文件内容由容器的 sendfile 或 {@link FileChannel#transferTo} 直接写出，不经过堆内存
+ *
+ * @author 王玉涛
+ * @version 1.0
+ * @since 2025/10/1
+ */
+@Slf4j
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/api/core/images")
+public class StoredImageController {
+
+    /**
+     * Tomcat 的 sendfile 请求属性，与 DefaultServlet 使用的相同
+     */
+    private static final String SENDFILE_SUPPORTED = "org.apache.tomcat.sendfile.support";
+
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    /**
+     * 小于该大小的文件直接写出，sendfile 的额外开销不划算，与 Tomcat 默认值一致
+     */
+    private static final long SENDFILE_THRESHOLD = 48 * 1024;
+
+    private static final String CACHE_CONTROL = CacheControl.maxAge(Duration.ofDays(365)).cachePublic().immutable()
+            .getHeaderValue();
+
+    private final ObjectProvider<ImageStore> imageStore;
+
+    /**
+     * 读取已保存的图像
+     *
+     * @param id       图像内容的 SHA-256 十六进制摘要
+     * @param request  HTTP 请求
+     * @param response HTTP 响应
+     * @throws IOException 当写出图像失败时抛出
+     */
+    @GetMapping("/{id:[a-f0-9]{64}}")
+    public void image(@PathVariable("id") String id, HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
+        ImageStore store = imageStore.getIfAvailable();
+        Optional<StoredImage> stored = store != null ? store.get(id) : Optional.empty();
+        if (stored.isEmpty()) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        StoredImage image = stored.get();
+        String etag = "\"" + image.id() + "\"";
+        response.setHeader(HttpHeaders.CACHE_CONTROL, CACHE_CONTROL);
+        // 设置 ETag，命中 If-None-Match 时返回 304
+        if (new ServletWebRequest(request, response).checkNotModified(etag)) {
+            return;
+        }
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+
+        long size = image.size();
+        long start = 0;
+        long end = size - 1;
+        String rangeHeader = request.getHeader(HttpHeaders.RANGE);
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        // If-Range 与当前 ETag 不一致时忽略 Range，返回完整内容
+        if (rangeHeader != null && (ifRange == null || ifRange.equals(etag))) {
+            List<HttpRange> ranges;
+            try {
+                ranges = HttpRange.parseRanges(rangeHeader);
+            }
+            catch (IllegalArgumentException ex) {
+                ranges = List.of();
+            }
+            // 多个区间时返回完整内容，RFC 9110 允许服务端忽略 Range
+            if (ranges.size() == 1) {
+                HttpRange range = ranges.get(0);
+                try {
+                    start = range.getRangeStart(size);
+                    end = range.getRangeEnd(size);
+                }
+                catch (IllegalArgumentException ex) {
+                    start = size;
+                }
+                if (start >= size || start > end) {
+                    response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + size);
+                    response.setStatus(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                    return;
+                }
+                response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + size);
+            }
+        }
+        long length = end - start + 1;
+        response.setContentType(image.mimeType());
+        response.setContentLengthLong(length);
+        if ("HEAD".equals(request.getMethod()) || length == 0) {
+            return;
+        }
+        write(image, start, length, request, response);
+    }
+
+    private void write(StoredImage image, long start, long length, HttpServletRequest request,
+                       HttpServletResponse response) throws IOException {
+        FileChannel channel;
+        try {
+            channel = FileChannel.open(image.path(), StandardOpenOption.READ);
+        }
+        catch (NoSuchFileException ex) {
+            // 查询与读取之间图像已被淘汰
+            log.debug("图像已被淘汰: {}", image.id());
+            response.reset();
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        try (channel) {
+            if (length >= SENDFILE_THRESHOLD && Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORTED))) {
+                // 交给容器在请求处理结束后以 sendfile 写出
+                request.setAttribute(SENDFILE_FILENAME, image.path().toAbsolutePath().toString());
+                request.setAttribute(SENDFILE_START, start);
+                request.setAttribute(SENDFILE_END, start + length);
+                return;
+            }
+            WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+            long position = start;
+            long remaining = length;
+            while (remaining > 0) {
+                long transferred = channel.transferTo(position, remaining, out);
+                if (transferred <= 0) {
+                    throw new IOException("图像文件在写出过程中被截断: " + image.id());
+                }
+                position += transferred;
+                remaining -= transferred;
+            }
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.springai.springaiimageextision.core.application.dto;
+
+import com.springai.springaiimageextision.core.custom.option.EnhancedImageOptions;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * 批量生成请求
+ *
+ * @author 王玉涛
+ * @version 1.0
+ * @since 2025/10/1
+ */
+@Data
+public class ImageBatchRequest {
+
+    /**
+     * 条目未指定模型时使用的模型名称
+     */
+    private String model;
+
+    /**
+     * 并发度，为null时使用配置的默认值
+     */
+    private Integer parallelism;
+
+    /**
+     * 批量生成的条目，每个条目包含提示词及需要覆盖的选项
+     */
+    private List<EnhancedImageOptions> items;
+}
@@ -0,0 +1,38 @@
+package com.springai.springaiimageextision.core.application.dto;
+
+import com.springai.springaiimageextision.core.client.SolitaireStep;
+import com.springai.springaiimageextision.core.custom.job.ImageJob;
+import com.springai.springaiimageextision.core.custom.job.ImageJobStatus;
+
+import java.util.List;
+
+/**
+ * 任务状态视图，不包含起始图像等大字段
+ *
+ * @param id             任务标识
+ * @param status         任务状态
+ * @param step           接龙步数
+ * @param completedSteps 已完成的步骤数（从文本开始时包含第0步）
+ * @param steps          已完成步骤的结果
+ * @param error          失败原因
+ * @param createdAt      创建时间（毫秒时间戳）
+ * @param updatedAt      最后一次状态变化的时间（毫秒时间戳）
+ * @author 王玉涛
+ * @version 1.0
+ * @since 2025/10/1
+ */
+public record ImageJobView(String id, ImageJobStatus status, int step, int completedSteps,
+                           List<SolitaireStep> steps, String error, long createdAt, long updatedAt) {
+
+    /**
+     * 根据任务快照创建视图
+     *
+     * @param job 任务快照
+     * @return 任务状态视图
+     */
+    public static ImageJobView of(ImageJob job) {
+        List<SolitaireStep> steps = job.getSteps() == null ? List.of() : job.getSteps();
+        return new ImageJobView(job.getId(), job.getStatus(), job.getStep(), steps.size(), steps, job.getError(),
+                job.getCreatedAt(), job.getUpdatedAt());
+    }
+}
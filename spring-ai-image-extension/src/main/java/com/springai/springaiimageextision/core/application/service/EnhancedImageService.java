@@ -1,17 +1,35 @@
 package com.springai.springaiimageextision.core.application.service;
 
+import com.springai.springaiimageextision.core.application.dto.ImageBatchRequest;
+import com.springai.springaiimageextision.core.client.BatchItemResult;
 import com.springai.springaiimageextision.core.client.EnhancedImageClient;
+import com.springai.springaiimageextision.core.client.SolitaireStep;
+import com.springai.springaiimageextision.core.custom.bean.ImageBatchProperties;
+import com.springai.springaiimageextision.core.custom.option.EnhancedImageOptions;
+import com.springai.springaiimageextision.core.custom.option.ImageSource;
+import com.springai.springaiimageextision.core.custom.schedule.RequestPriority;
 import com.springai.springaiimageextision.core.util.ImageUtils;
 import lombok.RequiredArgsConstructor;
 import lombok.SneakyThrows;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.ai.image.Image;
+import org.springframework.http.MediaType;
 import org.springframework.stereotype.Service;
+import org.springframework.util.Assert;
+import org.springframework.util.CollectionUtils;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
-import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
 
 /**
  * @author 王玉涛
@@ -23,8 +41,20 @@ import java.util.Objects;
 @RequiredArgsConstructor
 public class EnhancedImageService {
 
+    /**
+     * 流式图像接龙的SSE连接超时时间（毫秒），7步接龙可能持续数分钟
+     */
+    private static final long SOLITAIRE_STREAM_TIMEOUT = 30 * 60 * 1000L;
+
+    /**
+     * 批量生成的SSE连接超时时间（毫秒），数百张图像可能持续较长时间
+     */
+    private static final long BATCH_STREAM_TIMEOUT = 60 * 60 * 1000L;
+
     private final EnhancedImageClient enhancedImageClient;
 
+    private final ImageBatchProperties batchProperties;
+
     /**
      * 根据文本生成图像
      *
@@ -53,14 +83,11 @@ public class EnhancedImageService {
 
         log.info("imageToImage: {}", file.getOriginalFilename());
 
-        File imageFile = ImageUtils.convertToFile(file);
-
-        String convert = ImageUtils.convert(imageFile);
-
+        // 请求体写出时直接从上传文件流式编码，不生成临时文件与完整的Base64字符串
         return enhancedImageClient
                 .param()
                 .model("Qwen/Qwen-Image-Edit")
-                .image(convert)
+                .image(ImageSource.ofMultipart(file))
                 .prompt(prompt)
                 .output();
     }
@@ -81,16 +108,21 @@ public class EnhancedImageService {
 
         // 初始化结果列表，首先添加根据文本生成的第一张图像
         List<String> arrayList = new ArrayList<>();
-        arrayList.add(enhancedImageClient.param().model("Qwen/Qwen-Image").prompt(prompt).output());
+        // 文生图与后续接龙固定到同一个端点
+        String affinityKey = UUID.randomUUID().toString();
+        Image output = enhancedImageClient.param().model("Qwen/Qwen-Image").prompt(prompt).affinityKey(affinityKey)
+                .priority(RequestPriority.BATCH)
+                .call().getResult().getOutput();
+        arrayList.add(output.getUrl());
         log.info("文生图结果: {}", arrayList);
 
-        File imageAsUrl = ImageUtils.createImageAsUrl(arrayList.get(0));
-
         log.info("图生图接龙开始: {}", prompts);
         // 基于基础图像和提示列表进行连续图像生成，并将结果添加到列表中
         arrayList.addAll(enhancedImageClient.param()
                 .model("Qwen/Qwen-Image-Edit")
-                .image(ImageUtils.convert(imageAsUrl))
+                .image(enhancedImageClient.chainImage(output, null))
+                .affinityKey(affinityKey)
+                .priority(RequestPriority.BATCH)
                 .solitaire(step, prompts));
         
         return arrayList;
@@ -115,16 +147,207 @@ public class EnhancedImageService {
             prompts.add(prompt);
         }
 
-        // 将上传的图像文件转换为文件对象
-        File file = ImageUtils.convertToFile(image);
-
-        // 基于图像和提示列表进行连续图像生成
+        // 基于上传的图像和提示列表进行连续图像生成，首步直接从上传文件流式编码
         List<String> solitaire = enhancedImageClient.param()
                 .model("Qwen/Qwen-Image-Edit")
-                .image(ImageUtils.convert(file))
+                .image(ImageSource.ofMultipart(image))
+                .priority(RequestPriority.BATCH)
                 .solitaire(step, prompts);
         log.info("图生图结果: {}", solitaire);
 
         return solitaire;
     }
+
+    /**
+     * 以SSE方式流式返回图像接龙结果
+     * 每完成一步立即推送一个 step 事件（包含URL、提示词与耗时），全部完成后推送 complete 事件，
+     * 出错时推送 error 事件。从文本开始时，文生图的起始图像作为第0步推送。
+     * 客户端断开或连接超时会取消仍在执行的接龙。
+     *
+     * @param file    可选的基础图像文件，为空时从文本开始接龙
+     * @param prompt  初始文本提示，提示列表为空时作为每一步的提示词
+     * @param prompts 图像编辑提示列表，用于连续生成图像
+     * @param step    接龙步数，控制生成图像的数量
+     * @return SSE发射器
+     */
+    @SneakyThrows
+    public SseEmitter solitaireStream(MultipartFile file, String prompt, List<String> prompts, int step) {
+        List<String> stepPrompts = CollectionUtils.isEmpty(prompts) ? List.of(prompt) : prompts;
+        log.info("流式图像接龙开始: {}", stepPrompts);
+
+        // 上传文件只在当前请求内有效，需要在进入异步流程前完成转换
+        String startImage = toStartImage(file);
+
+        SseEmitter emitter = new SseEmitter(SOLITAIRE_STREAM_TIMEOUT);
+        CompletableFuture<Void> future = enhancedImageClient.supplyAsync(() -> {
+            try {
+                solitaire(startImage, prompt, stepPrompts, step,
+                        solitaireStep -> sendEvent(emitter, "step", solitaireStep));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return null;
+        }, null);
+
+        future.whenComplete((result, ex) -> {
+            if (Objects.isNull(ex)) {
+                trySendEvent(emitter, "complete", Map.of("step", step));
+                emitter.complete();
+            } else if (!future.isCancelled()) {
+                log.error("流式图像接龙失败", ex);
+                trySendEvent(emitter, "error", Map.of("message", String.valueOf(ex.getMessage())));
+                emitter.complete();
+            }
+        });
+        emitter.onTimeout(() -> future.cancel(true));
+        emitter.onError(ex -> future.cancel(true));
+        emitter.onCompletion(() -> future.cancel(true));
+        return emitter;
+    }
+
+    /**
+     * 以SSE方式流式返回批量生成结果
+     * 条目以有限并发度执行，每完成一个条目立即推送一个 item 事件（包含序号、URL或失败原因与耗时），
+     * 单个条目失败不影响其他条目，全部完成后推送包含成功与失败数量的 complete 事件。
+     * 客户端断开或连接超时会取消仍在执行的条目。
+     *
+     * @param request 批量生成请求
+     * @return SSE发射器
+     */
+    public SseEmitter batchStream(ImageBatchRequest request) {
+        Assert.notEmpty(request.getItems(), "items 列表不能为空");
+        Assert.isTrue(request.getItems().size() <= batchProperties.getMaxItems(),
+                "items 数量不能超过 " + batchProperties.getMaxItems());
+        int parallelism = Objects.isNull(request.getParallelism()) ? batchProperties.getParallelism()
+                : Math.min(request.getParallelism(), batchProperties.getMaxParallelism());
+        Assert.isTrue(parallelism > 0, "parallelism 必须大于 0");
+
+        String model = Objects.isNull(request.getModel()) ? "Qwen/Qwen-Image" : request.getModel();
+        List<EnhancedImageOptions> items = new ArrayList<>(request.getItems().size());
+        for (EnhancedImageOptions item : request.getItems()) {
+            Assert.notNull(item, "item 不得为 null");
+            Assert.hasText(item.getPrompt(), "prompt 不能为空");
+            if (Objects.isNull(item.getModel())) {
+                item.setModel(model);
+            }
+            items.add(item);
+        }
+        log.info("批量生成开始: {} 条, 并发度: {}", items.size(), parallelism);
+
+        SseEmitter emitter = new SseEmitter(BATCH_STREAM_TIMEOUT);
+        AtomicInteger failed = new AtomicInteger();
+        // 条目完成时才提交下一个条目，不会有线程阻塞等待同一执行器上的条目
+        CompletableFuture<Void> future = enhancedImageClient.batchAsync(items, parallelism, (BatchItemResult result) -> {
+            if (Objects.nonNull(result.error())) {
+                failed.incrementAndGet();
+            }
+            sendEvent(emitter, "item", result);
+        });
+
+        future.whenComplete((result, ex) -> {
+            if (Objects.isNull(ex)) {
+                log.info("批量生成完成: {} 条, 失败: {}", items.size(), failed.get());
+                trySendEvent(emitter, "complete", Map.of("total", items.size(),
+                        "succeeded", items.size() - failed.get(), "failed", failed.get()));
+                emitter.complete();
+            } else if (!future.isCancelled()) {
+                log.error("批量生成失败", ex);
+                trySendEvent(emitter, "error", Map.of("message", String.valueOf(ex.getMessage())));
+                emitter.complete();
+            }
+        });
+        emitter.onTimeout(() -> future.cancel(true));
+        emitter.onError(ex -> future.cancel(true));
+        emitter.onCompletion(() -> future.cancel(true));
+        return emitter;
+    }
+
+    /**
+     * 执行一次完整的图像接龙，每完成一步立即回调
+     * 没有起始图像时先根据文本生成起始图像，并作为第0步回调；文生图与后续接龙固定到同一个端点
+     *
+     * @param image    起始图像（Base64数据URL），为null时从文本开始接龙
+     * @param prompt   初始文本提示
+     * @param prompts  图像编辑提示列表
+     * @param step     接龙步数
+     * @param listener 每一步完成后的回调
+     * @throws IOException 当下载或转换图像失败时抛出
+     */
+    public void solitaire(String image, String prompt, List<String> prompts, int step,
+                          Consumer<SolitaireStep> listener) throws IOException {
+        String affinityKey = UUID.randomUUID().toString();
+        String solitaireImage = Objects.isNull(image) ? textStartImage(prompt, affinityKey, listener) : image;
+        enhancedImageClient.param()
+                .model("Qwen/Qwen-Image-Edit")
+                .image(solitaireImage)
+                .affinityKey(affinityKey)
+                .priority(RequestPriority.BATCH)
+                .solitaire(step, prompts, listener);
+    }
+
+    /**
+     * 将上传的图像文件转换为接龙的起始图像
+     * 上传文件只在当前请求内有效，需要在进入异步流程前完成转换
+     *
+     * @param file 上传的图像文件，可以为null
+     * @return Base64数据URL，文件为null时返回null
+     * @throws IOException 当读取或转换图像失败时抛出
+     */
+    public String toStartImage(MultipartFile file) throws IOException {
+        if (Objects.isNull(file)) {
+            return null;
+        }
+        ImageUtils.isImage(file.getOriginalFilename(), true);
+        return ImageSource.ofMultipart(file).toDataUrl();
+    }
+
+    /**
+     * 根据文本生成接龙的起始图像，并作为第0步回调
+     *
+     * @param prompt      文本提示
+     * @param affinityKey 端点亲和键，与后续接龙保持一致
+     * @param listener    每一步完成后的回调
+     * @return 可作为接龙输入的起始图像（按衔接方式为URL或Base64数据URL）
+     * @throws IOException 当下载或转换图像失败时抛出
+     */
+    private String textStartImage(String prompt, String affinityKey, Consumer<SolitaireStep> listener)
+            throws IOException {
+        long startedAt = System.currentTimeMillis();
+        Image output = enhancedImageClient.param().model("Qwen/Qwen-Image").prompt(prompt).affinityKey(affinityKey)
+                .priority(RequestPriority.BATCH)
+                .call().getResult().getOutput();
+        listener.accept(new SolitaireStep(0, output.getUrl(), prompt, startedAt,
+                System.currentTimeMillis() - startedAt));
+        return enhancedImageClient.chainImage(output, null);
+    }
+
+    /**
+     * 推送SSE事件，推送失败（通常是客户端已断开）时中止当前流程
+     *
+     * @param emitter SSE发射器
+     * @param name    事件名称
+     * @param data    事件数据
+     */
+    private void sendEvent(SseEmitter emitter, String name, Object data) {
+        try {
+            emitter.send(SseEmitter.event().name(name).data(data, MediaType.APPLICATION_JSON));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * 尝试推送SSE事件，忽略推送失败
+     *
+     * @param emitter SSE发射器
+     * @param name    事件名称
+     * @param data    事件数据
+     */
+    private void trySendEvent(SseEmitter emitter, String name, Object data) {
+        try {
+            emitter.send(SseEmitter.event().name(name).data(data, MediaType.APPLICATION_JSON));
+        } catch (IOException | IllegalStateException e) {
+            log.debug("推送SSE事件失败: {}", name, e);
+        }
+    }
 }
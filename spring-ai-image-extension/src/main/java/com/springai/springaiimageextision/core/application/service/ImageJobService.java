@@ -0,0 +1,249 @@
+package com.springai.springaiimageextision.core.application.service;
+
+import com.springai.springaiimageextision.core.client.SolitaireStep;
+import com.springai.springaiimageextision.core.custom.bean.ImageJobProperties;
+import com.springai.springaiimageextision.core.custom.job.ImageJob;
+import com.springai.springaiimageextision.core.custom.job.ImageJobStatus;
+import com.springai.springaiimageextision.core.custom.job.ImageJobStore;
+import com.springai.springaiimageextision.core.util.ThreadUtils;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.util.Assert;
+import org.springframework.util.CollectionUtils;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.UnaryOperator;
+
+/**
+ * 异步图像接龙任务服务
+ * 提交后立即返回任务标识，任务在专用执行器上运行，每完成一步就把结果写入任务存储，
+ * 调用方通过轮询获取进度与结果，不需要一直占用HTTP连接
+ *
+ * @author 王玉涛
+ * @version 1.0
+ * @since 2025/10/1
+ */
+@Slf4j
+@Service
+public class ImageJobService {
+
+    private final EnhancedImageService enhancedImageService;
+
+    private final ImageJobStore jobStore;
+
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * 专用执行器，长耗时的任务不会占用同步调用的线程
+     */
+    private final ExecutorService executor;
+
+    /**
+     * 正在排队或执行的任务，用于取消
+     */
+    private final Map<String, Future<?>> running = new ConcurrentHashMap<>();
+
+    /**
+     * 串行化任务快照的更新，持有期间可能写入任务日志，因此不使用 synchronized，避免虚拟线程被固定
+     */
+    private final ReentrantLock updateLock = new ReentrantLock();
+
+    /**
+     * 停机时被中断的任务保持原状态，重启后由日志恢复执行
+     */
+    private volatile boolean shuttingDown;
+
+    public ImageJobService(EnhancedImageService enhancedImageService, ImageJobStore jobStore,
+                           ImageJobProperties jobProperties, MeterRegistry meterRegistry) {
+        this.enhancedImageService = enhancedImageService;
+        this.jobStore = jobStore;
+        this.meterRegistry = meterRegistry;
+        this.executor = ThreadUtils.newTaskExecutor(false, jobProperties.getThreads(), "enhanced-image-job-");
+        meterRegistry.gauge("enhanced.image.job.running", running, Map::size);
+    }
+
+    /**
+     * 提交图像接龙任务
+     *
+     * @param file    可选的起始图像文件，为空时从文本开始接龙
+     * @param prompt  初始文本提示，提示列表为空时作为每一步的提示词
+     * @param prompts 图像编辑提示列表
+     * @param step    接龙步数
+     * @return 已排队的任务
+     * @throws IOException 当读取或转换上传图像失败时抛出
+     */
+    public ImageJob submitSolitaire(MultipartFile file, String prompt, List<String> prompts, int step)
+            throws IOException {
+        Assert.hasText(prompt, "prompt 不能为空");
+        Assert.isTrue(step > 0 && step <= 7, "step 必须大于 0 且小于等于 7");
+        long now = System.currentTimeMillis();
+        ImageJob job = ImageJob.builder()
+                .id(UUID.randomUUID().toString())
+                .status(ImageJobStatus.QUEUED)
+                .prompt(prompt)
+                .prompts(CollectionUtils.isEmpty(prompts) ? List.of(prompt) : List.copyOf(prompts))
+                .step(step)
+                .image(enhancedImageService.toStartImage(file))
+                .steps(List.of())
+                .createdAt(now)
+                .updatedAt(now)
+                .build();
+        jobStore.save(job);
+        schedule(job.getId());
+        log.info("图像接龙任务已提交: {}", job.getId());
+        return job;
+    }
+
+    /**
+     * 查询任务
+     *
+     * @param id 任务标识
+     * @return 任务快照，不存在或已过期时为空
+     */
+    public Optional<ImageJob> find(String id) {
+        return jobStore.find(id);
+    }
+
+    /**
+     * 取消任务，已结束的任务不受影响
+     *
+     * @param id 任务标识
+     * @return 取消后的任务快照，不存在时为空
+     */
+    public Optional<ImageJob> cancel(String id) {
+        complete(id, ImageJobStatus.CANCELLED, null);
+        Future<?> future = running.remove(id);
+        if (Objects.nonNull(future)) {
+            future.cancel(true);
+        }
+        return jobStore.find(id);
+    }
+
+    /**
+     * 启动时恢复存储中未结束的任务，执行中被打断的任务从头开始
+     */
+    @PostConstruct
+    public void recover() {
+        List<ImageJob> unfinished = jobStore.findUnfinished();
+        for (ImageJob job : unfinished) {
+            update(job.getId(), current -> current.toBuilder().status(ImageJobStatus.QUEUED).steps(List.of()).build());
+            schedule(job.getId());
+        }
+        if (!unfinished.isEmpty()) {
+            log.info("恢复 {} 个未完成的图像接龙任务", unfinished.size());
+        }
+    }
+
+    /**
+     * 停机时中断正在执行的任务
+     */
+    @PreDestroy
+    public void shutdown() {
+        shuttingDown = true;
+        executor.shutdownNow();
+    }
+
+    private void schedule(String id) {
+        Future<?> future = executor.submit(() -> run(id));
+        running.put(id, future);
+        // 任务可能在登记之前就已结束
+        if (future.isDone()) {
+            running.remove(id, future);
+        }
+    }
+
+    private void run(String id) {
+        try {
+            Optional<ImageJob> job = update(id, current -> current.getStatus() == ImageJobStatus.QUEUED
+                    ? current.toBuilder().status(ImageJobStatus.RUNNING).build() : current);
+            if (job.isEmpty() || job.get().getStatus() != ImageJobStatus.RUNNING) {
+                return;
+            }
+            ImageJob current = job.get();
+            enhancedImageService.solitaire(current.getImage(), current.getPrompt(), current.getPrompts(),
+                    current.getStep(), step -> appendStep(id, step));
+            complete(id, ImageJobStatus.SUCCEEDED, null);
+        } catch (Throwable ex) {
+            if (shuttingDown) {
+                log.info("停机中断图像接龙任务，重启后恢复: {}", id);
+            } else if (Thread.currentThread().isInterrupted()) {
+                complete(id, ImageJobStatus.CANCELLED, null);
+            } else {
+                log.error("图像接龙任务失败: {}", id, ex);
+                complete(id, ImageJobStatus.FAILED, String.valueOf(ex.getMessage()));
+            }
+        } finally {
+            running.remove(id);
+        }
+    }
+
+    private void appendStep(String id, SolitaireStep step) {
+        update(id, current -> {
+            List<SolitaireStep> steps = new ArrayList<>(current.getSteps());
+            steps.add(step);
+            return current.toBuilder().steps(List.copyOf(steps)).build();
+        });
+    }
+
+    /**
+     * 结束任务并释放起始图像，已结束的任务（例如已被取消）保持原状态
+     *
+     * @param id     任务标识
+     * @param status 结束状态
+     * @param error  失败原因
+     */
+    private void complete(String id, ImageJobStatus status, String error) {
+        updateLock.lock();
+        try {
+            Optional<ImageJob> current = jobStore.find(id);
+            if (current.isEmpty() || current.get().getStatus().isFinished()) {
+                return;
+            }
+            // 起始图像只在执行时需要，结束后释放，存储占用的内存只与已完成步骤的URL有关
+            update(id, job -> job.toBuilder().status(status).error(error).image(null).build());
+            meterRegistry.counter("enhanced.image.job.completed", "status", status.name()).increment();
+        } finally {
+            updateLock.unlock();
+        }
+    }
+
+    /**
+     * 以新快照整体替换任务，执行线程与取消请求之间串行更新
+     *
+     * @param id       任务标识
+     * @param function 根据当前快照生成新快照
+     * @return 更新后的任务快照，不存在时为空
+     */
+    private Optional<ImageJob> update(String id, UnaryOperator<ImageJob> function) {
+        updateLock.lock();
+        try {
+            Optional<ImageJob> current = jobStore.find(id);
+            if (current.isEmpty()) {
+                return current;
+            }
+            ImageJob updated = function.apply(current.get());
+            if (updated == current.get()) {
+                return current;
+            }
+            updated = updated.toBuilder().updatedAt(System.currentTimeMillis()).build();
+            jobStore.save(updated);
+            return Optional.of(updated);
+        } finally {
+            updateLock.unlock();
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.springai.springaiimageextision.core.client;
+
+/**
+ * 批量生成中单个条目的生成结果
+ *
+ * @param index         条目在批量请求中的序号，从0开始
+ * @param prompt        条目使用的提示词
+ * @param url           生成图像的URL，失败时为null
+ * @param error         失败原因，成功时为null
+ * @param startedAt     条目开始时间（毫秒时间戳）
+ * @param elapsedMillis 条目耗时（毫秒）
+ * @author 王玉涛
+ * @version 1.0
+ * @since 2025/10/1
+ */
+public record BatchItemResult(int index, String prompt, String url, String error, long startedAt,
+                              long elapsedMillis) {
+}
@@ -3,19 +3,49 @@ package com.springai.springaiimageextision.core.client;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.springai.springaiimageextision.core.custom.model.EnhancedImageModel;
 import com.springai.springaiimageextision.core.custom.option.EnhancedImageOptions;
+import com.springai.springaiimageextision.core.custom.option.ImageSource;
+import com.springai.springaiimageextision.core.custom.prefetch.ImagePrefetcher;
+import com.springai.springaiimageextision.core.custom.scratch.ScratchFile;
+import com.springai.springaiimageextision.core.custom.scratch.ScratchSpace;
+import com.springai.springaiimageextision.core.custom.schedule.ImageRequestScheduler;
+import com.springai.springaiimageextision.core.custom.schedule.RequestPriority;
+import com.springai.springaiimageextision.core.custom.store.ImageStore;
+import com.springai.springaiimageextision.core.custom.store.StoredImage;
 import com.springai.springaiimageextision.core.util.ImageUtils;
 import com.springai.springaiimageextision.core.util.LoggerUtils;
+import com.springai.springaiimageextision.core.util.ThreadUtils;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
 import lombok.Builder;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.ai.image.Image;
 import org.springframework.ai.image.ImagePrompt;
 import org.springframework.ai.image.ImageResponse;
 import org.springframework.util.Assert;
 
-import java.io.File;
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
 import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 /**
  * @author 王玉涛
@@ -24,10 +54,206 @@ import java.util.List;
  */
 @Slf4j
 @Builder
-@RequiredArgsConstructor
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
 public class EnhancedImageClient {
 
+    private static final Duration DEFAULT_DOWNLOAD_CONNECT_TIMEOUT = Duration.ofSeconds(10);
+
+    private static final Duration DEFAULT_DOWNLOAD_READ_TIMEOUT = Duration.ofSeconds(60);
+
     private final EnhancedImageModel enhancedImageModel;
+
+    /**
+     * 异步调用使用的执行器，未指定时使用所有客户端共享的默认执行器
+     */
+    @Builder.Default
+    private final Executor executor = ThreadUtils.defaultTaskExecutor();
+
+    /**
+     * 异步调用的默认超时时间，为null表示不设置超时
+     */
+    private final Duration timeout;
+
+    /**
+     * 图像接龙默认的步骤衔接方式
+     */
+    @Builder.Default
+    private final SolitaireChainMode chainMode = SolitaireChainMode.DOWNLOAD;
+
+    /**
+     * 请求调度器，为null时不做并发隔离与优先级调度
+     */
+    private final ImageRequestScheduler scheduler;
+
+    /**
+     * 接龙下载中间图像使用的临时文件空间，为null时下载到内存
+     */
+    private final ScratchSpace scratchSpace;
+
+    /**
+     * 按内容寻址的本地图像存储，为null时每次读取都重新下载
+     */
+    private final ImageStore imageStore;
+
+    /**
+     * 图像预取器，不为null时通过预取器读取存储中的图像，等待进行中的预取而不是重复下载
+     */
+    private final ImagePrefetcher imagePrefetcher;
+
+    /**
+     * 下载图像时建立连接的超时时间
+     */
+    @Builder.Default
+    private final Duration downloadConnectTimeout = DEFAULT_DOWNLOAD_CONNECT_TIMEOUT;
+
+    /**
+     * 下载图像时两次读取之间的超时时间
+     */
+    @Builder.Default
+    private final Duration downloadReadTimeout = DEFAULT_DOWNLOAD_READ_TIMEOUT;
+
+    /**
+     * 使用共享的默认执行器创建客户端
+     *
+     * @param enhancedImageModel 增强图像模型
+     */
+    public EnhancedImageClient(EnhancedImageModel enhancedImageModel) {
+        this(enhancedImageModel, ThreadUtils.defaultTaskExecutor(), null, SolitaireChainMode.DOWNLOAD, null, null,
+                null, null, DEFAULT_DOWNLOAD_CONNECT_TIMEOUT, DEFAULT_DOWNLOAD_READ_TIMEOUT);
+    }
+
+    /**
+     * 将一次生成的输出图像转换为下一次生成的输入图像
+     * 
+     * @param output 生成的输出图像
+     * @param chainMode 衔接方式，为null时使用客户端默认值
+     * @return 可作为 image 参数的图像数据（URL或Base64数据URL）
+     * @throws IOException 当需要下载图像且下载失败时抛出
+     */
+    public String chainImage(Image output, SolitaireChainMode chainMode) throws IOException {
+        Assert.notNull(output, "output 不得为 null");
+        SolitaireChainMode mode = Objects.nonNull(chainMode) ? chainMode : this.chainMode;
+        String url = output.getUrl();
+        String b64Json = output.getB64Json();
+
+        // 没有URL时只能复用响应中的Base64数据
+        if (Objects.isNull(url)) {
+            return ImageUtils.toDataUrl(b64Json);
+        }
+        switch (mode) {
+            case URL_PASSTHROUGH:
+                return url;
+            case B64_JSON:
+                if (Objects.nonNull(b64Json)) {
+                    return ImageUtils.toDataUrl(b64Json);
+                }
+                return downloadAsDataUrl(url);
+            default:
+                return downloadAsDataUrl(url);
+        }
+    }
+
+    /**
+     * 下载图像作为输入图像来源
+     * 
+     * 配置了本地图像存储时优先读取存储，未命中时下载并写入存储；
+     * 否则配置了临时文件空间时写入受管理的临时文件，关闭来源即删除文件；都未配置时保存在内存中。
+     * 
+     * @param url 图像URL
+     * @return 输入图像来源，使用完毕后需要关闭
+     * @throws IOException 当下载失败时抛出
+     */
+    public ImageSource downloadImage(String url) throws IOException {
+        Assert.hasText(url, "url 不得为空");
+        if (Objects.nonNull(this.imageStore)) {
+            return storeUrl(url).asImageSource();
+        }
+        String fileType = ImageUtils.getUrlFileType(url);
+        String mimeType = "image/" + fileType;
+        try (InputStream in = openDownload(url)) {
+            if (Objects.isNull(this.scratchSpace)) {
+                return ImageSource.ofByteBuffer(ByteBuffer.wrap(in.readAllBytes()), mimeType);
+            }
+            try (ScratchFile file = this.scratchSpace.write(in, "." + fileType)) {
+                return file.asImageSource(mimeType);
+            }
+        }
+    }
+
+    /**
+     * 将生成的输出图像写入本地图像存储，相同内容只保存一份
+     * 
+     * 有Base64数据时直接解码写入，否则读取存储中此前下载的图像，未命中时下载并写入。
+     * 
+     * @param output 生成的输出图像
+     * @return 存储的图像
+     * @throws IOException 当下载或写入失败时抛出
+     */
+    public StoredImage storeImage(Image output) throws IOException {
+        Assert.notNull(output, "output 不得为 null");
+        Assert.state(Objects.nonNull(this.imageStore), "未启用本地图像存储");
+        if (Objects.nonNull(output.getB64Json())) {
+            String dataUrl = ImageUtils.toDataUrl(output.getB64Json());
+            String mimeType = dataUrl.substring("data:".length(), dataUrl.indexOf(';'));
+            try (InputStream in = new ByteArrayInputStream(Base64.getDecoder().decode(output.getB64Json()))) {
+                return this.imageStore.put(output.getUrl(), in, mimeType);
+            }
+        }
+        Assert.notNull(output.getUrl(), "output 既没有 url 也没有 b64Json");
+        return storeUrl(output.getUrl());
+    }
+
+    /**
+     * 读取本地图像存储中此前下载或预取的图像，未命中时下载并写入
+     * 
+     * @param url 图像URL
+     * @return 存储的图像
+     * @throws IOException 当下载或写入失败时抛出
+     */
+    private StoredImage storeUrl(String url) throws IOException {
+        if (Objects.nonNull(this.imagePrefetcher)) {
+            return this.imagePrefetcher.fetch(url);
+        }
+        Optional<StoredImage> stored = this.imageStore.getByUrl(url);
+        if (stored.isPresent()) {
+            return stored.get();
+        }
+        try (InputStream in = openDownload(url)) {
+            return this.imageStore.put(url, in, "image/" + ImageUtils.getUrlFileType(url));
+        }
+    }
+
+    private InputStream openDownload(String url) throws IOException {
+        return ImageUtils.openStream(url, this.downloadConnectTimeout, this.downloadReadTimeout);
+    }
+
+    /**
+     * 判断接龙的下一步是否需要下载上一步的图像
+     * 
+     * @param output 上一步生成的输出图像
+     * @param chainMode 衔接方式，为null时使用客户端默认值
+     * @return 需要下载时返回true
+     */
+    private boolean requiresDownload(Image output, SolitaireChainMode chainMode) {
+        SolitaireChainMode mode = Objects.nonNull(chainMode) ? chainMode : this.chainMode;
+        if (Objects.isNull(output.getUrl()) || mode == SolitaireChainMode.URL_PASSTHROUGH) {
+            return false;
+        }
+        return mode != SolitaireChainMode.B64_JSON || Objects.isNull(output.getB64Json());
+    }
+
+    /**
+     * 下载图像并转换为Base64数据URL，下载使用的临时资源在返回前释放
+     * 
+     * @param url 图像URL
+     * @return 图像的Base64数据URL
+     * @throws IOException 当下载失败时抛出
+     */
+    private String downloadAsDataUrl(String url) throws IOException {
+        try (ImageSource source = downloadImage(url)) {
+            return source.toDataUrl();
+        }
+    }
     
     /**
      * 创建参数构建器实例
@@ -38,6 +264,148 @@ public class EnhancedImageClient {
         return new ParamBuilder();
     }
     
+    /**
+     * 在客户端执行器上异步执行任务，适用于需要组合多次生成调用的长耗时流程
+     * 
+     * @param <T> 结果类型
+     * @param supplier 需要执行的任务
+     * @param timeout 超时时间，为null时不设置超时
+     * @return 异步结果，取消或超时会中断正在执行的任务
+     */
+    public <T> CompletableFuture<T> supplyAsync(Supplier<T> supplier, Duration timeout) {
+        return ThreadUtils.supplyCancellable(supplier, this.executor, timeout);
+    }
+
+    /**
+     * 以有限并发度批量生成图像，每个条目完成后立即回调，阻塞直到所有条目完成
+     * 
+     * 调用线程被中断时取消剩余条目并抛出 {@link CancellationException}。
+     * 
+     * @param items 批量生成的条目，每个条目是一组完整的图像选项
+     * @param parallelism 同时执行的最大条目数
+     * @param listener 每个条目完成后的回调
+     * @see #batchAsync(List, int, Consumer)
+     */
+    public void batch(List<EnhancedImageOptions> items, int parallelism, Consumer<BatchItemResult> listener) {
+        CompletableFuture<Void> batch = batchAsync(items, parallelism, listener);
+        try {
+            batch.get();
+        } catch (InterruptedException e) {
+            batch.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new CancellationException("批量生成已取消");
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof RuntimeException runtimeException ? runtimeException
+                    : new CompletionException(e.getCause());
+        }
+    }
+
+    /**
+     * 以有限并发度异步批量生成图像，每个条目完成后立即回调
+     * 
+     * 所有条目都走批量优先级通道，单个条目失败只会体现在该条目的结果中，不影响其他条目。
+     * 每个条目完成后才提交下一个条目，不占用任何线程等待，因此可以在客户端执行器上调用而不会耗尽执行器。
+     * 回调按完成顺序串行执行；回调抛出异常时返回的Future以该异常失败，并取消剩余条目。
+     * 取消返回的Future同样会取消剩余条目。
+     * 
+     * @param items 批量生成的条目，每个条目是一组完整的图像选项
+     * @param parallelism 同时执行的最大条目数
+     * @param listener 每个条目完成后的回调
+     * @return 所有条目完成后完成的Future
+     */
+    public CompletableFuture<Void> batchAsync(List<EnhancedImageOptions> items, int parallelism,
+                                              Consumer<BatchItemResult> listener) {
+        Assert.notEmpty(items, "items 列表不能为空");
+        Assert.isTrue(parallelism > 0, "parallelism 必须大于 0");
+        Assert.notNull(listener, "listener 不得为 null");
+
+        log.info("batch: {} items, parallelism: {}", items.size(), parallelism);
+        BatchRun run = new BatchRun(List.copyOf(items), listener);
+        for (int i = 0; i < Math.min(parallelism, items.size()); i++) {
+            run.submitNext();
+        }
+        return run.result;
+    }
+
+    /**
+     * 一次批量生成的执行状态，条目完成时在回调中提交下一个条目
+     */
+    private final class BatchRun {
+
+        private final List<EnhancedImageOptions> items;
+
+        private final Consumer<BatchItemResult> listener;
+
+        private final CompletableFuture<Void> result = new CompletableFuture<>();
+
+        private final Queue<CompletableFuture<String>> calls = new ConcurrentLinkedQueue<>();
+
+        private final AtomicInteger next = new AtomicInteger();
+
+        private final AtomicInteger remaining;
+
+        /**
+         * 回调可能执行网络IO（例如推送SSE），使用可重入锁而非 synchronized，避免虚拟线程被固定
+         */
+        private final ReentrantLock listenerLock = new ReentrantLock();
+
+        private BatchRun(List<EnhancedImageOptions> items, Consumer<BatchItemResult> listener) {
+            this.items = items;
+            this.listener = listener;
+            this.remaining = new AtomicInteger(items.size());
+            // 回调失败或被取消时取消仍在执行的条目
+            this.result.whenComplete((ignored, ex) -> {
+                if (Objects.nonNull(ex)) {
+                    calls.forEach(call -> call.cancel(true));
+                }
+            });
+        }
+
+        private void submitNext() {
+            int index = next.getAndIncrement();
+            if (index >= items.size() || result.isDone()) {
+                return;
+            }
+            EnhancedImageOptions options = items.get(index);
+            long startedAt = System.currentTimeMillis();
+            CompletableFuture<String> call = ThreadUtils.supplyCancellable(
+                    () -> outputUrl(EnhancedImageClient.this.call(RequestPriority.BATCH, options)),
+                    executor, timeout);
+            calls.add(call);
+            // 提交期间批量已结束时，结束回调可能已经遍历过条目列表
+            if (result.isDone()) {
+                call.cancel(true);
+                return;
+            }
+            // 条目失败只记录在结果中，不会让整个批量失败
+            call.whenComplete((url, ex) -> {
+                calls.remove(call);
+                complete(new BatchItemResult(index, options.getPrompt(), url, errorMessage(ex),
+                        startedAt, System.currentTimeMillis() - startedAt));
+            });
+        }
+
+        private void complete(BatchItemResult itemResult) {
+            if (result.isDone()) {
+                return;
+            }
+            listenerLock.lock();
+            try {
+                listener.accept(itemResult);
+            } catch (RuntimeException e) {
+                result.completeExceptionally(e);
+                return;
+            } finally {
+                listenerLock.unlock();
+            }
+            if (remaining.decrementAndGet() == 0) {
+                result.complete(null);
+            } else {
+                submitNext();
+            }
+        }
+    }
+    
     /**
      * 参数构建器类，用于链式设置图像生成的各种参数
      */
@@ -62,6 +430,8 @@ public class EnhancedImageClient {
         private String user;
         /** 输入图像（用于图像变换等操作） */
         private String image;
+        /** 输入图像来源，与 image 互斥，请求体写出时流式编码 */
+        private ImageSource imageSource;
         /** 图像生成提示词 */
         private String prompt;
         /** 负面提示词，指定不希望出现在图像中的内容 */
@@ -74,6 +444,14 @@ public class EnhancedImageClient {
         private Double cfg;
         /** 推理步数，控制生成过程的迭代次数 */
         private Integer inferenceSteps;
+        /** 异步调用的超时时间，为null时使用客户端默认值 */
+        private Duration timeout;
+        /** 图像接龙的步骤衔接方式，为null时使用客户端默认值 */
+        private SolitaireChainMode chainMode;
+        /** 端点亲和键，配置了多个端点时相同亲和键的请求尽量路由到同一端点 */
+        private String affinityKey;
+        /** 请求优先级，接龙等长耗时流程应使用批量通道 */
+        private RequestPriority priority = RequestPriority.INTERACTIVE;
         
         /**
          * 设置生成图像数量
@@ -182,6 +560,21 @@ public class EnhancedImageClient {
          */
         public ParamBuilder image(String image) {
             this.image = image;
+            this.imageSource = null;
+            return this;
+        }
+
+        /**
+         * 设置输入图像来源
+         * 
+         * 图像内容在写出请求体时才从来源中读取并编码，不会生成完整的Base64字符串，适合大尺寸的输入图像。
+         * 
+         * @param imageSource 输入图像来源（文件、输入流或字节缓冲区）
+         * @return 参数构建器实例
+         */
+        public ParamBuilder image(ImageSource imageSource) {
+            this.imageSource = imageSource;
+            this.image = null;
             return this;
         }
         
@@ -251,6 +644,51 @@ public class EnhancedImageClient {
             return this;
         }
         
+        /**
+         * 设置异步调用的超时时间
+         * 
+         * @param timeout 超时时间，超时后正在执行的请求会被中断
+         * @return 参数构建器实例
+         */
+        public ParamBuilder timeout(Duration timeout) {
+            this.timeout = timeout;
+            return this;
+        }
+        
+        /**
+         * 设置图像接龙的步骤衔接方式
+         * 
+         * @param chainMode 衔接方式，URL_PASSTHROUGH 与 B64_JSON 可跳过每一步的下载与重新编码
+         * @return 参数构建器实例
+         */
+        public ParamBuilder chainMode(SolitaireChainMode chainMode) {
+            this.chainMode = chainMode;
+            return this;
+        }
+
+        /**
+         * 设置端点亲和键，配置了多个端点时相同亲和键的请求尽量路由到同一端点
+         * 
+         * @param affinityKey 亲和键
+         * @return 参数构建器实例
+         */
+        public ParamBuilder affinityKey(String affinityKey) {
+            this.affinityKey = affinityKey;
+            return this;
+        }
+
+        /**
+         * 设置请求优先级，配置了调度器时按优先级通道排队
+         * 
+         * @param priority 请求优先级
+         * @return 参数构建器实例
+         */
+        public ParamBuilder priority(RequestPriority priority) {
+            Assert.notNull(priority, "priority 不得为 null");
+            this.priority = priority;
+            return this;
+        }
+        
         /**
          * 执行图像生成请求并返回完整响应
          * 
@@ -271,8 +709,52 @@ public class EnhancedImageClient {
             return this.call(imageOptions).getResult().getOutput().getUrl();
         }
 
+        /**
+         * 异步执行图像生成请求并返回完整响应
+         * 
+         * 调用时立即固化当前参数，后续对构建器的修改不会影响本次请求。
+         * 取消返回的Future或超时都会中断正在执行的请求。
+         * 
+         * @return 包含生成图像信息的完整响应对象的Future
+         */
+        public CompletableFuture<ImageResponse> callAsync() {
+            EnhancedImageOptions imageOptions = buildOptions();
+            return ThreadUtils.supplyCancellable(() -> this.call(imageOptions),
+                    EnhancedImageClient.this.executor, resolveTimeout());
+        }
+
+        /**
+         * 异步执行图像生成请求并返回图像URL
+         * 
+         * @return 生成图像的访问URL的Future
+         */
+        public CompletableFuture<String> outputAsync() {
+            EnhancedImageOptions imageOptions = buildOptions();
+            return ThreadUtils.supplyCancellable(() -> this.call(imageOptions).getResult().getOutput().getUrl(),
+                    EnhancedImageClient.this.executor, resolveTimeout());
+        }
+
 
 
+        /**
+         * 使用当前设置的参数为每个提示词生成一张图像，以有限并发度批量执行
+         * 
+         * @param prompts 提示词列表，每个提示词对应一个条目
+         * @param parallelism 同时执行的最大条目数
+         * @param listener 每个条目完成后的回调
+         * @see EnhancedImageClient#batch(List, int, Consumer)
+         */
+        public void batch(List<String> prompts, int parallelism, Consumer<BatchItemResult> listener) {
+            Assert.notEmpty(prompts, "prompts 列表不能为空");
+            List<EnhancedImageOptions> items = new ArrayList<>(prompts.size());
+            for (String itemPrompt : prompts) {
+                EnhancedImageOptions options = buildOptions();
+                options.setPrompt(itemPrompt);
+                items.add(options);
+            }
+            EnhancedImageClient.this.batch(items, parallelism, listener);
+        }
+
         /**
          * 执行连续图像生成操作（接龙模式）
          * 
@@ -293,28 +775,7 @@ public class EnhancedImageClient {
          * @throws RuntimeException 当图像处理或网络请求出现异常时抛出
          */
         public List<String> solitaire(Integer step) throws IOException {
-            Assert.notNull(this.model, "model 不得为 null");
-            Assert.notNull(this.image, "image 不得为 null");
-            Assert.notNull(step, "step 不得为 null");
-            Assert.isTrue(step > 0 && step <= 7, "step 必须大于 0 且小于等于 7");
-            LoggerUtils.logWarnIfTrue(step > 3, "step 大于 3 时可能会导致生成图像时间大幅增加");
-
-            List<String> solitaire = new ArrayList<>();
-            for (int i = 0; i < step; i++) {
-                
-                // 从第二步开始，将上一步生成的图像作为输入图像
-                if (i != 0) {
-                    String url = solitaire.get(i - 1);
-                    File file = ImageUtils.createImageAsUrl(url);
-                    this.image = ImageUtils.convert(file);
-                }
-                
-                String output = this.output();
-                log.info("step: {}, output: {}", i + 1, output);
-                solitaire.add(output);
-            }
-            log.info("solitaire: {}", solitaire);
-            return solitaire;
+            return this.solitaire(step, Collections.singletonList(this.prompt));
         }
 
 
@@ -339,34 +800,93 @@ public class EnhancedImageClient {
          * @throws RuntimeException 当图像处理或网络请求出现异常时抛出
          */
         public List<String> solitaire(Integer step, List<String> prompts) throws IOException { 
+            List<String> solitaire = new ArrayList<>();
+            this.solitaire(step, prompts, solitaireStep -> solitaire.add(solitaireStep.url()));
+            
+            log.info("solitaire: {}, prompts: {}", solitaire, prompts);
+            return solitaire;
+        }
+
+        /**
+         * 执行连续图像生成操作（接龙模式），每完成一步立即回调
+         * 
+         * 与 {@link #solitaire(Integer, List)} 的生成逻辑一致，但不会在内存中累积结果列表，
+         * 每一步的URL、提示词与耗时在生成后立即交给监听器处理，适用于流式推送场景。
+         * 
+         * @param step 连续生成的步数，必须大于0且小于等于7，建议不超过3步以保证性能
+         * @param prompts 每步使用的提示词列表，不能为空
+         * @param listener 每一步完成后的回调
+         * @throws IllegalArgumentException 当参数不符合要求时抛出
+         * @throws RuntimeException 当图像处理或网络请求出现异常时抛出
+         */
+        public void solitaire(Integer step, List<String> prompts, Consumer<SolitaireStep> listener) throws IOException {
             // 参数验证
             Assert.notNull(this.model, "model 不得为 null");
-            Assert.notNull(this.image, "image 不得为 null");
+            Assert.isTrue(Objects.nonNull(this.image) || Objects.nonNull(this.imageSource), "image 不得为 null");
+            Assert.notNull(step, "step 不得为 null");
             Assert.isTrue(step > 0 && step <= 7, "step 必须大于 0 且小于等于 7");
             Assert.notEmpty(prompts, "prompts 列表不能为空");
+            Assert.notNull(listener, "listener 不得为 null");
             LoggerUtils.logWarnIfTrue(step > 3, "step 大于 3 时可能会导致生成图像时间大幅增加");
-            
-            List<String> solitaire = new ArrayList<>();
-            for (int i = 0; i < step; i++) { 
-                // 从第二步开始，将上一步生成的图像作为输入图像
-                if (i != 0) {
-                    String url = solitaire.get(i - 1);
-                    File file = ImageUtils.createImageAsUrl(url);
-                    this.image = ImageUtils.convert(file);
+
+            // 同一条接龙的各个步骤固定到同一个端点，生成的亲和键只作用于本次接龙
+            String previousAffinityKey = this.affinityKey;
+            if (Objects.isNull(this.affinityKey)) {
+                this.affinityKey = UUID.randomUUID().toString();
+            }
+
+            Image previous = null;
+            // 接龙过程中下载的中间图像，下一步开始前或接龙结束时关闭
+            ImageSource downloaded = null;
+            try {
+                for (int i = 0; i < step; i++) { 
+                    // 从第二步开始，将上一步生成的图像按衔接方式作为输入图像
+                    if (i != 0) {
+                        closeQuietly(downloaded);
+                        downloaded = null;
+                        if (EnhancedImageClient.this.requiresDownload(previous, this.chainMode)) {
+                            downloaded = EnhancedImageClient.this.downloadImage(previous.getUrl());
+                            this.image(downloaded);
+                        }
+                        else {
+                            this.image(EnhancedImageClient.this.chainImage(previous, this.chainMode));
+                        }
+                    }
+                    
+                    // 根据当前步骤选择对应的提示词，如果超出提示词列表长度则使用最后一个提示词
+                    int promptsSize = prompts.size();
+                    this.prompt = prompts.get(Math.min(i, promptsSize - 1));
+                    
+                    // 生成图像并回调结果
+                    long startedAt = System.currentTimeMillis();
+                    Image output = this.call().getResult().getOutput();
+                    long elapsedMillis = System.currentTimeMillis() - startedAt;
+                    String url = Objects.nonNull(output.getUrl()) ? output.getUrl() : ImageUtils.toDataUrl(output.getB64Json());
+                    log.info("step: {}, output: {}, prompt: {}, elapsed: {}ms", i + 1, output.getUrl(), this.prompt, elapsedMillis);
+                    listener.accept(new SolitaireStep(i + 1, url, this.prompt, startedAt, elapsedMillis));
+                    previous = output;
                 }
-                
-                // 根据当前步骤选择对应的提示词，如果超出提示词列表长度则使用最后一个提示词
-                int promptsSize = prompts.size();
-                this.prompt = prompts.get(Math.min(i, promptsSize - 1));
-                
-                // 生成图像并记录结果
-                String output = this.output();
-                log.info("step: {}, output: {}, prompt: {}", i + 1, output, this.prompt);
-                solitaire.add(output);
             }
-            
-            log.info("solitaire: {}, prompts: {}", solitaire, prompts);
-            return solitaire;
+            finally {
+                closeQuietly(downloaded);
+                this.affinityKey = previousAffinityKey;
+            }
+        }
+
+        /**
+         * 关闭接龙下载的中间图像，关闭失败只记录日志
+         * 
+         * @param source 输入图像来源，可以为null
+         */
+        private void closeQuietly(ImageSource source) {
+            if (Objects.isNull(source)) {
+                return;
+            }
+            try {
+                source.close();
+            } catch (IOException e) {
+                log.warn("释放接龙中间图像失败", e);
+            }
         }
 
         /**
@@ -386,23 +906,74 @@ public class EnhancedImageClient {
                     .style(this.style)
                     .user(this.user)
                     .image(this.image)
+                    .imageSource(this.imageSource)
                     .prompt(this.prompt)
                     .negativePrompt(this.negativePrompt)
                     .seed(this.seed)
                     .guidanceScale(this.guidanceScale)
                     .cfg(this.cfg)
                     .inferenceSteps(this.inferenceSteps)
+                    .affinityKey(this.affinityKey)
                     .build();
         }
 
         /**
-         * 调用底层模型执行图像生成
+         * 获取本次异步调用的超时时间，未设置时使用客户端默认值
+         * 
+         * @return 超时时间，可能为null
+         */
+        private Duration resolveTimeout() {
+            return Objects.nonNull(this.timeout) ? this.timeout : EnhancedImageClient.this.timeout;
+        }
+
+        /**
+         * 按当前优先级调用底层模型执行图像生成
          * 
          * @param options 图像生成选项
          * @return 图像响应对象
          */
         private ImageResponse call(EnhancedImageOptions options) {
-            return EnhancedImageClient.this.enhancedImageModel.call(new ImagePrompt(options.getPrompt(), options));
+            return EnhancedImageClient.this.call(this.priority, options);
+        }
+    }
+
+    /**
+     * 调用底层模型执行图像生成，配置了调度器时按优先级通道与模型并发限制排队
+     * 
+     * @param priority 请求优先级
+     * @param options 图像生成选项
+     * @return 图像响应对象
+     */
+    private ImageResponse call(RequestPriority priority, EnhancedImageOptions options) {
+        if (Objects.isNull(this.scheduler)) {
+            return this.enhancedImageModel.call(new ImagePrompt(options.getPrompt(), options));
+        }
+        return this.scheduler.execute(priority, options.getModel(),
+                () -> this.enhancedImageModel.call(new ImagePrompt(options.getPrompt(), options)));
+    }
+
+    /**
+     * 获取响应中的图像地址，没有URL时返回Base64数据URL
+     * 
+     * @param response 图像响应对象
+     * @return 图像URL或Base64数据URL
+     */
+    private static String outputUrl(ImageResponse response) {
+        Image output = response.getResult().getOutput();
+        return Objects.nonNull(output.getUrl()) ? output.getUrl() : ImageUtils.toDataUrl(output.getB64Json());
+    }
+
+    /**
+     * 提取失败原因，展开异步调用包装的异常
+     * 
+     * @param ex 异常，为null表示成功
+     * @return 失败原因，成功时为null
+     */
+    private static String errorMessage(Throwable ex) {
+        if (Objects.isNull(ex)) {
+            return null;
         }
+        Throwable cause = ex instanceof CompletionException && Objects.nonNull(ex.getCause()) ? ex.getCause() : ex;
+        return Objects.nonNull(cause.getMessage()) ? cause.getMessage() : cause.getClass().getSimpleName();
     }
 }
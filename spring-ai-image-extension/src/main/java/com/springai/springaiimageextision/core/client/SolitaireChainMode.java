@@ -0,0 +1,26 @@
+package com.springai.springaiimageextision.core.client;
+
+/**
+ * 图像接龙的步骤衔接方式，决定上一步的生成结果如何作为下一步的输入图像
+ *
+ * @author 王玉涛
+ * @version 1.0
+ * @since 2025/10/1
+ */
+public enum SolitaireChainMode {
+
+    /**
+     * 下载上一步的图像到本地文件，再重新编码为Base64数据URL（兼容所有厂商）
+     */
+    DOWNLOAD,
+
+    /**
+     * 直接将上一步返回的图像URL作为下一步的输入，要求模型支持URL形式的图像输入
+     */
+    URL_PASSTHROUGH,
+
+    /**
+     * 优先复用响应中已有的 b64_json 数据构造数据URL，响应中没有时回退为下载
+     */
+    B64_JSON
+}
@@ -0,0 +1,16 @@
+package com.springai.springaiimageextision.core.client;
+
+/**
+ * 图像接龙中单个步骤的生成结果
+ *
+ * @param step          步骤序号，从1开始
+ * @param url           本步骤生成图像的URL
+ * @param prompt        本步骤使用的提示词
+ * @param startedAt     本步骤开始时间（毫秒时间戳）
+ * @param elapsedMillis 本步骤耗时（毫秒）
+ * @author 王玉涛
+ * @version 1.0
+ * @since 2025/10/1
+ */
+public record SolitaireStep(int step, String url, String prompt, long startedAt, long elapsedMillis) {
+}
@@ -2,15 +2,64 @@ package com.springai.springaiimageextision.core.config;
 
 import com.springai.springaiimageextision.core.client.EnhancedImageClient;
 import com.springai.springaiimageextision.core.custom.api.EnhancedImageApi;
+import com.springai.springaiimageextision.core.custom.api.ImageApiEndpoint;
+import com.springai.springaiimageextision.core.custom.api.ReactiveEnhancedImageApi;
+import com.springai.springaiimageextision.core.custom.bean.ImageAsyncProperties;
+import com.springai.springaiimageextision.core.custom.bean.ImageCacheProperties;
+import com.springai.springaiimageextision.core.custom.bean.ImageHedgeProperties;
+import com.springai.springaiimageextision.core.custom.bean.ImageJobProperties;
+import com.springai.springaiimageextision.core.custom.bean.ImageLoadBalancerProperties;
 import com.springai.springaiimageextision.core.custom.bean.ImageOptionsProperties;
+import com.springai.springaiimageextision.core.custom.bean.ImagePrefetchProperties;
+import com.springai.springaiimageextision.core.custom.bean.ImagePreprocessProperties;
+import com.springai.springaiimageextision.core.custom.bean.ImageRateLimitProperties;
+import com.springai.springaiimageextision.core.custom.bean.ImageResilienceProperties;
+import com.springai.springaiimageextision.core.custom.bean.ImageScratchProperties;
+import com.springai.springaiimageextision.core.custom.bean.ImageSchedulerProperties;
+import com.springai.springaiimageextision.core.custom.bean.ImageSolitaireProperties;
+import com.springai.springaiimageextision.core.custom.bean.ImageStoreProperties;
+import com.springai.springaiimageextision.core.custom.bean.ImageTransportProperties;
+import com.springai.springaiimageextision.core.custom.bean.ImageVirtualThreadProperties;
+import com.springai.springaiimageextision.core.custom.cache.ImageRequestCoalescer;
+import com.springai.springaiimageextision.core.custom.cache.ImageResultCache;
+import com.springai.springaiimageextision.core.custom.hedge.ImageRequestHedger;
+import com.springai.springaiimageextision.core.custom.job.FileImageJobStore;
+import com.springai.springaiimageextision.core.custom.job.ImageJobStore;
+import com.springai.springaiimageextision.core.custom.job.InMemoryImageJobStore;
+import com.springai.springaiimageextision.core.custom.limit.ImageRateLimiter;
 import com.springai.springaiimageextision.core.custom.model.EnhancedImageModel;
+import com.springai.springaiimageextision.core.custom.monitor.VirtualThreadPinningMonitor;
+import com.springai.springaiimageextision.core.custom.observation.EnhancedImageModelObservationConvention;
+import com.springai.springaiimageextision.core.custom.observation.MeteredClientHttpRequestFactory;
 import com.springai.springaiimageextision.core.custom.option.EnhancedImageOptions;
+import com.springai.springaiimageextision.core.custom.resilience.AdaptiveResiliencePolicy;
+import com.springai.springaiimageextision.core.custom.resilience.RetryAfterResponseErrorHandler;
+import com.springai.springaiimageextision.core.custom.schedule.ImageRequestScheduler;
+import com.springai.springaiimageextision.core.custom.prefetch.ImagePrefetcher;
+import com.springai.springaiimageextision.core.custom.preprocess.ImagePreprocessor;
+import com.springai.springaiimageextision.core.custom.scratch.ScratchSpace;
+import com.springai.springaiimageextision.core.custom.store.ImageStore;
+import com.springai.springaiimageextision.core.util.ThreadUtils;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.ai.model.SimpleApiKey;
 import org.springframework.ai.retry.RetryUtils;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.util.StringUtils;
+import org.springframework.web.client.RestClient;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
 
 /**
  * @author 王玉涛
@@ -33,11 +82,107 @@ public class EnhancedImageModelConfig {
      */
     @Value("${spring.ai.openai.base-url}")
     private String baseUrl; 
+
+    /**
+     * 是否启用虚拟线程模式，与 Spring Boot 的 Tomcat 虚拟线程开关保持一致
+     */
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
     
     /**
      * 配置文生图选项：指定模型、推理步数和提示词
      */
     private final ImageOptionsProperties properties;
+
+    /**
+     * 异步调用的执行器配置
+     */
+    private final ImageAsyncProperties asyncProperties;
+
+    /**
+     * 图像接龙配置
+     */
+    private final ImageSolitaireProperties solitaireProperties;
+
+    /**
+     * 生成结果缓存配置
+     */
+    private final ImageCacheProperties cacheProperties;
+
+    /**
+     * HTTP传输层配置
+     */
+    private final ImageTransportProperties transportProperties;
+
+    /**
+     * 客户端限流配置
+     */
+    private final ImageRateLimitProperties rateLimitProperties;
+
+    /**
+     * 容错策略配置
+     */
+    private final ImageResilienceProperties resilienceProperties;
+
+    /**
+     * 对冲请求配置
+     */
+    private final ImageHedgeProperties hedgeProperties;
+
+    /**
+     * 多端点负载均衡配置
+     */
+    private final ImageLoadBalancerProperties loadBalancerProperties;
+
+    /**
+     * 请求调度器配置
+     */
+    private final ImageSchedulerProperties schedulerProperties;
+
+    /**
+     * 异步生成任务配置
+     */
+    private final ImageJobProperties jobProperties;
+
+    /**
+     * 临时文件空间配置
+     */
+    private final ImageScratchProperties scratchProperties;
+
+    /**
+     * 输入图像预处理配置
+     */
+    private final ImagePreprocessProperties preprocessProperties;
+
+    /**
+     * 本地图像存储配置
+     */
+    private final ImageStoreProperties storeProperties;
+
+    /**
+     * 图像预取配置
+     */
+    private final ImagePrefetchProperties prefetchProperties;
+
+    /**
+     * 虚拟线程模式配置
+     */
+    private final ImageVirtualThreadProperties virtualThreadProperties;
+
+    /**
+     * 指标注册表
+     */
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * 观测注册表，图像生成的耗时与结果通过观测记录
+     */
+    private final ObservationRegistry observationRegistry;
+
+    /**
+     * 任务日志的JSON序列化工具
+     */
+    private final ObjectMapper objectMapper;
     
     /**
      * 创建EnhancedImageApi实例
@@ -47,11 +192,65 @@ public class EnhancedImageModelConfig {
      */
     @Bean
     public EnhancedImageApi enhancedImageApi() {
-        log.info("Initializing EnhancedImageApi with baseUrl: {}", baseUrl);
-        return EnhancedImageApi.builder()
+        List<ImageLoadBalancerProperties.Endpoint> configured = loadBalancerProperties.getEndpoints();
+        if (configured.isEmpty()) {
+            return buildEnhancedImageApi(List.of(new ImageApiEndpoint(baseUrl, baseUrl, new SimpleApiKey(apiKey), 1)));
+        }
+
+        List<ImageApiEndpoint> endpoints = new ArrayList<>(configured.size());
+        for (int i = 0; i < configured.size(); i++) {
+            ImageLoadBalancerProperties.Endpoint endpoint = configured.get(i);
+            String endpointBaseUrl = StringUtils.hasText(endpoint.getBaseUrl()) ? endpoint.getBaseUrl() : baseUrl;
+            String endpointApiKey = StringUtils.hasText(endpoint.getApiKey()) ? endpoint.getApiKey() : apiKey;
+            String name = StringUtils.hasText(endpoint.getName()) ? endpoint.getName() : endpointBaseUrl + "#" + i;
+            endpoints.add(new ImageApiEndpoint(name, endpointBaseUrl, new SimpleApiKey(endpointApiKey),
+                    endpoint.getWeight()));
+        }
+        return buildEnhancedImageApi(endpoints);
+    }
+
+    /**
+     * 按传输层、负载均衡与容错配置构建指定端点的EnhancedImageApi
+     *
+     * @param endpoints 端点列表
+     * @return EnhancedImageApi 实例
+     */
+    private EnhancedImageApi buildEnhancedImageApi(List<ImageApiEndpoint> endpoints) {
+        log.info("Initializing EnhancedImageApi with endpoints: {}",
+                endpoints.stream().map(ImageApiEndpoint::name).toList());
+        EnhancedImageApi.Builder builder = EnhancedImageApi.builder()
+                .endpoints(endpoints)
+                .loadBalancingStrategy(loadBalancerProperties.getStrategy())
+                .ejection(loadBalancerProperties.getFailureThreshold(), loadBalancerProperties.getEjectDuration())
+                .meterRegistry(meterRegistry)
+                .restClientBuilder(RestClient.builder()
+                        .requestFactory(new MeteredClientHttpRequestFactory(
+                                HttpTransportFactory.requestFactory(transportProperties, virtualThreads), meterRegistry)));
+        if (resilienceProperties.isEnabled()) {
+            // 自适应容错策略需要区分 429 并读取 Retry-After
+            builder.responseErrorHandler(new RetryAfterResponseErrorHandler());
+        }
+        return builder.build();
+    }
+
+    /**
+     * 创建ReactiveEnhancedImageApi实例
+     * 基于WebClient与Reactor Netty，与图像生成API进行非阻塞通信
+     *
+     * @return ReactiveEnhancedImageApi 实例
+     */
+    @Bean
+    public ReactiveEnhancedImageApi reactiveEnhancedImageApi() {
+        log.info("Initializing ReactiveEnhancedImageApi with baseUrl: {}", baseUrl);
+        ReactiveEnhancedImageApi.Builder builder = ReactiveEnhancedImageApi.builder()
                 .apiKey(apiKey)
                 .baseUrl(baseUrl)
-                .build();
+                .webClientBuilder(WebClient.builder()
+                        .clientConnector(HttpTransportFactory.clientHttpConnector(transportProperties)));
+        if (resilienceProperties.isEnabled()) {
+            builder.errorHandler(RetryAfterResponseErrorHandler::toAiException);
+        }
+        return builder.build();
     }
     
     /**
@@ -94,7 +293,99 @@ public class EnhancedImageModelConfig {
     @Bean
     public EnhancedImageModel enhancedImageModel() {
         log.info("Creating EnhancedImageModel with configured API and options");
-        return new EnhancedImageModel(enhancedImageApi(), enhancedImageOptions(), RetryUtils.DEFAULT_RETRY_TEMPLATE);
+        EnhancedImageModel enhancedImageModel = new EnhancedImageModel(enhancedImageApi(), enhancedImageOptions(),
+                RetryUtils.DEFAULT_RETRY_TEMPLATE, observationRegistry);
+        enhancedImageModel.setObservationConvention(new EnhancedImageModelObservationConvention());
+        enhancedImageModel.setMeterRegistry(meterRegistry);
+        enhancedImageModel.setReactiveImageApi(reactiveEnhancedImageApi());
+        if (cacheProperties.isEnabled()) {
+            log.info("Enabling image result cache with maxSize: {} and ttl: {}",
+                    cacheProperties.getMaxSize(), cacheProperties.getTtl());
+            enhancedImageModel.setResultCache(new ImageResultCache(cacheProperties.getMaxSize(),
+                    cacheProperties.getTtl(), cacheProperties.isRequireSeed(), meterRegistry));
+        }
+        if (cacheProperties.isCoalesce()) {
+            log.info("Enabling coalescing of identical in-flight image requests");
+            enhancedImageModel.setRequestCoalescer(new ImageRequestCoalescer(meterRegistry));
+        }
+        if (rateLimitProperties.isEnabled()) {
+            log.info("Enabling client-side rate limiting with {} rpm by default and {} model overrides",
+                    rateLimitProperties.getRequestsPerMinute(), rateLimitProperties.getModels().size());
+            ImageRateLimiter rateLimiter = new ImageRateLimiter(rateLimitProperties.getRequestsPerMinute(),
+                    rateLimitProperties.getBurst(), rateLimitProperties.getMaxWait(), meterRegistry);
+            rateLimitProperties.getModels().forEach((model, limit) ->
+                    rateLimiter.setModelLimit(model, limit.getRequestsPerMinute(), limit.getBurst()));
+            enhancedImageModel.setRateLimiter(rateLimiter);
+        }
+        if (resilienceProperties.isEnabled()) {
+            log.info("Enabling adaptive resilience policy with maxAttempts: {} and deadline: {}",
+                    resilienceProperties.getMaxAttempts(), resilienceProperties.getDeadline());
+            enhancedImageModel.setResiliencePolicy(AdaptiveResiliencePolicy.builder()
+                    .maxAttempts(resilienceProperties.getMaxAttempts())
+                    .initialBackoff(resilienceProperties.getInitialBackoff())
+                    .maxBackoff(resilienceProperties.getMaxBackoff())
+                    .multiplier(resilienceProperties.getMultiplier())
+                    .maxRetryAfter(resilienceProperties.getMaxRetryAfter())
+                    .deadline(resilienceProperties.getDeadline())
+                    .retryBudgetRatio(resilienceProperties.getRetryBudgetRatio())
+                    .retryBudgetReserve(resilienceProperties.getRetryBudgetReserve())
+                    .failureThreshold(resilienceProperties.getFailureThreshold())
+                    .openDuration(resilienceProperties.getOpenDuration())
+                    .meterRegistry(meterRegistry)
+                    .build());
+        }
+        if (hedgeProperties.isEnabled()) {
+            log.info("Enabling request hedging at p{} with budget: {}%",
+                    hedgeProperties.getPercentile() * 100, hedgeProperties.getBudgetPercent());
+            enhancedImageModel.setRequestHedger(new ImageRequestHedger(enhancedImageHedgeExecutor(),
+                    hedgeProperties.getPercentile(), hedgeProperties.getMinDelay(), hedgeProperties.getBudgetPercent(),
+                    hedgeProperties.getWindowSize(), hedgeProperties.getMinSamples(), meterRegistry));
+            if (StringUtils.hasText(hedgeProperties.getAlternateBaseUrl())) {
+                String alternateApiKey = StringUtils.hasText(hedgeProperties.getAlternateApiKey())
+                        ? hedgeProperties.getAlternateApiKey() : apiKey;
+                enhancedImageModel.setHedgeImageApi(buildEnhancedImageApi(List.of(new ImageApiEndpoint(
+                        hedgeProperties.getAlternateBaseUrl(), hedgeProperties.getAlternateBaseUrl(),
+                        new SimpleApiKey(alternateApiKey), 1))));
+            }
+        }
+        if (preprocessProperties.isEnabled()) {
+            log.info("Enabling input image preprocessing to {} with {} threads",
+                    preprocessProperties.getFormat(), preprocessProperties.getThreads());
+            enhancedImageModel.setImagePreprocessor(imagePreprocessor());
+        }
+        ImagePrefetcher imagePrefetcher = imagePrefetcher();
+        if (imagePrefetcher != null) {
+            log.info("Enabling background prefetch of image urls with {} threads", prefetchProperties.getThreads());
+            enhancedImageModel.setImagePrefetcher(imagePrefetcher);
+        }
+        return enhancedImageModel;
+    }
+
+    /**
+     * 创建图像生成异步执行器
+     * 运行时支持时使用虚拟线程，否则回退为有界的平台线程池
+     *
+     * @return ExecutorService 实例
+     */
+    @Bean
+    public ExecutorService enhancedImageExecutor() {
+        return ThreadUtils.newTaskExecutor(asyncProperties.isVirtualThreads(),
+                asyncProperties.getPlatformThreads(), asyncProperties.getThreadNamePrefix());
+    }
+
+    /**
+     * 创建对冲请求执行器
+     * 与主执行器相互隔离，随容器关闭而关闭
+     *
+     * @return ExecutorService 实例，未启用请求对冲时为null
+     */
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService enhancedImageHedgeExecutor() {
+        if (!hedgeProperties.isEnabled()) {
+            return null;
+        }
+        return ThreadUtils.newTaskExecutor(asyncProperties.isVirtualThreads(), asyncProperties.getPlatformThreads(),
+                asyncProperties.getThreadNamePrefix() + "hedge-");
     }
 
     /**
@@ -105,6 +396,124 @@ public class EnhancedImageModelConfig {
      */
     @Bean
     public EnhancedImageClient enhancedImageClient() {
-        return new EnhancedImageClient(enhancedImageModel());
+        ImageRequestScheduler scheduler = null;
+        if (schedulerProperties.isEnabled()) {
+            log.info("Enabling image request scheduler with interactive: {}, batch: {}, per model: {}",
+                    schedulerProperties.getInteractiveConcurrency(), schedulerProperties.getBatchConcurrency(),
+                    schedulerProperties.getModelConcurrency());
+            scheduler = new ImageRequestScheduler(schedulerProperties.getInteractiveConcurrency(),
+                    schedulerProperties.getBatchConcurrency(), schedulerProperties.getModelConcurrency(),
+                    schedulerProperties.getMaxQueued(), schedulerProperties.getQueueTimeout(), meterRegistry);
+        }
+        return EnhancedImageClient.builder()
+                .enhancedImageModel(enhancedImageModel())
+                .executor(enhancedImageExecutor())
+                .timeout(asyncProperties.getTimeout())
+                .chainMode(solitaireProperties.getChainMode())
+                .scheduler(scheduler)
+                .scratchSpace(scratchSpace())
+                .imageStore(imageStore())
+                .imagePrefetcher(imagePrefetcher())
+                .downloadConnectTimeout(transportProperties.getConnectTimeout())
+                .downloadReadTimeout(transportProperties.getReadTimeout())
+                .build();
+    }
+
+    /**
+     * 创建受管理的临时文件空间
+     * 图像接龙下载的中间图像写入该空间，按配额限制磁盘占用，使用完毕后立即删除
+     *
+     * @return ScratchSpace 实例，未启用时为null
+     */
+    @Bean(destroyMethod = "close")
+    public ScratchSpace scratchSpace() {
+        if (!scratchProperties.isEnabled()) {
+            return null;
+        }
+        log.info("Initializing scratch space at {} with quota: {}", scratchProperties.getDirectory(),
+                scratchProperties.getMaxSize());
+        return new ScratchSpace(scratchProperties.getDirectory(), scratchProperties.getMaxSize().toBytes(),
+                meterRegistry);
+    }
+
+    /**
+     * 创建按内容寻址的本地图像存储
+     * 接龙下载的图像写入存储，同一图像再次读取时不再访问网络
+     *
+     * @return ImageStore 实例，未启用时为null
+     */
+    @Bean
+    public ImageStore imageStore() {
+        if (!storeProperties.isEnabled()) {
+            return null;
+        }
+        log.info("Initializing image store at {} with quota: {}", storeProperties.getDirectory(),
+                storeProperties.getMaxSize());
+        return new ImageStore(storeProperties.getDirectory(), storeProperties.getMaxSize().toBytes(), meterRegistry);
+    }
+
+    /**
+     * 创建图像预取器
+     * url 格式的响应返回后在后台下载图像并写入本地图像存储，未启用本地图像存储时不创建
+     *
+     * @return ImagePrefetcher 实例，未启用时为null
+     */
+    @Bean(destroyMethod = "close")
+    public ImagePrefetcher imagePrefetcher() {
+        if (!prefetchProperties.isEnabled()) {
+            return null;
+        }
+        ImageStore imageStore = imageStore();
+        if (imageStore == null) {
+            log.warn("Image prefetch requires ai.enhanced.image.store.enabled=true, prefetch is disabled");
+            return null;
+        }
+        return new ImagePrefetcher(imageStore, prefetchProperties.getThreads(), prefetchProperties.getMaxQueued(),
+                prefetchProperties.getTimeout(), meterRegistry);
+    }
+
+    /**
+     * 创建输入图像预处理器
+     * 缩放与编码在独立的有界线程池中执行，不占用请求线程之外的更多CPU
+     *
+     * @return ImagePreprocessor 实例，未启用时为null
+     */
+    @Bean(destroyMethod = "close")
+    public ImagePreprocessor imagePreprocessor() {
+        if (!preprocessProperties.isEnabled()) {
+            return null;
+        }
+        return new ImagePreprocessor(preprocessProperties.getFormat(), preprocessProperties.getQuality(),
+                preprocessProperties.getThreads(), preprocessProperties.getMaxQueued(), meterRegistry);
+    }
+
+    /**
+     * 创建异步生成任务的存储
+     * 默认仅保存在内存中，配置为 file 时额外写入日志文件，重启后恢复未完成的任务
+     *
+     * @return ImageJobStore 实例
+     */
+    @Bean
+    public ImageJobStore imageJobStore() {
+        ImageJobStore store = new InMemoryImageJobStore(jobProperties.getMaxJobs(), jobProperties.getTtl(),
+                meterRegistry);
+        if (jobProperties.getStore() == ImageJobProperties.Store.FILE) {
+            log.info("Enabling file-backed image job store with journal: {}", jobProperties.getJournal());
+            return new FileImageJobStore(jobProperties.getJournal(), store, objectMapper);
+        }
+        return store;
+    }
+
+    /**
+     * 创建虚拟线程固定检测器
+     * 仅在启用虚拟线程且运行时支持（JDK 21 及以上）时创建
+     *
+     * @return VirtualThreadPinningMonitor 实例
+     */
+    @Bean
+    @ConditionalOnThreading(Threading.VIRTUAL)
+    @ConditionalOnProperty(name = "ai.enhanced.image.virtual-threads.pinning-detection", matchIfMissing = true)
+    public VirtualThreadPinningMonitor virtualThreadPinningMonitor() {
+        return new VirtualThreadPinningMonitor(virtualThreadProperties.getPinnedThreshold(), meterRegistry);
     }
 }
@@ -0,0 +1,165 @@
+package com.springai.springaiimageextision.core.config;
+
+import com.springai.springaiimageextision.core.custom.bean.ImageTransportProperties;
+import com.springai.springaiimageextision.core.util.ThreadUtils;
+import io.netty.channel.ChannelOption;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.http.client.reactive.ClientHttpConnector;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.util.Assert;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.util.Objects;
+
+/**
+ * 根据传输层配置创建图像生成API使用的HTTP客户端
+ *
+ * @author 王玉涛
+ * @version 1.0
+ * @since 2025/10/1
+ */
+@Slf4j
+public class HttpTransportFactory {
+
+    /**
+     * 响应式客户端连接池名称
+     */
+    private static final String CONNECTION_PROVIDER_NAME = "enhanced-image";
+
+    /**
+     * 私有构造函数，防止实例化
+     */
+    private HttpTransportFactory() {}
+
+    /**
+     * 创建同步调用使用的请求工厂
+     *
+     * @param properties 传输层配置
+     * @return 请求工厂
+     */
+    public static ClientHttpRequestFactory requestFactory(ImageTransportProperties properties) {
+        return requestFactory(properties, false);
+    }
+
+    /**
+     * 创建同步调用使用的请求工厂
+     *
+     * @param properties     传输层配置
+     * @param virtualThreads 是否让JDK HttpClient的内部任务运行在虚拟线程上，运行时不支持时忽略
+     * @return 请求工厂
+     */
+    public static ClientHttpRequestFactory requestFactory(ImageTransportProperties properties, boolean virtualThreads) {
+        validate(properties);
+        log.info("Initializing {} http transport, http2: {}, connectTimeout: {}, readTimeout: {}, virtualThreads: {}",
+                properties.getClient(), properties.isHttp2(), properties.getConnectTimeout(), properties.getReadTimeout(),
+                virtualThreads);
+        if (virtualThreads && !ThreadUtils.isVirtualThreadSupported()) {
+            log.warn("Virtual threads requested but Java {} does not support them, using platform threads",
+                    Runtime.version().feature());
+        }
+        return switch (properties.getClient()) {
+            case JDK -> jdkRequestFactory(properties, virtualThreads);
+            case APACHE -> apacheRequestFactory(properties);
+        };
+    }
+
+    /**
+     * 创建响应式调用使用的连接器
+     *
+     * @param properties 传输层配置
+     * @return 连接器
+     */
+    public static ClientHttpConnector clientHttpConnector(ImageTransportProperties properties) {
+        validate(properties);
+        ConnectionProvider.Builder provider = ConnectionProvider.builder(CONNECTION_PROVIDER_NAME)
+                .maxConnections(properties.getMaxConnectionsPerRoute())
+                .maxIdleTime(properties.getIdleTimeout())
+                .evictInBackground(properties.getIdleTimeout());
+        if (Objects.nonNull(properties.getConnectionTimeToLive())) {
+            provider.maxLifeTime(properties.getConnectionTimeToLive());
+        }
+
+        HttpClient httpClient = HttpClient.create(provider.build())
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, Math.toIntExact(properties.getConnectTimeout().toMillis()))
+                .responseTimeout(properties.getReadTimeout());
+        if (properties.isHttp2()) {
+            // HTTPS 下通过 ALPN 协商 HTTP/2，明文连接仍使用 HTTP/1.1
+            httpClient = httpClient.protocol(HttpProtocol.HTTP11, HttpProtocol.H2);
+        }
+        return new ReactorClientHttpConnector(httpClient);
+    }
+
+    /**
+     * 创建基于JDK HttpClient的请求工厂，连接由JDK内部连接池复用
+     */
+    private static ClientHttpRequestFactory jdkRequestFactory(ImageTransportProperties properties, boolean virtualThreads) {
+        java.net.http.HttpClient.Builder builder = java.net.http.HttpClient.newBuilder()
+                .version(properties.isHttp2() ? java.net.http.HttpClient.Version.HTTP_2 : java.net.http.HttpClient.Version.HTTP_1_1)
+                .connectTimeout(properties.getConnectTimeout());
+        if (virtualThreads && ThreadUtils.isVirtualThreadSupported()) {
+            // 默认执行器是无界的平台线程缓存池，改为每个任务一个虚拟线程
+            builder.executor(ThreadUtils.newTaskExecutor(true, 1, "enhanced-image-http-"));
+        }
+        java.net.http.HttpClient httpClient = builder.build();
+        JdkClientHttpRequestFactory requestFactory = new JdkClientHttpRequestFactory(httpClient);
+        requestFactory.setReadTimeout(properties.getReadTimeout());
+        return requestFactory;
+    }
+
+    /**
+     * 创建基于Apache HttpClient 5连接池的请求工厂
+     */
+    private static ClientHttpRequestFactory apacheRequestFactory(ImageTransportProperties properties) {
+        ConnectionConfig.Builder connectionConfig = ConnectionConfig.custom()
+                .setConnectTimeout(Timeout.of(properties.getConnectTimeout()))
+                .setSocketTimeout(Timeout.of(properties.getReadTimeout()))
+                // 复用空闲较久的连接前先校验，避免使用已被服务端关闭的连接
+                .setValidateAfterInactivity(TimeValue.ofSeconds(2));
+        if (Objects.nonNull(properties.getConnectionTimeToLive())) {
+            connectionConfig.setTimeToLive(TimeValue.of(properties.getConnectionTimeToLive()));
+        }
+
+        PoolingHttpClientConnectionManager connectionManager = PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnPerRoute(properties.getMaxConnectionsPerRoute())
+                .setMaxConnTotal(properties.getMaxConnectionsTotal())
+                .setDefaultConnectionConfig(connectionConfig.build())
+                .build();
+        CloseableHttpClient httpClient = HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .evictIdleConnections(TimeValue.of(properties.getIdleTimeout()))
+                .evictExpiredConnections()
+                // 重试由重试模板或容错策略统一负责，避免传输层再次重发请求
+                .disableAutomaticRetries()
+                .build();
+
+        HttpComponentsClientHttpRequestFactory requestFactory = new HttpComponentsClientHttpRequestFactory(httpClient);
+        requestFactory.setReadTimeout(properties.getReadTimeout());
+        return requestFactory;
+    }
+
+    /**
+     * 校验传输层配置
+     */
+    private static void validate(ImageTransportProperties properties) {
+        Assert.notNull(properties, "properties 不能为空");
+        Assert.notNull(properties.getClient(), "client 不能为空");
+        Assert.notNull(properties.getConnectTimeout(), "connectTimeout 不能为空");
+        Assert.notNull(properties.getReadTimeout(), "readTimeout 不能为空");
+        Assert.notNull(properties.getIdleTimeout(), "idleTimeout 不能为空");
+        Assert.isTrue(properties.getMaxConnectionsPerRoute() > 0, "maxConnectionsPerRoute 必须大于 0");
+        Assert.isTrue(properties.getMaxConnectionsTotal() >= properties.getMaxConnectionsPerRoute(),
+                "maxConnectionsTotal 不能小于 maxConnectionsPerRoute");
+    }
+}
@@ -0,0 +1,264 @@
+package com.springai.springaiimageextision.core.custom.api;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.ai.retry.TransientAiException;
+import org.springframework.util.Assert;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestClient;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.zip.CRC32;
+
+/**
+ * 多端点负载均衡器。
+ * 按 {@link LoadBalancingStrategy} 为每个请求选择端点，连续失败的端点会被暂时摘除，
+ * 带有亲和键的请求按加权最高随机权重（rendezvous hashing）固定到同一个端点。
+ *
+ * @author 王玉涛
+ * @since 0.8.0
+ */
+final class EndpointLoadBalancer {
+
+	private static final Logger logger = LoggerFactory.getLogger(EndpointLoadBalancer.class);
+
+	/**
+	 * EWMA 的平滑系数。
+	 */
+	private static final double EWMA_ALPHA = 0.3;
+
+	private final List<Endpoint> endpoints;
+
+	private final LoadBalancingStrategy strategy;
+
+	private final int failureThreshold;
+
+	private final long ejectNanos;
+
+	EndpointLoadBalancer(List<Endpoint> endpoints, LoadBalancingStrategy strategy, int failureThreshold,
+			Duration ejectDuration, MeterRegistry meterRegistry) {
+		Assert.notEmpty(endpoints, "endpoints 不能为空");
+		Assert.notNull(strategy, "strategy 不能为空");
+		Assert.isTrue(failureThreshold > 0, "failureThreshold 必须大于 0");
+		Assert.notNull(ejectDuration, "ejectDuration 不能为空");
+		this.endpoints = List.copyOf(endpoints);
+		this.strategy = strategy;
+		this.failureThreshold = failureThreshold;
+		this.ejectNanos = ejectDuration.toNanos();
+		if (meterRegistry != null) {
+			this.endpoints.forEach(endpoint -> endpoint.bindTo(meterRegistry));
+		}
+	}
+
+	/**
+	 * 在选中的端点上执行请求并记录结果。
+	 * @param <T> 结果类型
+	 * @param affinityKey 亲和键，为 null 时按负载均衡策略选择
+	 * @param request 在端点的 RestClient 上执行的请求
+	 * @return 请求结果
+	 */
+	<T> T execute(String affinityKey, Function<RestClient, T> request) {
+		Endpoint endpoint = select(affinityKey);
+		long start = System.nanoTime();
+		endpoint.outstanding.incrementAndGet();
+		try {
+			T result = request.apply(endpoint.restClient);
+			endpoint.onSuccess(System.nanoTime() - start);
+			return result;
+		}
+		catch (RuntimeException ex) {
+			if (ex instanceof TransientAiException || ex instanceof ResourceAccessException) {
+				onFailure(endpoint, System.nanoTime() - start);
+			}
+			else {
+				// 业务错误说明端点可用
+				endpoint.onSuccess(System.nanoTime() - start);
+			}
+			throw ex;
+		}
+		finally {
+			endpoint.outstanding.decrementAndGet();
+		}
+	}
+
+	Endpoint select(String affinityKey) {
+		if (this.endpoints.size() == 1) {
+			return this.endpoints.get(0);
+		}
+		long now = System.nanoTime();
+		List<Endpoint> candidates = new ArrayList<>(this.endpoints.size());
+		for (Endpoint endpoint : this.endpoints) {
+			if (endpoint.isAvailable(now)) {
+				candidates.add(endpoint);
+			}
+		}
+		if (candidates.isEmpty()) {
+			// 全部被摘除时退化为在所有端点中选择，避免完全不可用
+			candidates = this.endpoints;
+		}
+		if (affinityKey != null) {
+			return rendezvous(candidates, affinityKey);
+		}
+		if (candidates.size() == 1) {
+			return candidates.get(0);
+		}
+
+		ThreadLocalRandom random = ThreadLocalRandom.current();
+		int first = random.nextInt(candidates.size());
+		int second = random.nextInt(candidates.size() - 1);
+		if (second >= first) {
+			second++;
+		}
+		Endpoint a = candidates.get(first);
+		Endpoint b = candidates.get(second);
+		return cost(a) <= cost(b) ? a : b;
+	}
+
+	private double cost(Endpoint endpoint) {
+		double load = endpoint.outstanding.get() + 1;
+		if (this.strategy == LoadBalancingStrategy.EWMA_LATENCY) {
+			load *= endpoint.ewmaNanos() + 1;
+		}
+		return load / endpoint.definition.weight();
+	}
+
+	/**
+	 * 加权最高随机权重哈希：端点增减时只有少量亲和键会改变归属。
+	 */
+	private static Endpoint rendezvous(List<Endpoint> candidates, String affinityKey) {
+		Endpoint best = null;
+		double bestScore = Double.NEGATIVE_INFINITY;
+		for (Endpoint endpoint : candidates) {
+			CRC32 crc = new CRC32();
+			crc.update(endpoint.definition.name().getBytes(StandardCharsets.UTF_8));
+			crc.update(affinityKey.getBytes(StandardCharsets.UTF_8));
+			// 映射到 (0, 1) 区间
+			double uniform = (crc.getValue() + 1.0) / ((1L << 32) + 1.0);
+			double score = -endpoint.definition.weight() / Math.log(uniform);
+			if (score > bestScore) {
+				bestScore = score;
+				best = endpoint;
+			}
+		}
+		return best;
+	}
+
+	private void onFailure(Endpoint endpoint, long elapsedNanos) {
+		endpoint.onFailure(elapsedNanos);
+		if (endpoint.consecutiveFailures.incrementAndGet() >= this.failureThreshold) {
+			endpoint.consecutiveFailures.set(0);
+			endpoint.ejectedUntil = System.nanoTime() + this.ejectNanos;
+			if (endpoint.ejections != null) {
+				endpoint.ejections.increment();
+			}
+			logger.warn("端点 {} 连续失败 {} 次，摘除 {} 毫秒", endpoint.definition.name(), this.failureThreshold,
+					TimeUnit.NANOSECONDS.toMillis(this.ejectNanos));
+		}
+	}
+
+	/**
+	 * 单个端点的客户端与运行状态。
+	 */
+	static final class Endpoint {
+
+		private final ImageApiEndpoint definition;
+
+		private final RestClient restClient;
+
+		private final AtomicInteger outstanding = new AtomicInteger();
+
+		private final AtomicInteger consecutiveFailures = new AtomicInteger();
+
+		/**
+		 * 延迟 EWMA 的 double 位表示。
+		 */
+		private final AtomicLong ewmaBits = new AtomicLong(Double.doubleToLongBits(0));
+
+		private volatile long ejectedUntil;
+
+		private Timer successTimer;
+
+		private Timer failureTimer;
+
+		private Counter ejections;
+
+		Endpoint(ImageApiEndpoint definition, RestClient restClient) {
+			this.definition = definition;
+			this.restClient = restClient;
+		}
+
+		private void bindTo(MeterRegistry meterRegistry) {
+			String name = this.definition.name();
+			this.successTimer = Timer.builder("enhanced.image.endpoint.requests")
+				.description("各端点的请求耗时")
+				.tags("endpoint", name, "outcome", "success")
+				.register(meterRegistry);
+			this.failureTimer = Timer.builder("enhanced.image.endpoint.requests")
+				.description("各端点的请求耗时")
+				.tags("endpoint", name, "outcome", "failure")
+				.register(meterRegistry);
+			this.ejections = Counter.builder("enhanced.image.endpoint.ejections")
+				.description("端点被摘除的次数")
+				.tag("endpoint", name)
+				.register(meterRegistry);
+			Gauge.builder("enhanced.image.endpoint.outstanding", this.outstanding, AtomicInteger::get)
+				.description("端点的在途请求数")
+				.tag("endpoint", name)
+				.register(meterRegistry);
+			Gauge.builder("enhanced.image.endpoint.ejected", this,
+					endpoint -> endpoint.isAvailable(System.nanoTime()) ? 0 : 1)
+				.description("端点是否处于摘除状态")
+				.tag("endpoint", name)
+				.register(meterRegistry);
+			Gauge.builder("enhanced.image.endpoint.latency.ewma", this, endpoint -> endpoint.ewmaNanos() / 1e6)
+				.description("端点延迟的指数加权移动平均（毫秒）")
+				.tag("endpoint", name)
+				.register(meterRegistry);
+		}
+
+		private boolean isAvailable(long now) {
+			return now - this.ejectedUntil >= 0;
+		}
+
+		private double ewmaNanos() {
+			return Double.longBitsToDouble(this.ewmaBits.get());
+		}
+
+		private void onSuccess(long elapsedNanos) {
+			this.consecutiveFailures.set(0);
+			updateEwma(elapsedNanos);
+			if (this.successTimer != null) {
+				this.successTimer.record(elapsedNanos, TimeUnit.NANOSECONDS);
+			}
+		}
+
+		private void onFailure(long elapsedNanos) {
+			updateEwma(elapsedNanos);
+			if (this.failureTimer != null) {
+				this.failureTimer.record(elapsedNanos, TimeUnit.NANOSECONDS);
+			}
+		}
+
+		private void updateEwma(long elapsedNanos) {
+			this.ewmaBits.updateAndGet(bits -> {
+				double current = Double.longBitsToDouble(bits);
+				double next = current == 0 ? elapsedNanos : current + EWMA_ALPHA * (elapsedNanos - current);
+				return Double.doubleToLongBits(next);
+			});
+		}
+
+	}
+
+}
@@ -1,5 +1,7 @@
 package com.springai.springaiimageextision.core.custom.api;
 
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.List;
 
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
@@ -7,6 +9,7 @@ import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
 
 import com.springai.springaiimageextision.core.custom.option.EnhancedImageOptions;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.ai.model.ApiKey;
 import org.springframework.ai.model.NoopApiKey;
 import org.springframework.ai.model.SimpleApiKey;
@@ -33,7 +36,11 @@ public class EnhancedImageApi {
 
 	public static final String DEFAULT_IMAGE_MODEL = ImageModel.DALL_E_3.getValue();
 
-	private final RestClient restClient;
+	private static final int DEFAULT_FAILURE_THRESHOLD = 5;
+
+	private static final Duration DEFAULT_EJECT_DURATION = Duration.ofSeconds(30);
+
+	private final EndpointLoadBalancer loadBalancer;
 
 	private final String imagesPath;
 
@@ -48,23 +55,50 @@ public class EnhancedImageApi {
 	 */
 	public EnhancedImageApi(String baseUrl, ApiKey apiKey, MultiValueMap<String, String> headers, String imagesPath,
 							RestClient.Builder restClientBuilder, ResponseErrorHandler responseErrorHandler) {
+		this(List.of(new ImageApiEndpoint(baseUrl, baseUrl, apiKey, 1)), headers, imagesPath, restClientBuilder,
+				responseErrorHandler, LoadBalancingStrategy.LEAST_OUTSTANDING, DEFAULT_FAILURE_THRESHOLD,
+				DEFAULT_EJECT_DURATION, null);
+	}
 
-		// @formatter:off
-		this.restClient = restClientBuilder.clone()
-			.baseUrl(baseUrl)
-			.defaultHeaders(h -> {
-				h.setContentType(MediaType.APPLICATION_JSON);
-				h.addAll(headers);
-			})
-			.defaultStatusHandler(responseErrorHandler)
-			.defaultRequest(requestHeadersSpec -> {
-				if (!(apiKey instanceof NoopApiKey)) {
-					requestHeadersSpec.header(HttpHeaders.AUTHORIZATION, "Bearer " + apiKey.getValue());
-				}
-			})
-			.build();
-		// @formatter:on
+	/**
+	 * 创建一个在多个端点间负载均衡的 OpenAI 图像 API。
+	 * @param endpoints 端点列表，可以是不同的基础 URL，也可以是同一基础 URL 的不同密钥。
+	 * @param headers 要使用的 HTTP 头部。
+	 * @param imagesPath 要使用的图像路径。
+	 * @param restClientBuilder 要使用的 REST 客户端构建器。
+	 * @param responseErrorHandler 要使用的响应错误处理器。
+	 * @param strategy 负载均衡策略。
+	 * @param failureThreshold 端点被摘除前允许的连续失败次数。
+	 * @param ejectDuration 端点被摘除的时长。
+	 * @param meterRegistry 指标注册表，为 null 时不记录端点指标。
+	 */
+	public EnhancedImageApi(List<ImageApiEndpoint> endpoints, MultiValueMap<String, String> headers, String imagesPath,
+							RestClient.Builder restClientBuilder, ResponseErrorHandler responseErrorHandler,
+							LoadBalancingStrategy strategy, int failureThreshold, Duration ejectDuration,
+							MeterRegistry meterRegistry) {
+		Assert.notEmpty(endpoints, "endpoints 不能为空");
+
+		List<EndpointLoadBalancer.Endpoint> clients = new ArrayList<>(endpoints.size());
+		for (ImageApiEndpoint endpoint : endpoints) {
+			// @formatter:off
+			RestClient restClient = restClientBuilder.clone()
+				.baseUrl(endpoint.baseUrl())
+				.defaultHeaders(h -> {
+					h.setContentType(MediaType.APPLICATION_JSON);
+					h.addAll(headers);
+				})
+				.defaultStatusHandler(responseErrorHandler)
+				.defaultRequest(requestHeadersSpec -> {
+					if (!(endpoint.apiKey() instanceof NoopApiKey)) {
+						requestHeadersSpec.header(HttpHeaders.AUTHORIZATION, "Bearer " + endpoint.apiKey().getValue());
+					}
+				})
+				.build();
+			// @formatter:on
+			clients.add(new EndpointLoadBalancer.Endpoint(endpoint, restClient));
+		}
 
+		this.loadBalancer = new EndpointLoadBalancer(clients, strategy, failureThreshold, ejectDuration, meterRegistry);
 		this.imagesPath = imagesPath;
 	}
 
@@ -72,11 +106,11 @@ public class EnhancedImageApi {
 		Assert.notNull(imageOptions, "图像请求不能为空。");
 		Assert.hasLength(imageOptions.getPrompt(), "提示词不能为空。");
 
-		return this.restClient.post()
+		return this.loadBalancer.execute(imageOptions.getAffinityKey(), restClient -> restClient.post()
 			.uri(this.imagesPath)
 			.body(imageOptions)
 			.retrieve()
-			.toEntity(OpenAiImageResponse.class);
+			.toEntity(OpenAiImageResponse.class));
 	}
 
 	public static Builder builder() {
@@ -144,6 +178,16 @@ public class EnhancedImageApi {
 
 		private String imagesPath = "v1/images/generations";
 
+		private List<ImageApiEndpoint> endpoints = List.of();
+
+		private LoadBalancingStrategy loadBalancingStrategy = LoadBalancingStrategy.LEAST_OUTSTANDING;
+
+		private int failureThreshold = DEFAULT_FAILURE_THRESHOLD;
+
+		private Duration ejectDuration = DEFAULT_EJECT_DURATION;
+
+		private MeterRegistry meterRegistry;
+
 		public Builder baseUrl(String baseUrl) {
 			Assert.hasText(baseUrl, "baseUrl 不能为空");
 			this.baseUrl = baseUrl;
@@ -186,10 +230,44 @@ public class EnhancedImageApi {
 			return this;
 		}
 
+		/**
+		 * 设置多个端点，设置后忽略 baseUrl 与 apiKey。
+		 */
+		public Builder endpoints(List<ImageApiEndpoint> endpoints) {
+			Assert.notNull(endpoints, "endpoints 不能为空");
+			this.endpoints = List.copyOf(endpoints);
+			return this;
+		}
+
+		public Builder loadBalancingStrategy(LoadBalancingStrategy loadBalancingStrategy) {
+			Assert.notNull(loadBalancingStrategy, "loadBalancingStrategy 不能为空");
+			this.loadBalancingStrategy = loadBalancingStrategy;
+			return this;
+		}
+
+		public Builder ejection(int failureThreshold, Duration ejectDuration) {
+			Assert.isTrue(failureThreshold > 0, "failureThreshold 必须大于 0");
+			Assert.notNull(ejectDuration, "ejectDuration 不能为空");
+			this.failureThreshold = failureThreshold;
+			this.ejectDuration = ejectDuration;
+			return this;
+		}
+
+		public Builder meterRegistry(MeterRegistry meterRegistry) {
+			Assert.notNull(meterRegistry, "meterRegistry 不能为空");
+			this.meterRegistry = meterRegistry;
+			return this;
+		}
+
 		public EnhancedImageApi build() {
-			Assert.notNull(this.apiKey, "必须设置 apiKey");
-			return new EnhancedImageApi(this.baseUrl, this.apiKey, this.headers, this.imagesPath, this.restClientBuilder,
-					this.responseErrorHandler);
+			List<ImageApiEndpoint> endpoints = this.endpoints;
+			if (endpoints.isEmpty()) {
+				Assert.notNull(this.apiKey, "必须设置 apiKey");
+				endpoints = List.of(new ImageApiEndpoint(this.baseUrl, this.baseUrl, this.apiKey, 1));
+			}
+			return new EnhancedImageApi(endpoints, this.headers, this.imagesPath, this.restClientBuilder,
+					this.responseErrorHandler, this.loadBalancingStrategy, this.failureThreshold, this.ejectDuration,
+					this.meterRegistry);
 		}
 
 	}
@@ -0,0 +1,26 @@
+package com.springai.springaiimageextision.core.custom.api;
+
+import org.springframework.ai.model.ApiKey;
+import org.springframework.util.Assert;
+
+/**
+ * 图像生成 API 的一个端点：基础 URL、API 密钥与负载均衡权重。
+ * 同一个基础 URL 可以配置多个密钥，以叠加多个账号的配额。
+ *
+ * @param name 端点名称，用作指标标签
+ * @param baseUrl 基础 URL
+ * @param apiKey API 密钥
+ * @param weight 负载均衡权重
+ * @author 王玉涛
+ * @since 0.8.0
+ */
+public record ImageApiEndpoint(String name, String baseUrl, ApiKey apiKey, double weight) {
+
+	public ImageApiEndpoint {
+		Assert.hasText(name, "name 不能为空");
+		Assert.hasText(baseUrl, "baseUrl 不能为空");
+		Assert.notNull(apiKey, "apiKey 不能为空");
+		Assert.isTrue(weight > 0, "weight 必须大于 0");
+	}
+
+}
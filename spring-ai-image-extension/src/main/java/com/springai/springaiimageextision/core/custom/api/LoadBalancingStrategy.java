@@ -0,0 +1,21 @@
+package com.springai.springaiimageextision.core.custom.api;
+
+/**
+ * 多端点的负载均衡策略。两种策略都在随机选出的两个健康端点中选择代价较低的一个（power of two choices）。
+ *
+ * @author 王玉涛
+ * @since 0.8.0
+ */
+public enum LoadBalancingStrategy {
+
+	/**
+	 * 按在途请求数除以权重选择。
+	 */
+	LEAST_OUTSTANDING,
+
+	/**
+	 * 按延迟的指数加权移动平均乘以在途请求数、再除以权重选择，对变慢的端点更敏感。
+	 */
+	EWMA_LATENCY
+
+}
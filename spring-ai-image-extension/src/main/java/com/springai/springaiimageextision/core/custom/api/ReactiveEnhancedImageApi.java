@@ -0,0 +1,168 @@
+package com.springai.springaiimageextision.core.custom.api;
+
+import com.springai.springaiimageextision.core.custom.option.EnhancedImageOptions;
+import org.springframework.ai.model.ApiKey;
+import org.springframework.ai.model.NoopApiKey;
+import org.springframework.ai.model.SimpleApiKey;
+import org.springframework.ai.openai.api.common.OpenAiApiConstants;
+import org.springframework.ai.retry.NonTransientAiException;
+import org.springframework.ai.retry.TransientAiException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.util.Assert;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.util.function.Function;
+
+/**
+ * {@link EnhancedImageApi} 的响应式版本，基于 WebClient 与 Reactor Netty 实现。
+ * 请求体与响应体复用 {@link EnhancedImageOptions} 与 {@link EnhancedImageApi.OpenAiImageResponse} 的 JSON 映射，
+ * 错误状态码的处理默认与 RetryUtils.DEFAULT_RESPONSE_ERROR_HANDLER 保持一致，可通过构建器替换。
+ *
+ * @author 王玉涛
+ * @see EnhancedImageApi
+ */
+public class ReactiveEnhancedImageApi {
+
+	private final WebClient webClient;
+
+	private final String imagesPath;
+
+	private final Function<ClientResponse, Mono<? extends Throwable>> errorHandler;
+
+	/**
+	 * 使用提供的基础 URL 创建一个新的响应式图像 API。
+	 * @param baseUrl API 的基础 URL。
+	 * @param apiKey apiKey。
+	 * @param headers 要使用的 HTTP 头部。
+	 * @param imagesPath 要使用的图像路径。
+	 * @param webClientBuilder 要使用的 WebClient 构建器。
+	 * @param errorHandler 将错误响应转换为异常的函数。
+	 */
+	public ReactiveEnhancedImageApi(String baseUrl, ApiKey apiKey, MultiValueMap<String, String> headers,
+			String imagesPath, WebClient.Builder webClientBuilder,
+			Function<ClientResponse, Mono<? extends Throwable>> errorHandler) {
+
+		// @formatter:off
+		this.webClient = webClientBuilder.clone()
+			.baseUrl(baseUrl)
+			.defaultHeaders(h -> {
+				h.setContentType(MediaType.APPLICATION_JSON);
+				h.addAll(headers);
+			})
+			.defaultRequest(requestHeadersSpec -> {
+				if (!(apiKey instanceof NoopApiKey)) {
+					requestHeadersSpec.header(HttpHeaders.AUTHORIZATION, "Bearer " + apiKey.getValue());
+				}
+			})
+			.build();
+		// @formatter:on
+
+		this.imagesPath = imagesPath;
+		this.errorHandler = errorHandler;
+	}
+
+	public Mono<ResponseEntity<EnhancedImageApi.OpenAiImageResponse>> createImage(EnhancedImageOptions imageOptions) {
+		Assert.notNull(imageOptions, "图像请求不能为空。");
+		Assert.hasLength(imageOptions.getPrompt(), "提示词不能为空。");
+
+		return this.webClient.post()
+			.uri(this.imagesPath)
+			.bodyValue(imageOptions)
+			.retrieve()
+			.onStatus(HttpStatusCode::isError, this.errorHandler)
+			.toEntity(EnhancedImageApi.OpenAiImageResponse.class);
+	}
+
+	/**
+	 * 将错误响应转换为 AI 异常：4xx 为不可重试异常，其余为可重试异常。
+	 * @param response 错误响应
+	 * @return 携带异常的 Mono
+	 */
+	public static Mono<? extends Throwable> toAiException(ClientResponse response) {
+		return response.bodyToMono(String.class).defaultIfEmpty("").map(body -> {
+			String message = String.format("%s - %s", response.statusCode().value(), body);
+			return response.statusCode().is4xxClientError() ? new NonTransientAiException(message)
+					: new TransientAiException(message);
+		});
+	}
+
+	public static Builder builder() {
+		return new Builder();
+	}
+
+	/**
+	 * 构建器用于构造 {@link ReactiveEnhancedImageApi} 实例。
+	 */
+	public static class Builder {
+
+		private String baseUrl = OpenAiApiConstants.DEFAULT_BASE_URL;
+
+		private ApiKey apiKey;
+
+		private MultiValueMap<String, String> headers = new LinkedMultiValueMap<>();
+
+		private WebClient.Builder webClientBuilder = WebClient.builder().clientConnector(new ReactorClientHttpConnector());
+
+		private String imagesPath = "v1/images/generations";
+
+		private Function<ClientResponse, Mono<? extends Throwable>> errorHandler = ReactiveEnhancedImageApi::toAiException;
+
+		public Builder baseUrl(String baseUrl) {
+			Assert.hasText(baseUrl, "baseUrl 不能为空");
+			this.baseUrl = baseUrl;
+			return this;
+		}
+
+		public Builder imagesPath(String imagesPath) {
+			Assert.hasText(imagesPath, "imagesPath 不能为空");
+			this.imagesPath = imagesPath;
+			return this;
+		}
+
+		public Builder apiKey(ApiKey apiKey) {
+			Assert.notNull(apiKey, "apiKey 不能为空");
+			this.apiKey = apiKey;
+			return this;
+		}
+
+		public Builder apiKey(String simpleApiKey) {
+			Assert.notNull(simpleApiKey, "simpleApiKey 不能为空");
+			this.apiKey = new SimpleApiKey(simpleApiKey);
+			return this;
+		}
+
+		public Builder headers(MultiValueMap<String, String> headers) {
+			Assert.notNull(headers, "headers 不能为空");
+			this.headers = headers;
+			return this;
+		}
+
+		public Builder webClientBuilder(WebClient.Builder webClientBuilder) {
+			Assert.notNull(webClientBuilder, "webClientBuilder 不能为空");
+			this.webClientBuilder = webClientBuilder;
+			return this;
+		}
+
+		public Builder errorHandler(Function<ClientResponse, Mono<? extends Throwable>> errorHandler) {
+			Assert.notNull(errorHandler, "errorHandler 不能为空");
+			this.errorHandler = errorHandler;
+			return this;
+		}
+
+		public ReactiveEnhancedImageApi build() {
+			Assert.notNull(this.apiKey, "必须设置 apiKey");
+			return new ReactiveEnhancedImageApi(this.baseUrl, this.apiKey, this.headers, this.imagesPath,
+					this.webClientBuilder, this.errorHandler);
+		}
+
+	}
+
+}
@@ -0,0 +1,41 @@
+package com.springai.springaiimageextision.core.custom.bean;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * 异步图像生成的执行器配置
+ *
+ * @author 王玉涛
+ * @version 1.0
+ * @since 2025/10/1
+ */
+@Data
+@Configuration
+@ConfigurationProperties("ai.enhanced.image.async")
+public class ImageAsyncProperties {
+
+    /**
+     * 是否优先使用虚拟线程执行异步调用
+     * 运行时不支持虚拟线程（JDK 21 以下）时自动回退为平台线程池
+     */
+    private boolean virtualThreads = true;
+
+    /**
+     * 回退为平台线程池时的最大线程数
+     */
+    private int platformThreads = 256;
+
+    /**
+     * 异步执行线程的名称前缀
+     */
+    private String threadNamePrefix = "enhanced-image-";
+
+    /**
+     * 异步调用的默认超时时间，为空表示不设置超时
+     */
+    private Duration timeout;
+}
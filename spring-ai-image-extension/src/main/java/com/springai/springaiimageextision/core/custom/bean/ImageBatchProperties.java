@@ -0,0 +1,33 @@
+package com.springai.springaiimageextision.core.custom.bean;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 批量生成配置：限制单个批量请求的条目数与并发度
+ *
+ * @author 王玉涛
+ * @version 1.0
+ * @since 2025/10/1
+ */
+@Data
+@Configuration
+@ConfigurationProperties("ai.enhanced.image.batch")
+public class ImageBatchProperties {
+
+    /**
+     * 请求未指定并发度时的默认值
+     */
+    private int parallelism = 8;
+
+    /**
+     * 单个批量请求允许的最大并发度
+     */
+    private int maxParallelism = 32;
+
+    /**
+     * 单个批量请求允许的最大条目数
+     */
+    private int maxItems = 500;
+}
@@ -0,0 +1,45 @@
+package com.springai.springaiimageextision.core.custom.bean;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * 图像生成结果缓存配置
+ *
+ * @author 王玉涛
+ * @version 1.0
+ * @since 2025/10/1
+ */
+@Data
+@Configuration
+@ConfigurationProperties("ai.enhanced.image.cache")
+public class ImageCacheProperties {
+
+    /**
+     * 是否启用生成结果缓存
+     */
+    private boolean enabled = false;
+
+    /**
+     * 最大缓存条目数
+     */
+    private int maxSize = 256;
+
+    /**
+     * 缓存条目的存活时间，url 格式的响应应小于厂商图像链接的有效期
+     */
+    private Duration ttl = Duration.ofMinutes(30);
+
+    /**
+     * 是否只缓存显式指定了 seed 的请求，未指定 seed 时厂商每次的生成结果不同
+     */
+    private boolean requireSeed = true;
+
+    /**
+     * 是否合并相同的在途请求，合并后选项完全相同的并发请求共享一次厂商调用
+     */
+    private boolean coalesce = false;
+}
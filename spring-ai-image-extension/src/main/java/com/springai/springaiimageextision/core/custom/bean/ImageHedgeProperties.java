@@ -0,0 +1,60 @@
+package com.springai.springaiimageextision.core.custom.bean;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * 文生图对冲请求配置
+ *
+ * @author 王玉涛
+ * @version 1.0
+ * @since 2025/10/1
+ */
+@Data
+@Configuration
+@ConfigurationProperties("ai.enhanced.image.hedge")
+public class ImageHedgeProperties {
+
+    /**
+     * 是否启用对冲请求
+     */
+    private boolean enabled = false;
+
+    /**
+     * 触发对冲的耗时分位数，首个请求超过最近耗时的该分位数仍未返回时发起对冲
+     */
+    private double percentile = 0.95;
+
+    /**
+     * 对冲等待时间的下限
+     */
+    private Duration minDelay = Duration.ofSeconds(2);
+
+    /**
+     * 对冲请求占总请求的最大百分比
+     */
+    private double budgetPercent = 10;
+
+    /**
+     * 耗时统计窗口的样本数
+     */
+    private int windowSize = 256;
+
+    /**
+     * 开始对冲前需要的最少样本数
+     */
+    private int minSamples = 20;
+
+    /**
+     * 对冲请求使用的备用端点，为空时发往同一端点
+     */
+    private String alternateBaseUrl;
+
+    /**
+     * 备用端点的API密钥，为空时使用主端点的密钥
+     */
+    private String alternateApiKey;
+}
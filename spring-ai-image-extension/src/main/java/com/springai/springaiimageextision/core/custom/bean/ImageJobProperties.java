@@ -0,0 +1,60 @@
+package com.springai.springaiimageextision.core.custom.bean;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * 异步生成任务配置：执行线程数、任务存储容量与持久化方式
+ *
+ * @author 王玉涛
+ * @version 1.0
+ * @since 2025/10/1
+ */
+@Data
+@Configuration
+@ConfigurationProperties("ai.enhanced.image.job")
+public class ImageJobProperties {
+
+    /**
+     * 任务存储方式
+     */
+    public enum Store {
+        /**
+         * 仅保存在内存中，重启后丢失
+         */
+        MEMORY,
+        /**
+         * 内存保存并追加写入日志文件，重启后恢复未完成的任务
+         */
+        FILE
+    }
+
+    /**
+     * 执行任务的线程数，即同时执行的最大任务数
+     */
+    private int threads = 4;
+
+    /**
+     * 最多保存的任务数
+     */
+    private int maxJobs = 1000;
+
+    /**
+     * 已结束任务的保存时间
+     */
+    private Duration ttl = Duration.ofHours(24);
+
+    /**
+     * 任务存储方式
+     */
+    private Store store = Store.MEMORY;
+
+    /**
+     * 任务日志文件路径，仅在 store 为 file 时使用
+     */
+    private Path journal = Path.of("data", "image-jobs.jsonl");
+}
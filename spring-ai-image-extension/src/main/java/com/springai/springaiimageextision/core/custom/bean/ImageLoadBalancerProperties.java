@@ -0,0 +1,71 @@
+package com.springai.springaiimageextision.core.custom.bean;
+
+import com.springai.springaiimageextision.core.custom.api.LoadBalancingStrategy;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 多端点、多密钥的负载均衡配置
+ * 未配置端点时使用 spring.ai.openai 的 base-url 与 api-key 作为唯一端点
+ *
+ * @author 王玉涛
+ * @version 1.0
+ * @since 2025/10/1
+ */
+@Data
+@Configuration
+@ConfigurationProperties("ai.enhanced.image.load-balancer")
+public class ImageLoadBalancerProperties {
+
+    /**
+     * 负载均衡策略
+     */
+    private LoadBalancingStrategy strategy = LoadBalancingStrategy.LEAST_OUTSTANDING;
+
+    /**
+     * 端点被摘除前允许的连续失败次数
+     */
+    private int failureThreshold = 5;
+
+    /**
+     * 端点被摘除的时长
+     */
+    private Duration ejectDuration = Duration.ofSeconds(30);
+
+    /**
+     * 端点列表
+     */
+    private List<Endpoint> endpoints = new ArrayList<>();
+
+    /**
+     * 单个端点
+     */
+    @Data
+    public static class Endpoint {
+
+        /**
+         * 端点名称，用作指标标签，为空时使用基础URL与序号
+         */
+        private String name;
+
+        /**
+         * 基础URL，为空时使用 spring.ai.openai.base-url
+         */
+        private String baseUrl;
+
+        /**
+         * API密钥
+         */
+        private String apiKey;
+
+        /**
+         * 负载均衡权重
+         */
+        private double weight = 1;
+    }
+}
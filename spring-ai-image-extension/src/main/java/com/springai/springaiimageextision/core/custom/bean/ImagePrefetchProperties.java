@@ -0,0 +1,40 @@
+package com.springai.springaiimageextision.core.custom.bean;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * 图像预取配置：url 格式的响应返回后在后台下载图像并写入本地图像存储
+ *
+ * @author 王玉涛
+ * @version 1.0
+ * @since 2025/10/1
+ */
+@Data
+@Configuration
+@ConfigurationProperties("ai.enhanced.image.prefetch")
+public class ImagePrefetchProperties {
+
+    /**
+     * 是否启用图像预取，需要同时启用本地图像存储
+     */
+    private boolean enabled = false;
+
+    /**
+     * 下载线程数
+     */
+    private int threads = 4;
+
+    /**
+     * 最大排队数，排队已满时放弃预取，之后读取时再下载
+     */
+    private int maxQueued = 256;
+
+    /**
+     * 单次下载的连接与读取超时时间
+     */
+    private Duration timeout = Duration.ofSeconds(30);
+}
@@ -0,0 +1,44 @@
+package com.springai.springaiimageextision.core.custom.bean;
+
+import com.springai.springaiimageextision.core.custom.preprocess.ImageOutputFormat;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 输入图像预处理配置：图生图与图像接龙的输入图像在上传前缩小到目标尺寸
+ *
+ * @author 王玉涛
+ * @version 1.0
+ * @since 2025/10/1
+ */
+@Data
+@Configuration
+@ConfigurationProperties("ai.enhanced.image.preprocess")
+public class ImagePreprocessProperties {
+
+    /**
+     * 是否启用输入图像预处理
+     */
+    private boolean enabled = false;
+
+    /**
+     * 缩小后重新编码的格式，JPEG 体积最小，PNG 保留透明通道
+     */
+    private ImageOutputFormat format = ImageOutputFormat.JPEG;
+
+    /**
+     * JPEG 压缩质量，取值 0 到 1
+     */
+    private float quality = 0.9f;
+
+    /**
+     * 执行预处理的线程数，即预处理最多占用的CPU核数
+     */
+    private int threads = Runtime.getRuntime().availableProcessors();
+
+    /**
+     * 最大排队数，排队已满时跳过预处理直接上传原图
+     */
+    private int maxQueued = 64;
+}
@@ -0,0 +1,64 @@
+package com.springai.springaiimageextision.core.custom.bean;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 按模型的客户端限流配置
+ *
+ * @author 王玉涛
+ * @version 1.0
+ * @since 2025/10/1
+ */
+@Data
+@Configuration
+@ConfigurationProperties("ai.enhanced.image.rate-limit")
+public class ImageRateLimitProperties {
+
+    /**
+     * 是否启用客户端限流
+     */
+    private boolean enabled = false;
+
+    /**
+     * 未单独配置的模型每分钟允许的请求数，小于等于0表示不限流
+     */
+    private double requestsPerMinute = 0;
+
+    /**
+     * 未单独配置的模型允许的突发请求数
+     */
+    private int burst = 1;
+
+    /**
+     * 请求等待许可的最长时间，超过后直接拒绝，为0表示许可不足时立即拒绝
+     */
+    private Duration maxWait = Duration.ofSeconds(30);
+
+    /**
+     * 按模型单独配置的配额，键为模型名称
+     */
+    private Map<String, Limit> models = new LinkedHashMap<>();
+
+    /**
+     * 单个模型的配额
+     */
+    @Data
+    public static class Limit {
+
+        /**
+         * 每分钟允许的请求数，小于等于0表示不限流
+         */
+        private double requestsPerMinute;
+
+        /**
+         * 允许的突发请求数
+         */
+        private int burst = 1;
+    }
+}
@@ -0,0 +1,75 @@
+package com.springai.springaiimageextision.core.custom.bean;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * 图像生成调用的容错策略配置：退避重试、重试预算与熔断
+ *
+ * @author 王玉涛
+ * @version 1.0
+ * @since 2025/10/1
+ */
+@Data
+@Configuration
+@ConfigurationProperties("ai.enhanced.image.resilience")
+public class ImageResilienceProperties {
+
+    /**
+     * 是否启用自适应容错策略，关闭时使用默认重试模板
+     */
+    private boolean enabled = false;
+
+    /**
+     * 最大调用次数（包含首次调用）
+     */
+    private int maxAttempts = 4;
+
+    /**
+     * 首次重试的退避上限，实际等待时间在0到上限之间随机
+     */
+    private Duration initialBackoff = Duration.ofMillis(500);
+
+    /**
+     * 退避上限的最大值
+     */
+    private Duration maxBackoff = Duration.ofSeconds(20);
+
+    /**
+     * 退避上限的增长倍数
+     */
+    private double multiplier = 2.0;
+
+    /**
+     * 可接受的Retry-After最大值，服务端要求等待更久时直接放弃重试
+     */
+    private Duration maxRetryAfter = Duration.ofSeconds(60);
+
+    /**
+     * 一次调用（含所有重试）的整体截止时间
+     */
+    private Duration deadline = Duration.ofMinutes(2);
+
+    /**
+     * 重试预算比例，重试次数不超过成功次数的该比例
+     */
+    private double retryBudgetRatio = 0.2;
+
+    /**
+     * 重试预算的保底额度，也是额度上限
+     */
+    private int retryBudgetReserve = 10;
+
+    /**
+     * 触发熔断的连续失败次数
+     */
+    private int failureThreshold = 5;
+
+    /**
+     * 熔断器打开的持续时间，之后放行一个探测请求
+     */
+    private Duration openDuration = Duration.ofSeconds(30);
+}
@@ -0,0 +1,50 @@
+package com.springai.springaiimageextision.core.custom.bean;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * 请求调度器配置：按请求类别与模型隔离并发，交互式请求优先于批量请求
+ *
+ * @author 王玉涛
+ * @version 1.0
+ * @since 2025/10/1
+ */
+@Data
+@Configuration
+@ConfigurationProperties("ai.enhanced.image.scheduler")
+public class ImageSchedulerProperties {
+
+    /**
+     * 是否启用请求调度器
+     */
+    private boolean enabled = false;
+
+    /**
+     * 交互式请求（单张文生图、图生图）的最大并发数
+     */
+    private int interactiveConcurrency = 32;
+
+    /**
+     * 批量请求（图像接龙）的最大并发数
+     */
+    private int batchConcurrency = 8;
+
+    /**
+     * 单个模型的最大并发数
+     */
+    private int modelConcurrency = 32;
+
+    /**
+     * 每个优先级通道的最大排队数
+     */
+    private int maxQueued = 256;
+
+    /**
+     * 最长排队时间，超时后拒绝请求
+     */
+    private Duration queueTimeout = Duration.ofMinutes(2);
+}
@@ -0,0 +1,36 @@
+package com.springai.springaiimageextision.core.custom.bean;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+
+/**
+ * 临时文件空间配置：图像接龙下载中间图像时使用的目录与配额
+ *
+ * @author 王玉涛
+ * @version 1.0
+ * @since 2025/10/1
+ */
+@Data
+@Configuration
+@ConfigurationProperties("ai.enhanced.image.scratch")
+public class ImageScratchProperties {
+
+    /**
+     * 是否将下载的中间图像写入临时文件，关闭时保存在内存中
+     */
+    private boolean enabled = true;
+
+    /**
+     * 临时文件目录，由应用独占，启动时会清理其中遗留的临时文件
+     */
+    private Path directory = Path.of("data", "scratch");
+
+    /**
+     * 临时文件空间配额，超过后拒绝新的下载
+     */
+    private DataSize maxSize = DataSize.ofMegabytes(1024);
+}
@@ -0,0 +1,26 @@
+package com.springai.springaiimageextision.core.custom.bean;
+
+import com.springai.springaiimageextision.core.client.SolitaireChainMode;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 图像接龙配置
+ *
+ * @author 王玉涛
+ * @version 1.0
+ * @since 2025/10/1
+ */
+@Data
+@Configuration
+@ConfigurationProperties("ai.enhanced.image.solitaire")
+public class ImageSolitaireProperties {
+
+    /**
+     * 步骤衔接方式
+     * 可选值：download、url-passthrough、b64-json
+     * 默认下载后重新编码，模型支持URL输入时建议使用 url-passthrough 以跳过每一步的下载与编码
+     */
+    private SolitaireChainMode chainMode = SolitaireChainMode.DOWNLOAD;
+}
@@ -0,0 +1,36 @@
+package com.springai.springaiimageextision.core.custom.bean;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+
+/**
+ * 本地图像存储配置：按内容寻址保存生成的图像，避免重复下载与厂商链接过期
+ *
+ * @author 王玉涛
+ * @version 1.0
+ * @since 2025/10/1
+ */
+@Data
+@Configuration
+@ConfigurationProperties("ai.enhanced.image.store")
+public class ImageStoreProperties {
+
+    /**
+     * 是否启用本地图像存储
+     */
+    private boolean enabled = true;
+
+    /**
+     * 存储目录，由应用独占，重启后保留并重建索引
+     */
+    private Path directory = Path.of("data", "images");
+
+    /**
+     * 存储配额，超过后淘汰最久未访问的图像
+     */
+    private DataSize maxSize = DataSize.ofGigabytes(2);
+}
@@ -0,0 +1,77 @@
+package com.springai.springaiimageextision.core.custom.bean;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * 图像生成API的HTTP传输层配置
+ * 复用长连接可避免每次请求重新进行TLS握手
+ *
+ * @author 王玉涛
+ * @version 1.0
+ * @since 2025/10/1
+ */
+@Data
+@Configuration
+@ConfigurationProperties("ai.enhanced.image.transport")
+public class ImageTransportProperties {
+
+    /**
+     * 同步调用使用的HTTP客户端实现
+     */
+    private Client client = Client.JDK;
+
+    /**
+     * 是否优先使用HTTP/2，仅对JDK客户端与响应式客户端生效，服务端不支持时自动降级为HTTP/1.1
+     */
+    private boolean http2 = true;
+
+    /**
+     * 建立连接的超时时间，同时用于下载生成的图像
+     */
+    private Duration connectTimeout = Duration.ofSeconds(10);
+
+    /**
+     * 等待响应的超时时间，图像生成耗时较长，不宜设置过短，同时用于下载生成的图像
+     */
+    private Duration readTimeout = Duration.ofMinutes(5);
+
+    /**
+     * 每个路由（目标主机）的最大连接数，仅对Apache客户端与响应式客户端生效
+     */
+    private int maxConnectionsPerRoute = 50;
+
+    /**
+     * 连接池的最大连接总数，仅对Apache客户端生效
+     */
+    private int maxConnectionsTotal = 200;
+
+    /**
+     * 空闲连接的回收时间，仅对Apache客户端与响应式客户端生效
+     */
+    private Duration idleTimeout = Duration.ofSeconds(60);
+
+    /**
+     * 连接的最长存活时间，为空表示不限制，仅对Apache客户端与响应式客户端生效
+     */
+    private Duration connectionTimeToLive;
+
+    /**
+     * HTTP客户端实现
+     */
+    public enum Client {
+
+        /**
+         * JDK HttpClient，支持HTTP/2多路复用，连接池由JDK内部管理
+         */
+        JDK,
+
+        /**
+         * Apache HttpClient 5，HTTP/1.1连接池，支持按路由限制连接数与空闲回收
+         */
+        APACHE
+    }
+}
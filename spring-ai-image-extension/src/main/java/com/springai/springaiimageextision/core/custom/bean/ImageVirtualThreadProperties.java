@@ -0,0 +1,30 @@
+package com.springai.springaiimageextision.core.custom.bean;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * 虚拟线程模式的附加配置，总开关为 spring.threads.virtual.enabled
+ *
+ * @author 王玉涛
+ * @version 1.0
+ * @since 2025/10/1
+ */
+@Data
+@Configuration
+@ConfigurationProperties("ai.enhanced.image.virtual-threads")
+public class ImageVirtualThreadProperties {
+
+    /**
+     * 是否通过JFR检测虚拟线程固定（pinning）
+     */
+    private boolean pinningDetection = true;
+
+    /**
+     * 只记录持续时间超过该阈值的固定
+     */
+    private Duration pinnedThreshold = Duration.ofMillis(20);
+}
@@ -0,0 +1,164 @@
+package com.springai.springaiimageextision.core.custom.cache;
+
+import com.springai.springaiimageextision.core.custom.option.ImageOptionsKey;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.ai.image.ImageResponse;
+import org.springframework.util.Assert;
+
+import java.io.InterruptedIOException;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Supplier;
+
+/**
+ * 相同图像生成请求的合并器（single-flight）。
+ * 合并后选项完全相同的并发请求只会触发一次底层调用，其余调用方等待并共享同一个 {@link ImageResponse}。
+ * 在途请求登记在 {@link ConcurrentHashMap} 中，通过 putIfAbsent 无锁地选出执行者。
+ * <p>
+ * 取消语义：等待中的调用方被中断只会让其自身退出，不影响共享的请求；
+ * 执行者被中断导致请求失败时，等待中的调用方会重新竞争执行，而不是收到他人的取消异常。
+ *
+ * @author 王玉涛
+ * @since 0.8.0
+ */
+public class ImageRequestCoalescer {
+
+	private static final Logger logger = LoggerFactory.getLogger(ImageRequestCoalescer.class);
+
+	/**
+	 * 在途请求登记表。
+	 */
+	private final ConcurrentHashMap<ImageOptionsKey, CompletableFuture<ImageResponse>> inFlight = new ConcurrentHashMap<>();
+
+	private final Counter executed;
+
+	private final Counter coalesced;
+
+	/**
+	 * 创建请求合并器。
+	 * @param meterRegistry 指标注册表
+	 */
+	public ImageRequestCoalescer(MeterRegistry meterRegistry) {
+		Assert.notNull(meterRegistry, "meterRegistry 不能为空");
+		this.executed = Counter.builder("enhanced.image.coalesce.calls").tag("role", "leader")
+			.description("实际发起底层调用的请求数").register(meterRegistry);
+		this.coalesced = Counter.builder("enhanced.image.coalesce.calls").tag("role", "follower")
+			.description("被合并到在途请求的请求数").register(meterRegistry);
+		Gauge.builder("enhanced.image.coalesce.in.flight", this.inFlight, ConcurrentHashMap::size)
+			.description("在途的去重请求数").register(meterRegistry);
+	}
+
+	/**
+	 * 执行请求，若已有相同的请求在途则等待并共享其结果。
+	 * @param key 请求标识
+	 * @param supplier 实际发起调用的函数
+	 * @return 图像生成响应
+	 */
+	public ImageResponse execute(ImageOptionsKey key, Supplier<ImageResponse> supplier) {
+		Assert.notNull(key, "key 不能为空");
+		Assert.notNull(supplier, "supplier 不能为空");
+
+		while (true) {
+			CompletableFuture<ImageResponse> created = new CompletableFuture<>();
+			CompletableFuture<ImageResponse> existing = this.inFlight.putIfAbsent(key, created);
+			if (existing == null) {
+				return lead(key, created, supplier);
+			}
+
+			this.coalesced.increment();
+			try {
+				return await(existing);
+			}
+			catch (LeaderCancelledException ex) {
+				logger.debug("在途请求的执行者已取消，重新发起请求, model: {}", key.model());
+			}
+		}
+	}
+
+	/**
+	 * 当前在途的去重请求数。
+	 * @return 在途请求数
+	 */
+	public int inFlightCount() {
+		return this.inFlight.size();
+	}
+
+	/**
+	 * 作为执行者发起调用，并把结果发布给等待者。
+	 */
+	private ImageResponse lead(ImageOptionsKey key, CompletableFuture<ImageResponse> created,
+			Supplier<ImageResponse> supplier) {
+		this.executed.increment();
+		try {
+			ImageResponse response = supplier.get();
+			created.complete(response);
+			return response;
+		}
+		catch (RuntimeException | Error ex) {
+			created.completeExceptionally(isCancellation(ex) ? new LeaderCancelledException(ex) : ex);
+			throw ex;
+		}
+		finally {
+			this.inFlight.remove(key, created);
+		}
+	}
+
+	/**
+	 * 等待共享请求完成，只有当前线程被中断时才提前退出。
+	 */
+	private static ImageResponse await(CompletableFuture<ImageResponse> future) {
+		try {
+			return future.get();
+		}
+		catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			CancellationException cancellation = new CancellationException("等待合并的图像生成请求时被中断");
+			cancellation.initCause(ex);
+			throw cancellation;
+		}
+		catch (ExecutionException ex) {
+			Throwable cause = ex.getCause();
+			if (cause instanceof RuntimeException runtimeException) {
+				throw runtimeException;
+			}
+			if (cause instanceof Error error) {
+				throw error;
+			}
+			throw new IllegalStateException(cause);
+		}
+	}
+
+	/**
+	 * 判断执行者的失败是否由自身被取消（中断）导致。
+	 */
+	private static boolean isCancellation(Throwable ex) {
+		if (Thread.currentThread().isInterrupted()) {
+			return true;
+		}
+		for (Throwable cause = ex; cause != null; cause = cause.getCause()) {
+			if (cause instanceof InterruptedException || cause instanceof InterruptedIOException
+					|| cause instanceof CancellationException) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * 执行者被取消时发布给等待者的异常，等待者收到后会重新发起请求。
+	 */
+	private static final class LeaderCancelledException extends RuntimeException {
+
+		private LeaderCancelledException(Throwable cause) {
+			super("在途请求的执行者已取消", cause);
+		}
+
+	}
+
+}
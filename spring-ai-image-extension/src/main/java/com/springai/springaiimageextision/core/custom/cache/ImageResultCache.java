@@ -0,0 +1,208 @@
+package com.springai.springaiimageextision.core.custom.cache;
+
+import com.springai.springaiimageextision.core.custom.option.EnhancedImageOptions;
+import com.springai.springaiimageextision.core.custom.option.ImageOptionsKey;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.ai.image.ImageResponse;
+import org.springframework.util.Assert;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * 图像生成结果缓存。
+ * 以 {@link ImageOptionsKey} 为键缓存 {@link ImageResponse}，按容量做 LRU 淘汰并按 TTL 过期。
+ * 只有可复现的请求才值得缓存，默认要求请求显式指定 seed。
+ * 注意：url 格式的响应中厂商返回的图像链接本身存在有效期，TTL 应小于该有效期。
+ *
+ * @author 王玉涛
+ * @since 0.8.0
+ */
+public class ImageResultCache {
+
+	private static final Logger logger = LoggerFactory.getLogger(ImageResultCache.class);
+
+	/**
+	 * 最大缓存条目数。
+	 */
+	private final int maxSize;
+
+	/**
+	 * 条目的存活时间（纳秒）。
+	 */
+	private final long ttlNanos;
+
+	/**
+	 * 是否只缓存显式指定了 seed 的请求。
+	 */
+	private final boolean requireSeed;
+
+	/**
+	 * 按访问顺序排列的缓存条目，由 lock 保护。
+	 */
+	private final LinkedHashMap<ImageOptionsKey, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+	private final ReentrantLock lock = new ReentrantLock();
+
+	private final Counter hits;
+
+	private final Counter misses;
+
+	private final Counter evictions;
+
+	/**
+	 * 创建图像生成结果缓存。
+	 * @param maxSize 最大缓存条目数
+	 * @param ttl 条目的存活时间
+	 * @param requireSeed 是否只缓存显式指定了 seed 的请求
+	 * @param meterRegistry 指标注册表
+	 */
+	public ImageResultCache(int maxSize, Duration ttl, boolean requireSeed, MeterRegistry meterRegistry) {
+		Assert.isTrue(maxSize > 0, "maxSize 必须大于 0");
+		Assert.notNull(ttl, "ttl 不能为空");
+		Assert.isTrue(!ttl.isNegative() && !ttl.isZero(), "ttl 必须大于 0");
+		Assert.notNull(meterRegistry, "meterRegistry 不能为空");
+		this.maxSize = maxSize;
+		this.ttlNanos = ttl.toNanos();
+		this.requireSeed = requireSeed;
+		this.hits = Counter.builder("enhanced.image.cache.gets").tag("result", "hit")
+			.description("图像生成结果缓存命中次数").register(meterRegistry);
+		this.misses = Counter.builder("enhanced.image.cache.gets").tag("result", "miss")
+			.description("图像生成结果缓存未命中次数").register(meterRegistry);
+		this.evictions = Counter.builder("enhanced.image.cache.evictions")
+			.description("图像生成结果缓存淘汰次数").register(meterRegistry);
+		Gauge.builder("enhanced.image.cache.size", this, ImageResultCache::size)
+			.description("图像生成结果缓存条目数").register(meterRegistry);
+	}
+
+	/**
+	 * 判断请求是否可以缓存。
+	 * @param options 合并后的图像选项
+	 * @return true 表示可以缓存
+	 */
+	public boolean isCacheable(EnhancedImageOptions options) {
+		return !this.requireSeed || Objects.nonNull(options.getSeed());
+	}
+
+	/**
+	 * 获取缓存的结果，未命中时通过 loader 生成并缓存非空结果。
+	 * @param key 请求标识
+	 * @param loader 未命中时的结果生成器
+	 * @return 图像生成响应
+	 */
+	public ImageResponse get(ImageOptionsKey key, Supplier<ImageResponse> loader) {
+		ImageResponse cached = getIfPresent(key);
+		if (cached != null) {
+			this.hits.increment();
+			return cached;
+		}
+		this.misses.increment();
+
+		ImageResponse response = loader.get();
+		if (response != null && !response.getResults().isEmpty()) {
+			put(key, response);
+		}
+		return response;
+	}
+
+	/**
+	 * 获取未过期的缓存结果。
+	 * @param key 请求标识
+	 * @return 缓存的结果，不存在或已过期时返回 null
+	 */
+	public ImageResponse getIfPresent(ImageOptionsKey key) {
+		this.lock.lock();
+		try {
+			Entry entry = this.entries.get(key);
+			if (entry == null) {
+				return null;
+			}
+			if (entry.isExpired(System.nanoTime())) {
+				this.entries.remove(key);
+				this.evictions.increment();
+				return null;
+			}
+			return entry.response();
+		}
+		finally {
+			this.lock.unlock();
+		}
+	}
+
+	/**
+	 * 写入缓存，超出容量时淘汰最久未访问的条目并顺带清理过期条目。
+	 * @param key 请求标识
+	 * @param response 图像生成响应
+	 */
+	public void put(ImageOptionsKey key, ImageResponse response) {
+		this.lock.lock();
+		try {
+			long now = System.nanoTime();
+			this.entries.put(key, new Entry(response, now + this.ttlNanos));
+
+			Iterator<Map.Entry<ImageOptionsKey, Entry>> iterator = this.entries.entrySet().iterator();
+			while (iterator.hasNext()) {
+				Map.Entry<ImageOptionsKey, Entry> eldest = iterator.next();
+				if (this.entries.size() <= this.maxSize && !eldest.getValue().isExpired(now)) {
+					break;
+				}
+				iterator.remove();
+				this.evictions.increment();
+			}
+		}
+		finally {
+			this.lock.unlock();
+		}
+		logger.debug("缓存图像生成结果, model: {}, seed: {}", key.model(), key.seed());
+	}
+
+	/**
+	 * 当前缓存条目数。
+	 * @return 条目数
+	 */
+	public int size() {
+		this.lock.lock();
+		try {
+			return this.entries.size();
+		}
+		finally {
+			this.lock.unlock();
+		}
+	}
+
+	/**
+	 * 清空缓存。
+	 */
+	public void clear() {
+		this.lock.lock();
+		try {
+			this.entries.clear();
+		}
+		finally {
+			this.lock.unlock();
+		}
+	}
+
+	/**
+	 * 缓存条目。
+	 * @param response 图像生成响应
+	 * @param expiresAt 过期时间点（System.nanoTime）
+	 */
+	private record Entry(ImageResponse response, long expiresAt) {
+
+		boolean isExpired(long now) {
+			return now - this.expiresAt >= 0;
+		}
+
+	}
+
+}
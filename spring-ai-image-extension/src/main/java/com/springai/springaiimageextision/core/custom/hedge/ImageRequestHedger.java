@@ -0,0 +1,250 @@
+package com.springai.springaiimageextision.core.custom.hedge;
+
+import com.springai.springaiimageextision.core.util.ThreadUtils;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.ai.image.ImageResponse;
+import org.springframework.util.Assert;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * 对冲请求执行器，用于削减图像生成调用的长尾延迟。
+ * 首个请求在最近观测耗时的指定分位数内仍未返回时，再发起一个对冲请求，
+ * 采用先成功返回的结果并取消另一个。对冲请求数受预算限制，不超过总请求数的固定比例。
+ *
+ * @author 王玉涛
+ * @since 0.8.0
+ */
+public class ImageRequestHedger {
+
+	private static final Logger logger = LoggerFactory.getLogger(ImageRequestHedger.class);
+
+	/**
+	 * 预算的定点数精度。
+	 */
+	private static final long SCALE = 1000;
+
+	private final Executor executor;
+
+	private final double percentile;
+
+	private final long minDelayNanos;
+
+	private final int minSamples;
+
+	private final LatencyTracker latencyTracker;
+
+	/**
+	 * 每个请求存入的对冲额度。
+	 */
+	private final long budgetDeposit;
+
+	/**
+	 * 对冲额度上限，最多累积 10 次对冲。
+	 */
+	private final long budgetCapacity;
+
+	private final AtomicLong budget;
+
+	private final Counter issued;
+
+	private final Counter hedgeWins;
+
+	private final Counter budgetExhausted;
+
+	/**
+	 * 创建对冲请求执行器。
+	 * @param executor 执行请求的执行器，不应与调用方共用有界线程池，避免嵌套等待导致线程耗尽
+	 * @param percentile 触发对冲的耗时分位数，如 0.95
+	 * @param minDelay 对冲等待时间的下限
+	 * @param budgetPercent 对冲请求占总请求的最大百分比
+	 * @param windowSize 耗时统计窗口的样本数
+	 * @param minSamples 开始对冲前需要的最少样本数
+	 * @param meterRegistry 指标注册表
+	 */
+	public ImageRequestHedger(Executor executor, double percentile, Duration minDelay, double budgetPercent,
+			int windowSize, int minSamples, MeterRegistry meterRegistry) {
+		Assert.notNull(executor, "executor 不能为空");
+		Assert.isTrue(percentile > 0 && percentile <= 1, "percentile 必须在 (0, 1] 之间");
+		Assert.notNull(minDelay, "minDelay 不能为空");
+		Assert.isTrue(budgetPercent >= 0 && budgetPercent <= 100, "budgetPercent 必须在 [0, 100] 之间");
+		Assert.isTrue(windowSize > 0, "windowSize 必须大于 0");
+		Assert.notNull(meterRegistry, "meterRegistry 不能为空");
+		this.executor = executor;
+		this.percentile = percentile;
+		this.minDelayNanos = minDelay.toNanos();
+		this.minSamples = minSamples;
+		this.latencyTracker = new LatencyTracker(windowSize);
+		this.budgetDeposit = Math.round(budgetPercent / 100 * SCALE);
+		this.budgetCapacity = 10 * SCALE;
+		this.budget = new AtomicLong(0);
+		this.issued = Counter.builder("enhanced.image.hedge.issued")
+			.description("发起的对冲请求数")
+			.register(meterRegistry);
+		this.hedgeWins = Counter.builder("enhanced.image.hedge.wins")
+			.description("对冲请求先于首个请求返回的次数")
+			.register(meterRegistry);
+		this.budgetExhausted = Counter.builder("enhanced.image.hedge.budget.exhausted")
+			.description("因对冲预算耗尽而未发起的对冲次数")
+			.register(meterRegistry);
+		Gauge.builder("enhanced.image.hedge.delay", this, hedger -> hedger.hedgeDelayNanos() / 1e6)
+			.description("当前的对冲等待时间（毫秒）")
+			.register(meterRegistry);
+	}
+
+	/**
+	 * 执行请求，超过对冲等待时间仍未返回时发起对冲请求。
+	 * @param primary 首个请求
+	 * @param hedge 对冲请求，可以与首个请求相同，也可以发往备用端点
+	 * @return 先成功返回的响应
+	 */
+	public ImageResponse execute(Supplier<ImageResponse> primary, Supplier<ImageResponse> hedge) {
+		Assert.notNull(primary, "primary 不能为空");
+		Assert.notNull(hedge, "hedge 不能为空");
+		deposit();
+
+		long delayNanos = hedgeDelayNanos();
+		CompletableFuture<ImageResponse> first = attempt(primary);
+		CompletableFuture<ImageResponse> second = null;
+		try {
+			if (delayNanos < 0) {
+				return await(first);
+			}
+			try {
+				return first.get(delayNanos, TimeUnit.NANOSECONDS);
+			}
+			catch (TimeoutException ex) {
+				if (!tryWithdraw()) {
+					this.budgetExhausted.increment();
+					return await(first);
+				}
+			}
+			catch (InterruptedException ex) {
+				throw interrupted(ex);
+			}
+			catch (ExecutionException ex) {
+				throw unwrap(ex);
+			}
+
+			this.issued.increment();
+			logger.debug("请求超过 {} 毫秒未返回，发起对冲请求", TimeUnit.NANOSECONDS.toMillis(delayNanos));
+			second = attempt(hedge);
+			CompletableFuture<ImageResponse> hedgeAttempt = second;
+			ImageResponse response = await(firstSuccessful(first, second));
+			if (hedgeAttempt.isDone() && !hedgeAttempt.isCompletedExceptionally() && hedgeAttempt.join() == response) {
+				this.hedgeWins.increment();
+			}
+			return response;
+		}
+		finally {
+			// 取消未完成的一方，释放执行线程与网络连接
+			first.cancel(true);
+			if (second != null) {
+				second.cancel(true);
+			}
+		}
+	}
+
+	/**
+	 * 当前的对冲等待时间。
+	 * @return 纳秒数，样本不足时返回 -1 表示不对冲
+	 */
+	public long hedgeDelayNanos() {
+		long latency = this.latencyTracker.percentile(this.percentile, this.minSamples);
+		return latency < 0 ? -1 : Math.max(this.minDelayNanos, latency);
+	}
+
+	/**
+	 * 在执行器上发起一次请求，成功时记录耗时。
+	 */
+	private CompletableFuture<ImageResponse> attempt(Supplier<ImageResponse> supplier) {
+		long start = System.nanoTime();
+		return ThreadUtils.supplyCancellable(() -> {
+			ImageResponse response = supplier.get();
+			this.latencyTracker.record(System.nanoTime() - start);
+			return response;
+		}, this.executor, null);
+	}
+
+	/**
+	 * 返回先成功完成的结果，两者都失败时返回后一个失败。
+	 */
+	private static CompletableFuture<ImageResponse> firstSuccessful(CompletableFuture<ImageResponse> first,
+			CompletableFuture<ImageResponse> second) {
+		CompletableFuture<ImageResponse> winner = new CompletableFuture<>();
+		AtomicInteger failures = new AtomicInteger();
+		for (CompletableFuture<ImageResponse> future : List.of(first, second)) {
+			future.whenComplete((response, ex) -> {
+				if (ex == null) {
+					winner.complete(response);
+				}
+				else if (failures.incrementAndGet() == 2) {
+					winner.completeExceptionally(ex);
+				}
+			});
+		}
+		return winner;
+	}
+
+	private void deposit() {
+		this.budget.accumulateAndGet(this.budgetDeposit,
+				(current, delta) -> Math.min(this.budgetCapacity, current + delta));
+	}
+
+	private boolean tryWithdraw() {
+		while (true) {
+			long current = this.budget.get();
+			if (current < SCALE) {
+				return false;
+			}
+			if (this.budget.compareAndSet(current, current - SCALE)) {
+				return true;
+			}
+		}
+	}
+
+	private static ImageResponse await(CompletableFuture<ImageResponse> future) {
+		try {
+			return future.get();
+		}
+		catch (InterruptedException ex) {
+			throw interrupted(ex);
+		}
+		catch (ExecutionException ex) {
+			throw unwrap(ex);
+		}
+	}
+
+	private static CancellationException interrupted(InterruptedException ex) {
+		Thread.currentThread().interrupt();
+		CancellationException cancellation = new CancellationException("等待图像生成请求时被中断");
+		cancellation.initCause(ex);
+		return cancellation;
+	}
+
+	private static RuntimeException unwrap(ExecutionException ex) {
+		Throwable cause = ex.getCause();
+		if (cause instanceof RuntimeException runtimeException) {
+			return runtimeException;
+		}
+		if (cause instanceof Error error) {
+			throw error;
+		}
+		return new IllegalStateException(cause);
+	}
+
+}
@@ -0,0 +1,49 @@
+package com.springai.springaiimageextision.core.custom.hedge;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 最近调用耗时的环形缓冲区，写入无锁，读取时对快照排序计算分位数。
+ * 图像生成调用以秒计，窗口只有几百个样本，排序开销可以忽略。
+ *
+ * @author 王玉涛
+ * @since 0.8.0
+ */
+final class LatencyTracker {
+
+	private final AtomicLongArray samples;
+
+	private final AtomicLong count = new AtomicLong();
+
+	LatencyTracker(int windowSize) {
+		this.samples = new AtomicLongArray(windowSize);
+	}
+
+	void record(long nanos) {
+		long index = this.count.getAndIncrement();
+		this.samples.set((int) (index % this.samples.length()), nanos);
+	}
+
+	/**
+	 * 计算最近样本的分位数。
+	 * @param percentile 分位数，取值 (0, 1]
+	 * @param minSamples 最少样本数
+	 * @return 分位数对应的耗时（纳秒），样本不足时返回 -1
+	 */
+	long percentile(double percentile, int minSamples) {
+		int size = (int) Math.min(this.count.get(), this.samples.length());
+		if (size < minSamples || size == 0) {
+			return -1;
+		}
+		long[] snapshot = new long[size];
+		for (int i = 0; i < size; i++) {
+			snapshot[i] = this.samples.get(i);
+		}
+		Arrays.sort(snapshot);
+		int rank = (int) Math.ceil(percentile * size) - 1;
+		return snapshot[Math.max(0, Math.min(size - 1, rank))];
+	}
+
+}
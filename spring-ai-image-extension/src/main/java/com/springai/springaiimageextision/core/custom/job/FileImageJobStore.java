@@ -0,0 +1,257 @@
+package com.springai.springaiimageextision.core.custom.job;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.util.Assert;
+
+/**
+ * 基于日志文件的任务存储，使排队中和执行中的任务在进程重启后可以恢复。
+ * <p>
+ * 读写都委托给另一个存储（通常是 {@link InMemoryImageJobStore}），每次变更额外以一行JSON追加到日志文件，
+ * 删除记为只有标识、没有状态的墓碑行。启动时按顺序回放日志，同一任务以最后一行为准；
+ * 起始图像体积较大且提交后不再变化，每个任务只在第一行写入，之后的行省略该字段，回放时沿用之前的值。
+ * 追加次数超过当前任务数的两倍，或追加的字符数超过上次压缩后日志的大小时，用当前快照重写日志，避免日志无限增长。
+ * 追加后只刷新到操作系统，不强制落盘。
+ *
+ * @author 王玉涛
+ * @since 0.8.0
+ */
+@Slf4j
+public class FileImageJobStore implements ImageJobStore, Closeable {
+
+	/**
+	 * 触发日志压缩的最小追加次数。
+	 */
+	private static final int MIN_COMPACT_APPENDS = 1000;
+
+	/**
+	 * 触发日志压缩的最小追加字符数。
+	 */
+	private static final long MIN_COMPACT_CHARS = 64L * 1024 * 1024;
+
+	private final Path journal;
+
+	private final ImageJobStore delegate;
+
+	private final ObjectMapper objectMapper;
+
+	/**
+	 * 保护日志写入，持有期间会执行文件IO，因此不使用 synchronized，避免虚拟线程被固定。
+	 */
+	private final ReentrantLock lock = new ReentrantLock();
+
+	private BufferedWriter writer;
+
+	private int appends;
+
+	/**
+	 * 压缩后追加的字符数。
+	 */
+	private long appendedChars;
+
+	/**
+	 * 上次压缩后日志的字符数。
+	 */
+	private long compactedChars;
+
+	/**
+	 * 当前日志中已写入起始图像的任务，之后追加的快照省略起始图像。
+	 * 起始图像在任务结束时清空，因此只包含未结束的任务。
+	 */
+	private final Set<String> journaledImages = new HashSet<>();
+
+	/**
+	 * 创建日志文件任务存储，并回放已有日志。
+	 * @param journal 日志文件路径，父目录不存在时自动创建
+	 * @param delegate 实际保存任务的存储
+	 * @param objectMapper JSON序列化工具
+	 */
+	public FileImageJobStore(Path journal, ImageJobStore delegate, ObjectMapper objectMapper) {
+		Assert.notNull(journal, "journal 不能为空");
+		Assert.notNull(delegate, "delegate 不能为空");
+		Assert.notNull(objectMapper, "objectMapper 不能为空");
+		this.journal = journal;
+		this.delegate = delegate;
+		this.objectMapper = objectMapper;
+		try {
+			Path parent = journal.toAbsolutePath().getParent();
+			if (parent != null) {
+				Files.createDirectories(parent);
+			}
+			replay();
+			compact();
+		}
+		catch (IOException e) {
+			throw new UncheckedIOException("读取任务日志失败: " + journal, e);
+		}
+	}
+
+	@Override
+	public void save(ImageJob job) {
+		this.lock.lock();
+		try {
+			this.delegate.save(job);
+			append(job);
+		}
+		finally {
+			this.lock.unlock();
+		}
+	}
+
+	@Override
+	public Optional<ImageJob> find(String id) {
+		return this.delegate.find(id);
+	}
+
+	@Override
+	public List<ImageJob> findAll() {
+		return this.delegate.findAll();
+	}
+
+	@Override
+	public void delete(String id) {
+		this.lock.lock();
+		try {
+			this.delegate.delete(id);
+			this.journaledImages.remove(id);
+			append(ImageJob.builder().id(id).build());
+		}
+		finally {
+			this.lock.unlock();
+		}
+	}
+
+	@Override
+	public void close() throws IOException {
+		this.lock.lock();
+		try {
+			this.writer.close();
+		}
+		finally {
+			this.lock.unlock();
+		}
+	}
+
+	private void replay() throws IOException {
+		if (!Files.exists(this.journal)) {
+			return;
+		}
+		Map<String, ImageJob> latest = new LinkedHashMap<>();
+		try (BufferedReader reader = Files.newBufferedReader(this.journal, StandardCharsets.UTF_8)) {
+			String line;
+			while ((line = reader.readLine()) != null) {
+				if (line.isBlank()) {
+					continue;
+				}
+				ImageJob job;
+				try {
+					job = this.objectMapper.readValue(line, ImageJob.class);
+				}
+				catch (JsonProcessingException e) {
+					// 进程在写入过程中退出时最后一行可能不完整
+					log.warn("跳过无法解析的任务日志行: {}", this.journal, e);
+					continue;
+				}
+				if (job.getStatus() == null) {
+					latest.remove(job.getId());
+					continue;
+				}
+				ImageJob previous = latest.get(job.getId());
+				if (job.getImage() == null && previous != null && !job.getStatus().isFinished()) {
+					// 省略了起始图像的快照沿用之前写入的值
+					job = job.toBuilder().image(previous.getImage()).build();
+				}
+				latest.put(job.getId(), job);
+			}
+		}
+		for (ImageJob job : latest.values()) {
+			try {
+				this.delegate.save(job);
+			}
+			catch (IllegalStateException e) {
+				log.warn("任务存储已满，丢弃日志中的任务: {}", job.getId());
+			}
+		}
+		log.info("从任务日志恢复 {} 个任务: {}", latest.size(), this.journal);
+	}
+
+	private void append(ImageJob job) {
+		try {
+			String line = this.objectMapper.writeValueAsString(withoutJournaledImage(job));
+			this.writer.write(line);
+			this.writer.newLine();
+			this.writer.flush();
+			this.appends++;
+			this.appendedChars += line.length() + 1;
+			if (this.appends > Math.max(MIN_COMPACT_APPENDS, this.delegate.findAll().size() * 2)
+					|| this.appendedChars > Math.max(MIN_COMPACT_CHARS, this.compactedChars)) {
+				compact();
+			}
+		}
+		catch (IOException e) {
+			throw new UncheckedIOException("写入任务日志失败: " + this.journal, e);
+		}
+	}
+
+	/**
+	 * 起始图像已写入当前日志时返回省略起始图像的快照。
+	 * @param job 任务快照
+	 * @return 需要写入日志的快照
+	 */
+	private ImageJob withoutJournaledImage(ImageJob job) {
+		if (job.getImage() == null) {
+			this.journaledImages.remove(job.getId());
+			return job;
+		}
+		if (!this.journaledImages.add(job.getId())) {
+			return job.toBuilder().image(null).build();
+		}
+		return job;
+	}
+
+	/**
+	 * 用当前任务快照重写日志：先写入临时文件再原子替换，替换前的日志始终完整。
+	 */
+	private void compact() throws IOException {
+		if (this.writer != null) {
+			this.writer.close();
+		}
+		Path temp = this.journal.resolveSibling(this.journal.getFileName() + ".tmp");
+		long chars = 0;
+		this.journaledImages.clear();
+		try (BufferedWriter out = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+			for (ImageJob job : this.delegate.findAll()) {
+				String line = this.objectMapper.writeValueAsString(withoutJournaledImage(job));
+				out.write(line);
+				out.newLine();
+				chars += line.length() + 1;
+			}
+		}
+		Files.move(temp, this.journal, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		this.writer = Files.newBufferedWriter(this.journal, StandardCharsets.UTF_8, StandardOpenOption.CREATE,
+				StandardOpenOption.APPEND);
+		this.appends = 0;
+		this.appendedChars = 0;
+		this.compactedChars = chars;
+	}
+
+}
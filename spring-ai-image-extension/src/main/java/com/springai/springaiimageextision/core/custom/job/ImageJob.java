@@ -0,0 +1,75 @@
+package com.springai.springaiimageextision.core.custom.job;
+
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.springai.springaiimageextision.core.client.SolitaireStep;
+
+import lombok.Builder;
+import lombok.Value;
+import lombok.extern.jackson.Jacksonized;
+
+/**
+ * 异步图像接龙任务。任务在存储中按不可变快照保存，状态变化时以新快照整体替换，
+ * 因此读取方拿到的对象不会被执行线程并发修改。
+ *
+ * @author 王玉涛
+ * @since 0.8.0
+ */
+@Value
+@Builder(toBuilder = true)
+@Jacksonized
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ImageJob {
+
+	/**
+	 * 任务标识。
+	 */
+	private String id;
+
+	/**
+	 * 任务状态。
+	 */
+	private ImageJobStatus status;
+
+	/**
+	 * 初始文本提示，没有起始图像时用于生成第0步。
+	 */
+	private String prompt;
+
+	/**
+	 * 图像编辑提示词列表。
+	 */
+	private List<String> prompts;
+
+	/**
+	 * 接龙步数。
+	 */
+	private int step;
+
+	/**
+	 * 起始图像（Base64数据URL），为null时从文本开始接龙，任务结束后清空。
+	 */
+	private String image;
+
+	/**
+	 * 已完成步骤的结果，按完成顺序排列。
+	 */
+	private List<SolitaireStep> steps;
+
+	/**
+	 * 失败原因。
+	 */
+	private String error;
+
+	/**
+	 * 创建时间（毫秒时间戳）。
+	 */
+	private long createdAt;
+
+	/**
+	 * 最后一次状态变化的时间（毫秒时间戳）。
+	 */
+	private long updatedAt;
+
+}
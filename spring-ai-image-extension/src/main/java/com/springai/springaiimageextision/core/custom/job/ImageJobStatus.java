@@ -0,0 +1,44 @@
+package com.springai.springaiimageextision.core.custom.job;
+
+/**
+ * 异步生成任务的状态。
+ *
+ * @author 王玉涛
+ * @since 0.8.0
+ */
+public enum ImageJobStatus {
+
+	/**
+	 * 已提交，等待执行。
+	 */
+	QUEUED,
+
+	/**
+	 * 正在执行。
+	 */
+	RUNNING,
+
+	/**
+	 * 执行成功。
+	 */
+	SUCCEEDED,
+
+	/**
+	 * 执行失败。
+	 */
+	FAILED,
+
+	/**
+	 * 已取消。
+	 */
+	CANCELLED;
+
+	/**
+	 * 任务是否已结束，结束的任务不会再变化，超过存活时间后可被清理。
+	 * @return 已结束返回 true
+	 */
+	public boolean isFinished() {
+		return this == SUCCEEDED || this == FAILED || this == CANCELLED;
+	}
+
+}
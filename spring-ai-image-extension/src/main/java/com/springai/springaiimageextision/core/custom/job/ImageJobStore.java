@@ -0,0 +1,50 @@
+package com.springai.springaiimageextision.core.custom.job;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * 异步生成任务的存储SPI。实现需要是线程安全的，并自行限制占用的内存。
+ *
+ * @author 王玉涛
+ * @since 0.8.0
+ * @see InMemoryImageJobStore
+ * @see FileImageJobStore
+ */
+public interface ImageJobStore {
+
+	/**
+	 * 保存任务，相同标识的任务整体替换。
+	 * @param job 任务快照
+	 * @throws IllegalStateException 新任务超出存储容量时抛出
+	 */
+	void save(ImageJob job);
+
+	/**
+	 * 根据标识查找任务。
+	 * @param id 任务标识
+	 * @return 任务快照，不存在或已过期时为空
+	 */
+	Optional<ImageJob> find(String id);
+
+	/**
+	 * 返回当前保存的全部任务，按创建顺序排列。
+	 * @return 任务快照列表
+	 */
+	List<ImageJob> findAll();
+
+	/**
+	 * 删除任务。
+	 * @param id 任务标识
+	 */
+	void delete(String id);
+
+	/**
+	 * 返回尚未结束的任务，用于重启后恢复执行。
+	 * @return 未结束的任务快照列表
+	 */
+	default List<ImageJob> findUnfinished() {
+		return findAll().stream().filter(job -> !job.getStatus().isFinished()).toList();
+	}
+
+}
@@ -0,0 +1,165 @@
+package com.springai.springaiimageextision.core.custom.job;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.locks.ReentrantLock;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.util.Assert;
+
+/**
+ * 基于内存的任务存储，默认实现。
+ * <ul>
+ * <li>最多保存 maxJobs 个任务，满时优先淘汰最早创建的已结束任务，全部未结束时拒绝新任务</li>
+ * <li>已结束的任务超过存活时间后被清理，未结束的任务不会过期</li>
+ * </ul>
+ * 进程重启后任务丢失，需要持久化时使用 {@link FileImageJobStore} 包装。
+ *
+ * @author 王玉涛
+ * @since 0.8.0
+ */
+public class InMemoryImageJobStore implements ImageJobStore {
+
+	/**
+	 * 按创建顺序保存任务，淘汰时从头部开始。
+	 */
+	private final Map<String, ImageJob> jobs = new LinkedHashMap<>();
+
+	private final ReentrantLock lock = new ReentrantLock();
+
+	private final int maxJobs;
+
+	private final long ttlMillis;
+
+	private final Counter evictions;
+
+	/**
+	 * 创建内存任务存储。
+	 * @param maxJobs 最大任务数
+	 * @param ttl 已结束任务的存活时间
+	 * @param meterRegistry 指标注册表
+	 */
+	public InMemoryImageJobStore(int maxJobs, Duration ttl, MeterRegistry meterRegistry) {
+		Assert.isTrue(maxJobs > 0, "maxJobs 必须大于 0");
+		Assert.notNull(ttl, "ttl 不能为空");
+		Assert.notNull(meterRegistry, "meterRegistry 不能为空");
+		this.maxJobs = maxJobs;
+		this.ttlMillis = ttl.toMillis();
+		this.evictions = Counter.builder("enhanced.image.job.evictions")
+			.description("因过期或容量不足被清理的任务数")
+			.register(meterRegistry);
+		Gauge.builder("enhanced.image.job.stored", this, InMemoryImageJobStore::size)
+			.description("当前保存的任务数")
+			.register(meterRegistry);
+	}
+
+	@Override
+	public void save(ImageJob job) {
+		Assert.notNull(job, "job 不能为空");
+		Assert.hasText(job.getId(), "job id 不能为空");
+		this.lock.lock();
+		try {
+			if (!this.jobs.containsKey(job.getId())) {
+				evictExpired();
+				if (this.jobs.size() >= this.maxJobs) {
+					evictOldestFinished();
+				}
+				if (this.jobs.size() >= this.maxJobs) {
+					throw new IllegalStateException("未结束的任务数已达上限 " + this.maxJobs);
+				}
+			}
+			this.jobs.put(job.getId(), job);
+		}
+		finally {
+			this.lock.unlock();
+		}
+	}
+
+	@Override
+	public Optional<ImageJob> find(String id) {
+		this.lock.lock();
+		try {
+			ImageJob job = this.jobs.get(id);
+			if (job != null && isExpired(job, System.currentTimeMillis())) {
+				this.jobs.remove(id);
+				this.evictions.increment();
+				return Optional.empty();
+			}
+			return Optional.ofNullable(job);
+		}
+		finally {
+			this.lock.unlock();
+		}
+	}
+
+	@Override
+	public List<ImageJob> findAll() {
+		this.lock.lock();
+		try {
+			evictExpired();
+			return new ArrayList<>(this.jobs.values());
+		}
+		finally {
+			this.lock.unlock();
+		}
+	}
+
+	@Override
+	public void delete(String id) {
+		this.lock.lock();
+		try {
+			this.jobs.remove(id);
+		}
+		finally {
+			this.lock.unlock();
+		}
+	}
+
+	/**
+	 * 当前保存的任务数。
+	 * @return 任务数
+	 */
+	public int size() {
+		this.lock.lock();
+		try {
+			return this.jobs.size();
+		}
+		finally {
+			this.lock.unlock();
+		}
+	}
+
+	private void evictExpired() {
+		long now = System.currentTimeMillis();
+		Iterator<ImageJob> iterator = this.jobs.values().iterator();
+		while (iterator.hasNext()) {
+			if (isExpired(iterator.next(), now)) {
+				iterator.remove();
+				this.evictions.increment();
+			}
+		}
+	}
+
+	private void evictOldestFinished() {
+		Iterator<ImageJob> iterator = this.jobs.values().iterator();
+		while (iterator.hasNext()) {
+			if (iterator.next().getStatus().isFinished()) {
+				iterator.remove();
+				this.evictions.increment();
+				return;
+			}
+		}
+	}
+
+	private boolean isExpired(ImageJob job, long now) {
+		return job.getStatus().isFinished() && now - job.getUpdatedAt() > this.ttlMillis;
+	}
+
+}
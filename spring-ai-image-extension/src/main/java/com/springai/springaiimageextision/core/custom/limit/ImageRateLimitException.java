@@ -0,0 +1,29 @@
+package com.springai.springaiimageextision.core.custom.limit;
+
+import org.springframework.ai.retry.NonTransientAiException;
+
+/**
+ * 客户端限流拒绝请求时抛出的异常。
+ * 继承 {@link NonTransientAiException}，避免重试模板在配额耗尽时继续放大请求。
+ *
+ * @author 王玉涛
+ * @since 0.8.0
+ */
+public class ImageRateLimitException extends NonTransientAiException {
+
+	private final String model;
+
+	public ImageRateLimitException(String model, String message) {
+		super(message);
+		this.model = model;
+	}
+
+	/**
+	 * 被限流的模型。
+	 * @return 模型名称
+	 */
+	public String getModel() {
+		return this.model;
+	}
+
+}
@@ -0,0 +1,204 @@
+package com.springai.springaiimageextision.core.custom.limit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.util.Assert;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 按模型划分的客户端令牌桶限流器。
+ * 在请求到达图像生成 API 之前按配额放行，使调用量稳定在厂商配额之下，而不是依赖 429 后的重试。
+ * <p>
+ * 每个模型一个令牌桶，以 GCRA（通用信元速率算法）实现：桶状态只有一个“理论到达时间”，
+ * 通过 CAS 更新，无需加锁。许可不足时请求会预约未来的令牌并等待，
+ * 等待时间超过 {@code maxWait} 的请求直接拒绝，因此等待队列的长度有界。
+ *
+ * @author 王玉涛
+ * @since 0.8.0
+ */
+public class ImageRateLimiter {
+
+	/**
+	 * 未指定模型时使用的指标标签。
+	 */
+	private static final String DEFAULT_MODEL_TAG = "default";
+
+	private final Map<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+
+	private final Map<String, Limit> modelLimits = new ConcurrentHashMap<>();
+
+	private final Limit defaultLimit;
+
+	private final long maxWaitNanos;
+
+	private final MeterRegistry meterRegistry;
+
+	/**
+	 * 创建限流器。
+	 * @param defaultRequestsPerMinute 未单独配置的模型每分钟允许的请求数，小于等于 0 表示不限流
+	 * @param defaultBurst 未单独配置的模型允许的突发请求数
+	 * @param maxWait 请求等待许可的最长时间，为 0 表示许可不足时立即拒绝
+	 * @param meterRegistry 指标注册表
+	 */
+	public ImageRateLimiter(double defaultRequestsPerMinute, int defaultBurst, Duration maxWait,
+			MeterRegistry meterRegistry) {
+		Assert.notNull(maxWait, "maxWait 不能为空");
+		Assert.isTrue(!maxWait.isNegative(), "maxWait 不能为负数");
+		Assert.notNull(meterRegistry, "meterRegistry 不能为空");
+		this.defaultLimit = new Limit(defaultRequestsPerMinute, defaultBurst);
+		this.maxWaitNanos = maxWait.toNanos();
+		this.meterRegistry = meterRegistry;
+	}
+
+	/**
+	 * 为指定模型单独配置配额。
+	 * @param model 模型名称
+	 * @param requestsPerMinute 每分钟允许的请求数，小于等于 0 表示不限流
+	 * @param burst 允许的突发请求数
+	 */
+	public void setModelLimit(String model, double requestsPerMinute, int burst) {
+		Assert.hasText(model, "model 不能为空");
+		this.modelLimits.put(model, new Limit(requestsPerMinute, burst));
+		this.buckets.remove(model);
+	}
+
+	/**
+	 * 获取一个许可，许可不足时阻塞等待。
+	 * @param model 模型名称
+	 * @throws ImageRateLimitException 等待时间超过上限时抛出
+	 * @throws CancellationException 等待期间线程被中断时抛出
+	 */
+	public void acquire(String model) {
+		long waitNanos = reserve(model).toNanos();
+		if (waitNanos <= 0) {
+			return;
+		}
+		try {
+			TimeUnit.NANOSECONDS.sleep(waitNanos);
+		}
+		catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			CancellationException cancellation = new CancellationException("等待限流许可时被中断");
+			cancellation.initCause(ex);
+			throw cancellation;
+		}
+	}
+
+	/**
+	 * 预约一个许可并返回需要等待的时间，不会阻塞调用线程，适用于响应式调用。
+	 * @param model 模型名称
+	 * @return 调用前需要等待的时间，为 0 表示可立即调用
+	 * @throws ImageRateLimitException 等待时间超过上限时抛出
+	 */
+	public Duration reserve(String model) {
+		TokenBucket bucket = bucket(model);
+		if (bucket == null) {
+			return Duration.ZERO;
+		}
+		long waitNanos = bucket.reserve(System.nanoTime(), this.maxWaitNanos);
+		if (waitNanos < 0) {
+			bucket.rejected.increment();
+			throw new ImageRateLimitException(model, "模型 " + model + " 的请求超出客户端限流配额");
+		}
+		bucket.waitTimer.record(waitNanos, TimeUnit.NANOSECONDS);
+		return Duration.ofNanos(waitNanos);
+	}
+
+	/**
+	 * 获取模型对应的令牌桶，未配置配额时返回 null。
+	 */
+	private TokenBucket bucket(String model) {
+		String tag = Objects.requireNonNullElse(model, DEFAULT_MODEL_TAG);
+		TokenBucket bucket = this.buckets.get(tag);
+		if (bucket != null) {
+			return bucket;
+		}
+		Limit limit = this.modelLimits.getOrDefault(tag, this.defaultLimit);
+		if (!limit.isLimited()) {
+			return null;
+		}
+		return this.buckets.computeIfAbsent(tag, key -> new TokenBucket(limit, key, this.meterRegistry));
+	}
+
+	/**
+	 * 单个模型的配额。
+	 */
+	private record Limit(double requestsPerMinute, int burst) {
+
+		private Limit {
+			Assert.isTrue(burst > 0, "burst 必须大于 0");
+		}
+
+		private boolean isLimited() {
+			return this.requestsPerMinute > 0;
+		}
+
+	}
+
+	/**
+	 * 基于 GCRA 的无锁令牌桶。
+	 */
+	private static final class TokenBucket {
+
+		/**
+		 * 每个许可占用的时间（纳秒）。
+		 */
+		private final long intervalNanos;
+
+		/**
+		 * 突发容量对应的时间窗口（纳秒）。
+		 */
+		private final long toleranceNanos;
+
+		/**
+		 * 理论到达时间：按配额速率放行完所有已预约请求的时刻。
+		 */
+		private final AtomicLong theoreticalArrival;
+
+		private final Timer waitTimer;
+
+		private final Counter rejected;
+
+		private TokenBucket(Limit limit, String model, MeterRegistry meterRegistry) {
+			this.intervalNanos = (long) (TimeUnit.MINUTES.toNanos(1) / limit.requestsPerMinute());
+			this.toleranceNanos = this.intervalNanos * limit.burst();
+			this.theoreticalArrival = new AtomicLong(System.nanoTime());
+			this.waitTimer = Timer.builder("enhanced.image.rate.limit.wait")
+				.description("请求等待限流许可的时间")
+				.tag("model", model)
+				.register(meterRegistry);
+			this.rejected = Counter.builder("enhanced.image.rate.limit.rejected")
+				.description("被客户端限流拒绝的请求数")
+				.tag("model", model)
+				.register(meterRegistry);
+		}
+
+		/**
+		 * 预约一个许可。
+		 * @return 需要等待的纳秒数，超过等待上限时返回 -1 且不占用许可
+		 */
+		private long reserve(long now, long maxWaitNanos) {
+			while (true) {
+				long current = this.theoreticalArrival.get();
+				long next = Math.max(current, now) + this.intervalNanos;
+				long waitNanos = next - now - this.toleranceNanos;
+				if (waitNanos > maxWaitNanos) {
+					return -1;
+				}
+				if (this.theoreticalArrival.compareAndSet(current, next)) {
+					return Math.max(0, waitNanos);
+				}
+			}
+		}
+
+	}
+
+}
@@ -2,11 +2,27 @@ package com.springai.springaiimageextision.core.custom.model;
 
 import java.util.List;
 import java.util.Objects;
+import java.util.function.Supplier;
 
 import com.springai.springaiimageextision.core.custom.api.EnhancedImageApi;
+import com.springai.springaiimageextision.core.custom.api.ReactiveEnhancedImageApi;
+import com.springai.springaiimageextision.core.custom.cache.ImageRequestCoalescer;
+import com.springai.springaiimageextision.core.custom.cache.ImageResultCache;
+import com.springai.springaiimageextision.core.custom.hedge.ImageRequestHedger;
+import com.springai.springaiimageextision.core.custom.limit.ImageRateLimiter;
 import com.springai.springaiimageextision.core.custom.option.EnhancedImageOptions;
+import com.springai.springaiimageextision.core.custom.option.ImageOptionsKey;
+import com.springai.springaiimageextision.core.custom.option.ImageSource;
+import com.springai.springaiimageextision.core.custom.prefetch.ImagePrefetcher;
+import com.springai.springaiimageextision.core.custom.preprocess.ImagePreprocessor;
+import com.springai.springaiimageextision.core.custom.resilience.ImageResiliencePolicy;
 import com.springai.springaiimageextision.core.util.BeanUtils;
+import com.springai.springaiimageextision.core.util.ReactiveRetryUtils;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.observation.Observation;
 import io.micrometer.observation.ObservationRegistry;
+import io.micrometer.observation.contextpropagation.ObservationThreadLocalAccessor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -29,6 +45,9 @@ import org.springframework.ai.retry.RetryUtils;
 import org.springframework.http.ResponseEntity;
 import org.springframework.retry.support.RetryTemplate;
 import org.springframework.util.Assert;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
 
 
 
@@ -45,6 +64,11 @@ public class EnhancedImageModel implements ImageModel {
 
 	private static final ImageModelObservationConvention DEFAULT_OBSERVATION_CONVENTION = new DefaultImageModelObservationConvention();
 
+	/**
+	 * 未指定模型时指标使用的标签值。
+	 */
+	private static final String DEFAULT_MODEL_TAG = "default";
+
 	/**
 	 * 图像生成请求的默认配置选项。
 	 * 这些选项将在未提供运行时选项时使用。
@@ -75,6 +99,66 @@ public class EnhancedImageModel implements ImageModel {
 	 */
 	private ImageModelObservationConvention observationConvention = DEFAULT_OBSERVATION_CONVENTION;
 
+	/**
+	 * 对底层图像生成 API 的响应式访问接口。
+	 * 仅在调用 {@link #reactiveCall(ImagePrompt)} 或 {@link #stream(ImagePrompt)} 时需要。
+	 */
+	private ReactiveEnhancedImageApi reactiveImageApi;
+
+	/**
+	 * 响应式调用使用的重试策略，语义与默认的重试模板保持一致。
+	 */
+	private Retry reactiveRetry = ReactiveRetryUtils.DEFAULT_RETRY;
+
+	/**
+	 * 可选的生成结果缓存。
+	 * 为 null 时每次调用都会请求底层图像生成 API。
+	 */
+	private ImageResultCache resultCache;
+
+	/**
+	 * 可选的相同请求合并器。
+	 * 为 null 时相同的并发请求会各自调用底层图像生成 API。
+	 */
+	private ImageRequestCoalescer requestCoalescer;
+
+	/**
+	 * 可选的按模型限流器。
+	 * 每次调用底层图像生成 API（包括重试）前获取许可。
+	 */
+	private ImageRateLimiter rateLimiter;
+
+	/**
+	 * 可选的容错策略。
+	 * 为 null 时同步调用使用重试模板，响应式调用使用 {@link #reactiveRetry}。
+	 */
+	private ImageResiliencePolicy resiliencePolicy;
+
+	/**
+	 * 可选的对冲请求执行器，仅用于同步的文生图调用。
+	 */
+	private ImageRequestHedger requestHedger;
+
+	/**
+	 * 对冲请求使用的备用图像生成 API，为 null 时对冲请求发往同一端点。
+	 */
+	private EnhancedImageApi hedgeImageApi;
+
+	/**
+	 * 可选的指标注册表，用于统计重试模板的重试次数。
+	 */
+	private MeterRegistry meterRegistry;
+
+	/**
+	 * 可选的输入图像预处理器，在上传前将输入图像缩小到请求的目标尺寸。
+	 */
+	private ImagePreprocessor imagePreprocessor;
+
+	/**
+	 * 可选的图像预取器，url 格式的响应返回后在后台下载图像，避免厂商链接过期。
+	 */
+	private ImagePrefetcher imagePrefetcher;
+
 	/**
 	 * 创建 EnhancedImageModel 的实例，使用默认配置。
 	 * @param enhancedImageApi 用于与图像生成 API 交互的 EnhancedImageApi 实例
@@ -123,10 +207,11 @@ public class EnhancedImageModel implements ImageModel {
 	public ImageResponse call(ImagePrompt imagePrompt) {
 		// 在继续之前，构建最终的请求 ImagePrompt，
 		// 合并运行时和默认选项。
-		EnhancedImageOptions imageOptions = mergeOptions(imagePrompt);
+		EnhancedImageOptions imageOptions = preprocess(mergeOptions(imagePrompt));
 
+		// 观测上下文使用合并后的选项，使模型、尺寸等标签反映实际请求
 		var observationContext = ImageModelObservationContext.builder()
-			.imagePrompt(imagePrompt)
+			.imagePrompt(new ImagePrompt(imagePrompt.getInstructions(), imageOptions))
 			.provider(OpenAiApiConstants.PROVIDER_NAME)
 			.build();
 
@@ -134,10 +219,7 @@ public class EnhancedImageModel implements ImageModel {
 				.observation(this.observationConvention, DEFAULT_OBSERVATION_CONVENTION, () -> observationContext,
 						this.observationRegistry)
 				.observe(() -> {
-					ResponseEntity<EnhancedImageApi.OpenAiImageResponse> imageResponseEntity = this.retryTemplate
-							.execute(ctx -> this.openAiImageApi.createImage(imageOptions));
-
-					ImageResponse imageResponse = convertResponse(imageResponseEntity, imageOptions);
+					ImageResponse imageResponse = generate(imageOptions);
 
 					observationContext.setResponse(imageResponse);
 
@@ -147,13 +229,166 @@ public class EnhancedImageModel implements ImageModel {
 		return Objects.isNull(response) ? new ImageResponse(List.of()) : response;
 	}
 
+	/**
+	 * 根据合并后的选项生成图像，配置了结果缓存且请求可缓存时优先返回缓存结果，
+	 * 未命中时与相同的在途请求合并。
+	 * @param imageOptions 合并后的选项配置
+	 * @return 图像生成响应
+	 */
+	private ImageResponse generate(EnhancedImageOptions imageOptions) {
+		boolean cacheable = this.resultCache != null && this.resultCache.isCacheable(imageOptions);
+		if (!cacheable && this.requestCoalescer == null) {
+			return createImage(imageOptions);
+		}
+
+		// 请求标识需要对输入图像做摘要，只计算一次
+		ImageOptionsKey key = ImageOptionsKey.of(imageOptions);
+		if (!cacheable) {
+			return coalesce(key, imageOptions);
+		}
+		return this.resultCache.get(key, () -> coalesce(key, imageOptions));
+	}
+
+	/**
+	 * 与相同的在途请求合并，未配置合并器时直接调用底层图像生成 API。
+	 * @param key 请求标识
+	 * @param imageOptions 合并后的选项配置
+	 * @return 图像生成响应
+	 */
+	private ImageResponse coalesce(ImageOptionsKey key, EnhancedImageOptions imageOptions) {
+		if (this.requestCoalescer == null) {
+			return createImage(imageOptions);
+		}
+		return this.requestCoalescer.execute(key, () -> createImage(imageOptions));
+	}
+
+	/**
+	 * 调用底层图像生成 API，配置了对冲执行器时文生图请求会在长尾时发起对冲请求。
+	 * 图生图请求体较大且输入图像各异，不做对冲。
+	 * @param imageOptions 合并后的选项配置
+	 * @return 图像生成响应
+	 */
+	private ImageResponse createImage(EnhancedImageOptions imageOptions) {
+		if (this.requestHedger == null || imageOptions.getImage() != null || imageOptions.getImageSource() != null) {
+			return createImage(imageOptions, this.openAiImageApi);
+		}
+		EnhancedImageApi hedgeApi = this.hedgeImageApi != null ? this.hedgeImageApi : this.openAiImageApi;
+		return this.requestHedger.execute(() -> createImage(imageOptions, this.openAiImageApi),
+				() -> createImage(imageOptions, hedgeApi));
+	}
+
+	/**
+	 * 调用指定的图像生成 API 并转换响应，失败时按容错策略（未配置时为重试模板）重试。
+	 * 配置了限流器时，每次尝试前都会先获取许可，避免重试放大对厂商配额的压力。
+	 * @param imageOptions 合并后的选项配置
+	 * @param imageApi 图像生成 API
+	 * @return 图像生成响应
+	 */
+	private ImageResponse createImage(EnhancedImageOptions imageOptions, EnhancedImageApi imageApi) {
+		Supplier<ResponseEntity<EnhancedImageApi.OpenAiImageResponse>> call = () -> {
+			if (this.rateLimiter != null) {
+				this.rateLimiter.acquire(imageOptions.getModel());
+			}
+			return imageApi.createImage(imageOptions);
+		};
+		ResponseEntity<EnhancedImageApi.OpenAiImageResponse> imageResponseEntity = this.resiliencePolicy != null
+				? this.resiliencePolicy.execute(imageOptions.getModel(), call)
+				: this.retryTemplate.execute(ctx -> {
+					if (ctx.getRetryCount() > 0) {
+						recordRetry(imageOptions.getModel());
+					}
+					return call.get();
+				});
+
+		return convertResponse(imageResponseEntity, imageOptions);
+	}
+
+	/**
+	 * 记录一次重试，与容错策略使用同一个指标，使两种重试方式的数据可以直接对比。
+	 * @param model 模型名称
+	 */
+	private void recordRetry(String model) {
+		if (this.meterRegistry == null) {
+			return;
+		}
+		Counter.builder("enhanced.image.retries")
+			.description("图像生成调用的重试次数")
+			.tag("model", Objects.requireNonNullElse(model, DEFAULT_MODEL_TAG))
+			.register(this.meterRegistry)
+			.increment();
+	}
+
+	/**
+	 * 以响应式方式根据图像提示生成图像。
+	 * 与 {@link #call(ImagePrompt)} 使用相同的选项合并、观测、重试与限流语义，但不会阻塞调用线程，
+	 * 适用于 WebFlux 等基于事件循环的部署环境。
+	 * <p>
+	 * 注意：响应式调用不经过输入图像预处理、生成结果缓存、相同请求合并与对冲请求，
+	 * 这些功能只作用于 {@link #call(ImagePrompt)}；相同选项的请求经由两种方式调用时，行为与成本可能不同。
+	 * @param imagePrompt 包含生成图像所需信息的提示
+	 * @return 图像生成响应的 Mono
+	 */
+	public Mono<ImageResponse> reactiveCall(ImagePrompt imagePrompt) {
+		Assert.state(this.reactiveImageApi != null, "未配置 ReactiveEnhancedImageApi");
+
+		return Mono.defer(() -> {
+			EnhancedImageOptions imageOptions = mergeOptions(imagePrompt);
+
+			var observationContext = ImageModelObservationContext.builder()
+				.imagePrompt(new ImagePrompt(imagePrompt.getInstructions(), imageOptions))
+				.provider(OpenAiApiConstants.PROVIDER_NAME)
+				.build();
+
+			Observation observation = ImageModelObservationDocumentation.IMAGE_MODEL_OPERATION.observation(
+					this.observationConvention, DEFAULT_OBSERVATION_CONVENTION, () -> observationContext,
+					this.observationRegistry);
+
+			observation.start();
+
+			Mono<ResponseEntity<EnhancedImageApi.OpenAiImageResponse>> call = this.resiliencePolicy != null
+					? this.resiliencePolicy.executeReactive(imageOptions.getModel(), reactiveCreateImage(imageOptions))
+					: reactiveCreateImage(imageOptions).retryWhen(this.reactiveRetry);
+
+			return call
+				.map(imageResponseEntity -> convertResponse(imageResponseEntity, imageOptions))
+				.doOnNext(observationContext::setResponse)
+				.doOnError(observation::error)
+				.doFinally(signalType -> observation.stop())
+				.contextWrite(ctx -> ctx.put(ObservationThreadLocalAccessor.KEY, observation));
+		}).defaultIfEmpty(new ImageResponse(List.of()));
+	}
+
+	/**
+	 * 以响应式方式调用底层图像生成 API，配置了限流器时先非阻塞地等待许可。
+	 * @param imageOptions 合并后的选项配置
+	 * @return 原始响应的 Mono，每次订阅（包括重试）都会重新获取许可
+	 */
+	private Mono<ResponseEntity<EnhancedImageApi.OpenAiImageResponse>> reactiveCreateImage(
+			EnhancedImageOptions imageOptions) {
+		if (this.rateLimiter == null) {
+			return this.reactiveImageApi.createImage(imageOptions);
+		}
+		return Mono.defer(() -> Mono.delay(this.rateLimiter.reserve(imageOptions.getModel())))
+			.then(this.reactiveImageApi.createImage(imageOptions));
+	}
+
+	/**
+	 * 以响应式流的方式返回生成的图像，每个元素对应一张生成结果。
+	 * @param imagePrompt 包含生成图像所需信息的提示
+	 * @return 图像生成结果的 Flux
+	 */
+	public Flux<ImageGeneration> stream(ImagePrompt imagePrompt) {
+		return reactiveCall(imagePrompt).flatMapIterable(ImageResponse::getResults);
+	}
+
 	/**
 	 * 合并运行时选项和默认选项，生成最终的图像生成配置。
 	 * 优先级顺序：运行时选项 > 默认选项
+	 * 包内可见，供基准测试直接调用。
 	 * @param imagePrompt 包含运行时选项的图像提示
 	 * @return 合并后的选项配置
 	 */
-	private EnhancedImageOptions mergeOptions(ImagePrompt imagePrompt) {
+	EnhancedImageOptions mergeOptions(ImagePrompt imagePrompt) {
 		String prompt = imagePrompt.getInstructions().get(0).getText();
 		EnhancedImageOptions enhancedImageOptions = (EnhancedImageOptions) imagePrompt.getOptions();
 
@@ -162,6 +397,7 @@ public class EnhancedImageModel implements ImageModel {
 		return EnhancedImageOptions.builder()
 				.prompt(BeanUtils.nullThenChooseOther(defaultPrompt, this.defaultOptions.getPrompt(), String.class))
 				.image(enhancedImageOptions.getImage())
+				.imageSource(enhancedImageOptions.getImageSource())
 				.n(BeanUtils.nullThenChooseOther(enhancedImageOptions.getN(), this.defaultOptions.getN(), Integer.class))
 				.size(BeanUtils.nullThenChooseOther(enhancedImageOptions.getSize(), this.defaultOptions.getSize(), String.class))
 				.model(BeanUtils.nullThenChooseOther(enhancedImageOptions.getModel(), this.defaultOptions.getModel(), String.class))
@@ -176,9 +412,24 @@ public class EnhancedImageModel implements ImageModel {
 				.guidanceScale(BeanUtils.nullThenChooseOther(enhancedImageOptions.getGuidanceScale(), this.defaultOptions.getGuidanceScale(), Integer.class))
 				.inferenceSteps(BeanUtils.nullThenChooseOther(enhancedImageOptions.getInferenceSteps(), this.defaultOptions.getInferenceSteps(), Integer.class))
 				.cfg(BeanUtils.nullThenChooseOther(enhancedImageOptions.getCfg(), this.defaultOptions.getCfg(), Double.class))
+				.affinityKey(enhancedImageOptions.getAffinityKey())
 				.build();
 	}
 
+	/**
+	 * 将输入图像缩小到合并后选项的目标宽高，未设置预处理器或输入图像不是 {@link ImageSource} 时原样返回。
+	 * @param imageOptions 合并后的选项
+	 * @return 替换输入图像后的选项
+	 */
+	private EnhancedImageOptions preprocess(EnhancedImageOptions imageOptions) {
+		ImageSource imageSource = imageOptions.getImageSource();
+		if (this.imagePreprocessor != null && imageSource != null) {
+			imageOptions.setImageSource(this.imagePreprocessor.preprocess(imageSource, imageOptions.getWidth(),
+					imageOptions.getHeight()));
+		}
+		return imageOptions;
+	}
+
 	/**
 	 * 创建 OpenAI 图像请求对象。
 	 * 该方法主要用于兼容性目的，将 ImagePrompt 转换为 OpenAI 格式的请求。
@@ -197,11 +448,12 @@ public class EnhancedImageModel implements ImageModel {
 
 	/**
 	 * 将 API 响应转换为标准的 ImageResponse 格式。
+	 * 包内可见，供基准测试直接调用。
 	 * @param imageResponseEntity 来自 API 的响应实体
 	 * @param enhancedImageOptions 用于生成图像的选项
 	 * @return 标准格式的图像响应
 	 */
-	private ImageResponse convertResponse(ResponseEntity<EnhancedImageApi.OpenAiImageResponse> imageResponseEntity,
+	ImageResponse convertResponse(ResponseEntity<EnhancedImageApi.OpenAiImageResponse> imageResponseEntity,
 			EnhancedImageOptions enhancedImageOptions) {
 		EnhancedImageApi.OpenAiImageResponse imageApiResponse = imageResponseEntity.getBody();
 		if (imageApiResponse == null) {
@@ -214,6 +466,12 @@ public class EnhancedImageModel implements ImageModel {
 			.map(entry -> new ImageGeneration(new Image(entry.url(), entry.b64Json()),
 					new OpenAiImageGenerationMetadata(entry.revisedPrompt())))
 			.toList();
+		if (this.imagePrefetcher != null) {
+			imageApiResponse.data()
+				.stream()
+				.filter(entry -> entry.url() != null)
+				.forEach(entry -> this.imagePrefetcher.prefetch(entry.url()));
+		}
 
 		ImageResponseMetadata openAiImageResponseMetadata = new ImageResponseMetadata(imageApiResponse.created());
 		return new ImageResponse(imageGenerationList, openAiImageResponseMetadata);
@@ -229,4 +487,103 @@ public class EnhancedImageModel implements ImageModel {
 		this.observationConvention = observationConvention;
 	}
 
+	/**
+	 * 设置响应式图像 API，用于启用 {@link #reactiveCall(ImagePrompt)} 与 {@link #stream(ImagePrompt)}。
+	 * @param reactiveImageApi 响应式图像 API
+	 */
+	public void setReactiveImageApi(ReactiveEnhancedImageApi reactiveImageApi) {
+		Assert.notNull(reactiveImageApi, "reactiveImageApi 不能为空");
+		this.reactiveImageApi = reactiveImageApi;
+	}
+
+	/**
+	 * 设置生成结果缓存，用于复用可复现请求的生成结果。仅作用于同步调用。
+	 * @param resultCache 生成结果缓存
+	 */
+	public void setResultCache(ImageResultCache resultCache) {
+		Assert.notNull(resultCache, "resultCache 不能为空");
+		this.resultCache = resultCache;
+	}
+
+	/**
+	 * 设置相同请求合并器，使合并后选项相同的并发请求共享一次底层调用。仅作用于同步调用。
+	 * @param requestCoalescer 请求合并器
+	 */
+	public void setRequestCoalescer(ImageRequestCoalescer requestCoalescer) {
+		Assert.notNull(requestCoalescer, "requestCoalescer 不能为空");
+		this.requestCoalescer = requestCoalescer;
+	}
+
+	/**
+	 * 设置按模型限流器，使调用量保持在厂商配额之下。
+	 * @param rateLimiter 限流器
+	 */
+	public void setRateLimiter(ImageRateLimiter rateLimiter) {
+		Assert.notNull(rateLimiter, "rateLimiter 不能为空");
+		this.rateLimiter = rateLimiter;
+	}
+
+	/**
+	 * 设置容错策略，替代重试模板处理同步与响应式调用的重试、退避与熔断。
+	 * @param resiliencePolicy 容错策略
+	 */
+	public void setResiliencePolicy(ImageResiliencePolicy resiliencePolicy) {
+		Assert.notNull(resiliencePolicy, "resiliencePolicy 不能为空");
+		this.resiliencePolicy = resiliencePolicy;
+	}
+
+	/**
+	 * 设置对冲请求执行器，削减文生图调用的长尾延迟。
+	 * @param requestHedger 对冲请求执行器
+	 */
+	public void setRequestHedger(ImageRequestHedger requestHedger) {
+		Assert.notNull(requestHedger, "requestHedger 不能为空");
+		this.requestHedger = requestHedger;
+	}
+
+	/**
+	 * 设置对冲请求使用的备用图像生成 API。
+	 * @param hedgeImageApi 备用图像生成 API
+	 */
+	public void setHedgeImageApi(EnhancedImageApi hedgeImageApi) {
+		Assert.notNull(hedgeImageApi, "hedgeImageApi 不能为空");
+		this.hedgeImageApi = hedgeImageApi;
+	}
+
+	/**
+	 * 设置指标注册表，用于统计重试模板的重试次数。
+	 * @param meterRegistry 指标注册表
+	 */
+	public void setMeterRegistry(MeterRegistry meterRegistry) {
+		Assert.notNull(meterRegistry, "meterRegistry 不能为空");
+		this.meterRegistry = meterRegistry;
+	}
+
+	/**
+	 * 设置输入图像预处理器，图生图与图像接龙的输入图像在上传前缩小到目标尺寸。仅作用于同步调用。
+	 * @param imagePreprocessor 输入图像预处理器
+	 */
+	public void setImagePreprocessor(ImagePreprocessor imagePreprocessor) {
+		Assert.notNull(imagePreprocessor, "imagePreprocessor 不能为空");
+		this.imagePreprocessor = imagePreprocessor;
+	}
+
+	/**
+	 * 设置图像预取器，url 格式的响应返回后立即在后台下载图像。
+	 * @param imagePrefetcher 图像预取器
+	 */
+	public void setImagePrefetcher(ImagePrefetcher imagePrefetcher) {
+		Assert.notNull(imagePrefetcher, "imagePrefetcher 不能为空");
+		this.imagePrefetcher = imagePrefetcher;
+	}
+
+	/**
+	 * 设置响应式调用使用的重试策略。
+	 * @param reactiveRetry 重试策略
+	 */
+	public void setReactiveRetry(Retry reactiveRetry) {
+		Assert.notNull(reactiveRetry, "reactiveRetry 不能为空");
+		this.reactiveRetry = reactiveRetry;
+	}
+
 }
\ No newline at end of file
@@ -0,0 +1,106 @@
+package com.springai.springaiimageextision.core.custom.monitor;
+
+import java.io.Closeable;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.util.Assert;
+
+/**
+ * 虚拟线程固定（pinning）检测器。
+ * <p>
+ * 虚拟线程在 synchronized 块或本地方法中阻塞时无法从载体线程卸载，载体线程被一同阻塞，
+ * 请求量上来后表现为吞吐量骤降。检测器通过 JFR 事件流订阅 {@code jdk.VirtualThreadPinned} 事件，
+ * 超过阈值的固定会被计入 {@code enhanced.image.virtual.pinned} 指标，每个不同的调用位置只输出一次堆栈日志。
+ * <p>
+ * 该事件只在 JDK 21 及以上版本产生，低版本上订阅不会报错，但也不会收到事件。
+ *
+ * @author 王玉涛
+ * @since 0.8.0
+ */
+@Slf4j
+public class VirtualThreadPinningMonitor implements Closeable {
+
+	/**
+	 * JFR 虚拟线程固定事件名称。
+	 */
+	static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+
+	/**
+	 * 日志中输出的最大栈帧数。
+	 */
+	private static final int MAX_LOGGED_FRAMES = 12;
+
+	private final RecordingStream stream;
+
+	private final Timer pinned;
+
+	/**
+	 * 已输出过堆栈的调用位置。
+	 */
+	private final Set<String> reportedSites = ConcurrentHashMap.newKeySet();
+
+	/**
+	 * 创建并启动检测器。
+	 * @param threshold 只记录持续时间超过该阈值的固定
+	 * @param meterRegistry 指标注册表
+	 */
+	public VirtualThreadPinningMonitor(Duration threshold, MeterRegistry meterRegistry) {
+		Assert.notNull(threshold, "threshold 不能为空");
+		Assert.notNull(meterRegistry, "meterRegistry 不能为空");
+		this.pinned = Timer.builder("enhanced.image.virtual.pinned")
+			.description("虚拟线程被固定在载体线程上的次数与时长")
+			.register(meterRegistry);
+		this.stream = new RecordingStream();
+		this.stream.enable(PINNED_EVENT).withThreshold(threshold).withStackTrace();
+		this.stream.onEvent(PINNED_EVENT, this::onPinned);
+		this.stream.startAsync();
+		log.info("虚拟线程固定检测已启动，阈值: {}", threshold);
+	}
+
+	/**
+	 * 已记录的固定次数。
+	 * @return 固定次数
+	 */
+	public long pinnedCount() {
+		return this.pinned.count();
+	}
+
+	@Override
+	public void close() {
+		this.stream.close();
+	}
+
+	private void onPinned(RecordedEvent event) {
+		this.pinned.record(event.getDuration());
+		RecordedStackTrace stackTrace = event.getStackTrace();
+		if (stackTrace == null) {
+			return;
+		}
+		List<RecordedFrame> frames = stackTrace.getFrames();
+		String site = frames.stream()
+			.limit(MAX_LOGGED_FRAMES)
+			.map(VirtualThreadPinningMonitor::format)
+			.collect(Collectors.joining("\n\tat "));
+		if (this.reportedSites.add(site)) {
+			log.warn("虚拟线程被固定 {}ms，请将该位置的 synchronized 替换为 ReentrantLock:\n\tat {}",
+					event.getDuration().toMillis(), site);
+		}
+	}
+
+	private static String format(RecordedFrame frame) {
+		return frame.getMethod().getType().getName() + "." + frame.getMethod().getName() + ":"
+				+ frame.getLineNumber();
+	}
+
+}
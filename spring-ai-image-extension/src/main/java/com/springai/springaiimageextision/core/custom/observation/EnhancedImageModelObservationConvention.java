@@ -0,0 +1,110 @@
+package com.springai.springaiimageextision.core.custom.observation;
+
+import java.util.Objects;
+import java.util.regex.Pattern;
+
+import com.springai.springaiimageextision.core.custom.limit.ImageRateLimitException;
+import com.springai.springaiimageextision.core.custom.resilience.CircuitBreakerOpenException;
+import com.springai.springaiimageextision.core.custom.resilience.RetryAfterTransientAiException;
+import com.springai.springaiimageextision.core.custom.schedule.ImageSchedulerRejectedException;
+import io.micrometer.common.KeyValue;
+import io.micrometer.common.KeyValues;
+import org.springframework.ai.image.ImageOptions;
+import org.springframework.ai.image.observation.DefaultImageModelObservationConvention;
+import org.springframework.ai.image.observation.ImageModelObservationContext;
+import org.springframework.ai.retry.NonTransientAiException;
+import org.springframework.ai.retry.TransientAiException;
+import org.springframework.http.HttpStatus;
+
+/**
+ * 图像生成观测约定。
+ * <p>
+ * 观测名称为 {@code enhanced.image.generation}，与 Spring AI 对话模型共用的 {@code gen_ai.client.operation}
+ * 区分开，避免同名指标的标签集合不一致。所有标签都是低基数的：模型、尺寸、响应格式与结果分类，
+ * 不输出提示词、用户标识等高基数字段；不符合 {@code 宽x高} 格式的尺寸统一记为 other。
+ *
+ * @author 王玉涛
+ * @since 0.8.0
+ */
+public class EnhancedImageModelObservationConvention extends DefaultImageModelObservationConvention {
+
+	/**
+	 * 观测名称，对应的计时器指标为 enhanced.image.generation。
+	 */
+	public static final String NAME = "enhanced.image.generation";
+
+	private static final String NONE = "none";
+
+	private static final String OTHER = "other";
+
+	private static final Pattern SIZE_PATTERN = Pattern.compile("\\d{1,5}x\\d{1,5}");
+
+	@Override
+	public String getName() {
+		return NAME;
+	}
+
+	@Override
+	public KeyValues getLowCardinalityKeyValues(ImageModelObservationContext context) {
+		ImageOptions options = context.getRequest().getOptions();
+		return KeyValues.of(aiOperationType(context), aiProvider(context),
+				KeyValue.of("model", options == null ? NONE : Objects.requireNonNullElse(options.getModel(), NONE)),
+				KeyValue.of("size", size(options)),
+				KeyValue.of("response.format", responseFormat(options)),
+				KeyValue.of("outcome", outcome(context.getError())));
+	}
+
+	@Override
+	public KeyValues getHighCardinalityKeyValues(ImageModelObservationContext context) {
+		return KeyValues.empty();
+	}
+
+	private static String size(ImageOptions options) {
+		if (options == null) {
+			return NONE;
+		}
+		String size = options.getWidth() != null && options.getHeight() != null
+				? options.getWidth() + "x" + options.getHeight() : null;
+		if (size == null) {
+			return NONE;
+		}
+		return SIZE_PATTERN.matcher(size).matches() ? size : OTHER;
+	}
+
+	private static String responseFormat(ImageOptions options) {
+		if (options == null || options.getResponseFormat() == null) {
+			return NONE;
+		}
+		return switch (options.getResponseFormat()) {
+			case "url", "b64_json" -> options.getResponseFormat();
+			default -> OTHER;
+		};
+	}
+
+	/**
+	 * 将调用结果归类为固定的几种结果，异常信息本身不作为标签。
+	 * @param error 调用异常，成功时为 null
+	 * @return 结果分类
+	 */
+	static String outcome(Throwable error) {
+		if (error == null) {
+			return "success";
+		}
+		if (error instanceof ImageRateLimitException || error instanceof ImageSchedulerRejectedException
+				|| error instanceof CircuitBreakerOpenException) {
+			return "rejected";
+		}
+		if (error instanceof RetryAfterTransientAiException retryAfter
+				&& retryAfter.getStatusCode() == HttpStatus.TOO_MANY_REQUESTS.value()) {
+			return "throttled";
+		}
+		if (error instanceof TransientAiException) {
+			return "server_error";
+		}
+		if (error instanceof NonTransientAiException) {
+			return "client_error";
+		}
+		return "error";
+	}
+
+}
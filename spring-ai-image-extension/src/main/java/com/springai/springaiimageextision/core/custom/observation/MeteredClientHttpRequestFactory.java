@@ -0,0 +1,214 @@
+package com.springai.springaiimageextision.core.custom.observation;
+
+import java.io.FilterInputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.util.Map;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.StreamingHttpOutputMessage;
+import org.springframework.http.client.ClientHttpRequest;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.util.Assert;
+
+/**
+ * 统计请求体与响应体字节数的请求工厂装饰器。
+ * <p>
+ * 不使用 {@code ClientHttpRequestInterceptor}：拦截器会把请求体整体缓冲为字节数组，
+ * 图生图请求携带的 Base64 图像会因此多占一份内存。这里直接包装输出流与输入流计数，
+ * 被包装的请求支持流式写入时保持流式写入。
+ * <ul>
+ * <li>{@code enhanced.image.payload.request}：每次请求写出的请求体字节数</li>
+ * <li>{@code enhanced.image.payload.response}：每次响应读取的响应体字节数，在响应关闭时记录</li>
+ * </ul>
+ *
+ * @author 王玉涛
+ * @since 0.8.0
+ */
+public class MeteredClientHttpRequestFactory implements ClientHttpRequestFactory {
+
+	private final ClientHttpRequestFactory delegate;
+
+	private final DistributionSummary requestBytes;
+
+	private final DistributionSummary responseBytes;
+
+	/**
+	 * 创建请求工厂装饰器。
+	 * @param delegate 实际的请求工厂
+	 * @param meterRegistry 指标注册表
+	 */
+	public MeteredClientHttpRequestFactory(ClientHttpRequestFactory delegate, MeterRegistry meterRegistry) {
+		Assert.notNull(delegate, "delegate 不能为空");
+		Assert.notNull(meterRegistry, "meterRegistry 不能为空");
+		this.delegate = delegate;
+		this.requestBytes = DistributionSummary.builder("enhanced.image.payload.request")
+			.description("图像生成请求体字节数")
+			.baseUnit("bytes")
+			.register(meterRegistry);
+		this.responseBytes = DistributionSummary.builder("enhanced.image.payload.response")
+			.description("图像生成响应体字节数")
+			.baseUnit("bytes")
+			.register(meterRegistry);
+	}
+
+	@Override
+	public ClientHttpRequest createRequest(URI uri, HttpMethod httpMethod) throws IOException {
+		return new MeteredRequest(this.delegate.createRequest(uri, httpMethod));
+	}
+
+	private final class MeteredRequest implements ClientHttpRequest, StreamingHttpOutputMessage {
+
+		private final ClientHttpRequest request;
+
+		private long written;
+
+		private MeteredRequest(ClientHttpRequest request) {
+			this.request = request;
+		}
+
+		@Override
+		public OutputStream getBody() throws IOException {
+			return counting(this.request.getBody());
+		}
+
+		@Override
+		public void setBody(Body body) {
+			if (this.request instanceof StreamingHttpOutputMessage streaming) {
+				streaming.setBody(new Body() {
+					@Override
+					public void writeTo(OutputStream outputStream) throws IOException {
+						body.writeTo(counting(outputStream));
+					}
+
+					@Override
+					public boolean repeatable() {
+						return body.repeatable();
+					}
+				});
+				return;
+			}
+			try {
+				body.writeTo(getBody());
+			}
+			catch (IOException ex) {
+				throw new IllegalStateException(ex);
+			}
+		}
+
+		@Override
+		public ClientHttpResponse execute() throws IOException {
+			ClientHttpResponse response = this.request.execute();
+			// 流式写入的请求体在 execute 期间才写出
+			MeteredClientHttpRequestFactory.this.requestBytes.record(this.written);
+			return new MeteredResponse(response);
+		}
+
+		@Override
+		public HttpMethod getMethod() {
+			return this.request.getMethod();
+		}
+
+		@Override
+		public URI getURI() {
+			return this.request.getURI();
+		}
+
+		@Override
+		public Map<String, Object> getAttributes() {
+			return this.request.getAttributes();
+		}
+
+		@Override
+		public HttpHeaders getHeaders() {
+			return this.request.getHeaders();
+		}
+
+		private OutputStream counting(OutputStream outputStream) {
+			return new FilterOutputStream(outputStream) {
+				@Override
+				public void write(int b) throws IOException {
+					this.out.write(b);
+					MeteredRequest.this.written++;
+				}
+
+				@Override
+				public void write(byte[] b, int off, int len) throws IOException {
+					this.out.write(b, off, len);
+					MeteredRequest.this.written += len;
+				}
+			};
+		}
+
+	}
+
+	private final class MeteredResponse implements ClientHttpResponse {
+
+		private final ClientHttpResponse response;
+
+		private InputStream body;
+
+		private long read;
+
+		private MeteredResponse(ClientHttpResponse response) {
+			this.response = response;
+		}
+
+		@Override
+		public HttpStatusCode getStatusCode() throws IOException {
+			return this.response.getStatusCode();
+		}
+
+		@Override
+		public String getStatusText() throws IOException {
+			return this.response.getStatusText();
+		}
+
+		@Override
+		public HttpHeaders getHeaders() {
+			return this.response.getHeaders();
+		}
+
+		@Override
+		public InputStream getBody() throws IOException {
+			if (this.body == null) {
+				this.body = new FilterInputStream(this.response.getBody()) {
+					@Override
+					public int read() throws IOException {
+						int b = this.in.read();
+						if (b != -1) {
+							MeteredResponse.this.read++;
+						}
+						return b;
+					}
+
+					@Override
+					public int read(byte[] b, int off, int len) throws IOException {
+						int n = this.in.read(b, off, len);
+						if (n > 0) {
+							MeteredResponse.this.read += n;
+						}
+						return n;
+					}
+				};
+			}
+			return this.body;
+		}
+
+		@Override
+		public void close() {
+			this.response.close();
+			MeteredClientHttpRequestFactory.this.responseBytes.record(this.read);
+		}
+
+	}
+
+}
@@ -2,6 +2,8 @@ package com.springai.springaiimageextision.core.custom.option;
 
 import java.util.Objects;
 
+import com.fasterxml.jackson.annotation.JsonGetter;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
 
@@ -139,6 +141,20 @@ public class EnhancedImageOptions implements ImageOptions {
 	@JsonProperty("num_inference_steps")
 	private Integer inferenceSteps;
 
+	/**
+	 * 端点亲和键，不发送给厂商，也不参与 equals 与 hashCode。
+	 * 配置了多个端点时，相同亲和键的请求会尽量路由到同一个端点，用于图像接龙等需要粘性的场景。
+	 */
+	@JsonIgnore
+	private String affinityKey;
+
+	/**
+	 * 输入图像来源，设置后优先于 image 字段，序列化时以 image 字段名流式写出Base64数据URL，
+	 * 不会在内存中生成完整的Base64字符串。
+	 */
+	@JsonIgnore
+	private ImageSource imageSource;
+
 	/**
 	 * 根据现有的选项创建一个新的 OpenAiImageOptions 实例。
 	 * @param fromOptions 要复制的选项
@@ -159,6 +175,15 @@ public class EnhancedImageOptions implements ImageOptions {
 	}
 
 
+	/**
+	 * 序列化时 image 字段的值，存在输入图像来源时写出来源，否则写出 image 字符串。
+	 * @return 输入图像来源或 image 字符串
+	 */
+	@JsonGetter("image")
+	private Object imageValue() {
+		return this.imageSource != null ? this.imageSource : this.image;
+	}
+
 	@Override
 	public Integer getWidth() {
 		if (this.width != null) {
@@ -250,13 +275,19 @@ public class EnhancedImageOptions implements ImageOptions {
 				&& Objects.equals(this.width, that.width) && Objects.equals(this.height, that.height)
 				&& Objects.equals(this.quality, that.quality)
 				&& Objects.equals(this.responseFormat, that.responseFormat) && Objects.equals(this.size, that.size)
-				&& Objects.equals(this.style, that.style) && Objects.equals(this.user, that.user);
+				&& Objects.equals(this.style, that.style) && Objects.equals(this.user, that.user)
+				&& Objects.equals(this.image, that.image) && Objects.equals(this.prompt, that.prompt)
+				&& Objects.equals(this.negativePrompt, that.negativePrompt) && Objects.equals(this.seed, that.seed)
+				&& Objects.equals(this.guidanceScale, that.guidanceScale) && Objects.equals(this.cfg, that.cfg)
+				&& Objects.equals(this.inferenceSteps, that.inferenceSteps)
+				&& Objects.equals(this.imageSource, that.imageSource);
 	}
 
 	@Override
 	public int hashCode() {
 		return Objects.hash(this.n, this.model, this.width, this.height, this.quality, this.responseFormat, this.size,
-				this.style, this.user);
+				this.style, this.user, this.image, this.prompt, this.negativePrompt, this.seed, this.guidanceScale,
+				this.cfg, this.inferenceSteps, this.imageSource);
 	}
 
 	@Override
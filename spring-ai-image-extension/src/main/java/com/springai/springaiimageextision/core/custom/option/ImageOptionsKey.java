@@ -0,0 +1,73 @@
+package com.springai.springaiimageextision.core.custom.option;
+
+import com.springai.springaiimageextision.core.util.HashUtils;
+import org.springframework.util.Assert;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+import java.util.Objects;
+
+/**
+ * 图像生成请求的完整标识，覆盖 {@link EnhancedImageOptions} 中所有会影响生成结果的字段。
+ * 输入图像以 SHA-256 摘要代替原始内容参与比较，避免在键中持有大体积的Base64数据。
+ * 输入图像来源按其数据URL流式计算摘要，与内容相同的 image 字符串得到相同的标识。
+ *
+ * @param n              生成图像的数量
+ * @param model          模型名称
+ * @param size           图像尺寸规格
+ * @param width          生效的图像宽度
+ * @param height         生效的图像高度
+ * @param quality        图像质量
+ * @param responseFormat 响应格式
+ * @param style          图像风格
+ * @param user           用户标识
+ * @param imageDigest    输入图像的 SHA-256 摘要，无输入图像时为null
+ * @param prompt         提示词
+ * @param negativePrompt 反向提示词
+ * @param seed           种子值
+ * @param guidanceScale  guidance scale
+ * @param cfg            cfg
+ * @param inferenceSteps 推理步骤数
+ * @author 王玉涛
+ * @since 0.8.0
+ */
+public record ImageOptionsKey(Integer n, String model, String size, Integer width, Integer height,
+		String quality, String responseFormat, String style, String user, String imageDigest, String prompt, String negativePrompt, Long seed,
+		Integer guidanceScale, Double cfg, Integer inferenceSteps) {
+
+	/**
+	 * 根据图像选项创建请求标识。
+	 * 同时记录 size 与生效的宽高：显式设置的 width、height 可能与 size 不一致，
+	 * 而 "1024x1024" 与 width=1024、height=1024 仍得到相同的标识。
+	 * @param options 图像选项
+	 * @return 请求标识
+	 */
+	public static ImageOptionsKey of(EnhancedImageOptions options) {
+		Assert.notNull(options, "options 不能为空");
+		String imageDigest = imageDigest(options);
+		return new ImageOptionsKey(options.getN(), options.getModel(), options.getSize(), options.getWidth(),
+				options.getHeight(), options.getQuality(), options.getResponseFormat(), options.getStyle(), options.getUser(), imageDigest, options.getPrompt(),
+				options.getNegativePrompt(), options.getSeed(), options.getGuidanceScale(), options.getCfg(),
+				options.getInferenceSteps());
+	}
+
+	private static String imageDigest(EnhancedImageOptions options) {
+		ImageSource imageSource = options.getImageSource();
+		if (Objects.isNull(imageSource)) {
+			return Objects.isNull(options.getImage()) ? null : HashUtils.sha256Hex(options.getImage());
+		}
+		MessageDigest digest = HashUtils.newSha256();
+		try (OutputStream out = new DigestOutputStream(OutputStream.nullOutputStream(), digest)) {
+			imageSource.writeDataUrl(out);
+		}
+		catch (IOException ex) {
+			throw new UncheckedIOException("读取输入图像失败", ex);
+		}
+		return HexFormat.of().formatHex(digest.digest());
+	}
+
+}
@@ -0,0 +1,331 @@
+package com.springai.springaiimageextision.core.custom.option;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Locale;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonSerializable;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.jsontype.TypeSerializer;
+
+import com.springai.springaiimageextision.core.util.ImageUtils;
+import org.springframework.core.io.InputStreamSource;
+import org.springframework.util.Assert;
+import org.springframework.util.StreamUtils;
+import org.springframework.web.multipart.MultipartFile;
+
+/**
+ * 图生图请求的输入图像来源。
+ * 与直接在 {@link EnhancedImageOptions#getImage()} 中放入Base64数据URL不同，图像内容只在写出请求体时
+ * 从文件、输入流或 {@link ByteBuffer} 中分块读取，经Base64编码器直接写入 Jackson 的底层输出流，
+ * 序列化过程不会生成完整的Base64字符串，也不会在请求体缓冲区中再复制一份。
+ * 重试与对冲会重新序列化请求体，因此每次写出都会重新读取来源，来源需要支持多次读取。
+ * 持有临时文件等资源的来源在使用完毕后需要关闭，其余来源的关闭为空操作。
+ *
+ * @author 王玉涛
+ * @since 0.8.0
+ */
+public abstract class ImageSource implements JsonSerializable, Closeable {
+
+	private final String mimeType;
+
+	protected ImageSource(String mimeType) {
+		Assert.hasText(mimeType, "mimeType 不能为空");
+		this.mimeType = mimeType;
+	}
+
+	/**
+	 * 以文件作为图像来源，MIME类型由文件扩展名推断。
+	 * @param file 图像文件
+	 * @return 图像来源
+	 */
+	public static ImageSource ofFile(File file) {
+		Assert.notNull(file, "file 不能为空");
+		return new FileImageSource(file);
+	}
+
+	/**
+	 * 以可重复打开的输入流作为图像来源，例如 {@code MultipartFile} 或 Spring {@code Resource}。
+	 * @param source 输入流来源，每次写出都会调用一次 {@link InputStreamSource#getInputStream()}
+	 * @param mimeType MIME类型，例如 "image/png"
+	 * @return 图像来源
+	 */
+	public static ImageSource ofInputStream(InputStreamSource source, String mimeType) {
+		Assert.notNull(source, "source 不能为空");
+		return new StreamImageSource(source, mimeType);
+	}
+
+	/**
+	 * 以上传文件作为图像来源，每次写出直接读取 {@link MultipartFile#getInputStream()}，不额外生成临时文件。
+	 * 上传文件只在当前请求内有效，来源不能在请求结束后使用。
+	 * @param file 上传文件
+	 * @return 图像来源
+	 */
+	public static ImageSource ofMultipart(MultipartFile file) {
+		Assert.notNull(file, "file 不能为空");
+		Assert.isTrue(!file.isEmpty(), "文件不能为空");
+		Assert.hasText(file.getOriginalFilename(), "文件名不能为空");
+		String fileType = ImageUtils.getFileType(file.getOriginalFilename().toLowerCase(Locale.ROOT));
+		return new StreamImageSource(file, "image/" + fileType);
+	}
+
+	/**
+	 * 以字节缓冲区作为图像来源，写出时读取缓冲区 position 到 limit 之间的内容，不改变缓冲区本身的位置。
+	 * @param buffer 字节缓冲区，可以是直接缓冲区或内存映射的文件
+	 * @param mimeType MIME类型，例如 "image/png"
+	 * @return 图像来源
+	 */
+	public static ImageSource ofByteBuffer(ByteBuffer buffer, String mimeType) {
+		Assert.notNull(buffer, "buffer 不能为空");
+		return new ByteBufferImageSource(buffer, mimeType);
+	}
+
+	/**
+	 * 图像的MIME类型。
+	 * @return MIME类型
+	 */
+	public String getMimeType() {
+		return this.mimeType;
+	}
+
+	/**
+	 * 打开一个读取原始图像字节的输入流，由调用方关闭。
+	 * @return 输入流
+	 * @throws IOException 打开来源失败时抛出
+	 */
+	public abstract InputStream openStream() throws IOException;
+
+	/**
+	 * 将原始图像字节写入输出流，输出流不会被关闭。
+	 * @param out 目标输出流
+	 * @throws IOException 读取来源或写出失败时抛出
+	 */
+	public void writeTo(OutputStream out) throws IOException {
+		try (InputStream in = openStream()) {
+			in.transferTo(out);
+		}
+	}
+
+	/**
+	 * 将图像以Base64数据URL格式流式写入输出流，输出流不会被关闭。
+	 * @param out 目标输出流
+	 * @throws IOException 读取来源或写出失败时抛出
+	 */
+	public void writeDataUrl(OutputStream out) throws IOException {
+		out.write(ImageUtils.dataUrlPrefix(this.mimeType).getBytes(StandardCharsets.US_ASCII));
+		try (OutputStream encoder = Base64.getEncoder().wrap(StreamUtils.nonClosing(out))) {
+			writeTo(encoder);
+		}
+	}
+
+	/**
+	 * 生成完整的Base64数据URL字符串，仅用于必须持有字符串的场景，会在内存中保留完整的编码结果。
+	 * @return 图像的Base64数据URL
+	 * @throws IOException 读取来源失败时抛出
+	 */
+	public String toDataUrl() throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		writeDataUrl(out);
+		return out.toString(StandardCharsets.US_ASCII);
+	}
+
+	/**
+	 * 以JSON字符串的形式写出数据URL。
+	 * 先通过生成器写出起始引号与前缀以维护生成器的上下文，刷新后将Base64内容直接写入生成器的底层输出，
+	 * 最后补上结束引号。Base64字符与数据URL前缀都不需要JSON转义。
+	 * 底层输出既不是字节流也不是字符流时退化为先生成完整字符串再写出。
+	 */
+	@Override
+	public void serialize(JsonGenerator gen, SerializerProvider serializers) throws IOException {
+		Object target = gen.getOutputTarget();
+		if (!(target instanceof OutputStream) && !(target instanceof Writer)) {
+			gen.writeString(toDataUrl());
+			return;
+		}
+		gen.writeRawValue("\"" + ImageUtils.dataUrlPrefix(this.mimeType));
+		gen.flush();
+		OutputStream out = target instanceof OutputStream stream ? stream : new AsciiWriterOutputStream((Writer) target);
+		try (OutputStream encoder = Base64.getEncoder().wrap(StreamUtils.nonClosing(out))) {
+			writeTo(encoder);
+		}
+		out.flush();
+		gen.writeRaw('"');
+	}
+
+	@Override
+	public void serializeWithType(JsonGenerator gen, SerializerProvider serializers, TypeSerializer typeSer)
+			throws IOException {
+		serialize(gen, serializers);
+	}
+
+	/**
+	 * 释放来源持有的资源，默认无操作。
+	 */
+	@Override
+	public void close() throws IOException {
+	}
+
+	@Override
+	public String toString() {
+		return getClass().getSimpleName() + "{mimeType='" + this.mimeType + "'}";
+	}
+
+	/**
+	 * 文件图像来源
+	 */
+	private static final class FileImageSource extends ImageSource {
+
+		private final File file;
+
+		private FileImageSource(File file) {
+			super(ImageUtils.getMimeType(file.getName()));
+			this.file = file;
+		}
+
+		@Override
+		public InputStream openStream() throws IOException {
+			return new FileInputStream(this.file);
+		}
+
+		@Override
+		public void writeDataUrl(OutputStream out) throws IOException {
+			ImageUtils.writeDataUrl(this.file, out);
+		}
+
+	}
+
+	/**
+	 * 输入流图像来源
+	 */
+	private static final class StreamImageSource extends ImageSource {
+
+		private final InputStreamSource source;
+
+		private StreamImageSource(InputStreamSource source, String mimeType) {
+			super(mimeType);
+			this.source = source;
+		}
+
+		@Override
+		public InputStream openStream() throws IOException {
+			return this.source.getInputStream();
+		}
+
+	}
+
+	/**
+	 * 字节缓冲区图像来源
+	 */
+	private static final class ByteBufferImageSource extends ImageSource {
+
+		private final ByteBuffer buffer;
+
+		private ByteBufferImageSource(ByteBuffer buffer, String mimeType) {
+			super(mimeType);
+			this.buffer = buffer;
+		}
+
+		@Override
+		public InputStream openStream() {
+			ByteBuffer view = this.buffer.duplicate();
+			if (view.hasArray()) {
+				return new ByteArrayInputStream(view.array(), view.arrayOffset() + view.position(), view.remaining());
+			}
+			return new ByteBufferInputStream(view);
+		}
+
+		@Override
+		public void writeTo(OutputStream out) throws IOException {
+			// 每次写出使用独立的视图，不影响原缓冲区与并发的写出
+			ByteBuffer view = this.buffer.duplicate();
+			if (view.hasArray()) {
+				out.write(view.array(), view.arrayOffset() + view.position(), view.remaining());
+				return;
+			}
+			Channels.newChannel(StreamUtils.nonClosing(out)).write(view);
+		}
+
+	}
+
+	/**
+	 * 读取直接缓冲区的输入流，读取的是缓冲区的独立视图
+	 */
+	private static final class ByteBufferInputStream extends InputStream {
+
+		private final ByteBuffer view;
+
+		private ByteBufferInputStream(ByteBuffer view) {
+			this.view = view;
+		}
+
+		@Override
+		public int read() {
+			return this.view.hasRemaining() ? this.view.get() & 0xFF : -1;
+		}
+
+		@Override
+		public int read(byte[] b, int off, int len) {
+			if (!this.view.hasRemaining()) {
+				return -1;
+			}
+			int count = Math.min(len, this.view.remaining());
+			this.view.get(b, off, count);
+			return count;
+		}
+
+		@Override
+		public int available() {
+			return this.view.remaining();
+		}
+
+	}
+
+	/**
+	 * 将ASCII字节按字符写入 Writer 的输出流，用于生成器以字符流为底层输出的场景
+	 */
+	private static final class AsciiWriterOutputStream extends OutputStream {
+
+		private final Writer writer;
+
+		private char[] chars = new char[0];
+
+		private AsciiWriterOutputStream(Writer writer) {
+			this.writer = writer;
+		}
+
+		@Override
+		public void write(int b) throws IOException {
+			this.writer.write(b);
+		}
+
+		@Override
+		public void write(byte[] b, int off, int len) throws IOException {
+			if (this.chars.length < len) {
+				this.chars = new char[len];
+			}
+			for (int i = 0; i < len; i++) {
+				this.chars[i] = (char) (b[off + i] & 0xFF);
+			}
+			this.writer.write(this.chars, 0, len);
+		}
+
+		@Override
+		public void flush() throws IOException {
+			this.writer.flush();
+		}
+
+	}
+
+}
@@ -0,0 +1,213 @@
+package com.springai.springaiimageextision.core.custom.prefetch;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.springai.springaiimageextision.core.custom.store.ImageStore;
+import com.springai.springaiimageextision.core.custom.store.StoredImage;
+import com.springai.springaiimageextision.core.util.ImageUtils;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.util.Assert;
+
+/**
+ * 生成图像的后台预取器。
+ * <ul>
+ * <li>url 格式的响应返回后立即在有界的 I/O 线程池中下载图像并写入 {@link ImageStore}，避免厂商链接过期</li>
+ * <li>同一URL同时只下载一次，预取中的读取等待同一个下载完成</li>
+ * <li>读取时依次查找存储、进行中的预取，都未命中时在调用线程下载</li>
+ * <li>线程池排队已满时放弃本次预取，之后的读取按未命中处理</li>
+ * </ul>
+ * 通过 {@code enhanced.image.prefetch} 计时器记录下载耗时与结果，
+ * 通过 {@code enhanced.image.prefetch.reads} 按 result 标签（hit、pending、miss）统计读取的命中情况。
+ *
+ * @author 王玉涛
+ * @since 0.8.0
+ */
+@Slf4j
+public class ImagePrefetcher implements Closeable {
+
+	private static final String METRIC_NAME = "enhanced.image.prefetch";
+
+	private final ImageStore imageStore;
+
+	private final Duration timeout;
+
+	private final ThreadPoolExecutor executor;
+
+	/**
+	 * 进行中的预取，下载结束后移除。
+	 */
+	private final ConcurrentHashMap<String, CompletableFuture<StoredImage>> inflight = new ConcurrentHashMap<>();
+
+	private final MeterRegistry meterRegistry;
+
+	private final Counter rejected;
+
+	private final Counter hits;
+
+	private final Counter pending;
+
+	private final Counter misses;
+
+	/**
+	 * 创建生成图像的后台预取器。
+	 * @param imageStore 预取图像写入的本地图像存储
+	 * @param threads 下载线程数
+	 * @param maxQueued 最大排队数
+	 * @param timeout 单次下载的连接与读取超时时间
+	 * @param meterRegistry 指标注册表
+	 */
+	public ImagePrefetcher(ImageStore imageStore, int threads, int maxQueued, Duration timeout,
+			MeterRegistry meterRegistry) {
+		Assert.notNull(imageStore, "imageStore 不能为空");
+		Assert.isTrue(threads > 0, "threads 必须大于 0");
+		Assert.isTrue(maxQueued > 0, "maxQueued 必须大于 0");
+		Assert.notNull(timeout, "timeout 不能为空");
+		Assert.isTrue(!timeout.isNegative() && !timeout.isZero(), "timeout 必须大于 0");
+		Assert.notNull(meterRegistry, "meterRegistry 不能为空");
+		this.imageStore = imageStore;
+		this.timeout = timeout;
+		this.meterRegistry = meterRegistry;
+		AtomicInteger index = new AtomicInteger();
+		this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+				new ArrayBlockingQueue<>(maxQueued), runnable -> {
+					Thread thread = new Thread(runnable, "enhanced-image-prefetch-" + index.incrementAndGet());
+					thread.setDaemon(true);
+					return thread;
+				});
+		this.rejected = Counter.builder(METRIC_NAME + ".rejected")
+			.description("因排队已满被放弃的预取次数").register(meterRegistry);
+		this.hits = readCounter("hit", "读取时图像已预取完成的次数");
+		this.pending = readCounter("pending", "读取时预取仍在进行、等待其完成的次数");
+		this.misses = readCounter("miss", "读取时未预取、需要重新下载的次数");
+	}
+
+	/**
+	 * 在后台预取图像，已保存或正在预取时直接返回对应结果。
+	 * @param url 图像URL
+	 * @return 解析为本地存储图像的结果；排队已满时为以 {@link RejectedExecutionException} 结束的结果
+	 */
+	public CompletableFuture<StoredImage> prefetch(String url) {
+		Assert.hasText(url, "url 不能为空");
+		Optional<StoredImage> stored = this.imageStore.getByUrl(url);
+		if (stored.isPresent()) {
+			return CompletableFuture.completedFuture(stored.get());
+		}
+		CompletableFuture<StoredImage> future = new CompletableFuture<>();
+		CompletableFuture<StoredImage> existing = this.inflight.putIfAbsent(url, future);
+		if (existing != null) {
+			return existing;
+		}
+		try {
+			this.executor.execute(() -> download(url, future));
+		}
+		catch (RejectedExecutionException ex) {
+			this.inflight.remove(url, future);
+			this.rejected.increment();
+			log.debug("预取线程池已满，放弃预取: {}", url);
+			future.completeExceptionally(ex);
+		}
+		return future;
+	}
+
+	/**
+	 * 读取图像：已预取完成时直接返回，预取进行中时等待其完成，否则在调用线程下载并保存。
+	 * @param url 图像URL
+	 * @return 本地存储的图像
+	 * @throws IOException 当下载或写入失败时抛出
+	 */
+	public StoredImage fetch(String url) throws IOException {
+		Assert.hasText(url, "url 不能为空");
+		Optional<StoredImage> stored = this.imageStore.getByUrl(url);
+		if (stored.isPresent()) {
+			this.hits.increment();
+			return stored.get();
+		}
+		CompletableFuture<StoredImage> future = this.inflight.get(url);
+		if (future != null) {
+			this.pending.increment();
+			try {
+				return future.get();
+			}
+			catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+				throw new IOException("等待图像预取时被中断: " + url, ex);
+			}
+			catch (ExecutionException ex) {
+				// 预取失败时在调用线程重试一次
+				log.debug("图像预取失败，重新下载: {}", url, ex.getCause());
+			}
+		}
+		else {
+			this.misses.increment();
+		}
+		return store(url);
+	}
+
+	/**
+	 * 进行中的预取数。
+	 * @return 预取数
+	 */
+	public int inflightCount() {
+		return this.inflight.size();
+	}
+
+	@Override
+	public void close() {
+		this.executor.shutdownNow();
+	}
+
+	private void download(String url, CompletableFuture<StoredImage> future) {
+		long startedAt = System.nanoTime();
+		StoredImage image = null;
+		Exception failure = null;
+		try {
+			image = store(url);
+		}
+		catch (IOException | RuntimeException ex) {
+			log.warn("图像预取失败: {}", url, ex);
+			failure = ex;
+		}
+		// 先移除并记录耗时再结束结果，等待结果的调用方看到的状态与指标一致
+		this.inflight.remove(url, future);
+		Timer.builder(METRIC_NAME)
+			.description("图像预取耗时")
+			.tag("outcome", failure == null ? "success" : "failure")
+			.register(this.meterRegistry)
+			.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+		if (failure == null) {
+			future.complete(image);
+		}
+		else {
+			future.completeExceptionally(failure);
+		}
+	}
+
+	private StoredImage store(String url) throws IOException {
+		try (InputStream in = ImageUtils.openStream(url, this.timeout, this.timeout)) {
+			return this.imageStore.put(url, in, "image/" + ImageUtils.getUrlFileType(url));
+		}
+	}
+
+	private Counter readCounter(String result, String description) {
+		return Counter.builder(METRIC_NAME + ".reads")
+			.tag("result", result)
+			.description(description)
+			.register(this.meterRegistry);
+	}
+
+}
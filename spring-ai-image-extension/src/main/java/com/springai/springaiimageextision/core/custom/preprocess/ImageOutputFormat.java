@@ -0,0 +1,46 @@
+package com.springai.springaiimageextision.core.custom.preprocess;
+
+/**
+ * 预处理后输入图像的编码格式。
+ *
+ * @author 王玉涛
+ * @since 0.8.0
+ */
+public enum ImageOutputFormat {
+
+	/**
+	 * JPEG，有损压缩，体积最小，透明区域以白色填充。
+	 */
+	JPEG("jpeg", "image/jpeg"),
+
+	/**
+	 * PNG，无损压缩，保留透明通道。
+	 */
+	PNG("png", "image/png");
+
+	private final String formatName;
+
+	private final String mimeType;
+
+	ImageOutputFormat(String formatName, String mimeType) {
+		this.formatName = formatName;
+		this.mimeType = mimeType;
+	}
+
+	/**
+	 * ImageIO 使用的格式名称。
+	 * @return 格式名称
+	 */
+	public String getFormatName() {
+		return this.formatName;
+	}
+
+	/**
+	 * 编码后的MIME类型。
+	 * @return MIME类型
+	 */
+	public String getMimeType() {
+		return this.mimeType;
+	}
+
+}
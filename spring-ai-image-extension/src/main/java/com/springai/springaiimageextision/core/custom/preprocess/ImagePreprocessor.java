@@ -0,0 +1,251 @@
+package com.springai.springaiimageextision.core.custom.preprocess;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.Iterator;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import javax.imageio.stream.MemoryCacheImageInputStream;
+import javax.imageio.stream.MemoryCacheImageOutputStream;
+
+import com.springai.springaiimageextision.core.custom.option.ImageSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.util.Assert;
+
+/**
+ * 输入图像预处理器，在上传前将输入图像缩小到目标尺寸并重新编码。
+ * <ul>
+ * <li>先只读取图像头获取宽高，不超过目标尺寸时原样返回，不做解码</li>
+ * <li>超过目标尺寸时按比例缩小到目标宽高以内：解码时按整数倍降采样，再逐级减半缩放到最终尺寸</li>
+ * <li>缩放与编码在有界的线程池中执行，线程数即同时占用的CPU核数，排队已满时原样返回</li>
+ * <li>图像格式不受支持或处理失败时原样返回，预处理不会导致请求失败</li>
+ * </ul>
+ * 通过 {@code enhanced.image.preprocess} 计时器按 outcome 标签记录耗时与结果。
+ *
+ * @author 王玉涛
+ * @since 0.8.0
+ */
+@Slf4j
+public class ImagePreprocessor implements Closeable {
+
+	private static final String METRIC_NAME = "enhanced.image.preprocess";
+
+	private final ImageOutputFormat format;
+
+	private final float quality;
+
+	private final ThreadPoolExecutor executor;
+
+	private final MeterRegistry meterRegistry;
+
+	/**
+	 * 创建输入图像预处理器。
+	 * @param format 重新编码的格式
+	 * @param quality JPEG 压缩质量，取值 0 到 1
+	 * @param threads 执行预处理的线程数
+	 * @param maxQueued 最大排队数
+	 * @param meterRegistry 指标注册表
+	 */
+	public ImagePreprocessor(ImageOutputFormat format, float quality, int threads, int maxQueued,
+			MeterRegistry meterRegistry) {
+		Assert.notNull(format, "format 不能为空");
+		Assert.isTrue(quality > 0 && quality <= 1, "quality 必须在 0 到 1 之间");
+		Assert.isTrue(threads > 0, "threads 必须大于 0");
+		Assert.isTrue(maxQueued > 0, "maxQueued 必须大于 0");
+		Assert.notNull(meterRegistry, "meterRegistry 不能为空");
+		this.format = format;
+		this.quality = quality;
+		this.meterRegistry = meterRegistry;
+		AtomicInteger index = new AtomicInteger();
+		this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+				new ArrayBlockingQueue<>(maxQueued), runnable -> {
+					Thread thread = new Thread(runnable, "enhanced-image-preprocess-" + index.incrementAndGet());
+					thread.setDaemon(true);
+					return thread;
+				});
+	}
+
+	/**
+	 * 将输入图像缩小到目标尺寸以内。
+	 * 目标宽高未知、图像不超过目标尺寸、格式不受支持、处理失败或线程池已满时原样返回。
+	 * @param source 输入图像来源
+	 * @param targetWidth 目标宽度，可以为null
+	 * @param targetHeight 目标高度，可以为null
+	 * @return 缩小并重新编码后的来源，或原来源
+	 */
+	public ImageSource preprocess(ImageSource source, Integer targetWidth, Integer targetHeight) {
+		if (source == null || targetWidth == null || targetHeight == null || targetWidth <= 0 || targetHeight <= 0) {
+			return source;
+		}
+		long startedAt = System.nanoTime();
+		Future<Result> future;
+		try {
+			future = this.executor.submit(() -> resize(source, targetWidth, targetHeight));
+		}
+		catch (RejectedExecutionException ex) {
+			record(Outcome.REJECTED, startedAt);
+			log.debug("预处理线程池已满，使用原始输入图像");
+			return source;
+		}
+		try {
+			Result result = future.get();
+			record(result.outcome(), startedAt);
+			return result.source();
+		}
+		catch (InterruptedException ex) {
+			future.cancel(true);
+			Thread.currentThread().interrupt();
+			record(Outcome.FAILED, startedAt);
+			return source;
+		}
+		catch (ExecutionException ex) {
+			record(Outcome.FAILED, startedAt);
+			log.warn("输入图像预处理失败，使用原始输入图像", ex.getCause());
+			return source;
+		}
+	}
+
+	@Override
+	public void close() {
+		this.executor.shutdownNow();
+	}
+
+	private Result resize(ImageSource source, int targetWidth, int targetHeight) throws IOException {
+		// 使用内存缓存，避免 ImageIO 在系统临时目录创建缓存文件
+		try (InputStream in = source.openStream();
+				ImageInputStream input = new MemoryCacheImageInputStream(new BufferedInputStream(in))) {
+			Iterator<ImageReader> readers = ImageIO.getImageReaders(input);
+			if (!readers.hasNext()) {
+				return new Result(Outcome.UNSUPPORTED, source);
+			}
+			ImageReader reader = readers.next();
+			try {
+				reader.setInput(input, true, true);
+				// 只读取图像头
+				int width = reader.getWidth(0);
+				int height = reader.getHeight(0);
+				double scale = Math.min((double) targetWidth / width, (double) targetHeight / height);
+				if (scale >= 1) {
+					return new Result(Outcome.UNCHANGED, source);
+				}
+				int outputWidth = Math.max(1, (int) Math.round(width * scale));
+				int outputHeight = Math.max(1, (int) Math.round(height * scale));
+
+				// 按整数倍降采样解码，保留至少两倍于目标的像素供后续平滑缩放
+				ImageReadParam param = reader.getDefaultReadParam();
+				int subsampling = Math.max(1, Math.min(width / (2 * outputWidth), height / (2 * outputHeight)));
+				param.setSourceSubsampling(subsampling, subsampling, 0, 0);
+				BufferedImage decoded = reader.read(0, param);
+
+				BufferedImage scaled = scale(decoded, outputWidth, outputHeight,
+						this.format == ImageOutputFormat.PNG && decoded.getColorModel().hasAlpha());
+				return new Result(Outcome.RESIZED,
+						ImageSource.ofByteBuffer(ByteBuffer.wrap(encode(scaled)), this.format.getMimeType()));
+			}
+			finally {
+				reader.dispose();
+			}
+		}
+	}
+
+	/**
+	 * 逐级减半缩放到目标尺寸，每一级使用双线性插值，避免一次大比例缩放产生锯齿。
+	 */
+	private static BufferedImage scale(BufferedImage image, int targetWidth, int targetHeight, boolean alpha) {
+		int type = alpha ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB;
+		BufferedImage current = image;
+		int width = image.getWidth();
+		int height = image.getHeight();
+		do {
+			width = Math.max(targetWidth, width / 2);
+			height = Math.max(targetHeight, height / 2);
+			BufferedImage next = new BufferedImage(width, height, type);
+			Graphics2D graphics = next.createGraphics();
+			try {
+				if (!alpha) {
+					// JPEG 不支持透明通道，透明区域以白色填充
+					graphics.setColor(Color.WHITE);
+					graphics.fillRect(0, 0, width, height);
+				}
+				graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+				graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+				graphics.drawImage(current, 0, 0, width, height, null);
+			}
+			finally {
+				graphics.dispose();
+			}
+			current = next;
+		}
+		while (width != targetWidth || height != targetHeight);
+		return current;
+	}
+
+	private byte[] encode(BufferedImage image) throws IOException {
+		ImageWriter writer = ImageIO.getImageWritersByFormatName(this.format.getFormatName()).next();
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		try (ImageOutputStream output = new MemoryCacheImageOutputStream(out)) {
+			writer.setOutput(output);
+			ImageWriteParam param = writer.getDefaultWriteParam();
+			if (this.format == ImageOutputFormat.JPEG) {
+				param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+				param.setCompressionQuality(this.quality);
+			}
+			writer.write(null, new IIOImage(image, null, null), param);
+		}
+		finally {
+			writer.dispose();
+		}
+		return out.toByteArray();
+	}
+
+	private void record(Outcome outcome, long startedAt) {
+		Timer.builder(METRIC_NAME)
+			.description("输入图像预处理耗时")
+			.tag("outcome", outcome.tag)
+			.register(this.meterRegistry)
+			.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+	}
+
+	/**
+	 * 预处理结果
+	 */
+	private enum Outcome {
+
+		RESIZED("resized"), UNCHANGED("unchanged"), UNSUPPORTED("unsupported"), FAILED("failed"), REJECTED("rejected");
+
+		private final String tag;
+
+		Outcome(String tag) {
+			this.tag = tag;
+		}
+
+	}
+
+	private record Result(Outcome outcome, ImageSource source) {
+	}
+
+}
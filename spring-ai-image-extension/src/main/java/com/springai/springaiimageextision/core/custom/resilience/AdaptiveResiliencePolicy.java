@@ -0,0 +1,378 @@
+package com.springai.springaiimageextision.core.custom.resilience;
+
+import com.springai.springaiimageextision.core.custom.limit.ImageRateLimitException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.ai.retry.NonTransientAiException;
+import org.springframework.ai.retry.TransientAiException;
+import org.springframework.util.Assert;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * 自适应容错策略。
+ * <ul>
+ * <li>指数退避 + 全抖动（full jitter），避免大量调用方同时重试</li>
+ * <li>遵循服务端返回的 {@code Retry-After}，建议等待时间过长时直接放弃</li>
+ * <li>整体截止时间，重试不会超过调用方可接受的总耗时</li>
+ * <li>按模型的重试预算，重试次数不超过成功次数的固定比例</li>
+ * <li>按模型的熔断器，厂商故障时快速失败</li>
+ * </ul>
+ * 需要配合 {@link RetryAfterResponseErrorHandler} 使用，才能拿到 429 与 {@code Retry-After}。
+ *
+ * @author 王玉涛
+ * @since 0.8.0
+ */
+public class AdaptiveResiliencePolicy implements ImageResiliencePolicy {
+
+	private static final Logger logger = LoggerFactory.getLogger(AdaptiveResiliencePolicy.class);
+
+	/**
+	 * 未指定模型时使用的指标标签。
+	 */
+	private static final String DEFAULT_MODEL_TAG = "default";
+
+	private final int maxAttempts;
+
+	private final long initialBackoffNanos;
+
+	private final long maxBackoffNanos;
+
+	private final double multiplier;
+
+	private final long maxRetryAfterNanos;
+
+	private final long deadlineNanos;
+
+	private final double retryBudgetRatio;
+
+	private final int retryBudgetReserve;
+
+	private final int failureThreshold;
+
+	private final Duration openDuration;
+
+	private final MeterRegistry meterRegistry;
+
+	private final Map<String, ModelState> states = new ConcurrentHashMap<>();
+
+	private AdaptiveResiliencePolicy(Builder builder) {
+		this.maxAttempts = builder.maxAttempts;
+		this.initialBackoffNanos = builder.initialBackoff.toNanos();
+		this.maxBackoffNanos = builder.maxBackoff.toNanos();
+		this.multiplier = builder.multiplier;
+		this.maxRetryAfterNanos = builder.maxRetryAfter.toNanos();
+		this.deadlineNanos = builder.deadline.toNanos();
+		this.retryBudgetRatio = builder.retryBudgetRatio;
+		this.retryBudgetReserve = builder.retryBudgetReserve;
+		this.failureThreshold = builder.failureThreshold;
+		this.openDuration = builder.openDuration;
+		this.meterRegistry = builder.meterRegistry;
+	}
+
+	@Override
+	public <T> T execute(String model, Supplier<T> call) {
+		ModelState state = state(model);
+		long deadline = System.nanoTime() + this.deadlineNanos;
+		for (int attempt = 1;; attempt++) {
+			acquire(state);
+			try {
+				T result = call.get();
+				state.onSuccess();
+				return result;
+			}
+			catch (RuntimeException ex) {
+				long backoffNanos = onFailure(state, ex, attempt, deadline);
+				if (backoffNanos < 0) {
+					throw ex;
+				}
+				sleep(backoffNanos);
+			}
+		}
+	}
+
+	@Override
+	public <T> Mono<T> executeReactive(String model, Mono<T> call) {
+		return Mono.defer(() -> attempt(state(model), call, 1, System.nanoTime() + this.deadlineNanos));
+	}
+
+	/**
+	 * 查询模型的熔断器状态。
+	 * @param model 模型名称
+	 * @return 熔断器状态，模型尚未调用过时为 {@link ModelCircuitBreaker.State#CLOSED}
+	 */
+	public ModelCircuitBreaker.State getCircuitState(String model) {
+		ModelState state = this.states.get(Objects.requireNonNullElse(model, DEFAULT_MODEL_TAG));
+		return state == null ? ModelCircuitBreaker.State.CLOSED : state.circuitBreaker.getState();
+	}
+
+	private <T> Mono<T> attempt(ModelState state, Mono<T> call, int attempt, long deadline) {
+		return Mono.defer(() -> {
+			acquire(state);
+			return call.doOnSuccess(result -> state.onSuccess())
+				.doOnCancel(state.circuitBreaker::onCancel)
+				.onErrorResume(ex -> {
+					long backoffNanos = onFailure(state, ex, attempt, deadline);
+					if (backoffNanos < 0) {
+						return Mono.error(ex);
+					}
+					return Mono.delay(Duration.ofNanos(backoffNanos)).then(attempt(state, call, attempt + 1, deadline));
+				});
+		});
+	}
+
+	private void acquire(ModelState state) {
+		if (!state.circuitBreaker.tryAcquire()) {
+			state.circuitRejected.increment();
+			throw new CircuitBreakerOpenException(state.model);
+		}
+	}
+
+	/**
+	 * 记录失败并计算下一次重试前的等待时间。
+	 * @return 等待的纳秒数，返回 -1 表示不再重试
+	 */
+	private long onFailure(ModelState state, Throwable ex, int attempt, long deadline) {
+		if (!isRetryable(ex)) {
+			if (isProviderResponse(ex)) {
+				// 服务端正常返回了业务错误，说明厂商可用
+				state.circuitBreaker.onSuccess();
+			}
+			else {
+				state.circuitBreaker.onCancel();
+			}
+			return -1;
+		}
+
+		state.circuitBreaker.onFailure();
+		// 本次失败触发了熔断时不再重试，向调用方返回真实的失败原因
+		if (attempt >= this.maxAttempts || state.circuitBreaker.getState() == ModelCircuitBreaker.State.OPEN) {
+			return -1;
+		}
+
+		Duration retryAfter = ex instanceof RetryAfterTransientAiException retryAfterException
+				? retryAfterException.getRetryAfter() : null;
+		if (retryAfter != null && retryAfter.toNanos() > this.maxRetryAfterNanos) {
+			logger.warn("模型 {} 要求等待 {} 后重试，超过上限，放弃重试", state.model, retryAfter);
+			return -1;
+		}
+		long backoffNanos = backoffNanos(attempt, retryAfter);
+		if (System.nanoTime() + backoffNanos > deadline) {
+			return -1;
+		}
+		if (!state.retryBudget.tryWithdraw()) {
+			state.budgetExhausted.increment();
+			logger.warn("模型 {} 的重试预算已耗尽，放弃重试", state.model);
+			return -1;
+		}
+
+		state.retries.increment();
+		logger.debug("模型 {} 第 {} 次调用失败，{} 毫秒后重试: {}", state.model, attempt,
+				TimeUnit.NANOSECONDS.toMillis(backoffNanos), ex.getMessage());
+		return backoffNanos;
+	}
+
+	/**
+	 * 全抖动指数退避：在 [0, min(maxBackoff, initialBackoff * multiplier^(attempt-1))) 中随机取值，
+	 * 服务端指定了 {@code Retry-After} 时至少等待该时间。
+	 */
+	private long backoffNanos(int attempt, Duration retryAfter) {
+		double exponential = this.initialBackoffNanos * Math.pow(this.multiplier, attempt - 1);
+		long ceiling = (long) Math.min(this.maxBackoffNanos, exponential);
+		long jittered = ceiling > 0 ? ThreadLocalRandom.current().nextLong(ceiling) : 0;
+		return retryAfter == null ? jittered : Math.max(retryAfter.toNanos(), jittered);
+	}
+
+	private static boolean isRetryable(Throwable ex) {
+		return ex instanceof TransientAiException || ex instanceof ResourceAccessException
+				|| ex instanceof WebClientRequestException;
+	}
+
+	private static boolean isProviderResponse(Throwable ex) {
+		return ex instanceof NonTransientAiException && !(ex instanceof ImageRateLimitException)
+				&& !(ex instanceof CircuitBreakerOpenException);
+	}
+
+	private static void sleep(long nanos) {
+		try {
+			TimeUnit.NANOSECONDS.sleep(nanos);
+		}
+		catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			CancellationException cancellation = new CancellationException("等待重试时被中断");
+			cancellation.initCause(ex);
+			throw cancellation;
+		}
+	}
+
+	private ModelState state(String model) {
+		return this.states.computeIfAbsent(Objects.requireNonNullElse(model, DEFAULT_MODEL_TAG), ModelState::new);
+	}
+
+	public static Builder builder() {
+		return new Builder();
+	}
+
+	/**
+	 * 单个模型的熔断器、重试预算与指标。
+	 */
+	private final class ModelState {
+
+		private final String model;
+
+		private final ModelCircuitBreaker circuitBreaker;
+
+		private final RetryBudget retryBudget;
+
+		private final Counter retries;
+
+		private final Counter budgetExhausted;
+
+		private final Counter circuitRejected;
+
+		private ModelState(String model) {
+			MeterRegistry registry = AdaptiveResiliencePolicy.this.meterRegistry;
+			this.model = model;
+			this.circuitBreaker = new ModelCircuitBreaker(AdaptiveResiliencePolicy.this.failureThreshold,
+					AdaptiveResiliencePolicy.this.openDuration);
+			this.retryBudget = new RetryBudget(AdaptiveResiliencePolicy.this.retryBudgetRatio,
+					AdaptiveResiliencePolicy.this.retryBudgetReserve);
+			this.retries = Counter.builder("enhanced.image.retries")
+				.description("图像生成调用的重试次数")
+				.tag("model", model)
+				.register(registry);
+			this.budgetExhausted = Counter.builder("enhanced.image.retry.budget.exhausted")
+				.description("因重试预算耗尽而放弃的重试次数")
+				.tag("model", model)
+				.register(registry);
+			this.circuitRejected = Counter.builder("enhanced.image.circuit.rejected")
+				.description("被熔断器快速失败的调用次数")
+				.tag("model", model)
+				.register(registry);
+			Gauge.builder("enhanced.image.circuit.state", this.circuitBreaker, breaker -> breaker.getState().getValue())
+				.description("熔断器状态：0 关闭，1 半开，2 打开")
+				.tag("model", model)
+				.register(registry);
+		}
+
+		private void onSuccess() {
+			this.circuitBreaker.onSuccess();
+			this.retryBudget.onSuccess();
+		}
+
+	}
+
+	/**
+	 * 构建器用于构造 {@link AdaptiveResiliencePolicy} 实例。
+	 */
+	public static class Builder {
+
+		private int maxAttempts = 4;
+
+		private Duration initialBackoff = Duration.ofMillis(500);
+
+		private Duration maxBackoff = Duration.ofSeconds(20);
+
+		private double multiplier = 2.0;
+
+		private Duration maxRetryAfter = Duration.ofSeconds(60);
+
+		private Duration deadline = Duration.ofMinutes(2);
+
+		private double retryBudgetRatio = 0.2;
+
+		private int retryBudgetReserve = 10;
+
+		private int failureThreshold = 5;
+
+		private Duration openDuration = Duration.ofSeconds(30);
+
+		private MeterRegistry meterRegistry;
+
+		public Builder maxAttempts(int maxAttempts) {
+			Assert.isTrue(maxAttempts > 0, "maxAttempts 必须大于 0");
+			this.maxAttempts = maxAttempts;
+			return this;
+		}
+
+		public Builder initialBackoff(Duration initialBackoff) {
+			Assert.notNull(initialBackoff, "initialBackoff 不能为空");
+			this.initialBackoff = initialBackoff;
+			return this;
+		}
+
+		public Builder maxBackoff(Duration maxBackoff) {
+			Assert.notNull(maxBackoff, "maxBackoff 不能为空");
+			this.maxBackoff = maxBackoff;
+			return this;
+		}
+
+		public Builder multiplier(double multiplier) {
+			Assert.isTrue(multiplier >= 1, "multiplier 不能小于 1");
+			this.multiplier = multiplier;
+			return this;
+		}
+
+		public Builder maxRetryAfter(Duration maxRetryAfter) {
+			Assert.notNull(maxRetryAfter, "maxRetryAfter 不能为空");
+			this.maxRetryAfter = maxRetryAfter;
+			return this;
+		}
+
+		public Builder deadline(Duration deadline) {
+			Assert.notNull(deadline, "deadline 不能为空");
+			this.deadline = deadline;
+			return this;
+		}
+
+		public Builder retryBudgetRatio(double retryBudgetRatio) {
+			Assert.isTrue(retryBudgetRatio >= 0, "retryBudgetRatio 不能为负数");
+			this.retryBudgetRatio = retryBudgetRatio;
+			return this;
+		}
+
+		public Builder retryBudgetReserve(int retryBudgetReserve) {
+			Assert.isTrue(retryBudgetReserve >= 0, "retryBudgetReserve 不能为负数");
+			this.retryBudgetReserve = retryBudgetReserve;
+			return this;
+		}
+
+		public Builder failureThreshold(int failureThreshold) {
+			Assert.isTrue(failureThreshold > 0, "failureThreshold 必须大于 0");
+			this.failureThreshold = failureThreshold;
+			return this;
+		}
+
+		public Builder openDuration(Duration openDuration) {
+			Assert.notNull(openDuration, "openDuration 不能为空");
+			this.openDuration = openDuration;
+			return this;
+		}
+
+		public Builder meterRegistry(MeterRegistry meterRegistry) {
+			Assert.notNull(meterRegistry, "meterRegistry 不能为空");
+			this.meterRegistry = meterRegistry;
+			return this;
+		}
+
+		public AdaptiveResiliencePolicy build() {
+			Assert.notNull(this.meterRegistry, "必须设置 meterRegistry");
+			return new AdaptiveResiliencePolicy(this);
+		}
+
+	}
+
+}
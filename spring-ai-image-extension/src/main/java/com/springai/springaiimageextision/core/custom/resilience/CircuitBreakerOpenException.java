@@ -0,0 +1,28 @@
+package com.springai.springaiimageextision.core.custom.resilience;
+
+import org.springframework.ai.retry.NonTransientAiException;
+
+/**
+ * 模型的熔断器处于打开状态、请求被快速失败时抛出的异常。
+ *
+ * @author 王玉涛
+ * @since 0.8.0
+ */
+public class CircuitBreakerOpenException extends NonTransientAiException {
+
+	private final String model;
+
+	public CircuitBreakerOpenException(String model) {
+		super("模型 " + model + " 的熔断器已打开，请求被快速失败");
+		this.model = model;
+	}
+
+	/**
+	 * 被熔断的模型。
+	 * @return 模型名称
+	 */
+	public String getModel() {
+		return this.model;
+	}
+
+}
@@ -0,0 +1,35 @@
+package com.springai.springaiimageextision.core.custom.resilience;
+
+import reactor.core.publisher.Mono;
+
+import java.util.function.Supplier;
+
+/**
+ * 图像生成 API 调用的容错策略，负责重试、退避与熔断。
+ * 未配置策略时 EnhancedImageModel 使用构造时传入的重试模板。
+ *
+ * @author 王玉涛
+ * @since 0.8.0
+ * @see AdaptiveResiliencePolicy
+ */
+public interface ImageResiliencePolicy {
+
+	/**
+	 * 按策略执行一次同步调用。
+	 * @param <T> 结果类型
+	 * @param model 调用的模型，用于按模型隔离熔断与重试预算
+	 * @param call 单次调用，每次重试都会重新执行
+	 * @return 调用结果
+	 */
+	<T> T execute(String model, Supplier<T> call);
+
+	/**
+	 * 按策略执行一次响应式调用。
+	 * @param <T> 结果类型
+	 * @param model 调用的模型，用于按模型隔离熔断与重试预算
+	 * @param call 单次调用，每次重试都会重新订阅
+	 * @return 调用结果的 Mono
+	 */
+	<T> Mono<T> executeReactive(String model, Mono<T> call);
+
+}
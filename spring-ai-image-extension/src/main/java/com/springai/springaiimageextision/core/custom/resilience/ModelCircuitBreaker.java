@@ -0,0 +1,116 @@
+package com.springai.springaiimageextision.core.custom.resilience;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * 单个模型的熔断器。
+ * 连续失败达到阈值后打开并快速失败，打开一段时间后进入半开状态，只放行一个探测请求：
+ * 探测成功则关闭，失败则重新打开。
+ *
+ * @author 王玉涛
+ * @since 0.8.0
+ */
+public final class ModelCircuitBreaker {
+
+	/**
+	 * 熔断器状态，{@link #getValue()} 用作指标值。
+	 */
+	public enum State {
+
+		CLOSED(0), HALF_OPEN(1), OPEN(2);
+
+		private final int value;
+
+		State(int value) {
+			this.value = value;
+		}
+
+		public int getValue() {
+			return this.value;
+		}
+
+	}
+
+	private final int failureThreshold;
+
+	private final long openNanos;
+
+	private final AtomicReference<State> state = new AtomicReference<>(State.CLOSED);
+
+	private final AtomicInteger consecutiveFailures = new AtomicInteger();
+
+	private final AtomicBoolean probeInFlight = new AtomicBoolean();
+
+	private volatile long openedAt;
+
+	/**
+	 * 创建熔断器。
+	 * @param failureThreshold 触发熔断的连续失败次数
+	 * @param openDuration 打开状态的持续时间
+	 */
+	public ModelCircuitBreaker(int failureThreshold, Duration openDuration) {
+		this.failureThreshold = failureThreshold;
+		this.openNanos = openDuration.toNanos();
+	}
+
+	/**
+	 * 尝试获取调用许可。
+	 * @return false 表示熔断器打开，调用应快速失败
+	 */
+	public boolean tryAcquire() {
+		State current = this.state.get();
+		if (current == State.CLOSED) {
+			return true;
+		}
+		if (current == State.OPEN) {
+			if (System.nanoTime() - this.openedAt < this.openNanos) {
+				return false;
+			}
+			this.state.compareAndSet(State.OPEN, State.HALF_OPEN);
+		}
+		// 半开状态只放行一个探测请求
+		return this.probeInFlight.compareAndSet(false, true);
+	}
+
+	/**
+	 * 记录一次成功（包括服务端正常返回的业务错误）。
+	 */
+	public void onSuccess() {
+		this.consecutiveFailures.set(0);
+		if (this.state.get() != State.CLOSED) {
+			this.state.set(State.CLOSED);
+			this.probeInFlight.set(false);
+		}
+	}
+
+	/**
+	 * 记录一次可重试的失败。
+	 */
+	public void onFailure() {
+		if (this.state.get() == State.HALF_OPEN
+				|| this.consecutiveFailures.incrementAndGet() >= this.failureThreshold) {
+			this.openedAt = System.nanoTime();
+			this.state.set(State.OPEN);
+			this.probeInFlight.set(false);
+		}
+	}
+
+	/**
+	 * 调用在得到结果前被取消时释放探测许可，不改变状态。
+	 */
+	public void onCancel() {
+		this.probeInFlight.set(false);
+	}
+
+	/**
+	 * 当前状态。
+	 * @return 状态
+	 */
+	public State getState() {
+		return this.state.get();
+	}
+
+}
@@ -0,0 +1,102 @@
+package com.springai.springaiimageextision.core.custom.resilience;
+
+import org.springframework.ai.retry.NonTransientAiException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.util.StreamUtils;
+import org.springframework.util.StringUtils;
+import org.springframework.web.client.ResponseErrorHandler;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+
+/**
+ * 感知 {@code Retry-After} 的响应错误处理器。
+ * 与 RetryUtils.DEFAULT_RESPONSE_ERROR_HANDLER 的区别：429 与 408 视为可重试错误，
+ * 可重试错误统一抛出携带 {@code Retry-After} 的 {@link RetryAfterTransientAiException}；其余 4xx 仍不可重试。
+ *
+ * @author 王玉涛
+ * @since 0.8.0
+ */
+public class RetryAfterResponseErrorHandler implements ResponseErrorHandler {
+
+	@Override
+	public boolean hasError(ClientHttpResponse response) throws IOException {
+		return response.getStatusCode().isError();
+	}
+
+	@Override
+	public void handleError(URI url, HttpMethod method, ClientHttpResponse response) throws IOException {
+		String body = StreamUtils.copyToString(response.getBody(), StandardCharsets.UTF_8);
+		throw toException(response.getStatusCode(), response.getHeaders(), body);
+	}
+
+	/**
+	 * 将响应式客户端的错误响应转换为异常，供 ReactiveEnhancedImageApi 使用。
+	 * @param response 错误响应
+	 * @return 携带异常的 Mono
+	 */
+	public static Mono<? extends Throwable> toAiException(ClientResponse response) {
+		return response.bodyToMono(String.class)
+			.defaultIfEmpty("")
+			.map(body -> toException(response.statusCode(), response.headers().asHttpHeaders(), body));
+	}
+
+	/**
+	 * 按状态码将错误响应转换为可重试或不可重试的异常。
+	 * @param statusCode 状态码
+	 * @param headers 响应头
+	 * @param body 响应体
+	 * @return 异常
+	 */
+	public static RuntimeException toException(HttpStatusCode statusCode, HttpHeaders headers, String body) {
+		String message = String.format("%s - %s", statusCode.value(), body);
+		if (statusCode.is4xxClientError() && !isRetryableClientError(statusCode)) {
+			return new NonTransientAiException(message);
+		}
+		return new RetryAfterTransientAiException(message, statusCode.value(),
+				parseRetryAfter(headers.getFirst(HttpHeaders.RETRY_AFTER)));
+	}
+
+	/**
+	 * 解析 {@code Retry-After} 头，支持秒数与 HTTP 日期两种格式。
+	 * @param value 头的值
+	 * @return 等待时间，缺失或无法解析时返回 null
+	 */
+	public static Duration parseRetryAfter(String value) {
+		if (!StringUtils.hasText(value)) {
+			return null;
+		}
+		String trimmed = value.trim();
+		try {
+			return Duration.ofSeconds(Math.max(0, Long.parseLong(trimmed)));
+		}
+		catch (NumberFormatException ignored) {
+			// 非秒数格式，按 HTTP 日期解析
+		}
+		try {
+			Duration delay = Duration.between(ZonedDateTime.now(),
+					ZonedDateTime.parse(trimmed, DateTimeFormatter.RFC_1123_DATE_TIME));
+			return delay.isNegative() ? Duration.ZERO : delay;
+		}
+		catch (DateTimeParseException ex) {
+			return null;
+		}
+	}
+
+	private static boolean isRetryableClientError(HttpStatusCode statusCode) {
+		return statusCode.value() == HttpStatus.TOO_MANY_REQUESTS.value()
+				|| statusCode.value() == HttpStatus.REQUEST_TIMEOUT.value();
+	}
+
+}
@@ -0,0 +1,41 @@
+package com.springai.springaiimageextision.core.custom.resilience;
+
+import org.springframework.ai.retry.TransientAiException;
+
+import java.time.Duration;
+
+/**
+ * 可重试的 API 错误，携带状态码与服务端通过 {@code Retry-After} 建议的等待时间。
+ *
+ * @author 王玉涛
+ * @since 0.8.0
+ */
+public class RetryAfterTransientAiException extends TransientAiException {
+
+	private final int statusCode;
+
+	private final Duration retryAfter;
+
+	public RetryAfterTransientAiException(String message, int statusCode, Duration retryAfter) {
+		super(message);
+		this.statusCode = statusCode;
+		this.retryAfter = retryAfter;
+	}
+
+	/**
+	 * 响应的 HTTP 状态码。
+	 * @return 状态码
+	 */
+	public int getStatusCode() {
+		return this.statusCode;
+	}
+
+	/**
+	 * 服务端建议的重试等待时间。
+	 * @return 等待时间，响应未携带 {@code Retry-After} 时为 null
+	 */
+	public Duration getRetryAfter() {
+		return this.retryAfter;
+	}
+
+}
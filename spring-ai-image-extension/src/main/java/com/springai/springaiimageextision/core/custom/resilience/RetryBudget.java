@@ -0,0 +1,48 @@
+package com.springai.springaiimageextision.core.custom.resilience;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 重试预算：每次成功调用存入 {@code ratio} 次重试额度，每次重试取出一次，
+ * 额度上限为 {@code reserve}。长期来看重试次数不超过成功次数的 {@code ratio} 倍，
+ * 厂商故障时重试不会把请求量放大数倍。
+ *
+ * @author 王玉涛
+ * @since 0.8.0
+ */
+final class RetryBudget {
+
+	/**
+	 * 额度的定点数精度。
+	 */
+	private static final long SCALE = 1000;
+
+	private final long deposit;
+
+	private final long capacity;
+
+	private final AtomicLong balance;
+
+	RetryBudget(double ratio, int reserve) {
+		this.deposit = Math.round(ratio * SCALE);
+		this.capacity = reserve * SCALE;
+		this.balance = new AtomicLong(this.capacity);
+	}
+
+	void onSuccess() {
+		this.balance.accumulateAndGet(this.deposit, (current, delta) -> Math.min(this.capacity, current + delta));
+	}
+
+	boolean tryWithdraw() {
+		while (true) {
+			long current = this.balance.get();
+			if (current < SCALE) {
+				return false;
+			}
+			if (this.balance.compareAndSet(current, current - SCALE)) {
+				return true;
+			}
+		}
+	}
+
+}
@@ -0,0 +1,298 @@
+package com.springai.springaiimageextision.core.custom.schedule;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.util.Assert;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * 图像生成请求的隔离舱与优先级调度器。
+ * <ul>
+ * <li>按请求类别（{@link RequestPriority}）限制并发，批量请求无法占满交互式请求的并发额度</li>
+ * <li>按模型限制并发，一个模型的积压不会拖垮其他模型</li>
+ * <li>许可释放时先唤醒交互式通道中的等待者，再唤醒批量通道，同一通道内按先来先服务</li>
+ * <li>每个通道的排队长度与排队时间有界，超出时快速拒绝</li>
+ * </ul>
+ * 状态由一把 {@link ReentrantLock} 保护（而非 synchronized），等待者在各自的 {@link Condition} 上挂起。
+ *
+ * @author 王玉涛
+ * @since 0.8.0
+ */
+public class ImageRequestScheduler {
+
+	/**
+	 * 未指定模型时使用的名称。
+	 */
+	private static final String DEFAULT_MODEL = "default";
+
+	private final ReentrantLock lock = new ReentrantLock();
+
+	private final Map<RequestPriority, Integer> classLimits;
+
+	private final int modelLimit;
+
+	private final int maxQueued;
+
+	private final long queueTimeoutNanos;
+
+	private final Map<RequestPriority, Integer> activeByClass = new EnumMap<>(RequestPriority.class);
+
+	private final Map<String, Integer> activeByModel = new HashMap<>();
+
+	private final Map<RequestPriority, ArrayDeque<Waiter>> lanes = new EnumMap<>(RequestPriority.class);
+
+	private final Map<RequestPriority, Timer> queueTimers = new EnumMap<>(RequestPriority.class);
+
+	private final Map<RequestPriority, Counter> queueFullRejections = new EnumMap<>(RequestPriority.class);
+
+	private final Map<RequestPriority, Counter> timeoutRejections = new EnumMap<>(RequestPriority.class);
+
+	/**
+	 * 创建调度器。
+	 * @param interactiveConcurrency 交互式请求的最大并发数
+	 * @param batchConcurrency 批量请求的最大并发数
+	 * @param modelConcurrency 单个模型的最大并发数
+	 * @param maxQueued 每个通道的最大排队数
+	 * @param queueTimeout 最长排队时间
+	 * @param meterRegistry 指标注册表
+	 */
+	public ImageRequestScheduler(int interactiveConcurrency, int batchConcurrency, int modelConcurrency, int maxQueued,
+			Duration queueTimeout, MeterRegistry meterRegistry) {
+		Assert.isTrue(interactiveConcurrency > 0, "interactiveConcurrency 必须大于 0");
+		Assert.isTrue(batchConcurrency > 0, "batchConcurrency 必须大于 0");
+		Assert.isTrue(modelConcurrency > 0, "modelConcurrency 必须大于 0");
+		Assert.isTrue(maxQueued >= 0, "maxQueued 不能为负数");
+		Assert.notNull(queueTimeout, "queueTimeout 不能为空");
+		Assert.notNull(meterRegistry, "meterRegistry 不能为空");
+		this.classLimits = new EnumMap<>(Map.of(RequestPriority.INTERACTIVE, interactiveConcurrency,
+				RequestPriority.BATCH, batchConcurrency));
+		this.modelLimit = modelConcurrency;
+		this.maxQueued = maxQueued;
+		this.queueTimeoutNanos = queueTimeout.toNanos();
+
+		for (RequestPriority priority : RequestPriority.values()) {
+			String lane = priority.name().toLowerCase();
+			this.activeByClass.put(priority, 0);
+			this.lanes.put(priority, new ArrayDeque<>());
+			this.queueTimers.put(priority, Timer.builder("enhanced.image.scheduler.queue.time")
+				.description("请求在调度器中的排队时间")
+				.tag("priority", lane)
+				.register(meterRegistry));
+			this.queueFullRejections.put(priority, Counter.builder("enhanced.image.scheduler.rejected")
+				.description("被调度器拒绝的请求数")
+				.tags("priority", lane, "reason", "queue_full")
+				.register(meterRegistry));
+			this.timeoutRejections.put(priority, Counter.builder("enhanced.image.scheduler.rejected")
+				.description("被调度器拒绝的请求数")
+				.tags("priority", lane, "reason", "timeout")
+				.register(meterRegistry));
+			Gauge.builder("enhanced.image.scheduler.active", this, scheduler -> scheduler.activeCount(priority))
+				.description("正在执行的请求数")
+				.tag("priority", lane)
+				.register(meterRegistry);
+			Gauge.builder("enhanced.image.scheduler.queued", this, scheduler -> scheduler.queuedCount(priority))
+				.description("正在排队的请求数")
+				.tag("priority", lane)
+				.register(meterRegistry);
+		}
+	}
+
+	/**
+	 * 获取许可后执行任务，执行完毕后释放许可。
+	 * @param <T> 结果类型
+	 * @param priority 请求优先级
+	 * @param model 模型名称，为 null 时归入默认模型
+	 * @param task 任务
+	 * @return 任务结果
+	 * @throws ImageSchedulerRejectedException 排队已满或排队超时时抛出
+	 * @throws CancellationException 排队期间线程被中断时抛出
+	 */
+	public <T> T execute(RequestPriority priority, String model, Supplier<T> task) {
+		Assert.notNull(priority, "priority 不能为空");
+		Assert.notNull(task, "task 不能为空");
+		String modelKey = Objects.requireNonNullElse(model, DEFAULT_MODEL);
+		acquire(priority, modelKey);
+		try {
+			return task.get();
+		}
+		finally {
+			release(priority, modelKey);
+		}
+	}
+
+	/**
+	 * 正在执行的请求数。
+	 * @param priority 请求优先级
+	 * @return 请求数
+	 */
+	public int activeCount(RequestPriority priority) {
+		this.lock.lock();
+		try {
+			return this.activeByClass.get(priority);
+		}
+		finally {
+			this.lock.unlock();
+		}
+	}
+
+	/**
+	 * 正在排队的请求数。
+	 * @param priority 请求优先级
+	 * @return 请求数
+	 */
+	public int queuedCount(RequestPriority priority) {
+		this.lock.lock();
+		try {
+			return this.lanes.get(priority).size();
+		}
+		finally {
+			this.lock.unlock();
+		}
+	}
+
+	private void acquire(RequestPriority priority, String model) {
+		long start = System.nanoTime();
+		this.lock.lock();
+		try {
+			// 同通道有等待者、或更高优先级通道有同模型的等待者时，不能插队直接执行
+			if (!hasPrecedingWaiter(priority, model) && canRun(priority, model)) {
+				grant(priority, model);
+				this.queueTimers.get(priority).record(0, TimeUnit.NANOSECONDS);
+				return;
+			}
+			ArrayDeque<Waiter> lane = this.lanes.get(priority);
+			if (lane.size() >= this.maxQueued) {
+				this.queueFullRejections.get(priority).increment();
+				throw new ImageSchedulerRejectedException(priority, priority + " 通道排队已满");
+			}
+
+			Waiter waiter = new Waiter(model, this.lock.newCondition());
+			lane.addLast(waiter);
+			long remaining = this.queueTimeoutNanos;
+			try {
+				while (!waiter.granted) {
+					if (remaining <= 0) {
+						lane.remove(waiter);
+						this.timeoutRejections.get(priority).increment();
+						throw new ImageSchedulerRejectedException(priority, priority + " 通道排队超时");
+					}
+					remaining = waiter.condition.awaitNanos(remaining);
+				}
+			}
+			catch (InterruptedException ex) {
+				if (waiter.granted) {
+					// 已获得许可但被中断，归还许可
+					releaseLocked(priority, model);
+				}
+				else {
+					lane.remove(waiter);
+				}
+				Thread.currentThread().interrupt();
+				CancellationException cancellation = new CancellationException("排队等待调度时被中断");
+				cancellation.initCause(ex);
+				throw cancellation;
+			}
+			this.queueTimers.get(priority).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+		}
+		finally {
+			this.lock.unlock();
+		}
+	}
+
+	private void release(RequestPriority priority, String model) {
+		this.lock.lock();
+		try {
+			releaseLocked(priority, model);
+		}
+		finally {
+			this.lock.unlock();
+		}
+	}
+
+	private void releaseLocked(RequestPriority priority, String model) {
+		this.activeByClass.merge(priority, -1, Integer::sum);
+		this.activeByModel.computeIfPresent(model, (key, count) -> count > 1 ? count - 1 : null);
+		dispatch();
+	}
+
+	/**
+	 * 按优先级顺序唤醒可以执行的等待者。某个模型已满时跳过其等待者，避免阻塞其他模型。
+	 */
+	private void dispatch() {
+		for (RequestPriority priority : RequestPriority.values()) {
+			Iterator<Waiter> iterator = this.lanes.get(priority).iterator();
+			while (iterator.hasNext() && available(priority)) {
+				Waiter waiter = iterator.next();
+				if (canRun(priority, waiter.model)) {
+					iterator.remove();
+					grant(priority, waiter.model);
+					waiter.granted = true;
+					waiter.condition.signal();
+				}
+			}
+		}
+	}
+
+	private boolean hasPrecedingWaiter(RequestPriority priority, String model) {
+		if (!this.lanes.get(priority).isEmpty()) {
+			return true;
+		}
+		for (RequestPriority lane : RequestPriority.values()) {
+			if (lane == priority) {
+				return false;
+			}
+			for (Waiter waiter : this.lanes.get(lane)) {
+				if (waiter.model.equals(model)) {
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+
+	private boolean available(RequestPriority priority) {
+		return this.activeByClass.get(priority) < this.classLimits.get(priority);
+	}
+
+	private boolean canRun(RequestPriority priority, String model) {
+		return available(priority) && this.activeByModel.getOrDefault(model, 0) < this.modelLimit;
+	}
+
+	private void grant(RequestPriority priority, String model) {
+		this.activeByClass.merge(priority, 1, Integer::sum);
+		this.activeByModel.merge(model, 1, Integer::sum);
+	}
+
+	/**
+	 * 排队中的请求。
+	 */
+	private static final class Waiter {
+
+		private final String model;
+
+		private final Condition condition;
+
+		private boolean granted;
+
+		private Waiter(String model, Condition condition) {
+			this.model = model;
+			this.condition = condition;
+		}
+
+	}
+
+}
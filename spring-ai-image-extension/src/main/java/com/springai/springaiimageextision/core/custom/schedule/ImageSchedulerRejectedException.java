@@ -0,0 +1,28 @@
+package com.springai.springaiimageextision.core.custom.schedule;
+
+import org.springframework.ai.retry.NonTransientAiException;
+
+/**
+ * 调度器排队已满或排队超时、请求被拒绝时抛出的异常。
+ *
+ * @author 王玉涛
+ * @since 0.8.0
+ */
+public class ImageSchedulerRejectedException extends NonTransientAiException {
+
+	private final RequestPriority priority;
+
+	public ImageSchedulerRejectedException(RequestPriority priority, String message) {
+		super(message);
+		this.priority = priority;
+	}
+
+	/**
+	 * 被拒绝请求的优先级。
+	 * @return 优先级
+	 */
+	public RequestPriority getPriority() {
+		return this.priority;
+	}
+
+}
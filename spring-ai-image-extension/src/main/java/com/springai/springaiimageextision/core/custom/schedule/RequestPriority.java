@@ -0,0 +1,21 @@
+package com.springai.springaiimageextision.core.custom.schedule;
+
+/**
+ * 图像生成请求的优先级通道。释放许可时优先唤醒交互式请求。
+ *
+ * @author 王玉涛
+ * @since 0.8.0
+ */
+public enum RequestPriority {
+
+	/**
+	 * 交互式请求，如单张文生图、图生图，用户同步等待结果。
+	 */
+	INTERACTIVE,
+
+	/**
+	 * 批量请求，如多步图像接龙，耗时长、可容忍排队。
+	 */
+	BATCH
+
+}
@@ -0,0 +1,121 @@
+package com.springai.springaiimageextision.core.custom.scratch;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.springai.springaiimageextision.core.custom.option.ImageSource;
+import org.springframework.util.Assert;
+
+/**
+ * 引用计数的临时文件，由 {@link ScratchSpace} 创建。
+ * 创建时引用计数为 1，每次 {@link #retain()} 加一、{@link #release()} 减一，归零时立即删除。
+ *
+ * @author 王玉涛
+ * @since 0.8.0
+ */
+public final class ScratchFile implements Closeable {
+
+	private final ScratchSpace space;
+
+	private final Path path;
+
+	private final AtomicInteger refCount = new AtomicInteger(1);
+
+	private volatile long size;
+
+	ScratchFile(ScratchSpace space, Path path) {
+		this.space = space;
+		this.path = path;
+	}
+
+	/**
+	 * 临时文件路径。
+	 * @return 路径
+	 */
+	public Path path() {
+		return this.path;
+	}
+
+	/**
+	 * 已写入的字节数。
+	 * @return 文件大小
+	 */
+	public long size() {
+		return this.size;
+	}
+
+	/**
+	 * 增加一个引用。
+	 * @return 当前临时文件
+	 * @throws IllegalStateException 文件已被删除时抛出
+	 */
+	public ScratchFile retain() {
+		int previous = this.refCount.getAndUpdate(count -> count > 0 ? count + 1 : count);
+		Assert.state(previous > 0, "临时文件已被释放: " + this.path);
+		return this;
+	}
+
+	/**
+	 * 释放一个引用，引用计数归零时删除文件。
+	 */
+	public void release() {
+		if (this.refCount.decrementAndGet() == 0) {
+			this.space.delete(this);
+		}
+	}
+
+	@Override
+	public void close() {
+		release();
+	}
+
+	/**
+	 * 创建以该文件为内容的输入图像来源。
+	 * 来源持有一个独立的引用，关闭来源时释放，调用方持有的引用不受影响。
+	 * @param mimeType MIME类型
+	 * @return 输入图像来源
+	 */
+	public ImageSource asImageSource(String mimeType) {
+		retain();
+		return new ScratchImageSource(this, mimeType);
+	}
+
+	void grow(long bytes) {
+		this.size += bytes;
+	}
+
+	/**
+	 * 临时文件图像来源，关闭时释放对临时文件的引用
+	 */
+	private static final class ScratchImageSource extends ImageSource {
+
+		private final ScratchFile file;
+
+		private final AtomicBoolean closed = new AtomicBoolean();
+
+		private ScratchImageSource(ScratchFile file, String mimeType) {
+			super(mimeType);
+			this.file = file;
+		}
+
+		@Override
+		public InputStream openStream() throws IOException {
+			Assert.state(!this.closed.get(), "输入图像来源已关闭");
+			return Files.newInputStream(this.file.path());
+		}
+
+		@Override
+		public void close() {
+			if (this.closed.compareAndSet(false, true)) {
+				this.file.release();
+			}
+		}
+
+	}
+
+}
@@ -0,0 +1,18 @@
+package com.springai.springaiimageextision.core.custom.scratch;
+
+import org.springframework.ai.retry.NonTransientAiException;
+
+/**
+ * 临时文件空间已达配额上限时抛出的异常。
+ * 继承 {@link NonTransientAiException}，磁盘配额耗尽时重试只会继续占用空间。
+ *
+ * @author 王玉涛
+ * @since 0.8.0
+ */
+public class ScratchQuotaExceededException extends NonTransientAiException {
+
+	public ScratchQuotaExceededException(String message) {
+		super(message);
+	}
+
+}
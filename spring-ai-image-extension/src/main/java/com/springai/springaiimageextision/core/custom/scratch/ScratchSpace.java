@@ -0,0 +1,174 @@
+package com.springai.springaiimageextision.core.custom.scratch;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.util.Assert;
+
+/**
+ * 受管理的临时文件空间。
+ * <ul>
+ * <li>所有临时文件都位于同一个目录下，启动时清理上次进程遗留的文件，关闭时删除全部文件</li>
+ * <li>写入时按实际字节数占用配额，超过配额立即删除已写入的部分并拒绝</li>
+ * <li>文件通过引用计数管理，最后一个持有者释放后立即删除并归还配额</li>
+ * </ul>
+ * 通过 {@code enhanced.image.scratch.*} 指标暴露已用空间、文件数与拒绝次数。
+ *
+ * @author 王玉涛
+ * @since 0.8.0
+ */
+@Slf4j
+public class ScratchSpace implements Closeable {
+
+	private static final String FILE_PREFIX = "scratch-";
+
+	private static final int COPY_BUFFER_SIZE = 16 * 1024;
+
+	private final Path directory;
+
+	private final long maxBytes;
+
+	private final AtomicLong usedBytes = new AtomicLong();
+
+	private final Set<ScratchFile> files = ConcurrentHashMap.newKeySet();
+
+	private final Counter rejections;
+
+	/**
+	 * 创建临时文件空间，目录不存在时自动创建。
+	 * @param directory 临时文件目录，应由本空间独占
+	 * @param maxBytes 配额（字节）
+	 * @param meterRegistry 指标注册表
+	 */
+	public ScratchSpace(Path directory, long maxBytes, MeterRegistry meterRegistry) {
+		Assert.notNull(directory, "directory 不能为空");
+		Assert.isTrue(maxBytes > 0, "maxBytes 必须大于 0");
+		Assert.notNull(meterRegistry, "meterRegistry 不能为空");
+		this.directory = directory;
+		this.maxBytes = maxBytes;
+		try {
+			Files.createDirectories(directory);
+			purgeLeftovers();
+		}
+		catch (IOException ex) {
+			throw new UncheckedIOException("无法初始化临时文件目录: " + directory, ex);
+		}
+		this.rejections = Counter.builder("enhanced.image.scratch.rejections")
+			.description("因超过配额被拒绝的写入次数")
+			.register(meterRegistry);
+		Gauge.builder("enhanced.image.scratch.used", this, ScratchSpace::usedBytes)
+			.description("临时文件已占用的空间")
+			.baseUnit("bytes")
+			.register(meterRegistry);
+		Gauge.builder("enhanced.image.scratch.max", this, space -> space.maxBytes)
+			.description("临时文件空间配额")
+			.baseUnit("bytes")
+			.register(meterRegistry);
+		Gauge.builder("enhanced.image.scratch.files", this, ScratchSpace::fileCount)
+			.description("当前存在的临时文件数")
+			.register(meterRegistry);
+	}
+
+	/**
+	 * 将输入流写入一个新的临时文件，输入流不会被关闭。
+	 * 返回的文件引用计数为 1，调用方使用完毕后需要调用 {@link ScratchFile#release()}。
+	 * @param in 输入流
+	 * @param suffix 文件后缀，例如 ".png"
+	 * @return 临时文件
+	 * @throws IOException 读取或写入失败时抛出
+	 * @throws ScratchQuotaExceededException 超过配额时抛出，已写入的部分会被删除
+	 */
+	public ScratchFile write(InputStream in, String suffix) throws IOException {
+		Assert.notNull(in, "in 不能为空");
+		ScratchFile file = new ScratchFile(this, Files.createTempFile(this.directory, FILE_PREFIX, suffix));
+		this.files.add(file);
+		try (OutputStream out = Files.newOutputStream(file.path())) {
+			byte[] buffer = new byte[COPY_BUFFER_SIZE];
+			int read;
+			while ((read = in.read(buffer)) != -1) {
+				reserve(file, read);
+				out.write(buffer, 0, read);
+			}
+		}
+		catch (IOException | RuntimeException ex) {
+			file.release();
+			throw ex;
+		}
+		return file;
+	}
+
+	/**
+	 * 已占用的空间（字节）。
+	 * @return 已占用的字节数
+	 */
+	public long usedBytes() {
+		return this.usedBytes.get();
+	}
+
+	/**
+	 * 当前存在的临时文件数。
+	 * @return 文件数
+	 */
+	public int fileCount() {
+		return this.files.size();
+	}
+
+	/**
+	 * 删除全部临时文件，不论是否仍被引用。
+	 */
+	@Override
+	public void close() {
+		for (ScratchFile file : this.files) {
+			delete(file);
+		}
+	}
+
+	/**
+	 * 删除临时文件并归还配额，由 {@link ScratchFile} 在引用计数归零时调用。
+	 * @param file 临时文件
+	 */
+	void delete(ScratchFile file) {
+		if (!this.files.remove(file)) {
+			return;
+		}
+		this.usedBytes.addAndGet(-file.size());
+		try {
+			Files.deleteIfExists(file.path());
+		}
+		catch (IOException ex) {
+			log.warn("删除临时文件失败: {}", file.path(), ex);
+		}
+	}
+
+	private void reserve(ScratchFile file, int bytes) {
+		// 先计入文件大小，拒绝后删除文件时一并归还
+		file.grow(bytes);
+		if (this.usedBytes.addAndGet(bytes) > this.maxBytes) {
+			this.rejections.increment();
+			throw new ScratchQuotaExceededException("临时文件空间已达配额上限: " + this.maxBytes + " 字节");
+		}
+	}
+
+	private void purgeLeftovers() throws IOException {
+		try (DirectoryStream<Path> leftovers = Files.newDirectoryStream(this.directory, FILE_PREFIX + "*")) {
+			for (Path leftover : leftovers) {
+				log.info("清理遗留的临时文件: {}", leftover);
+				Files.deleteIfExists(leftover);
+			}
+		}
+	}
+
+}
@@ -0,0 +1,365 @@
+package com.springai.springaiimageextision.core.custom.store;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.util.Assert;
+
+/**
+ * 按内容寻址的本地图像存储。
+ * <ul>
+ * <li>以图像内容的 SHA-256 摘要为标识，相同内容只保存一份</li>
+ * <li>文件按摘要前两级分片存放，例如 {@code ab/cd/abcd...ef.png}，避免单个目录文件过多</li>
+ * <li>内存索引按访问顺序排列，总大小超过配额时淘汰最久未访问的图像</li>
+ * <li>记录厂商图像URL到摘要的映射，同一URL再次读取时不再访问网络</li>
+ * <li>启动时扫描目录重建索引，按文件修改时间恢复访问顺序，并清理未完成的写入</li>
+ * </ul>
+ * 通过 {@code enhanced.image.store.*} 指标暴露命中、写入、淘汰次数与已用空间。
+ *
+ * @author 王玉涛
+ * @since 0.8.0
+ */
+@Slf4j
+public class ImageStore {
+
+	private static final String TEMP_PREFIX = ".tmp-";
+
+	private static final Pattern FILE_NAME = Pattern.compile("([a-f0-9]{64})\\.([a-z0-9]+)");
+
+	private final Path directory;
+
+	private final long maxBytes;
+
+	/**
+	 * 按访问顺序排列的图像，由 lock 保护。
+	 */
+	private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+	/**
+	 * 厂商图像URL到摘要的映射，由 lock 保护。
+	 */
+	private final Map<String, String> urls = new HashMap<>();
+
+	private final ReentrantLock lock = new ReentrantLock();
+
+	private long usedBytes;
+
+	private final Counter hits;
+
+	private final Counter misses;
+
+	private final Counter stored;
+
+	private final Counter deduplicated;
+
+	private final Counter evictions;
+
+	/**
+	 * 创建本地图像存储，目录不存在时自动创建，已存在时重建索引。
+	 * @param directory 存储目录，应由本存储独占
+	 * @param maxBytes 配额（字节）
+	 * @param meterRegistry 指标注册表
+	 */
+	public ImageStore(Path directory, long maxBytes, MeterRegistry meterRegistry) {
+		Assert.notNull(directory, "directory 不能为空");
+		Assert.isTrue(maxBytes > 0, "maxBytes 必须大于 0");
+		Assert.notNull(meterRegistry, "meterRegistry 不能为空");
+		this.directory = directory;
+		this.maxBytes = maxBytes;
+		this.hits = Counter.builder("enhanced.image.store.gets").tag("result", "hit")
+			.description("本地图像存储命中次数").register(meterRegistry);
+		this.misses = Counter.builder("enhanced.image.store.gets").tag("result", "miss")
+			.description("本地图像存储未命中次数").register(meterRegistry);
+		this.stored = Counter.builder("enhanced.image.store.puts").tag("result", "stored")
+			.description("写入本地图像存储的新图像数").register(meterRegistry);
+		this.deduplicated = Counter.builder("enhanced.image.store.puts").tag("result", "deduplicated")
+			.description("内容已存在而未重复保存的写入次数").register(meterRegistry);
+		this.evictions = Counter.builder("enhanced.image.store.evictions")
+			.description("因超过配额被淘汰的图像数").register(meterRegistry);
+		Gauge.builder("enhanced.image.store.used", this, ImageStore::usedBytes)
+			.description("本地图像存储已占用的空间")
+			.baseUnit("bytes")
+			.register(meterRegistry);
+		Gauge.builder("enhanced.image.store.max", this, store -> store.maxBytes)
+			.description("本地图像存储配额")
+			.baseUnit("bytes")
+			.register(meterRegistry);
+		Gauge.builder("enhanced.image.store.entries", this, ImageStore::size)
+			.description("本地图像存储中的图像数")
+			.register(meterRegistry);
+		try {
+			Files.createDirectories(directory);
+			rebuildIndex();
+		}
+		catch (IOException ex) {
+			throw new UncheckedIOException("无法初始化图像存储目录: " + directory, ex);
+		}
+	}
+
+	/**
+	 * 写入图像，边写入临时文件边计算摘要，内容已存在时丢弃本次写入。输入流不会被关闭。
+	 * @param in 图像内容
+	 * @param mimeType MIME类型，例如 "image/png"
+	 * @return 存储的图像
+	 * @throws IOException 读取或写入失败时抛出
+	 */
+	public StoredImage put(InputStream in, String mimeType) throws IOException {
+		return put(null, in, mimeType);
+	}
+
+	/**
+	 * 写入从厂商URL下载的图像，并记录URL到摘要的映射。输入流不会被关闭。
+	 * @param url 图像URL，为null时不记录映射
+	 * @param in 图像内容
+	 * @param mimeType MIME类型，例如 "image/png"
+	 * @return 存储的图像
+	 * @throws IOException 读取或写入失败时抛出
+	 */
+	public StoredImage put(String url, InputStream in, String mimeType) throws IOException {
+		Assert.notNull(in, "in 不能为空");
+		Assert.hasText(mimeType, "mimeType 不能为空");
+		MessageDigest digest = sha256();
+		Path temp = Files.createTempFile(this.directory, TEMP_PREFIX, null);
+		long size;
+		try {
+			try (OutputStream out = new DigestOutputStream(Files.newOutputStream(temp), digest)) {
+				size = in.transferTo(out);
+			}
+			return commit(url, HexFormat.of().formatHex(digest.digest()), extension(mimeType), size, temp);
+		}
+		finally {
+			Files.deleteIfExists(temp);
+		}
+	}
+
+	/**
+	 * 按摘要读取图像。
+	 * @param id 图像内容的 SHA-256 十六进制摘要
+	 * @return 存储的图像，不存在时为空
+	 */
+	public Optional<StoredImage> get(String id) {
+		Assert.notNull(id, "id 不能为空");
+		this.lock.lock();
+		try {
+			return record(this.entries.get(id));
+		}
+		finally {
+			this.lock.unlock();
+		}
+	}
+
+	/**
+	 * 按厂商图像URL读取此前下载并保存的图像。
+	 * @param url 图像URL
+	 * @return 存储的图像，未下载过或已被淘汰时为空
+	 */
+	public Optional<StoredImage> getByUrl(String url) {
+		Assert.notNull(url, "url 不能为空");
+		this.lock.lock();
+		try {
+			String id = this.urls.get(url);
+			return record(id != null ? this.entries.get(id) : null);
+		}
+		finally {
+			this.lock.unlock();
+		}
+	}
+
+	/**
+	 * 已占用的空间（字节）。
+	 * @return 已占用的字节数
+	 */
+	public long usedBytes() {
+		this.lock.lock();
+		try {
+			return this.usedBytes;
+		}
+		finally {
+			this.lock.unlock();
+		}
+	}
+
+	/**
+	 * 存储中的图像数。
+	 * @return 图像数
+	 */
+	public int size() {
+		this.lock.lock();
+		try {
+			return this.entries.size();
+		}
+		finally {
+			this.lock.unlock();
+		}
+	}
+
+	private StoredImage commit(String url, String id, String extension, long size, Path temp) throws IOException {
+		StoredImage image;
+		List<Path> evicted;
+		this.lock.lock();
+		try {
+			Entry entry = this.entries.get(id);
+			if (entry != null) {
+				this.deduplicated.increment();
+			}
+			else {
+				Path target = path(id, extension);
+				Files.createDirectories(target.getParent());
+				move(temp, target);
+				entry = new Entry(new StoredImage(id, "image/" + extension, size, target), new HashSet<>(1));
+				this.entries.put(id, entry);
+				this.usedBytes += size;
+				this.stored.increment();
+			}
+			if (url != null) {
+				this.urls.put(url, id);
+				entry.urls().add(url);
+			}
+			image = entry.image();
+			evicted = evict();
+		}
+		finally {
+			this.lock.unlock();
+		}
+		// 淘汰的文件在锁外删除
+		evicted.forEach(ImageStore::delete);
+		return image;
+	}
+
+	/**
+	 * 从索引中淘汰最久未访问的图像直到不超过配额，最近写入的一张图像不会被淘汰。调用方需持有 lock。
+	 * @return 被淘汰图像的文件路径，由调用方删除
+	 */
+	private List<Path> evict() {
+		List<Path> evicted = new ArrayList<>();
+		Iterator<Entry> iterator = this.entries.values().iterator();
+		while (this.usedBytes > this.maxBytes && this.entries.size() > 1) {
+			Entry eldest = iterator.next();
+			iterator.remove();
+			this.usedBytes -= eldest.image().size();
+			eldest.urls().forEach(this.urls::remove);
+			evicted.add(eldest.image().path());
+			this.evictions.increment();
+		}
+		return evicted;
+	}
+
+	private Optional<StoredImage> record(Entry entry) {
+		if (entry == null) {
+			this.misses.increment();
+			return Optional.empty();
+		}
+		this.hits.increment();
+		return Optional.of(entry.image());
+	}
+
+	private Path path(String id, String extension) {
+		return this.directory.resolve(id.substring(0, 2)).resolve(id.substring(2, 4)).resolve(id + "." + extension);
+	}
+
+	private void rebuildIndex() throws IOException {
+		List<Path> files;
+		try (Stream<Path> paths = Files.walk(this.directory, 3)) {
+			files = paths.filter(Files::isRegularFile).toList();
+		}
+		List<Path> images = new ArrayList<>();
+		for (Path file : files) {
+			String name = file.getFileName().toString();
+			if (name.startsWith(TEMP_PREFIX)) {
+				log.info("清理未完成写入的图像文件: {}", file);
+				Files.deleteIfExists(file);
+			}
+			else if (FILE_NAME.matcher(name).matches()) {
+				images.add(file);
+			}
+		}
+		images.sort(Comparator.comparing(ImageStore::lastModified));
+		for (Path image : images) {
+			Matcher matcher = FILE_NAME.matcher(image.getFileName().toString());
+			matcher.matches();
+			long size = Files.size(image);
+			this.entries.put(matcher.group(1), new Entry(
+					new StoredImage(matcher.group(1), "image/" + matcher.group(2), size, image), new HashSet<>(1)));
+			this.usedBytes += size;
+		}
+		evict().forEach(ImageStore::delete);
+		if (!this.entries.isEmpty()) {
+			log.info("已从 {} 恢复 {} 张图像，共 {} 字节", this.directory, this.entries.size(), this.usedBytes);
+		}
+	}
+
+	private static long lastModified(Path path) {
+		try {
+			return Files.getLastModifiedTime(path).toMillis();
+		}
+		catch (IOException ex) {
+			return 0;
+		}
+	}
+
+	private static void move(Path source, Path target) throws IOException {
+		try {
+			Files.move(source, target, StandardCopyOption.ATOMIC_MOVE);
+		}
+		catch (AtomicMoveNotSupportedException ex) {
+			Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+		}
+	}
+
+	private static void delete(Path path) {
+		try {
+			Files.deleteIfExists(path);
+		}
+		catch (IOException ex) {
+			log.warn("删除图像文件失败: {}", path, ex);
+		}
+	}
+
+	private static String extension(String mimeType) {
+		String subtype = mimeType.substring(mimeType.indexOf('/') + 1).toLowerCase(Locale.ROOT);
+		Assert.isTrue(subtype.matches("[a-z0-9]+"), "不支持的 mimeType: " + mimeType);
+		return subtype;
+	}
+
+	private static MessageDigest sha256() {
+		try {
+			return MessageDigest.getInstance("SHA-256");
+		}
+		catch (NoSuchAlgorithmException ex) {
+			throw new IllegalStateException(ex);
+		}
+	}
+
+	private record Entry(StoredImage image, Set<String> urls) {
+	}
+
+}
@@ -0,0 +1,28 @@
+package com.springai.springaiimageextision.core.custom.store;
+
+import java.nio.file.Path;
+
+import com.springai.springaiimageextision.core.custom.option.ImageSource;
+
+/**
+ * 本地图像存储中的一张图像。
+ *
+ * @param id 图像内容的 SHA-256 十六进制摘要
+ * @param mimeType MIME类型
+ * @param size 字节数
+ * @param path 存储文件路径
+ * @author 王玉涛
+ * @since 0.8.0
+ */
+public record StoredImage(String id, String mimeType, long size, Path path) {
+
+	/**
+	 * 以存储文件作为输入图像来源。
+	 * 来源在写出时才打开文件，期间图像若已被淘汰，写出会抛出 {@link java.io.IOException}。
+	 * @return 输入图像来源
+	 */
+	public ImageSource asImageSource() {
+		return ImageSource.ofFile(this.path.toFile());
+	}
+
+}
@@ -0,0 +1,92 @@
+package com.springai.springaiimageextision.core.util;
+
+import org.springframework.util.Assert;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 基于ASCII字节数组的只读字符序列，避免为大体积的Base64数据再复制一份String
+ *
+ * @author 王玉涛
+ * @version 1.0
+ * @since 2025/10/1
+ */
+public final class AsciiCharSequence implements CharSequence {
+
+    /**
+     * ASCII字节数据，不会被复制
+     */
+    private final byte[] bytes;
+
+    /**
+     * 序列在字节数组中的起始位置
+     */
+    private final int offset;
+
+    /**
+     * 序列长度
+     */
+    private final int length;
+
+    /**
+     * 使用整个字节数组创建字符序列
+     *
+     * @param bytes ASCII字节数据
+     */
+    public AsciiCharSequence(byte[] bytes) {
+        this(bytes, 0, bytes.length);
+    }
+
+    /**
+     * 使用字节数组的一部分创建字符序列
+     *
+     * @param bytes  ASCII字节数据
+     * @param offset 起始位置
+     * @param length 长度
+     */
+    public AsciiCharSequence(byte[] bytes, int offset, int length) {
+        Assert.notNull(bytes, "bytes 不能为空");
+        Assert.isTrue(offset >= 0 && length >= 0 && offset + length <= bytes.length, "offset 或 length 越界");
+        this.bytes = bytes;
+        this.offset = offset;
+        this.length = length;
+    }
+
+    @Override
+    public int length() {
+        return this.length;
+    }
+
+    @Override
+    public char charAt(int index) {
+        if (index < 0 || index >= this.length) {
+            throw new IndexOutOfBoundsException(index);
+        }
+        return (char) (this.bytes[this.offset + index] & 0xff);
+    }
+
+    @Override
+    public CharSequence subSequence(int start, int end) {
+        if (start < 0 || end > this.length || start > end) {
+            throw new IndexOutOfBoundsException("start: " + start + ", end: " + end);
+        }
+        return new AsciiCharSequence(this.bytes, this.offset + start, end - start);
+    }
+
+    /**
+     * 将字符序列直接写入输出流，不产生中间String
+     *
+     * @param out 输出流
+     * @throws IOException 写入失败时抛出
+     */
+    public void writeTo(OutputStream out) throws IOException {
+        out.write(this.bytes, this.offset, this.length);
+    }
+
+    @Override
+    public String toString() {
+        return new String(this.bytes, this.offset, this.length, StandardCharsets.ISO_8859_1);
+    }
+}
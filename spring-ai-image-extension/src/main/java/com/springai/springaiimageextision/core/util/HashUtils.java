@@ -0,0 +1,75 @@
+package com.springai.springaiimageextision.core.util;
+
+import org.springframework.util.Assert;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * 哈希工具类，提供内容摘要相关功能
+ *
+ * @author 王玉涛
+ * @version 1.0
+ * @since 2025/10/1
+ */
+public class HashUtils {
+
+    /**
+     * 分块计算摘要时每块的字符数
+     */
+    private static final int CHUNK_SIZE = 8192;
+
+    /**
+     * 私有构造函数，防止实例化
+     */
+    private HashUtils() {}
+
+    /**
+     * 创建 SHA-256 摘要实例
+     *
+     * @return MessageDigest 实例
+     */
+    public static MessageDigest newSha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("当前运行时不支持 SHA-256", e);
+        }
+    }
+
+    /**
+     * 计算字符序列的 SHA-256 摘要（UTF-8 编码），分块处理以避免为大体积的Base64数据整体复制字节数组
+     *
+     * @param content 字符序列
+     * @return 十六进制小写摘要字符串
+     */
+    public static String sha256Hex(CharSequence content) {
+        Assert.notNull(content, "content 不能为空");
+        MessageDigest digest = newSha256();
+        int length = content.length();
+        int start = 0;
+        while (start < length) {
+            int end = Math.min(length, start + CHUNK_SIZE);
+            // 避免在代理对中间切分
+            if (end < length && Character.isHighSurrogate(content.charAt(end - 1))) {
+                end++;
+            }
+            digest.update(content.subSequence(start, end).toString().getBytes(StandardCharsets.UTF_8));
+            start = end;
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    /**
+     * 计算字节数组的 SHA-256 摘要
+     *
+     * @param content 字节数组
+     * @return 十六进制小写摘要字符串
+     */
+    public static String sha256Hex(byte[] content) {
+        Assert.notNull(content, "content 不能为空");
+        return HexFormat.of().formatHex(newSha256().digest(content));
+    }
+}
@@ -2,11 +2,17 @@ package com.springai.springaiimageextision.core.util;
 
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.util.Assert;
+import org.springframework.util.StreamUtils;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.*;
 import java.net.URL;
+import java.net.URLConnection;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
 import java.util.Base64;
 
 /**
@@ -19,6 +25,11 @@ import java.util.Base64;
 @Slf4j
 public class ImageUtils {
 
+    /**
+     * Base64编码时每次读取的字节数，取3的倍数
+     */
+    private static final int BASE64_CHUNK_SIZE = 3 * 16 * 1024;
+
     /**
      * 私有构造函数，防止实例化
      */
@@ -46,46 +57,132 @@ public class ImageUtils {
      * @throws IOException 当文件读取失败或文件不存在时抛出
      */
     public static String convert(File imageFile) throws IOException {
-        // 检查文件是否存在
-        if (!imageFile.exists()) {
-            log.error("图片文件不存在: {}", imageFile.getAbsolutePath());
-            throw new FileNotFoundException("图片文件不存在: " + imageFile.getAbsolutePath());
-        }
+        return convertAsCharSequence(imageFile).toString();
+    }
 
+    /**
+     * 将图片文件转换为Base64编码的数据URL字符序列
+     * 文件内容分块读取后直接编码进一个预先按最终长度分配的缓冲区，整个过程只持有一份编码结果，
+     * 适用于需要进一步流式写出、不必生成String的场景
+     *
+     * @param imageFile 需要转换的图片文件对象
+     * @return 图片的Base64数据URL字符序列，格式为 "data:image/[type];base64,[encodedString]"
+     * @throws IOException 当文件读取失败或文件不存在时抛出
+     */
+    public static AsciiCharSequence convertAsCharSequence(File imageFile) throws IOException {
+        checkImageFileExists(imageFile);
         log.info("开始转换图片文件: {}", imageFile.getAbsolutePath());
 
-        try (InputStream is = new FileInputStream(imageFile);
-             ByteArrayOutputStream os = new ByteArrayOutputStream()) {
+        long dataUrlLength = dataUrlLength(imageFile);
+        Assert.isTrue(dataUrlLength <= Integer.MAX_VALUE - 8, "图片文件过大，无法转换为数据URL: " + imageFile.getAbsolutePath());
+
+        byte[] buffer = new byte[(int) dataUrlLength];
+        try (FixedArrayOutputStream os = new FixedArrayOutputStream(buffer)) {
+            writeDataUrl(imageFile, os);
+            Assert.state(os.position == buffer.length, "数据URL长度与预期不一致");
+        } catch (IOException e) {
+            log.error("读取图片文件时发生错误: {}", imageFile.getAbsolutePath(), e);
+            throw e;
+        }
+
+        log.info("图片转换完成，文件大小: {} bytes, MIME类型: {}",
+                imageFile.length(), getMimeType(imageFile.getName()));
+        return new AsciiCharSequence(buffer);
+    }
+
+    /**
+     * 将图片文件以Base64数据URL格式流式写入输出流
+     * 通过 FileChannel 分块读取文件，经 Base64 编码器直接写出，不会在内存中保留完整的文件或编码结果，
+     * 输出流不会被关闭
+     *
+     * @param imageFile 需要转换的图片文件对象
+     * @param out 目标输出流
+     * @throws IOException 当文件读取或写入失败时抛出
+     */
+    public static void writeDataUrl(File imageFile, OutputStream out) throws IOException {
+        checkImageFileExists(imageFile);
+        out.write(dataUrlPrefix(getMimeType(imageFile.getName())).getBytes(StandardCharsets.US_ASCII));
 
-            // 使用8KB缓冲区读取文件内容，提高IO效率
-            byte[] buffer = new byte[8192];
-            int bytesRead;
-            while ((bytesRead = is.read(buffer)) != -1) {
-                os.write(buffer, 0, bytesRead);
+        try (FileChannel channel = FileChannel.open(imageFile.toPath(), StandardOpenOption.READ);
+             OutputStream encoder = Base64.getEncoder().wrap(StreamUtils.nonClosing(out))) {
+            // 缓冲区大小取3的倍数，减少编码器内部跨块残留的字节
+            ByteBuffer buffer = ByteBuffer.allocate(BASE64_CHUNK_SIZE);
+            while (channel.read(buffer) != -1) {
+                buffer.flip();
+                encoder.write(buffer.array(), 0, buffer.limit());
+                buffer.clear();
             }
+        }
+    }
 
-            // 获取文件的MIME类型并构造Base64数据URL
-            String mimeType = getMimeType(imageFile.getName());
-            String base64Data = Base64.getEncoder().encodeToString(os.toByteArray());
-            String dataUrl = "data:" + mimeType + ";base64," + base64Data;
+    /**
+     * 计算图片文件转换为Base64数据URL后的准确长度
+     *
+     * @param imageFile 图片文件对象
+     * @return 数据URL的字节长度
+     */
+    public static long dataUrlLength(File imageFile) {
+        long base64Length = 4 * ((imageFile.length() + 2) / 3);
+        return dataUrlPrefix(getMimeType(imageFile.getName())).length() + base64Length;
+    }
 
-            log.info("图片转换完成，文件大小: {} bytes, MIME类型: {}",
-                    os.size(), mimeType);
+    /**
+     * 构造数据URL前缀
+     *
+     * @param mimeType MIME类型
+     * @return 形如 "data:image/png;base64," 的前缀
+     */
+    public static String dataUrlPrefix(String mimeType) {
+        return "data:" + mimeType + ";base64,";
+    }
 
-            return dataUrl;
-        } catch (IOException e) {
-            log.error("读取图片文件时发生错误: {}", imageFile.getAbsolutePath(), e);
-            throw e;
+    /**
+     * 检查图片文件是否存在
+     *
+     * @param imageFile 图片文件对象
+     * @throws FileNotFoundException 当文件不存在时抛出
+     */
+    private static void checkImageFileExists(File imageFile) throws FileNotFoundException {
+        if (!imageFile.exists()) {
+            log.error("图片文件不存在: {}", imageFile.getAbsolutePath());
+            throw new FileNotFoundException("图片文件不存在: " + imageFile.getAbsolutePath());
         }
     }
 
+    /**
+     * 将Base64编码的图像数据包装为数据URL格式
+     *
+     * @param base64Data Base64编码的图像数据（不含前缀）
+     * @return 图片的Base64数据URL字符串，格式为 "data:image/[type];base64,[encodedString]"
+     */
+    public static String toDataUrl(String base64Data) {
+        Assert.hasText(base64Data, "base64Data 不能为空");
+        return dataUrlPrefix(detectBase64MimeType(base64Data)) + base64Data;
+    }
+
+    /**
+     * 根据Base64数据开头的文件签名推断图像MIME类型
+     *
+     * @param base64Data Base64编码的图像数据（不含前缀）
+     * @return MIME类型字符串，无法识别时返回 "image/png"
+     */
+    private static String detectBase64MimeType(String base64Data) {
+        if (base64Data.startsWith("/9j/")) {
+            return "image/jpeg";
+        } else if (base64Data.startsWith("UklGR")) {
+            return "image/webp";
+        }
+        // iVBORw0KGgo 为PNG签名，厂商返回的 b64_json 默认也是PNG
+        return "image/png";
+    }
+
     /**
      * 根据文件名获取MIME类型
      *
      * @param filename 文件名
      * @return MIME类型字符串，格式为 "image/[extension]"
      */
-    private static String getMimeType(String filename) {
+    public static String getMimeType(String filename) {
         Assert.notNull(filename, "文件名不能为空");
         Assert.hasText(filename, "文件名不能为空");
         // 提取文件扩展名
@@ -113,6 +210,42 @@ public class ImageUtils {
         return originalFilename;
     }
 
+    /**
+     * 从图像URL的文件名中提取并标准化图片类型
+     *
+     * @param url 图像URL
+     * @return 标准化的文件类型字符串，如 "png"、"jpg"、"webp" 等
+     */
+    public static String getUrlFileType(String url) {
+        Assert.hasText(url, "url 不能为空");
+        // 清理文件名，只保留字母、数字、点号和下划线，去除非法字符
+        String fileName = url.substring(url.lastIndexOf("/") + 1).replaceAll("[^a-zA-Z0-9._-]", "_");
+        return getFileType(fileName);
+    }
+
+    /**
+     * 打开图像URL的输入流，设置连接与读取超时，避免对端无响应时无限期占用线程
+     *
+     * @param url 图像URL
+     * @param connectTimeout 建立连接的超时时间
+     * @param readTimeout 两次读取之间的超时时间
+     * @return 图像内容的输入流，使用完毕后需要关闭
+     * @throws IOException 当连接失败或超时时抛出
+     */
+    public static InputStream openStream(String url, Duration connectTimeout, Duration readTimeout) throws IOException {
+        Assert.hasText(url, "url 不能为空");
+        Assert.notNull(connectTimeout, "connectTimeout 不能为空");
+        Assert.notNull(readTimeout, "readTimeout 不能为空");
+        URLConnection connection = new URL(url).openConnection();
+        connection.setConnectTimeout(toTimeoutMillis(connectTimeout));
+        connection.setReadTimeout(toTimeoutMillis(readTimeout));
+        return connection.getInputStream();
+    }
+
+    private static int toTimeoutMillis(Duration timeout) {
+        return (int) Math.min(Integer.MAX_VALUE, Math.max(0, timeout.toMillis()));
+    }
+
     /**
      * 尝试从文件名中获取图片类型
      *
@@ -166,7 +299,19 @@ public class ImageUtils {
         isImage(originalFilename);
     }
 
-public static File convertToFile(MultipartFile file) throws IOException {
+    /**
+     * 将上传文件写入系统临时目录
+     * 返回的临时文件不会被自动删除，调用方必须自行删除；
+     * 需要将上传文件作为输入图像时使用 {@code ImageSource.ofMultipart}，不会生成临时文件
+     *
+     * @param file 上传文件
+     * @return 临时文件
+     * @throws IOException 写入失败时抛出
+     * @deprecated 自 0.8.0 起，每次调用都会在系统临时目录留下文件，改用
+     * {@link com.springai.springaiimageextision.core.custom.option.ImageSource#ofMultipart(MultipartFile)}
+     */
+    @Deprecated(since = "0.8.0")
+    public static File convertToFile(MultipartFile file) throws IOException {
         if (file == null || file.isEmpty()) {
             throw new IllegalArgumentException("文件不能为空");
         }
@@ -189,10 +334,16 @@ public static File convertToFile(MultipartFile file) throws IOException {
 
     /**
      * 从URL创建图片文件
+     * 返回的临时文件不会被自动删除，调用方必须自行删除；
+     * 需要将下载的图像作为输入图像时使用 {@code EnhancedImageClient.downloadImage}，
+     * 启用本地图像存储时同一URL只下载一次，否则临时文件由受管理的空间回收
      *
      * @param url 图片URL
      * @return 图片文件对象
+     * @deprecated 自 0.8.0 起，每次调用都会在系统临时目录留下文件，改用
+     * {@link com.springai.springaiimageextision.core.client.EnhancedImageClient#downloadImage(String)}
      */
+    @Deprecated(since = "0.8.0")
     public static File createImageAsUrl(String url) throws IOException {
         try {
             URL imageUrl = new URL(url);
@@ -221,4 +372,37 @@ public static File convertToFile(MultipartFile file) throws IOException {
             throw e;
         }
     }
+
+    /**
+     * 写入预分配定长字节数组的输出流，写入超出容量时抛出异常
+     */
+    private static final class FixedArrayOutputStream extends OutputStream {
+
+        private final byte[] buffer;
+
+        private int position;
+
+        private FixedArrayOutputStream(byte[] buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            ensureCapacity(1);
+            this.buffer[this.position++] = (byte) b;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            ensureCapacity(len);
+            System.arraycopy(b, off, this.buffer, this.position, len);
+            this.position += len;
+        }
+
+        private void ensureCapacity(int len) throws IOException {
+            if (this.position + len > this.buffer.length) {
+                throw new IOException("数据URL长度超出预期，文件可能在转换过程中被修改");
+            }
+        }
+    }
 }
@@ -0,0 +1,48 @@
+package com.springai.springaiimageextision.core.util;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.ai.retry.TransientAiException;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import reactor.util.retry.Retry;
+import reactor.util.retry.RetryBackoffSpec;
+
+import java.time.Duration;
+
+/**
+ * 响应式重试工具类，提供与 {@link org.springframework.ai.retry.RetryUtils} 语义一致的 Reactor 重试策略
+ *
+ * @author 王玉涛
+ * @version 1.0
+ * @since 2025/10/1
+ */
+@Slf4j
+public class ReactiveRetryUtils {
+
+    /**
+     * 默认重试策略，与 RetryUtils.DEFAULT_RETRY_TEMPLATE 保持一致：
+     * 最多尝试10次，初始退避2秒，倍数5，最大退避3分钟，
+     * 仅对 TransientAiException 与网络访问异常（对应阻塞路径的 ResourceAccessException）进行重试
+     */
+    public static final RetryBackoffSpec DEFAULT_RETRY = Retry.backoff(9, Duration.ofMillis(2000))
+            .multiplier(5)
+            .maxBackoff(Duration.ofMillis(3 * 60000))
+            .jitter(0)
+            .filter(ReactiveRetryUtils::isRetryable)
+            .doBeforeRetry(signal -> log.warn("第 {} 次重试失败", signal.totalRetries() + 1, signal.failure()))
+            .onRetryExhaustedThrow((spec, signal) -> signal.failure());
+
+    /**
+     * 私有构造函数，防止实例化
+     */
+    private ReactiveRetryUtils() {}
+
+    /**
+     * 判断异常是否可以重试
+     *
+     * @param throwable 异常
+     * @return true表示可以重试
+     */
+    private static boolean isRetryable(Throwable throwable) {
+        return throwable instanceof TransientAiException || throwable instanceof WebClientRequestException;
+    }
+}
@@ -0,0 +1,162 @@
+package com.springai.springaiimageextision.core.util;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.util.Assert;
+
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * 线程工具类，提供执行器创建与可取消的异步任务封装
+ *
+ * @author 王玉涛
+ * @version 1.0
+ * @since 2025/10/1
+ */
+@Slf4j
+public class ThreadUtils {
+
+    /**
+     * 私有构造函数，防止实例化
+     */
+    private ThreadUtils() {}
+
+    /**
+     * 判断当前运行时是否支持虚拟线程（JDK 21+）
+     *
+     * @return true表示支持虚拟线程
+     */
+    public static boolean isVirtualThreadSupported() {
+        return findVirtualThreadFactoryMethod() != null;
+    }
+
+    /**
+     * 创建任务执行器：运行时支持时使用每任务一个虚拟线程，否则回退为有界的平台线程池
+     *
+     * @param virtualThreads 是否优先使用虚拟线程
+     * @param platformThreads 回退为平台线程池时的最大线程数
+     * @param threadNamePrefix 线程名前缀
+     * @return 执行器实例
+     */
+    public static ExecutorService newTaskExecutor(boolean virtualThreads, int platformThreads, String threadNamePrefix) {
+        Assert.isTrue(platformThreads > 0, "platformThreads 必须大于 0");
+        Assert.hasText(threadNamePrefix, "threadNamePrefix 不能为空");
+        if (virtualThreads) {
+            Method factoryMethod = findVirtualThreadFactoryMethod();
+            if (factoryMethod != null) {
+                try {
+                    log.info("使用虚拟线程执行器: {}", threadNamePrefix);
+                    return (ExecutorService) factoryMethod.invoke(null);
+                } catch (ReflectiveOperationException e) {
+                    log.warn("创建虚拟线程执行器失败，回退为平台线程池: {}", threadNamePrefix, e);
+                }
+            } else {
+                log.warn("当前运行时 (Java {}) 不支持虚拟线程，回退为平台线程池: {}",
+                        Runtime.version().feature(), threadNamePrefix);
+            }
+        }
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(platformThreads, platformThreads,
+                60L, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), namedThreadFactory(threadNamePrefix));
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    /**
+     * 获取共享的默认任务执行器，首次调用时创建
+     * 未显式指定执行器的客户端共用该实例，线程均为守护线程，平台线程空闲后自动回收，无需关闭
+     *
+     * @return 默认任务执行器
+     */
+    public static Executor defaultTaskExecutor() {
+        return DefaultTaskExecutorHolder.INSTANCE;
+    }
+
+    /**
+     * 创建带名称前缀的守护线程工厂
+     *
+     * @param threadNamePrefix 线程名前缀
+     * @return 线程工厂
+     */
+    public static ThreadFactory namedThreadFactory(String threadNamePrefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, threadNamePrefix + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * 在指定执行器上异步执行任务，返回的Future被取消或超时时会中断正在执行的任务
+     *
+     * @param <T> 结果类型
+     * @param supplier 需要执行的任务
+     * @param executor 执行器
+     * @param timeout 超时时间，为null时不设置超时
+     * @return 异步结果
+     */
+    public static <T> CompletableFuture<T> supplyCancellable(Supplier<T> supplier, Executor executor, Duration timeout) {
+        Assert.notNull(supplier, "supplier 不能为空");
+        Assert.notNull(executor, "executor 不能为空");
+
+        CompletableFuture<T> future = new CompletableFuture<>();
+        FutureTask<Void> task = new FutureTask<>(() -> {
+            try {
+                future.complete(supplier.get());
+            } catch (Throwable ex) {
+                future.completeExceptionally(ex);
+            }
+            return null;
+        });
+
+        // 取消或超时时中断底层任务，释放执行线程与网络连接
+        future.whenComplete((result, ex) -> {
+            if (ex != null) {
+                task.cancel(true);
+            }
+        });
+        if (Objects.nonNull(timeout)) {
+            future.orTimeout(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        }
+
+        try {
+            executor.execute(task);
+        } catch (RuntimeException e) {
+            future.completeExceptionally(e);
+        }
+        return future;
+    }
+
+    /**
+     * 延迟创建默认任务执行器
+     */
+    private static class DefaultTaskExecutorHolder {
+
+        private static final Executor INSTANCE = newTaskExecutor(true, 256, "enhanced-image-");
+    }
+
+    /**
+     * 查找 Executors.newVirtualThreadPerTaskExecutor 方法
+     *
+     * @return 方法对象，不支持时返回null
+     */
+    private static Method findVirtualThreadFactoryMethod() {
+        try {
+            return Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.springai.springaiimageextision.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.springai.springaiimageextision.core.custom.option.EnhancedImageOptions;
+import com.springai.springaiimageextision.core.custom.option.ImageSource;
+import com.springai.springaiimageextision.core.util.ImageUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.Base64;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * EnhancedImageOptions JSON序列化基准测试
+ * 图生图请求的 image 字段是整张图片的Base64数据URL，序列化开销与堆分配主要来自该字段，
+ * 运行时附带 GC 分析器，可通过 gc.alloc.rate.norm 对比缓冲与流式写出的堆分配量
+ *
+ * @author 王玉涛
+ * @version 1.0
+ * @since 2025/10/1
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class EnhancedImageOptionsSerializationBenchmark {
+
+    /**
+     * 输入图片大小（MB）
+     */
+    @Param({"1", "10", "30"})
+    private int sizeMb;
+
+    private ObjectMapper objectMapper;
+
+    private EnhancedImageOptions options;
+
+    private EnhancedImageOptions sourceOptions;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        byte[] content = new byte[sizeMb * 1024 * 1024];
+        new Random(42).nextBytes(content);
+        objectMapper = new ObjectMapper();
+        options = EnhancedImageOptions.builder()
+                .model("Qwen/Qwen-Image-Edit")
+                .prompt("请美化这张图片")
+                .negativePrompt("天空")
+                .inferenceSteps(20)
+                .image(ImageUtils.toDataUrl(Base64.getEncoder().encodeToString(content)))
+                .build();
+        sourceOptions = EnhancedImageOptions.builder()
+                .model("Qwen/Qwen-Image-Edit")
+                .prompt("请美化这张图片")
+                .negativePrompt("天空")
+                .inferenceSteps(20)
+                .imageSource(ImageSource.ofByteBuffer(ByteBuffer.wrap(content), "image/png"))
+                .build();
+    }
+
+    /**
+     * 序列化为字节数组，与缓冲请求体的消息转换器行为一致
+     */
+    @Benchmark
+    public byte[] writeValueAsBytes() throws IOException {
+        return objectMapper.writeValueAsBytes(options);
+    }
+
+    /**
+     * 序列化为字符串
+     */
+    @Benchmark
+    public String writeValueAsString() throws IOException {
+        return objectMapper.writeValueAsString(options);
+    }
+
+    /**
+     * 流式写入输出流，不持有完整的序列化结果
+     */
+    @Benchmark
+    public void writeValueToStream() throws IOException {
+        objectMapper.writeValue(OutputStream.nullOutputStream(), options);
+    }
+
+    /**
+     * 以输入图像来源流式写入输出流，Base64内容边编码边写出，不生成完整的Base64字符串
+     */
+    @Benchmark
+    public void writeImageSourceToStream() throws IOException {
+        objectMapper.writeValue(OutputStream.nullOutputStream(), sourceOptions);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(EnhancedImageOptionsSerializationBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
@@ -0,0 +1,190 @@
+package com.springai.springaiimageextision.benchmark;
+
+import com.springai.springaiimageextision.SpringAiImageExtisionApplication;
+import com.springai.springaiimageextision.stub.StubImageProvider;
+import com.springai.springaiimageextision.stub.StubImageProvider.LatencyDistribution;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+
+/**
+ * 端到端压测工具
+ * 在同一个JVM中启动本地桩厂商与完整的应用，按场景并发调用真实的控制器，
+ * 输出每个场景的吞吐量、延迟分位数与堆内存占用，全程离线，不消耗厂商额度。
+ * 参数为可选的场景名正则，例如 {@code text-.*}；不传时运行全部场景。
+ * 建议以 -Xmx2g 运行，使堆占用的数值与生产环境可比。
+ *
+ * @author 王玉涛
+ * @version 1.0
+ * @since 2025/10/1
+ */
+public class ImageLoadHarness {
+
+    private static final Duration REQUEST_TIMEOUT = Duration.ofMinutes(5);
+
+    /**
+     * 压测场景
+     *
+     * @param name 场景名
+     * @param endpoint 调用的接口
+     * @param latency 桩厂商的生成耗时分布
+     * @param errorRate 桩厂商返回 500 的比例
+     * @param throttleRate 桩厂商返回 429 的比例，Retry-After 为 1 秒
+     * @param responseFormat 桩厂商的响应格式
+     * @param imageBytes 桩厂商生成图像的大致字节数
+     * @param concurrency 并发的客户端数
+     * @param requests 场景的总请求数
+     */
+    record Scenario(String name, Endpoint endpoint, LatencyDistribution latency, double errorRate,
+                    double throttleRate, String responseFormat, int imageBytes, int concurrency, int requests) {
+    }
+
+    /**
+     * 被压测的接口
+     */
+    enum Endpoint {
+
+        /**
+         * 文生图：POST /api/core/images
+         */
+        TEXT_TO_IMAGE("/api/core/images?prompt="),
+
+        /**
+         * 三步图像接龙：POST /api/core/images/solitaire，每一步都会下载上一步的图像
+         */
+        SOLITAIRE("/api/core/images/solitaire?step=3&prompts=%E9%9B%AA%E6%99%AF&prompt=");
+
+        private final String path;
+
+        Endpoint(String path) {
+            this.path = path;
+        }
+    }
+
+    private static final List<Scenario> SCENARIOS = List.of(
+            new Scenario("text-url-fast", Endpoint.TEXT_TO_IMAGE, LatencyDistribution.none(),
+                    0, 0, "url", 64 * 1024, 64, 2000),
+            new Scenario("text-url-lognormal", Endpoint.TEXT_TO_IMAGE, LatencyDistribution.logNormal(500, 0.5),
+                    0, 0, "url", 64 * 1024, 200, 1000),
+            new Scenario("text-b64-1mb", Endpoint.TEXT_TO_IMAGE, LatencyDistribution.uniform(50, 150),
+                    0, 0, "b64_json", 1024 * 1024, 32, 300),
+            new Scenario("text-errors-throttled", Endpoint.TEXT_TO_IMAGE, LatencyDistribution.fixed(100),
+                    0.05, 0.1, "url", 64 * 1024, 64, 500),
+            new Scenario("solitaire-url-download", Endpoint.SOLITAIRE, LatencyDistribution.fixed(100),
+                    0, 0, "url", 256 * 1024, 16, 100));
+
+    public static void main(String[] args) throws Exception {
+        Pattern filter = Pattern.compile(args.length > 0 ? args[0] : ".*");
+        try (StubImageProvider stub = StubImageProvider.start();
+             ConfigurableApplicationContext context = new SpringApplicationBuilder(SpringAiImageExtisionApplication.class)
+                     .run("--server.port=0",
+                             "--spring.ai.openai.api-key=stub",
+                             "--spring.ai.openai.base-url=" + stub.baseUrl(),
+                             "--ai.enhanced.image.resilience.enabled=true",
+                             "--logging.level.com.springai=WARN")) {
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            HttpClient client = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .connectTimeout(Duration.ofSeconds(10))
+                    .build();
+
+            System.out.printf("%-24s %8s %8s %8s %10s %8s %8s %8s %8s %10s %10s %9s %9s%n",
+                    "scenario", "requests", "ok", "failed", "req/s", "p50ms", "p90ms", "p99ms", "maxms",
+                    "heapMB", "peakMB", "stub429", "stub5xx");
+            for (Scenario scenario : SCENARIOS) {
+                if (filter.matcher(scenario.name()).matches()) {
+                    run(scenario, stub, client, "http://localhost:" + port);
+                }
+            }
+        }
+    }
+
+    private static void run(Scenario scenario, StubImageProvider stub, HttpClient client, String baseUrl)
+            throws InterruptedException {
+        stub.reset()
+                .latency(scenario.latency())
+                .errorRate(scenario.errorRate())
+                .throttle(scenario.throttleRate(), Duration.ofSeconds(1))
+                .responseFormat(scenario.responseFormat())
+                .imageSize(scenario.imageBytes());
+        System.gc();
+        List<MemoryPoolMXBean> heapPools = ManagementFactory.getMemoryPoolMXBeans().stream()
+                .filter(pool -> pool.getType() == MemoryType.HEAP)
+                .toList();
+        heapPools.forEach(MemoryPoolMXBean::resetPeakUsage);
+
+        long[] latencies = new long[scenario.requests()];
+        AtomicInteger next = new AtomicInteger();
+        AtomicLong succeeded = new AtomicLong();
+        ExecutorService executor = Executors.newFixedThreadPool(scenario.concurrency());
+        long startedAt = System.nanoTime();
+        for (int i = 0; i < scenario.concurrency(); i++) {
+            executor.execute(() -> {
+                int index;
+                while ((index = next.getAndIncrement()) < scenario.requests()) {
+                    HttpRequest request = HttpRequest.newBuilder()
+                            .uri(URI.create(baseUrl + scenario.endpoint().path
+                                    + URLEncoder.encode("压测-" + index, StandardCharsets.UTF_8)))
+                            .timeout(REQUEST_TIMEOUT)
+                            .POST(HttpRequest.BodyPublishers.noBody())
+                            .build();
+                    long begin = System.nanoTime();
+                    try {
+                        HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                        if (response.statusCode() == 200) {
+                            succeeded.incrementAndGet();
+                        }
+                    } catch (Exception e) {
+                        if (e instanceof InterruptedException) {
+                            Thread.currentThread().interrupt();
+                            return;
+                        }
+                    }
+                    latencies[index] = System.nanoTime() - begin;
+                }
+            });
+        }
+        executor.shutdown();
+        executor.awaitTermination(1, TimeUnit.HOURS);
+        double elapsedSeconds = (System.nanoTime() - startedAt) / 1e9;
+
+        long peakBytes = heapPools.stream().mapToLong(pool -> pool.getPeakUsage().getUsed()).sum();
+        System.gc();
+        long heapBytes = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+        Arrays.sort(latencies);
+        StubImageProvider.Stats stats = stub.stats();
+        System.out.printf("%-24s %8d %8d %8d %10.1f %8d %8d %8d %8d %10.1f %10.1f %9d %9d%n",
+                scenario.name(), scenario.requests(), succeeded.get(), scenario.requests() - succeeded.get(),
+                scenario.requests() / elapsedSeconds,
+                percentile(latencies, 0.50), percentile(latencies, 0.90), percentile(latencies, 0.99),
+                percentile(latencies, 1.0),
+                heapBytes / 1048576.0, peakBytes / 1048576.0, stats.throttled(), stats.failed());
+    }
+
+    /**
+     * 已排序的纳秒耗时数组的分位数（毫秒）
+     */
+    private static long percentile(long[] sortedNanos, double quantile) {
+        int index = (int) Math.ceil(quantile * sortedNanos.length) - 1;
+        return TimeUnit.NANOSECONDS.toMillis(sortedNanos[Math.max(0, index)]);
+    }
+}
@@ -0,0 +1,116 @@
+package com.springai.springaiimageextision.benchmark;
+
+import com.springai.springaiimageextision.core.custom.option.ImageSource;
+import com.springai.springaiimageextision.core.custom.preprocess.ImageOutputFormat;
+import com.springai.springaiimageextision.core.custom.preprocess.ImagePreprocessor;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 输入图像预处理基准测试
+ * 对比直接上传原图与先缩小到 1328x1328 再上传的耗时，两者都将数据URL写入空输出流，
+ * 运行时附带 GC 分析器，可通过 gc.alloc.rate.norm 对比两种方式的堆分配量
+ *
+ * @author 王玉涛
+ * @version 1.0
+ * @since 2025/10/1
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class ImagePreprocessorBenchmark {
+
+    private static final int TARGET = 1328;
+
+    /**
+     * 原图边长（像素）
+     */
+    @Param({"2048", "4096"})
+    private int side;
+
+    /**
+     * 重新编码的格式
+     */
+    @Param({"JPEG", "PNG"})
+    private ImageOutputFormat format;
+
+    private ImagePreprocessor preprocessor;
+
+    private ImageSource source;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        // 渐变叠加噪声，接近照片的压缩特性
+        BufferedImage image = new BufferedImage(side, side, BufferedImage.TYPE_INT_RGB);
+        Random random = new Random(42);
+        for (int y = 0; y < side; y++) {
+            for (int x = 0; x < side; x++) {
+                int noise = random.nextInt(32);
+                int r = (x * 255 / side + noise) & 0xff;
+                int g = (y * 255 / side + noise) & 0xff;
+                int b = ((x + y) * 127 / side + noise) & 0xff;
+                image.setRGB(x, y, (r << 16) | (g << 8) | b);
+            }
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", out);
+        source = ImageSource.ofByteBuffer(ByteBuffer.wrap(out.toByteArray()), "image/png");
+        preprocessor = new ImagePreprocessor(format, 0.9f, 1, 16, new SimpleMeterRegistry());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        preprocessor.close();
+    }
+
+    /**
+     * 直接上传原图
+     */
+    @Benchmark
+    public void uploadOriginal() throws IOException {
+        source.writeDataUrl(OutputStream.nullOutputStream());
+    }
+
+    /**
+     * 先缩小并重新编码，再上传
+     */
+    @Benchmark
+    public void preprocessThenUpload() throws IOException {
+        preprocessor.preprocess(source, TARGET, TARGET).writeDataUrl(OutputStream.nullOutputStream());
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(ImagePreprocessorBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
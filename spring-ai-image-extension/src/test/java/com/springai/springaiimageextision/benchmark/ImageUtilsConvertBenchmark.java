@@ -0,0 +1,118 @@
+package com.springai.springaiimageextision.benchmark;
+
+import com.springai.springaiimageextision.core.util.ImageUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.util.Base64;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ImageUtils 数据URL编码基准测试
+ * 对比原有的 ByteArrayOutputStream 实现与单次分配的流式编码实现，
+ * 运行时附带 GC 分析器，可通过 gc.alloc.rate.norm 对比每次转换的堆分配量
+ *
+ * @author 王玉涛
+ * @version 1.0
+ * @since 2025/10/1
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class ImageUtilsConvertBenchmark {
+
+    /**
+     * 图片文件大小（MB）
+     */
+    @Param({"1", "10", "30"})
+    private int sizeMb;
+
+    private File imageFile;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        byte[] content = new byte[sizeMb * 1024 * 1024];
+        new Random(42).nextBytes(content);
+        imageFile = File.createTempFile("benchmark_", ".png");
+        Files.write(imageFile.toPath(), content);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(imageFile.toPath());
+    }
+
+    /**
+     * 原有实现：复制到 ByteArrayOutputStream、toByteArray、encodeToString 再拼接前缀
+     */
+    @Benchmark
+    public String legacyConvert() throws IOException {
+        try (InputStream is = new FileInputStream(imageFile);
+             ByteArrayOutputStream os = new ByteArrayOutputStream()) {
+            byte[] buffer = new byte[8192];
+            int bytesRead;
+            while ((bytesRead = is.read(buffer)) != -1) {
+                os.write(buffer, 0, bytesRead);
+            }
+            String base64Data = Base64.getEncoder().encodeToString(os.toByteArray());
+            return "data:image/png;base64," + base64Data;
+        }
+    }
+
+    /**
+     * 当前实现：编码进预分配缓冲区后生成String
+     */
+    @Benchmark
+    public String convert() throws IOException {
+        return ImageUtils.convert(imageFile);
+    }
+
+    /**
+     * 字符序列形式：只持有一份编码结果
+     */
+    @Benchmark
+    public CharSequence convertAsCharSequence() throws IOException {
+        return ImageUtils.convertAsCharSequence(imageFile);
+    }
+
+    /**
+     * 流式形式：直接写入输出流，不持有编码结果
+     */
+    @Benchmark
+    public void writeDataUrl() throws IOException {
+        ImageUtils.writeDataUrl(imageFile, OutputStream.nullOutputStream());
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(ImageUtilsConvertBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
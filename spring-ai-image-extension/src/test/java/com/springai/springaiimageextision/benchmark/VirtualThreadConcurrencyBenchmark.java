@@ -0,0 +1,154 @@
+package com.springai.springaiimageextision.benchmark;
+
+import com.springai.springaiimageextision.core.config.HttpTransportFactory;
+import com.springai.springaiimageextision.core.custom.api.EnhancedImageApi;
+import com.springai.springaiimageextision.core.custom.bean.ImageTransportProperties;
+import com.springai.springaiimageextision.core.custom.option.EnhancedImageOptions;
+import com.springai.springaiimageextision.core.util.ThreadUtils;
+import com.sun.net.httpserver.HttpServer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.web.client.RestClient;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 单节点并发生成能力基准测试
+ * 每次操作同时发起 concurrency 个完整的生成调用（EnhancedImageApi → RestClient → JDK HttpClient），
+ * 本地桩服务对每个请求延迟 latencyMs 后返回，模拟厂商的长耗时生成。
+ * platform 模式使用与 Tomcat 默认 maxThreads 相同的 200 个平台线程，virtual 模式每个调用一个虚拟线程。
+ * 单节点可承载的生成吞吐量 = concurrency / 每次操作耗时；平台线程模式在 concurrency 超过线程数后开始排队。
+ * JDK 21 以下 virtual 模式回退为平台线程池，两组结果应基本一致。
+ *
+ * @author 王玉涛
+ * @version 1.0
+ * @since 2025/10/1
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class VirtualThreadConcurrencyBenchmark {
+
+    /**
+     * Tomcat 默认的最大请求处理线程数
+     */
+    private static final int TOMCAT_MAX_THREADS = 200;
+
+    /**
+     * 执行模式：platform 或 virtual
+     */
+    @Param({"platform", "virtual"})
+    private String mode;
+
+    /**
+     * 同时进行的生成调用数
+     */
+    @Param({"200", "1000"})
+    private int concurrency;
+
+    /**
+     * 桩服务模拟的生成耗时（毫秒）
+     */
+    @Param({"200"})
+    private int latencyMs;
+
+    private HttpServer server;
+
+    private ExecutorService serverExecutor;
+
+    private ExecutorService executor;
+
+    private EnhancedImageApi api;
+
+    private EnhancedImageOptions options;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        serverExecutor = Executors.newCachedThreadPool();
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 4096);
+        server.setExecutor(serverExecutor);
+        byte[] body = "{\"created\":1,\"data\":[{\"url\":\"https://example.com/1.png\"}]}".getBytes(StandardCharsets.UTF_8);
+        server.createContext("/", exchange -> {
+            exchange.getRequestBody().readAllBytes();
+            try {
+                Thread.sleep(latencyMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.start();
+
+        boolean virtual = "virtual".equals(mode);
+        ImageTransportProperties transport = new ImageTransportProperties();
+        transport.setHttp2(false);
+        executor = ThreadUtils.newTaskExecutor(virtual, TOMCAT_MAX_THREADS, "benchmark-");
+        api = EnhancedImageApi.builder()
+                .baseUrl("http://localhost:" + server.getAddress().getPort())
+                .apiKey("benchmark")
+                .restClientBuilder(RestClient.builder()
+                        .requestFactory(HttpTransportFactory.requestFactory(transport, virtual)))
+                .build();
+        options = EnhancedImageOptions.builder().model("Qwen/Qwen-Image").prompt("小狗").build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        executor.shutdownNow();
+        server.stop(0);
+        serverExecutor.shutdownNow();
+    }
+
+    /**
+     * 同时发起 concurrency 个生成调用并等待全部完成
+     */
+    @Benchmark
+    public int concurrentGenerations() {
+        List<CompletableFuture<Integer>> futures = new ArrayList<>(concurrency);
+        for (int i = 0; i < concurrency; i++) {
+            futures.add(CompletableFuture.supplyAsync(
+                    () -> api.createImage(options).getBody().data().size(), executor));
+        }
+        int images = 0;
+        for (CompletableFuture<Integer> future : futures) {
+            images += future.join();
+        }
+        return images;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(VirtualThreadConcurrencyBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,94 @@
+package com.springai.springaiimageextision.core;
+
+import com.springai.springaiimageextision.core.custom.resilience.AdaptiveResiliencePolicy;
+import com.springai.springaiimageextision.core.custom.resilience.CircuitBreakerOpenException;
+import com.springai.springaiimageextision.core.custom.resilience.ModelCircuitBreaker;
+import com.springai.springaiimageextision.core.custom.resilience.RetryAfterResponseErrorHandler;
+import com.springai.springaiimageextision.core.custom.resilience.RetryAfterTransientAiException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.retry.NonTransientAiException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * @author 王玉涛
+ * @version 1.0
+ * @since 2025/10/1
+ */
+class AdaptiveResiliencePolicyTest {
+
+    /**
+     * 测试429可重试并携带Retry-After，其余4xx不可重试
+     */
+    @Test
+    void testErrorMapping() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.RETRY_AFTER, "3");
+
+        RuntimeException tooManyRequests = RetryAfterResponseErrorHandler.toException(HttpStatus.TOO_MANY_REQUESTS, headers, "");
+        Assertions.assertInstanceOf(RetryAfterTransientAiException.class, tooManyRequests);
+        Assertions.assertEquals(Duration.ofSeconds(3), ((RetryAfterTransientAiException) tooManyRequests).getRetryAfter());
+        Assertions.assertInstanceOf(NonTransientAiException.class,
+                RetryAfterResponseErrorHandler.toException(HttpStatus.BAD_REQUEST, new HttpHeaders(), ""));
+    }
+
+    /**
+     * 测试可重试错误按退避重试直至成功，同步与响应式调用语义一致
+     */
+    @Test
+    void testRetryUntilSuccess() {
+        AdaptiveResiliencePolicy policy = policy(3);
+        AtomicInteger calls = new AtomicInteger();
+
+        String result = policy.execute("model-a", () -> {
+            if (calls.incrementAndGet() < 3) {
+                throw new RetryAfterTransientAiException("503", 503, Duration.ofMillis(10));
+            }
+            return "ok";
+        });
+        Assertions.assertEquals("ok", result);
+        Assertions.assertEquals(3, calls.get());
+
+        AtomicInteger subscriptions = new AtomicInteger();
+        Mono<String> call = Mono.defer(() -> subscriptions.incrementAndGet() < 2
+                ? Mono.error(new RetryAfterTransientAiException("429", 429, null)) : Mono.just("ok"));
+        Assertions.assertEquals("ok", policy.executeReactive("model-a", call).block(Duration.ofSeconds(5)));
+        Assertions.assertEquals(2, subscriptions.get());
+    }
+
+    /**
+     * 测试连续失败达到阈值后熔断器打开并快速失败
+     */
+    @Test
+    void testCircuitBreakerFailsFast() {
+        AdaptiveResiliencePolicy policy = policy(10);
+        AtomicInteger calls = new AtomicInteger();
+
+        Assertions.assertThrows(RetryAfterTransientAiException.class, () -> policy.execute("model-b", () -> {
+            calls.incrementAndGet();
+            throw new RetryAfterTransientAiException("500", 500, null);
+        }));
+        Assertions.assertEquals(3, calls.get());
+        Assertions.assertEquals(ModelCircuitBreaker.State.OPEN, policy.getCircuitState("model-b"));
+
+        Assertions.assertThrows(CircuitBreakerOpenException.class, () -> policy.execute("model-b", () -> "ok"));
+        Assertions.assertEquals("ok", policy.execute("model-c", () -> "ok"));
+    }
+
+    private static AdaptiveResiliencePolicy policy(int maxAttempts) {
+        return AdaptiveResiliencePolicy.builder()
+                .maxAttempts(maxAttempts)
+                .initialBackoff(Duration.ofMillis(5))
+                .maxBackoff(Duration.ofMillis(20))
+                .failureThreshold(3)
+                .openDuration(Duration.ofMinutes(1))
+                .meterRegistry(new SimpleMeterRegistry())
+                .build();
+    }
+}
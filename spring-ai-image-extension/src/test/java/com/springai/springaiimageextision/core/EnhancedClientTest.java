@@ -1,6 +1,7 @@
 package com.springai.springaiimageextision.core;
 
 import com.springai.springaiimageextision.core.client.EnhancedImageClient;
+import com.springai.springaiimageextision.core.custom.option.ImageSource;
 import com.springai.springaiimageextision.core.util.ImageUtils;
 import jakarta.annotation.Resource;
 import lombok.extern.slf4j.Slf4j;
@@ -114,15 +115,16 @@ class EnhancedClientTest {
                 .inferenceSteps(20)
                 .output();
         System.out.println(output);
-        File imageAsUrl = ImageUtils.createImageAsUrl(output);
-        String convertAsUrl = ImageUtils.convert(imageAsUrl);
-        List<String> solitaireAsUrl = enhancedImageClient.param()
-                .model("Qwen/Qwen-Image-Edit")
-                .prompt("请让图片的配色更加唯美")
-                .image(convertAsUrl)
-                .negativePrompt("星球")
-                .cfg(7.5)  // 提示词相关性因子
-                .solitaire(3);
+        List<String> solitaireAsUrl;
+        try (ImageSource imageAsUrl = enhancedImageClient.downloadImage(output)) {
+            solitaireAsUrl = enhancedImageClient.param()
+                    .model("Qwen/Qwen-Image-Edit")
+                    .prompt("请让图片的配色更加唯美")
+                    .image(imageAsUrl)
+                    .negativePrompt("星球")
+                    .cfg(7.5)  // 提示词相关性因子
+                    .solitaire(3);
+        }
         
         log.info("solitaireAsUrl: {}", solitaireAsUrl);
     }
@@ -0,0 +1,137 @@
+package com.springai.springaiimageextision.core;
+
+import com.springai.springaiimageextision.core.custom.api.EnhancedImageApi;
+import com.springai.springaiimageextision.core.custom.api.ImageApiEndpoint;
+import com.springai.springaiimageextision.core.custom.api.LoadBalancingStrategy;
+import com.springai.springaiimageextision.core.custom.option.EnhancedImageOptions;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.model.SimpleApiKey;
+import org.springframework.ai.retry.RetryUtils;
+import org.springframework.ai.retry.TransientAiException;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.web.client.RestClient;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * @author 王玉涛
+ * @version 1.0
+ * @since 2025/10/1
+ */
+class EnhancedImageApiLoadBalancingTest {
+
+    private HttpServer healthy;
+
+    private HttpServer failing;
+
+    private final AtomicInteger healthyCalls = new AtomicInteger();
+
+    private final AtomicInteger failingCalls = new AtomicInteger();
+
+    @BeforeEach
+    void startServers() throws IOException {
+        healthy = server(200, "{\"created\":1,\"data\":[{\"url\":\"https://example.com/1.png\"}]}", healthyCalls);
+        failing = server(503, "unavailable", failingCalls);
+    }
+
+    @AfterEach
+    void stopServers() {
+        healthy.stop(0);
+        failing.stop(0);
+    }
+
+    /**
+     * 测试连续失败的端点被摘除，之后的请求都路由到健康端点
+     */
+    @Test
+    void testUnhealthyEndpointIsEjected() {
+        // 顺序请求的在途数相同，按在途请求数选择时两个端点被选中的概率相等；
+        // 按延迟选择时若首次失败恰好较慢，故障端点在摘除前不会再被选中，结果不确定
+        EnhancedImageApi api = api(LoadBalancingStrategy.LEAST_OUTSTANDING);
+
+        for (int i = 0; i < 20; i++) {
+            try {
+                api.createImage(options(null));
+            } catch (TransientAiException ignored) {
+                // 摘除前路由到故障端点的请求会失败
+            }
+        }
+
+        Assertions.assertEquals(2, failingCalls.get());
+        Assertions.assertEquals(18, healthyCalls.get());
+    }
+
+    /**
+     * 测试相同亲和键的请求固定到同一个端点
+     */
+    @Test
+    void testAffinityKeyIsSticky() {
+        EnhancedImageApi api = api(LoadBalancingStrategy.EWMA_LATENCY);
+        // 找到一个路由到健康端点的亲和键
+        String affinityKey = null;
+        for (int i = 0; affinityKey == null; i++) {
+            int before = healthyCalls.get();
+            try {
+                api.createImage(options("chain-" + i));
+            } catch (TransientAiException ignored) {
+                continue;
+            }
+            if (healthyCalls.get() > before) {
+                affinityKey = "chain-" + i;
+            }
+        }
+
+        int before = healthyCalls.get();
+        for (int i = 0; i < 10; i++) {
+            api.createImage(options(affinityKey));
+        }
+        Assertions.assertEquals(before + 10, healthyCalls.get());
+    }
+
+    private EnhancedImageApi api(LoadBalancingStrategy strategy) {
+        return EnhancedImageApi.builder()
+                .endpoints(List.of(endpoint("healthy", healthy), endpoint("failing", failing)))
+                .loadBalancingStrategy(strategy)
+                .ejection(2, Duration.ofMinutes(1))
+                .meterRegistry(new SimpleMeterRegistry())
+                .restClientBuilder(RestClient.builder().requestFactory(new JdkClientHttpRequestFactory()))
+                .responseErrorHandler(RetryUtils.DEFAULT_RESPONSE_ERROR_HANDLER)
+                .build();
+    }
+
+    private static ImageApiEndpoint endpoint(String name, HttpServer server) {
+        return new ImageApiEndpoint(name, "http://localhost:" + server.getAddress().getPort(),
+                new SimpleApiKey("test"), 1);
+    }
+
+    private static EnhancedImageOptions options(String affinityKey) {
+        return EnhancedImageOptions.builder().model("Qwen/Qwen-Image").prompt("小狗").affinityKey(affinityKey).build();
+    }
+
+    private static HttpServer server(int status, String body, AtomicInteger calls) throws IOException {
+        HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/", exchange -> {
+            calls.incrementAndGet();
+            exchange.getRequestBody().readAllBytes();
+            byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(status, bytes.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(bytes);
+            }
+        });
+        server.start();
+        return server;
+    }
+}
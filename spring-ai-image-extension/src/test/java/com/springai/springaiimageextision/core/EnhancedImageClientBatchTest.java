@@ -0,0 +1,141 @@
+package com.springai.springaiimageextision.core;
+
+import com.springai.springaiimageextision.core.client.BatchItemResult;
+import com.springai.springaiimageextision.core.client.EnhancedImageClient;
+import com.springai.springaiimageextision.core.custom.api.EnhancedImageApi;
+import com.springai.springaiimageextision.core.custom.model.EnhancedImageModel;
+import com.springai.springaiimageextision.core.custom.option.EnhancedImageOptions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.image.Image;
+import org.springframework.ai.image.ImageGeneration;
+import org.springframework.ai.image.ImagePrompt;
+import org.springframework.ai.image.ImageResponse;
+import org.springframework.ai.retry.NonTransientAiException;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+
+/**
+ * @author 王玉涛
+ * @version 1.0
+ * @since 2025/10/1
+ */
+class EnhancedImageClientBatchTest {
+
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+
+    private final AtomicInteger active = new AtomicInteger();
+
+    private final AtomicInteger maxActive = new AtomicInteger();
+
+    @AfterEach
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * 测试批量生成不超过并发度限制，且单个条目失败只体现在该条目的结果中
+     */
+    @Test
+    void testBatchIsBoundedAndReportsPartialFailures() {
+        EnhancedImageClient client = EnhancedImageClient.builder()
+                .enhancedImageModel(model())
+                .executor(executor)
+                .build();
+        List<String> prompts = IntStream.range(0, 20).mapToObj(i -> i % 5 == 0 ? "fail-" + i : "ok-" + i).toList();
+        List<BatchItemResult> results = new CopyOnWriteArrayList<>();
+
+        client.param().model("Qwen/Qwen-Image").batch(prompts, 3, results::add);
+
+        Assertions.assertEquals(20, results.size());
+        Assertions.assertTrue(maxActive.get() <= 3);
+        for (BatchItemResult result : results) {
+            Assertions.assertEquals(prompts.get(result.index()), result.prompt());
+            if (result.prompt().startsWith("fail-")) {
+                Assertions.assertNull(result.url());
+                Assertions.assertEquals("厂商拒绝: " + result.prompt(), result.error());
+            } else {
+                Assertions.assertEquals("https://example.com/" + result.prompt() + ".png", result.url());
+                Assertions.assertNull(result.error());
+            }
+        }
+    }
+
+    /**
+     * 测试回调失败（例如客户端已断开）时停止提交剩余条目并向上抛出异常
+     */
+    @Test
+    void testListenerFailureStopsBatch() {
+        EnhancedImageClient client = EnhancedImageClient.builder()
+                .enhancedImageModel(model())
+                .executor(executor)
+                .build();
+        List<String> prompts = IntStream.range(0, 50).mapToObj(i -> "ok-" + i).toList();
+        AtomicInteger delivered = new AtomicInteger();
+
+        Assertions.assertThrows(IllegalStateException.class, () -> client.param().model("Qwen/Qwen-Image")
+                .batch(prompts, 2, result -> {
+                    delivered.incrementAndGet();
+                    throw new IllegalStateException("disconnected");
+                }));
+        Assertions.assertTrue(delivered.get() < prompts.size());
+    }
+
+    /**
+     * 测试在客户端执行器上发起批量生成不会因等待同一执行器上的条目而死锁
+     */
+    @Test
+    void testBatchAsyncOnClientExecutorDoesNotDeadlock() throws Exception {
+        ExecutorService single = Executors.newSingleThreadExecutor();
+        try {
+            EnhancedImageClient client = EnhancedImageClient.builder()
+                    .enhancedImageModel(model())
+                    .executor(single)
+                    .build();
+            List<EnhancedImageOptions> items = IntStream.range(0, 5)
+                    .mapToObj(i -> EnhancedImageOptions.builder().model("Qwen/Qwen-Image").prompt("ok-" + i).build())
+                    .toList();
+            List<BatchItemResult> results = new CopyOnWriteArrayList<>();
+
+            client.supplyAsync(() -> client.batchAsync(items, 2, results::add), null)
+                    .thenCompose(Function.identity())
+                    .get(10, TimeUnit.SECONDS);
+
+            Assertions.assertEquals(5, results.size());
+        } finally {
+            single.shutdownNow();
+        }
+    }
+
+    private EnhancedImageModel model() {
+        return new EnhancedImageModel(EnhancedImageApi.builder().apiKey("test").build()) {
+            @Override
+            public ImageResponse call(ImagePrompt imagePrompt) {
+                int current = active.incrementAndGet();
+                maxActive.accumulateAndGet(current, Math::max);
+                try {
+                    Thread.sleep(20);
+                    String prompt = imagePrompt.getInstructions().get(0).getText();
+                    if (prompt.startsWith("fail-")) {
+                        throw new NonTransientAiException("厂商拒绝: " + prompt);
+                    }
+                    return new ImageResponse(List.of(new ImageGeneration(
+                            new Image("https://example.com/" + prompt + ".png", null))));
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException(e);
+                } finally {
+                    active.decrementAndGet();
+                }
+            }
+        };
+    }
+}
@@ -0,0 +1,84 @@
+package com.springai.springaiimageextision.core;
+
+import com.springai.springaiimageextision.core.client.EnhancedImageClient;
+import com.springai.springaiimageextision.core.client.SolitaireChainMode;
+import com.springai.springaiimageextision.core.custom.api.EnhancedImageApi;
+import com.springai.springaiimageextision.core.custom.model.EnhancedImageModel;
+import com.springai.springaiimageextision.core.custom.option.EnhancedImageOptions;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.image.Image;
+import org.springframework.ai.image.ImageGeneration;
+import org.springframework.ai.image.ImagePrompt;
+import org.springframework.ai.image.ImageResponse;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * @author 王玉涛
+ * @version 1.0
+ * @since 2025/10/1
+ */
+class EnhancedImageClientSolitaireTest {
+
+    private final List<String> affinityKeys = new ArrayList<>();
+
+    /**
+     * 测试接龙的各个步骤使用同一个生成的亲和键，且接龙结束后复用的参数构建器不再固定到该端点
+     */
+    @Test
+    void testGeneratedAffinityKeyIsScopedToChain() throws Exception {
+        EnhancedImageClient client = EnhancedImageClient.builder()
+                .enhancedImageModel(model())
+                .chainMode(SolitaireChainMode.URL_PASSTHROUGH)
+                .build();
+        EnhancedImageClient.ParamBuilder param = client.param()
+                .model("Qwen/Qwen-Image-Edit")
+                .prompt("小狗")
+                .image("https://example.com/start.png");
+
+        param.solitaire(3);
+        Assertions.assertEquals(3, affinityKeys.size());
+        Assertions.assertNotNull(affinityKeys.get(0));
+        Assertions.assertTrue(affinityKeys.stream().allMatch(affinityKeys.get(0)::equals));
+
+        param.output();
+        Assertions.assertNull(affinityKeys.get(3));
+
+        param.solitaire(1);
+        Assertions.assertNotEquals(affinityKeys.get(0), affinityKeys.get(4));
+    }
+
+    /**
+     * 测试调用方指定的亲和键在接龙结束后保持不变
+     */
+    @Test
+    void testExplicitAffinityKeyIsKept() throws Exception {
+        EnhancedImageClient client = EnhancedImageClient.builder()
+                .enhancedImageModel(model())
+                .chainMode(SolitaireChainMode.URL_PASSTHROUGH)
+                .build();
+        EnhancedImageClient.ParamBuilder param = client.param()
+                .model("Qwen/Qwen-Image-Edit")
+                .prompt("小狗")
+                .image("https://example.com/start.png")
+                .affinityKey("user-1");
+
+        param.solitaire(2);
+        param.output();
+
+        Assertions.assertEquals(List.of("user-1", "user-1", "user-1"), affinityKeys);
+    }
+
+    private EnhancedImageModel model() {
+        return new EnhancedImageModel(EnhancedImageApi.builder().apiKey("test").build()) {
+            @Override
+            public ImageResponse call(ImagePrompt imagePrompt) {
+                affinityKeys.add(((EnhancedImageOptions) imagePrompt.getOptions()).getAffinityKey());
+                return new ImageResponse(List.of(new ImageGeneration(
+                        new Image("https://example.com/" + affinityKeys.size() + ".png", null))));
+            }
+        };
+    }
+}
@@ -0,0 +1,128 @@
+package com.springai.springaiimageextision.core;
+
+import com.springai.springaiimageextision.core.custom.api.EnhancedImageApi;
+import com.springai.springaiimageextision.core.custom.model.EnhancedImageModel;
+import com.springai.springaiimageextision.core.custom.observation.EnhancedImageModelObservationConvention;
+import com.springai.springaiimageextision.core.custom.observation.MeteredClientHttpRequestFactory;
+import com.springai.springaiimageextision.core.custom.option.EnhancedImageOptions;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.observation.DefaultMeterObservationHandler;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.image.ImagePrompt;
+import org.springframework.ai.retry.NonTransientAiException;
+import org.springframework.ai.retry.RetryUtils;
+import org.springframework.ai.retry.TransientAiException;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.retry.support.RetryTemplate;
+import org.springframework.web.client.RestClient;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * @author 王玉涛
+ * @version 1.0
+ * @since 2025/10/1
+ */
+class EnhancedImageModelMetricsTest {
+
+    private static final String BODY = "{\"created\":1,\"data\":[{\"url\":\"https://example.com/1.png\"}]}";
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final AtomicInteger calls = new AtomicInteger();
+
+    private HttpServer server;
+
+    private EnhancedImageModel model;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/", exchange -> {
+            String request = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+            int call = calls.incrementAndGet();
+            // 第一次调用返回 503 以触发重试，提示词包含 bad 时返回 400
+            int status = request.contains("bad") ? 400 : call == 1 ? 503 : 200;
+            byte[] bytes = (status == 200 ? BODY : "error").getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(status, bytes.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(bytes);
+            }
+        });
+        server.start();
+
+        ObservationRegistry observationRegistry = ObservationRegistry.create();
+        observationRegistry.observationConfig().observationHandler(new DefaultMeterObservationHandler(meterRegistry));
+        EnhancedImageApi api = EnhancedImageApi.builder()
+                .baseUrl("http://localhost:" + server.getAddress().getPort())
+                .apiKey("test")
+                .restClientBuilder(RestClient.builder().requestFactory(
+                        new MeteredClientHttpRequestFactory(new JdkClientHttpRequestFactory(), meterRegistry)))
+                .responseErrorHandler(RetryUtils.DEFAULT_RESPONSE_ERROR_HANDLER)
+                .build();
+        RetryTemplate retryTemplate = RetryTemplate.builder()
+                .maxAttempts(3)
+                .retryOn(TransientAiException.class)
+                .fixedBackoff(10)
+                .build();
+        model = new EnhancedImageModel(api, EnhancedImageOptions.builder().size("1328x1328").build(), retryTemplate,
+                observationRegistry);
+        model.setObservationConvention(new EnhancedImageModelObservationConvention());
+        model.setMeterRegistry(meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    /**
+     * 测试生成耗时按模型、尺寸、响应格式与结果打标签，且不包含提示词；重试与请求/响应字节数被记录
+     */
+    @Test
+    void testGenerationMetrics() {
+        model.call(new ImagePrompt("一只独一无二的小狗", EnhancedImageOptions.builder().model("Qwen/Qwen-Image")
+                .responseFormat("url").build()));
+        Assertions.assertThrows(NonTransientAiException.class, () -> model.call(new ImagePrompt("bad",
+                EnhancedImageOptions.builder().model("Qwen/Qwen-Image").build())));
+
+        Timer success = meterRegistry.get(EnhancedImageModelObservationConvention.NAME)
+                .tag("model", "Qwen/Qwen-Image")
+                .tag("size", "1328x1328")
+                .tag("response.format", "url")
+                .tag("outcome", "success")
+                .timer();
+        Assertions.assertEquals(1, success.count());
+        Timer failure = meterRegistry.get(EnhancedImageModelObservationConvention.NAME)
+                .tag("outcome", "client_error")
+                .tag("response.format", "none")
+                .timer();
+        Assertions.assertEquals(1, failure.count());
+        for (Meter meter : meterRegistry.find(EnhancedImageModelObservationConvention.NAME).meters()) {
+            Assertions.assertTrue(meter.getId().getTags().stream()
+                    .noneMatch(tag -> tag.getValue().contains("小狗") || tag.getValue().contains("bad")));
+        }
+
+        Assertions.assertEquals(1, meterRegistry.get("enhanced.image.retries").tag("model", "Qwen/Qwen-Image")
+                .counter().count());
+        DistributionSummary requestBytes = meterRegistry.get("enhanced.image.payload.request").summary();
+        DistributionSummary responseBytes = meterRegistry.get("enhanced.image.payload.response").summary();
+        Assertions.assertEquals(3, requestBytes.count());
+        Assertions.assertTrue(requestBytes.totalAmount() > 0);
+        Assertions.assertEquals(3, responseBytes.count());
+        Assertions.assertTrue(responseBytes.max() >= BODY.length());
+    }
+}
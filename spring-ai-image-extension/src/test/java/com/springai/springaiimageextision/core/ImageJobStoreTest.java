@@ -0,0 +1,127 @@
+package com.springai.springaiimageextision.core;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.springai.springaiimageextision.core.client.SolitaireStep;
+import com.springai.springaiimageextision.core.custom.job.FileImageJobStore;
+import com.springai.springaiimageextision.core.custom.job.ImageJob;
+import com.springai.springaiimageextision.core.custom.job.ImageJobStatus;
+import com.springai.springaiimageextision.core.custom.job.InMemoryImageJobStore;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * @author 王玉涛
+ * @version 1.0
+ * @since 2025/10/1
+ */
+class ImageJobStoreTest {
+
+    @TempDir
+    Path tempDir;
+
+    /**
+     * 测试存储满时淘汰最早的已结束任务，全部未结束时拒绝新任务，已结束任务过期后被清理
+     */
+    @Test
+    void testInMemoryStoreIsBounded() {
+        InMemoryImageJobStore store = new InMemoryImageJobStore(2, Duration.ofMinutes(1), new SimpleMeterRegistry());
+        long now = System.currentTimeMillis();
+        store.save(job("a", ImageJobStatus.SUCCEEDED, now));
+        store.save(job("b", ImageJobStatus.RUNNING, now));
+
+        store.save(job("c", ImageJobStatus.QUEUED, now));
+        Assertions.assertTrue(store.find("a").isEmpty());
+        Assertions.assertThrows(IllegalStateException.class, () -> store.save(job("d", ImageJobStatus.QUEUED, now)));
+
+        // 已有任务的更新不受容量限制
+        store.save(job("c", ImageJobStatus.FAILED, now - Duration.ofMinutes(2).toMillis()));
+        Assertions.assertTrue(store.find("c").isEmpty());
+        Assertions.assertEquals(List.of("b"), store.findAll().stream().map(ImageJob::getId).toList());
+    }
+
+    /**
+     * 测试重启后从日志恢复任务的最新状态，删除与不完整的日志行被正确处理
+     */
+    @Test
+    void testFileStoreReplaysJournal() throws Exception {
+        Path journal = tempDir.resolve("jobs/image-jobs.jsonl");
+        ObjectMapper objectMapper = new ObjectMapper();
+        long now = System.currentTimeMillis();
+        try (FileImageJobStore store = new FileImageJobStore(journal, memoryStore(), objectMapper)) {
+            store.save(job("a", ImageJobStatus.QUEUED, now));
+            store.save(job("a", ImageJobStatus.RUNNING, now).toBuilder()
+                    .steps(List.of(new SolitaireStep(1, "https://example.com/1.png", "小狗", now, 10))).build());
+            store.save(job("b", ImageJobStatus.QUEUED, now));
+            store.delete("b");
+        }
+        // 模拟写入过程中进程退出
+        Files.writeString(journal, "{\"id\":\"c\",\"sta", StandardOpenOption.APPEND);
+
+        try (FileImageJobStore store = new FileImageJobStore(journal, memoryStore(), objectMapper)) {
+            List<ImageJob> unfinished = store.findUnfinished();
+            Assertions.assertEquals(1, unfinished.size());
+            ImageJob job = unfinished.get(0);
+            Assertions.assertEquals("a", job.getId());
+            Assertions.assertEquals(ImageJobStatus.RUNNING, job.getStatus());
+            Assertions.assertEquals("https://example.com/1.png", job.getSteps().get(0).url());
+            Assertions.assertTrue(store.find("b").isEmpty());
+        }
+        // 启动时日志被压缩为当前快照
+        Assertions.assertEquals(1, Files.readAllLines(journal).size());
+    }
+
+    /**
+     * 测试起始图像在日志中只写入一次，回放时未结束的任务沿用该图像，结束后清空的图像不会被恢复
+     */
+    @Test
+    void testFileStoreJournalsStartImageOnce() throws Exception {
+        Path journal = tempDir.resolve("image-jobs.jsonl");
+        ObjectMapper objectMapper = new ObjectMapper();
+        String image = "data:image/png;base64," + "A".repeat(4096);
+        long now = System.currentTimeMillis();
+        try (FileImageJobStore store = new FileImageJobStore(journal, memoryStore(), objectMapper)) {
+            ImageJob queued = job("a", ImageJobStatus.QUEUED, now).toBuilder().image(image).build();
+            store.save(queued);
+            store.save(queued.toBuilder().status(ImageJobStatus.RUNNING).build());
+            store.save(queued.toBuilder().status(ImageJobStatus.RUNNING)
+                    .steps(List.of(new SolitaireStep(1, "https://example.com/1.png", "小狗", now, 10))).build());
+            ImageJob finished = job("b", ImageJobStatus.QUEUED, now).toBuilder().image(image).build();
+            store.save(finished);
+            store.save(finished.toBuilder().status(ImageJobStatus.SUCCEEDED).image(null).build());
+        }
+        String content = Files.readString(journal);
+        Assertions.assertEquals(2, content.split(image, -1).length - 1);
+
+        try (FileImageJobStore store = new FileImageJobStore(journal, memoryStore(), objectMapper)) {
+            ImageJob running = store.find("a").orElseThrow();
+            Assertions.assertEquals(image, running.getImage());
+            Assertions.assertEquals(1, running.getSteps().size());
+            Assertions.assertNull(store.find("b").orElseThrow().getImage());
+        }
+    }
+
+    private static InMemoryImageJobStore memoryStore() {
+        return new InMemoryImageJobStore(10, Duration.ofHours(1), new SimpleMeterRegistry());
+    }
+
+    private static ImageJob job(String id, ImageJobStatus status, long updatedAt) {
+        return ImageJob.builder()
+                .id(id)
+                .status(status)
+                .prompt("小狗")
+                .prompts(List.of("小狗"))
+                .step(1)
+                .steps(List.of())
+                .createdAt(updatedAt)
+                .updatedAt(updatedAt)
+                .build();
+    }
+}
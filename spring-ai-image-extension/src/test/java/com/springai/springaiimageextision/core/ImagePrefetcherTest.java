@@ -0,0 +1,191 @@
+package com.springai.springaiimageextision.core;
+
+import com.springai.springaiimageextision.core.custom.api.EnhancedImageApi;
+import com.springai.springaiimageextision.core.custom.model.EnhancedImageModel;
+import com.springai.springaiimageextision.core.custom.option.EnhancedImageOptions;
+import com.springai.springaiimageextision.core.custom.prefetch.ImagePrefetcher;
+import com.springai.springaiimageextision.core.custom.store.ImageStore;
+import com.springai.springaiimageextision.core.custom.store.StoredImage;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.ai.image.ImagePrompt;
+import org.springframework.ai.retry.RetryUtils;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.web.client.RestClient;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * @author 王玉涛
+ * @version 1.0
+ * @since 2025/10/1
+ */
+class ImagePrefetcherTest {
+
+    private static final byte[] CONTENT = "png-bytes".getBytes(StandardCharsets.UTF_8);
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final AtomicInteger downloads = new AtomicInteger();
+
+    /**
+     * 下载请求在该闩锁释放前阻塞，用于模拟进行中的预取
+     */
+    private volatile CountDownLatch release = new CountDownLatch(0);
+
+    @TempDir
+    Path directory;
+
+    private HttpServer server;
+
+    private ImagePrefetcher prefetcher;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.createContext("/images/", exchange -> {
+            downloads.incrementAndGet();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            }
+            catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+            boolean missing = exchange.getRequestURI().getPath().contains("missing");
+            exchange.sendResponseHeaders(missing ? 404 : 200, missing ? -1 : CONTENT.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                if (!missing) {
+                    out.write(CONTENT);
+                }
+            }
+        });
+        server.createContext("/v1/images/generations", exchange -> {
+            exchange.getRequestBody().readAllBytes();
+            byte[] body = ("{\"created\":1,\"data\":[{\"url\":\"" + url("generated.png") + "\"}]}")
+                    .getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.start();
+        prefetcher = new ImagePrefetcher(new ImageStore(directory, 1024 * 1024, meterRegistry), 2, 8,
+                Duration.ofSeconds(5), meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        prefetcher.close();
+        server.stop(0);
+    }
+
+    /**
+     * 测试预取完成后读取直接命中本地存储，不再访问网络
+     */
+    @Test
+    void prefetchedImageIsReadLocally() throws Exception {
+        StoredImage prefetched = prefetcher.prefetch(url("1.png")).get(5, TimeUnit.SECONDS);
+
+        StoredImage read = prefetcher.fetch(url("1.png"));
+
+        Assertions.assertEquals(prefetched, read);
+        Assertions.assertArrayEquals(CONTENT, Files.readAllBytes(read.path()));
+        Assertions.assertEquals("image/png", read.mimeType());
+        Assertions.assertEquals(1, downloads.get());
+        Assertions.assertEquals(1, readCount("hit"));
+        Assertions.assertEquals(1, meterRegistry.get("enhanced.image.prefetch").tag("outcome", "success")
+                .timer().count());
+    }
+
+    /**
+     * 测试预取进行中时读取等待同一个下载，同一URL不会重复下载
+     */
+    @Test
+    void readWaitsForInflightPrefetch() throws Exception {
+        release = new CountDownLatch(1);
+        CompletableFuture<StoredImage> first = prefetcher.prefetch(url("2.png"));
+        Assertions.assertSame(first, prefetcher.prefetch(url("2.png")));
+
+        CompletableFuture<StoredImage> read = CompletableFuture.supplyAsync(() -> {
+            try {
+                return prefetcher.fetch(url("2.png"));
+            }
+            catch (IOException ex) {
+                throw new RuntimeException(ex);
+            }
+        });
+        // 等待读取进入等待状态后再放行下载
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (readCount("pending") == 0 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        release.countDown();
+
+        Assertions.assertEquals(first.get(5, TimeUnit.SECONDS), read.get(5, TimeUnit.SECONDS));
+        Assertions.assertEquals(1, downloads.get());
+        Assertions.assertEquals(1, readCount("pending"));
+        Assertions.assertEquals(0, prefetcher.inflightCount());
+    }
+
+    /**
+     * 测试未预取时读取在调用线程下载，预取失败时读取重新下载
+     */
+    @Test
+    void missesAndFailedPrefetchesAreDownloadedOnRead() throws Exception {
+        Assertions.assertArrayEquals(CONTENT, Files.readAllBytes(prefetcher.fetch(url("3.png")).path()));
+        Assertions.assertEquals(1, readCount("miss"));
+
+        CompletableFuture<StoredImage> failed = prefetcher.prefetch(url("missing.png"));
+        Assertions.assertThrows(Exception.class, () -> failed.get(5, TimeUnit.SECONDS));
+        Assertions.assertThrows(IOException.class, () -> prefetcher.fetch(url("missing.png")));
+        Assertions.assertEquals(1, meterRegistry.get("enhanced.image.prefetch").tag("outcome", "failure")
+                .timer().count());
+    }
+
+    /**
+     * 测试模型收到 url 格式的响应后立即开始预取
+     */
+    @Test
+    void modelPrefetchesUrlResponses() throws Exception {
+        EnhancedImageApi api = EnhancedImageApi.builder()
+                .baseUrl("http://localhost:" + server.getAddress().getPort())
+                .apiKey("test")
+                .restClientBuilder(RestClient.builder().requestFactory(new JdkClientHttpRequestFactory()))
+                .build();
+        EnhancedImageModel model = new EnhancedImageModel(api, EnhancedImageOptions.builder().build(),
+                RetryUtils.DEFAULT_RETRY_TEMPLATE);
+        model.setImagePrefetcher(prefetcher);
+
+        model.call(new ImagePrompt("小狗", EnhancedImageOptions.builder().model("Qwen/Qwen-Image").build()));
+
+        StoredImage prefetched = prefetcher.prefetch(url("generated.png")).get(5, TimeUnit.SECONDS);
+        Assertions.assertArrayEquals(CONTENT, Files.readAllBytes(prefetched.path()));
+        Assertions.assertEquals(1, downloads.get());
+    }
+
+    private String url(String name) {
+        return "http://localhost:" + server.getAddress().getPort() + "/images/" + name;
+    }
+
+    private double readCount(String result) {
+        return meterRegistry.get("enhanced.image.prefetch.reads").tag("result", result).counter().count();
+    }
+}
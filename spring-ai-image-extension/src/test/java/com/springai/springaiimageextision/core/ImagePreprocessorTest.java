@@ -0,0 +1,105 @@
+package com.springai.springaiimageextision.core;
+
+import com.springai.springaiimageextision.core.custom.option.ImageSource;
+import com.springai.springaiimageextision.core.custom.preprocess.ImageOutputFormat;
+import com.springai.springaiimageextision.core.custom.preprocess.ImagePreprocessor;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * @author 王玉涛
+ * @version 1.0
+ * @since 2025/10/1
+ */
+class ImagePreprocessorTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final ImagePreprocessor preprocessor = new ImagePreprocessor(ImageOutputFormat.JPEG, 0.8f, 2, 4,
+            meterRegistry);
+
+    @AfterEach
+    void tearDown() {
+        preprocessor.close();
+    }
+
+    /**
+     * 测试超过目标尺寸的图像按比例缩小到目标宽高以内并重新编码
+     */
+    @Test
+    void largeImageIsDownscaledKeepingAspectRatio() throws IOException {
+        ImageSource source = png(3000, 1500, BufferedImage.TYPE_INT_ARGB);
+
+        ImageSource result = preprocessor.preprocess(source, 1000, 1000);
+
+        Assertions.assertNotSame(source, result);
+        Assertions.assertEquals("image/jpeg", result.getMimeType());
+        BufferedImage image = read(result);
+        Assertions.assertEquals(1000, image.getWidth());
+        Assertions.assertEquals(500, image.getHeight());
+        Assertions.assertEquals(1, meterRegistry.get("enhanced.image.preprocess").tag("outcome", "resized")
+                .timer().count());
+    }
+
+    /**
+     * 测试不超过目标尺寸、未指定目标尺寸或无法识别的输入原样返回
+     */
+    @Test
+    void otherInputsAreReturnedUnchanged() throws IOException {
+        ImageSource small = png(800, 600, BufferedImage.TYPE_INT_RGB);
+        ImageSource notAnImage = ImageSource.ofByteBuffer(
+                ByteBuffer.wrap("not an image".getBytes(StandardCharsets.UTF_8)), "image/png");
+
+        Assertions.assertSame(small, preprocessor.preprocess(small, 1328, 1328));
+        Assertions.assertSame(small, preprocessor.preprocess(small, null, null));
+        Assertions.assertSame(notAnImage, preprocessor.preprocess(notAnImage, 1328, 1328));
+        Assertions.assertEquals(1, meterRegistry.get("enhanced.image.preprocess").tag("outcome", "unchanged")
+                .timer().count());
+        Assertions.assertEquals(1, meterRegistry.get("enhanced.image.preprocess").tag("outcome", "unsupported")
+                .timer().count());
+    }
+
+    /**
+     * 测试 PNG 格式保留透明通道
+     */
+    @Test
+    void pngOutputKeepsAlpha() throws IOException {
+        try (ImagePreprocessor pngPreprocessor = new ImagePreprocessor(ImageOutputFormat.PNG, 1f, 1, 1,
+                meterRegistry)) {
+            ImageSource result = pngPreprocessor.preprocess(png(2000, 2000, BufferedImage.TYPE_INT_ARGB), 500, 500);
+
+            Assertions.assertEquals("image/png", result.getMimeType());
+            BufferedImage image = read(result);
+            Assertions.assertEquals(500, image.getWidth());
+            Assertions.assertTrue(image.getColorModel().hasAlpha());
+        }
+    }
+
+    private static ImageSource png(int width, int height, int type) throws IOException {
+        BufferedImage image = new BufferedImage(width, height, type);
+        for (int y = 0; y < height; y += 10) {
+            for (int x = 0; x < width; x += 10) {
+                image.setRGB(x, y, 0x80000000 | (x * 31 + y * 17) & 0xffffff);
+            }
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", out);
+        return ImageSource.ofByteBuffer(ByteBuffer.wrap(out.toByteArray()), "image/png");
+    }
+
+    private static BufferedImage read(ImageSource source) throws IOException {
+        try (InputStream in = source.openStream()) {
+            return ImageIO.read(in);
+        }
+    }
+}
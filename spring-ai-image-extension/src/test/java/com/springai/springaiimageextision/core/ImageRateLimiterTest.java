@@ -0,0 +1,52 @@
+package com.springai.springaiimageextision.core;
+
+import com.springai.springaiimageextision.core.custom.limit.ImageRateLimitException;
+import com.springai.springaiimageextision.core.custom.limit.ImageRateLimiter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+/**
+ * @author 王玉涛
+ * @version 1.0
+ * @since 2025/10/1
+ */
+class ImageRateLimiterTest {
+
+    /**
+     * 测试突发容量内立即放行，超出后按速率预约等待，等待超过上限时拒绝
+     */
+    @Test
+    void testBurstThenWaitThenReject() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        // 每秒1个请求，突发2个，最多等待1.5秒
+        ImageRateLimiter rateLimiter = new ImageRateLimiter(60, 2, Duration.ofMillis(1500), meterRegistry);
+
+        Assertions.assertEquals(Duration.ZERO, rateLimiter.reserve("model-a"));
+        Assertions.assertEquals(Duration.ZERO, rateLimiter.reserve("model-a"));
+
+        Duration wait = rateLimiter.reserve("model-a");
+        Assertions.assertTrue(wait.toMillis() > 900 && wait.toMillis() <= 1000, "wait: " + wait);
+
+        Assertions.assertThrows(ImageRateLimitException.class, () -> rateLimiter.reserve("model-a"));
+        Assertions.assertEquals(1.0, meterRegistry.get("enhanced.image.rate.limit.rejected")
+                .tag("model", "model-a").counter().count());
+    }
+
+    /**
+     * 测试各模型使用独立的令牌桶，未配置配额的模型不限流
+     */
+    @Test
+    void testPerModelLimits() {
+        ImageRateLimiter rateLimiter = new ImageRateLimiter(0, 1, Duration.ZERO, new SimpleMeterRegistry());
+        rateLimiter.setModelLimit("model-a", 60, 1);
+
+        Assertions.assertEquals(Duration.ZERO, rateLimiter.reserve("model-a"));
+        Assertions.assertThrows(ImageRateLimitException.class, () -> rateLimiter.reserve("model-a"));
+        for (int i = 0; i < 100; i++) {
+            Assertions.assertEquals(Duration.ZERO, rateLimiter.reserve("model-b"));
+        }
+    }
+}
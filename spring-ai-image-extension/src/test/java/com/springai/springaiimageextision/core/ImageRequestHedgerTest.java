@@ -0,0 +1,67 @@
+package com.springai.springaiimageextision.core;
+
+import com.springai.springaiimageextision.core.custom.hedge.ImageRequestHedger;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.image.Image;
+import org.springframework.ai.image.ImageGeneration;
+import org.springframework.ai.image.ImageResponse;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author 王玉涛
+ * @version 1.0
+ * @since 2025/10/1
+ */
+class ImageRequestHedgerTest {
+
+    /**
+     * 测试首个请求超过对冲等待时间后发起对冲，采用先返回的结果并中断较慢的请求
+     */
+    @Test
+    void testHedgeWinsAndLoserIsCancelled() throws Exception {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        ExecutorService executor = Executors.newCachedThreadPool();
+        try {
+            ImageRequestHedger hedger = new ImageRequestHedger(executor, 0.9, Duration.ofMillis(50), 100,
+                    16, 4, meterRegistry);
+            ImageResponse fast = response("https://example.com/fast.png");
+
+            // 样本不足时不对冲
+            Assertions.assertEquals(-1, hedger.hedgeDelayNanos());
+            for (int i = 0; i < 4; i++) {
+                Assertions.assertSame(fast, hedger.execute(() -> fast, () -> fast));
+            }
+            Assertions.assertEquals(TimeUnit.MILLISECONDS.toNanos(50), hedger.hedgeDelayNanos());
+
+            CountDownLatch interrupted = new CountDownLatch(1);
+            ImageResponse result = hedger.execute(() -> {
+                try {
+                    TimeUnit.SECONDS.sleep(10);
+                } catch (InterruptedException e) {
+                    interrupted.countDown();
+                    Thread.currentThread().interrupt();
+                }
+                return response("https://example.com/slow.png");
+            }, () -> fast);
+
+            Assertions.assertSame(fast, result);
+            Assertions.assertTrue(interrupted.await(5, TimeUnit.SECONDS));
+            Assertions.assertEquals(1.0, meterRegistry.get("enhanced.image.hedge.issued").counter().count());
+            Assertions.assertEquals(1.0, meterRegistry.get("enhanced.image.hedge.wins").counter().count());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static ImageResponse response(String url) {
+        return new ImageResponse(List.of(new ImageGeneration(new Image(url, null))));
+    }
+}
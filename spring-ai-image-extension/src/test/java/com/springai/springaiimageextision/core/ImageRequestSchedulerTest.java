@@ -0,0 +1,92 @@
+package com.springai.springaiimageextision.core;
+
+import com.springai.springaiimageextision.core.custom.schedule.ImageRequestScheduler;
+import com.springai.springaiimageextision.core.custom.schedule.ImageSchedulerRejectedException;
+import com.springai.springaiimageextision.core.custom.schedule.RequestPriority;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author 王玉涛
+ * @version 1.0
+ * @since 2025/10/1
+ */
+class ImageRequestSchedulerTest {
+
+    /**
+     * 测试模型并发已满时，释放的许可优先交给交互式请求
+     */
+    @Test
+    void testInteractiveIsServedBeforeBatch() throws Exception {
+        ImageRequestScheduler scheduler = new ImageRequestScheduler(4, 4, 1, 8, Duration.ofSeconds(10),
+                new SimpleMeterRegistry());
+        ExecutorService executor = Executors.newCachedThreadPool();
+        List<String> order = new CopyOnWriteArrayList<>();
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        try {
+            CompletableFuture<Void> holder = CompletableFuture.runAsync(() -> scheduler.execute(RequestPriority.BATCH,
+                    "model-a", () -> {
+                        running.countDown();
+                        await(release);
+                        return null;
+                    }), executor);
+            Assertions.assertTrue(running.await(5, TimeUnit.SECONDS));
+
+            CompletableFuture<Void> batch = CompletableFuture.runAsync(() -> scheduler.execute(RequestPriority.BATCH,
+                    "model-a", () -> order.add("batch")), executor);
+            waitQueued(scheduler, RequestPriority.BATCH, 1);
+            CompletableFuture<Void> interactive = CompletableFuture.runAsync(() -> scheduler.execute(
+                    RequestPriority.INTERACTIVE, "model-a", () -> order.add("interactive")), executor);
+            waitQueued(scheduler, RequestPriority.INTERACTIVE, 1);
+
+            // 其他模型不受影响
+            Assertions.assertEquals("ok", scheduler.execute(RequestPriority.BATCH, "model-b", () -> "ok"));
+
+            release.countDown();
+            CompletableFuture.allOf(holder, batch, interactive).get(5, TimeUnit.SECONDS);
+            Assertions.assertEquals(List.of("interactive", "batch"), order);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * 测试排队已满时快速拒绝
+     */
+    @Test
+    void testRejectWhenQueueIsFull() {
+        ImageRequestScheduler scheduler = new ImageRequestScheduler(1, 1, 1, 0, Duration.ofSeconds(1),
+                new SimpleMeterRegistry());
+
+        Assertions.assertThrows(ImageSchedulerRejectedException.class, () -> scheduler.execute(
+                RequestPriority.INTERACTIVE, "model-a", () -> scheduler.execute(RequestPriority.INTERACTIVE,
+                        "model-a", () -> "nested")));
+    }
+
+    private static void waitQueued(ImageRequestScheduler scheduler, RequestPriority priority, int expected)
+            throws InterruptedException {
+        for (int i = 0; i < 250 && scheduler.queuedCount(priority) < expected; i++) {
+            TimeUnit.MILLISECONDS.sleep(20);
+        }
+        Assertions.assertEquals(expected, scheduler.queuedCount(priority));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,170 @@
+package com.springai.springaiimageextision.core;
+
+import com.springai.springaiimageextision.core.custom.cache.ImageRequestCoalescer;
+import com.springai.springaiimageextision.core.custom.cache.ImageResultCache;
+import com.springai.springaiimageextision.core.custom.option.EnhancedImageOptions;
+import com.springai.springaiimageextision.core.custom.option.ImageOptionsKey;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.image.Image;
+import org.springframework.ai.image.ImageGeneration;
+import org.springframework.ai.image.ImageResponse;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * @author 王玉涛
+ * @version 1.0
+ * @since 2025/10/1
+ */
+class ImageResultCacheTest {
+
+    /**
+     * 测试请求标识覆盖提示词、种子与输入图像等所有影响生成结果的字段
+     */
+    @Test
+    void testKeyCoversAllFields() {
+        EnhancedImageOptions options = baseOptions();
+
+        Assertions.assertEquals(ImageOptionsKey.of(options), ImageOptionsKey.of(baseOptions()));
+
+        EnhancedImageOptions otherSeed = baseOptions();
+        otherSeed.setSeed(43L);
+        Assertions.assertNotEquals(ImageOptionsKey.of(options), ImageOptionsKey.of(otherSeed));
+
+        EnhancedImageOptions otherImage = baseOptions();
+        otherImage.setImage("data:image/png;base64,BBBB");
+        Assertions.assertNotEquals(ImageOptionsKey.of(options), ImageOptionsKey.of(otherImage));
+
+        EnhancedImageOptions otherNegativePrompt = baseOptions();
+        otherNegativePrompt.setNegativePrompt("天空");
+        Assertions.assertNotEquals(ImageOptionsKey.of(options), ImageOptionsKey.of(otherNegativePrompt));
+    }
+
+    /**
+     * 测试请求标识使用生效的宽高：等价的 size 与宽高相同，显式宽高与 size 不一致时不同
+     */
+    @Test
+    void testKeyCoversEffectiveDimensions() {
+        EnhancedImageOptions bySize = baseOptions();
+        bySize.setSize("1024x1024");
+
+        EnhancedImageOptions byDimensions = baseOptions();
+        byDimensions.setWidth(1024);
+        byDimensions.setHeight(1024);
+        Assertions.assertEquals(ImageOptionsKey.of(bySize), ImageOptionsKey.of(byDimensions));
+
+        EnhancedImageOptions overridden = baseOptions();
+        overridden.setSize("1024x1024");
+        overridden.setWidth(512);
+        Assertions.assertNotEquals(ImageOptionsKey.of(bySize), ImageOptionsKey.of(overridden));
+    }
+
+    /**
+     * 测试命中时不再调用生成器，且只缓存指定了 seed 的请求
+     */
+    @Test
+    void testHitAndSeedRequirement() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        ImageResultCache cache = new ImageResultCache(8, Duration.ofMinutes(1), true, meterRegistry);
+        ImageOptionsKey key = ImageOptionsKey.of(EnhancedImageOptions.builder().prompt("小狗").seed(1L).build());
+        AtomicInteger loads = new AtomicInteger();
+
+        ImageResponse first = cache.get(key, () -> response("https://example.com/1.png", loads));
+        ImageResponse second = cache.get(key, () -> response("https://example.com/2.png", loads));
+
+        Assertions.assertSame(first, second);
+        Assertions.assertEquals(1, loads.get());
+        Assertions.assertEquals(1.0, meterRegistry.get("enhanced.image.cache.gets").tag("result", "hit").counter().count());
+        Assertions.assertFalse(cache.isCacheable(EnhancedImageOptions.builder().prompt("小狗").build()));
+    }
+
+    /**
+     * 测试超出容量时淘汰最久未访问的条目
+     */
+    @Test
+    void testLruEviction() {
+        ImageResultCache cache = new ImageResultCache(2, Duration.ofMinutes(1), true, new SimpleMeterRegistry());
+        AtomicInteger loads = new AtomicInteger();
+        ImageOptionsKey first = ImageOptionsKey.of(EnhancedImageOptions.builder().prompt("1").seed(1L).build());
+        ImageOptionsKey second = ImageOptionsKey.of(EnhancedImageOptions.builder().prompt("2").seed(1L).build());
+        ImageOptionsKey third = ImageOptionsKey.of(EnhancedImageOptions.builder().prompt("3").seed(1L).build());
+
+        cache.get(first, () -> response("https://example.com/1.png", loads));
+        cache.get(second, () -> response("https://example.com/2.png", loads));
+        cache.getIfPresent(first);
+        cache.get(third, () -> response("https://example.com/3.png", loads));
+
+        Assertions.assertEquals(2, cache.size());
+        Assertions.assertNotNull(cache.getIfPresent(first));
+        Assertions.assertNull(cache.getIfPresent(second));
+    }
+
+    /**
+     * 测试相同的并发请求只触发一次底层调用并共享同一个响应
+     */
+    @Test
+    void testCoalesceIdenticalInFlightRequests() throws Exception {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        ImageRequestCoalescer coalescer = new ImageRequestCoalescer(meterRegistry);
+        ImageOptionsKey key = ImageOptionsKey.of(baseOptions());
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<CompletableFuture<ImageResponse>> futures = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                futures.add(CompletableFuture.supplyAsync(() -> coalescer.execute(key, () -> {
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        throw new IllegalStateException(e);
+                    }
+                    return response("https://example.com/1.png", loads);
+                }), executor));
+            }
+
+            // 等待所有调用方登记到同一个在途请求后再放行
+            double followers = 0;
+            for (int i = 0; i < 100 && followers < 3; i++) {
+                TimeUnit.MILLISECONDS.sleep(20);
+                followers = meterRegistry.get("enhanced.image.coalesce.calls").tag("role", "follower").counter().count();
+            }
+            release.countDown();
+
+            ImageResponse first = futures.get(0).get(5, TimeUnit.SECONDS);
+            for (CompletableFuture<ImageResponse> future : futures) {
+                Assertions.assertSame(first, future.get(5, TimeUnit.SECONDS));
+            }
+            Assertions.assertEquals(1, loads.get());
+            Assertions.assertEquals(3.0, followers);
+            Assertions.assertEquals(0, coalescer.inFlightCount());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static EnhancedImageOptions baseOptions() {
+        return EnhancedImageOptions.builder()
+                .model("Qwen/Qwen-Image")
+                .prompt("生成一张小狗图片")
+                .seed(42L)
+                .cfg(7.5)
+                .image("data:image/png;base64,AAAA")
+                .build();
+    }
+
+    private static ImageResponse response(String url, AtomicInteger loads) {
+        loads.incrementAndGet();
+        return new ImageResponse(List.of(new ImageGeneration(new Image(url, null))));
+    }
+}
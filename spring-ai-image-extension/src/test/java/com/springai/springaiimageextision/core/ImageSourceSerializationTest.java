@@ -0,0 +1,127 @@
+package com.springai.springaiimageextision.core;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.springai.springaiimageextision.core.custom.api.EnhancedImageApi;
+import com.springai.springaiimageextision.core.custom.option.EnhancedImageOptions;
+import com.springai.springaiimageextision.core.custom.option.ImageOptionsKey;
+import com.springai.springaiimageextision.core.custom.option.ImageSource;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.web.client.RestClient;
+
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Base64;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * @author 王玉涛
+ * @version 1.0
+ * @since 2025/10/1
+ */
+class ImageSourceSerializationTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final byte[] content = randomBytes(200_001);
+
+    private final String dataUrl = "data:image/png;base64," + Base64.getEncoder().encodeToString(content);
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void everySourceSerializesLikeTheEquivalentDataUrlString() throws Exception {
+        Path file = tempDir.resolve("input.png");
+        Files.write(file, content);
+        ByteBuffer direct = ByteBuffer.allocateDirect(content.length).put(content).flip();
+        JsonNode expected = objectMapper.readTree(objectMapper.writeValueAsBytes(options(null).image(dataUrl).build()));
+
+        for (ImageSource source : List.of(ImageSource.ofFile(file.toFile()),
+                ImageSource.ofInputStream(new ByteArrayResource(content), "image/png"),
+                ImageSource.ofByteBuffer(ByteBuffer.wrap(content), "image/png"),
+                ImageSource.ofByteBuffer(direct, "image/png"))) {
+            EnhancedImageOptions options = options(source).build();
+            Assertions.assertEquals(expected, objectMapper.readTree(objectMapper.writeValueAsBytes(options)), source.toString());
+            Assertions.assertEquals(expected, objectMapper.readTree(objectMapper.writeValueAsString(options)), source.toString());
+            // 写入 TokenBuffer 时没有底层输出流，退化为写出完整字符串
+            JsonNode tree = objectMapper.valueToTree(options);
+            Assertions.assertEquals(expected.get("image"), tree.get("image"), source.toString());
+        }
+        Assertions.assertEquals(0, direct.position());
+    }
+
+    @Test
+    void imageSourceIsNotDeserializedAndImageStringStillIs() throws Exception {
+        EnhancedImageOptions options = objectMapper.readValue("{\"prompt\":\"小狗\",\"image\":\"" + dataUrl + "\"}",
+                EnhancedImageOptions.class);
+
+        Assertions.assertEquals(dataUrl, options.getImage());
+        Assertions.assertNull(options.getImageSource());
+    }
+
+    @Test
+    void cacheKeyMatchesForSourceAndString() {
+        ImageSource source = ImageSource.ofByteBuffer(ByteBuffer.wrap(content), "image/png");
+
+        Assertions.assertEquals(ImageOptionsKey.of(options(null).image(dataUrl).build()),
+                ImageOptionsKey.of(options(source).build()));
+    }
+
+    @Test
+    void requestBodyIsStreamedThroughTheHttpTransport() throws Exception {
+        AtomicReference<JsonNode> received = new AtomicReference<>();
+        HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/", exchange -> {
+            received.set(objectMapper.readTree(exchange.getRequestBody()));
+            byte[] body = "{\"created\":1,\"data\":[{\"url\":\"https://example.com/1.png\"}]}"
+                    .getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.start();
+        try {
+            EnhancedImageApi api = EnhancedImageApi.builder()
+                    .baseUrl("http://localhost:" + server.getAddress().getPort())
+                    .apiKey("test")
+                    .restClientBuilder(RestClient.builder().requestFactory(new JdkClientHttpRequestFactory()))
+                    .build();
+
+            api.createImage(options(ImageSource.ofInputStream(new ByteArrayResource(content), "image/png")).build());
+
+            Assertions.assertEquals(dataUrl, received.get().get("image").asText());
+            Assertions.assertEquals("小狗", received.get().get("prompt").asText());
+        }
+        finally {
+            server.stop(0);
+        }
+    }
+
+    private static EnhancedImageOptions.EnhancedImageOptionsBuilder options(ImageSource source) {
+        return EnhancedImageOptions.builder()
+                .model("Qwen/Qwen-Image-Edit")
+                .imageSource(source)
+                .prompt("小狗")
+                .seed(42L);
+    }
+
+    private static byte[] randomBytes(int length) {
+        byte[] bytes = new byte[length];
+        new Random(42).nextBytes(bytes);
+        return bytes;
+    }
+}
@@ -0,0 +1,103 @@
+package com.springai.springaiimageextision.core;
+
+import com.springai.springaiimageextision.core.custom.store.ImageStore;
+import com.springai.springaiimageextision.core.custom.store.StoredImage;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.HexFormat;
+
+/**
+ * @author 王玉涛
+ * @version 1.0
+ * @since 2025/10/1
+ */
+class ImageStoreTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @TempDir
+    Path directory;
+
+    /**
+     * 测试以内容的 SHA-256 为标识分片存放，相同内容只保存一份
+     */
+    @Test
+    void identicalContentIsStoredOnce() throws Exception {
+        ImageStore store = new ImageStore(directory, 1024, meterRegistry);
+        byte[] content = bytes(100, 1);
+
+        StoredImage first = store.put("https://example.com/a.png", new ByteArrayInputStream(content), "image/png");
+        StoredImage second = store.put("https://example.com/b.png", new ByteArrayInputStream(content), "image/png");
+
+        String sha256 = HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content));
+        Assertions.assertEquals(sha256, first.id());
+        Assertions.assertEquals(first, second);
+        Assertions.assertEquals(directory.resolve(sha256.substring(0, 2)).resolve(sha256.substring(2, 4))
+                .resolve(sha256 + ".png"), first.path());
+        Assertions.assertArrayEquals(content, Files.readAllBytes(first.path()));
+        Assertions.assertEquals(1, store.size());
+        Assertions.assertEquals(100, store.usedBytes());
+        Assertions.assertEquals(first, store.getByUrl("https://example.com/b.png").orElseThrow());
+        Assertions.assertEquals(1, meterRegistry.get("enhanced.image.store.puts").tag("result", "deduplicated")
+                .counter().count());
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        first.asImageSource().writeTo(out);
+        Assertions.assertArrayEquals(content, out.toByteArray());
+        Assertions.assertEquals("image/png", first.asImageSource().getMimeType());
+    }
+
+    /**
+     * 测试超过配额时淘汰最久未访问的图像，并删除文件与URL映射
+     */
+    @Test
+    void leastRecentlyUsedImageIsEvicted() throws IOException {
+        ImageStore store = new ImageStore(directory, 250, meterRegistry);
+        StoredImage first = store.put("https://example.com/1.png", new ByteArrayInputStream(bytes(100, 1)), "image/png");
+        StoredImage second = store.put("https://example.com/2.png", new ByteArrayInputStream(bytes(100, 2)), "image/png");
+        // 访问第一张，使第二张成为最久未访问的图像
+        Assertions.assertTrue(store.get(first.id()).isPresent());
+
+        store.put(new ByteArrayInputStream(bytes(100, 3)), "image/jpeg");
+
+        Assertions.assertEquals(2, store.size());
+        Assertions.assertEquals(200, store.usedBytes());
+        Assertions.assertTrue(store.get(second.id()).isEmpty());
+        Assertions.assertTrue(store.getByUrl("https://example.com/2.png").isEmpty());
+        Assertions.assertFalse(Files.exists(second.path()));
+        Assertions.assertTrue(store.getByUrl("https://example.com/1.png").isPresent());
+        Assertions.assertEquals(1, meterRegistry.get("enhanced.image.store.evictions").counter().count());
+    }
+
+    /**
+     * 测试重启后从目录重建索引，并清理未完成的写入
+     */
+    @Test
+    void indexIsRebuiltFromDirectory() throws IOException {
+        StoredImage stored = new ImageStore(directory, 1024, meterRegistry)
+                .put(new ByteArrayInputStream(bytes(100, 1)), "image/webp");
+        Path leftover = Files.write(directory.resolve(".tmp-123"), bytes(10, 2));
+
+        ImageStore restarted = new ImageStore(directory, 1024, new SimpleMeterRegistry());
+
+        Assertions.assertEquals(stored, restarted.get(stored.id()).orElseThrow());
+        Assertions.assertEquals(100, restarted.usedBytes());
+        Assertions.assertFalse(Files.exists(leftover));
+    }
+
+    private static byte[] bytes(int length, int value) {
+        byte[] bytes = new byte[length];
+        Arrays.fill(bytes, (byte) value);
+        return bytes;
+    }
+}
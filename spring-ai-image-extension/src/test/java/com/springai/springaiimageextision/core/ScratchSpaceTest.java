@@ -0,0 +1,96 @@
+package com.springai.springaiimageextision.core;
+
+import com.springai.springaiimageextision.core.custom.option.ImageSource;
+import com.springai.springaiimageextision.core.custom.scratch.ScratchFile;
+import com.springai.springaiimageextision.core.custom.scratch.ScratchQuotaExceededException;
+import com.springai.springaiimageextision.core.custom.scratch.ScratchSpace;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.web.MockMultipartFile;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Base64;
+import java.util.stream.Stream;
+
+/**
+ * @author 王玉涛
+ * @version 1.0
+ * @since 2025/10/1
+ */
+class ScratchSpaceTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void fileIsDeletedWhenLastReferenceIsReleased() throws Exception {
+        ScratchSpace space = new ScratchSpace(directory, 1024, meterRegistry);
+        ScratchFile file = space.write(new ByteArrayInputStream(new byte[100]), ".png");
+        ImageSource source = file.asImageSource("image/png");
+
+        file.release();
+        Assertions.assertTrue(Files.exists(file.path()), "来源仍持有引用");
+        Assertions.assertEquals(100, space.usedBytes());
+        Assertions.assertEquals(100, meterRegistry.get("enhanced.image.scratch.used").gauge().value());
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        source.writeTo(out);
+        Assertions.assertEquals(100, out.size());
+
+        source.close();
+        source.close();
+        Assertions.assertFalse(Files.exists(file.path()));
+        Assertions.assertEquals(0, space.usedBytes());
+        Assertions.assertEquals(0, space.fileCount());
+        Assertions.assertThrows(IllegalStateException.class, file::retain);
+    }
+
+    @Test
+    void writeOverQuotaIsRejectedAndPartialFileRemoved() throws Exception {
+        ScratchSpace space = new ScratchSpace(directory, 50_000, meterRegistry);
+        ScratchFile kept = space.write(new ByteArrayInputStream(new byte[30_000]), ".png");
+
+        Assertions.assertThrows(ScratchQuotaExceededException.class,
+                () -> space.write(new ByteArrayInputStream(new byte[30_000]), ".png"));
+
+        Assertions.assertEquals(30_000, space.usedBytes());
+        Assertions.assertEquals(1, space.fileCount());
+        try (Stream<Path> files = Files.list(directory)) {
+            Assertions.assertEquals(1, files.count());
+        }
+        Assertions.assertEquals(1, meterRegistry.get("enhanced.image.scratch.rejections").counter().count());
+        kept.release();
+    }
+
+    @Test
+    void leftoversArePurgedOnStartAndRemainingFilesOnClose() throws Exception {
+        Path leftover = Files.createFile(directory.resolve("scratch-leftover.png"));
+        Path unrelated = Files.createFile(directory.resolve("keep.txt"));
+
+        ScratchSpace space = new ScratchSpace(directory, 1024, meterRegistry);
+        Assertions.assertFalse(Files.exists(leftover));
+        Assertions.assertTrue(Files.exists(unrelated));
+
+        ScratchFile file = space.write(new ByteArrayInputStream(new byte[10]), ".png");
+        space.close();
+        Assertions.assertFalse(Files.exists(file.path()));
+        Assertions.assertEquals(0, space.usedBytes());
+    }
+
+    @Test
+    void multipartSourceEncodesWithoutTempFiles() throws Exception {
+        byte[] content = {1, 2, 3, 4, 5};
+        ImageSource source = ImageSource.ofMultipart(new MockMultipartFile("file", "cat.PNG", "image/png", content));
+
+        Assertions.assertEquals("data:image/png;base64," + Base64.getEncoder().encodeToString(content),
+                source.toDataUrl());
+        Assertions.assertEquals(source.toDataUrl(), source.toDataUrl(), "每次写出都重新读取上传文件");
+    }
+}
@@ -0,0 +1,134 @@
+package com.springai.springaiimageextision.core;
+
+import com.springai.springaiimageextision.core.custom.store.ImageStore;
+import com.springai.springaiimageextision.core.custom.store.StoredImage;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * @author 王玉涛
+ * @version 1.0
+ * @since 2025/10/1
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class StoredImageControllerTest {
+
+    @TempDir
+    static Path storeDirectory;
+
+    private final HttpClient httpClient = HttpClient.newHttpClient();
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private ImageStore imageStore;
+
+    @DynamicPropertySource
+    static void storeProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.ai.openai.api-key", () -> "test");
+        registry.add("spring.ai.openai.base-url", () -> "http://localhost:9");
+        registry.add("ai.enhanced.image.store.directory", () -> storeDirectory.toString());
+    }
+
+    /**
+     * 测试完整读取，分别覆盖 sendfile 与直接写出两种方式，并返回强 ETag 与长期缓存头
+     */
+    @Test
+    void servesStoredImageWithCachingHeaders() throws Exception {
+        for (int length : new int[]{1000, 200_000}) {
+            byte[] content = randomBytes(length);
+            StoredImage image = store(content);
+
+            HttpResponse<byte[]> response = get(image.id(), new String[0]);
+
+            Assertions.assertEquals(200, response.statusCode());
+            Assertions.assertArrayEquals(content, response.body());
+            Assertions.assertEquals("\"" + image.id() + "\"", response.headers().firstValue("ETag").orElseThrow());
+            Assertions.assertEquals("image/png", response.headers().firstValue("Content-Type").orElseThrow());
+            Assertions.assertEquals("bytes", response.headers().firstValue("Accept-Ranges").orElseThrow());
+            Assertions.assertTrue(response.headers().firstValue("Cache-Control").orElseThrow().contains("immutable"));
+        }
+    }
+
+    /**
+     * 测试 If-None-Match 命中时返回 304 且不返回内容
+     */
+    @Test
+    void matchingIfNoneMatchReturnsNotModified() throws Exception {
+        StoredImage image = store(randomBytes(1000));
+
+        HttpResponse<byte[]> response = get(image.id(), new String[]{"If-None-Match", "\"" + image.id() + "\""});
+
+        Assertions.assertEquals(304, response.statusCode());
+        Assertions.assertEquals(0, response.body().length);
+    }
+
+    /**
+     * 测试单个 Range 返回 206 与对应区间，越界时返回 416，If-Range 不匹配时返回完整内容
+     */
+    @Test
+    void rangeRequestsReturnPartialContent() throws Exception {
+        byte[] content = randomBytes(100_000);
+        StoredImage image = store(content);
+
+        HttpResponse<byte[]> partial = get(image.id(), new String[]{"Range", "bytes=10-19"});
+        Assertions.assertEquals(206, partial.statusCode());
+        Assertions.assertArrayEquals(Arrays.copyOfRange(content, 10, 20), partial.body());
+        Assertions.assertEquals("bytes 10-19/100000", partial.headers().firstValue("Content-Range").orElseThrow());
+
+        HttpResponse<byte[]> suffix = get(image.id(), new String[]{"Range", "bytes=-60000"});
+        Assertions.assertEquals(206, suffix.statusCode());
+        Assertions.assertArrayEquals(Arrays.copyOfRange(content, 40_000, 100_000), suffix.body());
+
+        HttpResponse<byte[]> unsatisfiable = get(image.id(), new String[]{"Range", "bytes=100000-"});
+        Assertions.assertEquals(416, unsatisfiable.statusCode());
+        Assertions.assertEquals("bytes */100000", unsatisfiable.headers().firstValue("Content-Range").orElseThrow());
+
+        HttpResponse<byte[]> stale = get(image.id(), new String[]{"Range", "bytes=10-19", "If-Range", "\"other\""});
+        Assertions.assertEquals(200, stale.statusCode());
+        Assertions.assertEquals(content.length, stale.body().length);
+    }
+
+    /**
+     * 测试不存在的图像返回 404
+     */
+    @Test
+    void unknownImageReturnsNotFound() throws Exception {
+        Assertions.assertEquals(404, get("0".repeat(64), new String[0]).statusCode());
+    }
+
+    private StoredImage store(byte[] content) throws IOException {
+        return imageStore.put(new ByteArrayInputStream(content), "image/png");
+    }
+
+    private HttpResponse<byte[]> get(String id, String[] headers) throws Exception {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/core/images/" + id));
+        if (headers.length > 0) {
+            request.headers(headers);
+        }
+        return httpClient.send(request.build(), HttpResponse.BodyHandlers.ofByteArray());
+    }
+
+    private static byte[] randomBytes(int length) {
+        byte[] bytes = new byte[length];
+        new Random(length).nextBytes(bytes);
+        return bytes;
+    }
+}
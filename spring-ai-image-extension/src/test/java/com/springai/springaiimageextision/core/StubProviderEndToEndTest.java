@@ -0,0 +1,114 @@
+package com.springai.springaiimageextision.core;
+
+import com.springai.springaiimageextision.core.custom.scratch.ScratchSpace;
+import com.springai.springaiimageextision.core.custom.store.ImageStore;
+import com.springai.springaiimageextision.stub.StubImageProvider;
+import com.springai.springaiimageextision.stub.StubImageProvider.LatencyDistribution;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * 基于本地桩厂商的端到端测试，经过真实的控制器、服务与 HTTP 传输，完全离线运行
+ *
+ * @author 王玉涛
+ * @version 1.0
+ * @since 2025/10/1
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class StubProviderEndToEndTest {
+
+    private static final StubImageProvider STUB = startStub();
+
+    @TempDir
+    static Path storeDirectory;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private ScratchSpace scratchSpace;
+
+    @Autowired
+    private ImageStore imageStore;
+
+    @DynamicPropertySource
+    static void stubProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.ai.openai.api-key", () -> "stub");
+        registry.add("spring.ai.openai.base-url", STUB::baseUrl);
+        registry.add("ai.enhanced.image.resilience.enabled", () -> "true");
+        registry.add("ai.enhanced.image.store.directory", () -> storeDirectory.toString());
+    }
+
+    @AfterAll
+    static void stopStub() {
+        STUB.close();
+    }
+
+    @BeforeEach
+    void resetStub() {
+        STUB.reset().latency(LatencyDistribution.fixed(10));
+    }
+
+    @Test
+    void textToImageReturnsStubUrl() {
+        ResponseEntity<String> response = restTemplate.postForEntity("/api/core/images?prompt={prompt}", null,
+                String.class, "小狗");
+
+        Assertions.assertEquals(200, response.getStatusCode().value());
+        Assertions.assertTrue(response.getBody().startsWith(STUB.baseUrl() + "/images/"));
+        Assertions.assertEquals(1, STUB.stats().succeeded());
+    }
+
+    @Test
+    void throttledRequestIsRetriedAfterRetryAfter() {
+        STUB.throttleFirst(1, Duration.ofSeconds(1));
+
+        long startedAt = System.nanoTime();
+        ResponseEntity<String> response = restTemplate.postForEntity("/api/core/images?prompt={prompt}", null,
+                String.class, "小猫");
+
+        Assertions.assertEquals(200, response.getStatusCode().value());
+        Assertions.assertEquals(1, STUB.stats().throttled());
+        Assertions.assertEquals(1, STUB.stats().succeeded());
+        Assertions.assertTrue(Duration.ofNanos(System.nanoTime() - startedAt).toMillis() >= 1000,
+                "应按 Retry-After 等待后再重试");
+    }
+
+    @Test
+    void solitaireDownloadsEachStepFromStub() {
+        STUB.imageSize(16 * 1024);
+
+        ResponseEntity<List> response = restTemplate.postForEntity(
+                "/api/core/images/solitaire?prompt={prompt}&prompts={next}&step=2", null, List.class, "森林", "雪景");
+
+        Assertions.assertEquals(200, response.getStatusCode().value());
+        Assertions.assertFalse(response.getBody().isEmpty());
+        Assertions.assertEquals(response.getBody().size(), STUB.stats().succeeded());
+        Assertions.assertTrue(STUB.stats().downloads() > 0);
+        Assertions.assertEquals(0, scratchSpace.fileCount(), "下载的中间图像应在接龙结束后删除");
+        Assertions.assertTrue(imageStore.size() > 0, "下载的中间图像应写入本地图像存储");
+    }
+
+    private static StubImageProvider startStub() {
+        try {
+            return StubImageProvider.start();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.springai.springaiimageextision.core;
+
+import com.springai.springaiimageextision.core.custom.monitor.VirtualThreadPinningMonitor;
+import com.springai.springaiimageextision.core.util.ThreadUtils;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author 王玉涛
+ * @version 1.0
+ * @since 2025/10/1
+ */
+class VirtualThreadPinningMonitorTest {
+
+    /**
+     * 测试在 synchronized 块中阻塞的虚拟线程被检测到
+     * JDK 21 以下没有虚拟线程，JDK 24 起 synchronized 不再固定虚拟线程，这两种情况下跳过
+     */
+    @Test
+    void testPinnedVirtualThreadIsReported() throws Exception {
+        int feature = Runtime.version().feature();
+        Assumptions.assumeTrue(ThreadUtils.isVirtualThreadSupported() && feature < 24);
+
+        Object monitor = new Object();
+        try (VirtualThreadPinningMonitor pinningMonitor = new VirtualThreadPinningMonitor(Duration.ofMillis(10),
+                new SimpleMeterRegistry())) {
+            ExecutorService executor = ThreadUtils.newTaskExecutor(true, 1, "pinning-test-");
+            executor.submit(() -> {
+                synchronized (monitor) {
+                    Thread.sleep(100);
+                }
+                return null;
+            }).get(5, TimeUnit.SECONDS);
+            executor.shutdown();
+
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+            while (pinningMonitor.pinnedCount() == 0 && System.nanoTime() < deadline) {
+                Thread.sleep(50);
+            }
+            Assertions.assertTrue(pinningMonitor.pinnedCount() > 0);
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package com.springai.springaiimageextision.core.custom.model;
+
+import com.springai.springaiimageextision.core.custom.api.EnhancedImageApi;
+import com.springai.springaiimageextision.core.custom.option.EnhancedImageOptions;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.ai.image.ImagePrompt;
+import org.springframework.ai.image.ImageResponse;
+import org.springframework.ai.retry.RetryUtils;
+import org.springframework.http.ResponseEntity;
+
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * EnhancedImageModel 热点路径基准测试
+ * mergeOptions 与 convertResponse 为包内可见方法，因此基准测试放在同一个包下
+ *
+ * @author 王玉涛
+ * @version 1.0
+ * @since 2025/10/1
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class EnhancedImageModelBenchmark {
+
+    /**
+     * 模型与选项合并的输入
+     */
+    @State(Scope.Benchmark)
+    public static class MergeState {
+
+        private EnhancedImageModel model;
+
+        private ImagePrompt imagePrompt;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            EnhancedImageOptions defaults = EnhancedImageOptions.builder()
+                    .model("Qwen/Qwen-Image")
+                    .size("1328x1328")
+                    .prompt("生成一张小狗图片")
+                    .negativePrompt("天空")
+                    .responseFormat("url")
+                    .inferenceSteps(20)
+                    .build();
+            model = new EnhancedImageModel(EnhancedImageApi.builder().apiKey("benchmark").build(), defaults,
+                    RetryUtils.DEFAULT_RETRY_TEMPLATE);
+            imagePrompt = new ImagePrompt("请生成一张优美的星空图片", EnhancedImageOptions.builder()
+                    .model("Qwen/Qwen-Image-Edit")
+                    .cfg(7.5)
+                    .seed(42L)
+                    .image("data:image/png;base64,AAAA")
+                    .build());
+        }
+    }
+
+    /**
+     * 包含大体积 b64_json 的厂商响应
+     */
+    @State(Scope.Benchmark)
+    public static class ResponseState {
+
+        /**
+         * 每张图像的原始大小（MB）
+         */
+        @Param({"1", "10"})
+        private int sizeMb;
+
+        /**
+         * 响应中的图像数量
+         */
+        @Param({"1", "4"})
+        private int images;
+
+        private EnhancedImageModel model;
+
+        private ResponseEntity<EnhancedImageApi.OpenAiImageResponse> response;
+
+        private EnhancedImageOptions options;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            byte[] content = new byte[sizeMb * 1024 * 1024];
+            new Random(42).nextBytes(content);
+            String b64Json = Base64.getEncoder().encodeToString(content);
+            List<EnhancedImageApi.Data> data = new ArrayList<>();
+            for (int i = 0; i < images; i++) {
+                data.add(new EnhancedImageApi.Data(null, b64Json, "revised prompt"));
+            }
+            response = ResponseEntity.ok(new EnhancedImageApi.OpenAiImageResponse(1L, data));
+            options = EnhancedImageOptions.builder().model("Qwen/Qwen-Image").responseFormat("b64_json").build();
+            model = new EnhancedImageModel(EnhancedImageApi.builder().apiKey("benchmark").build());
+        }
+    }
+
+    @Benchmark
+    public EnhancedImageOptions mergeOptions(MergeState state) {
+        return state.model.mergeOptions(state.imagePrompt);
+    }
+
+    @Benchmark
+    public ImageResponse convertResponse(ResponseState state) {
+        return state.model.convertResponse(state.response, state.options);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(EnhancedImageModelBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
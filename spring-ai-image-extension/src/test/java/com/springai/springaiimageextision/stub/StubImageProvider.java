@@ -0,0 +1,371 @@
+package com.springai.springaiimageextision.stub;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.util.Assert;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 本地图像厂商桩服务
+ * 实现 EnhancedImageApi 使用的 v1/images/generations 协议，完全离线运行，用于端到端测试与压测。
+ * 支持可配置的延迟分布、5xx 错误率、携带 Retry-After 的 429 限流，以及 url 与 b64_json 两种响应格式；
+ * url 格式返回的链接指向本服务的 /images/ 路径，可被接龙等需要下载图像的流程直接读取。
+ * 所有配置均可在运行期间修改，压测时同一个桩服务可依次模拟多个场景。
+ *
+ * @author 王玉涛
+ * @version 1.0
+ * @since 2025/10/1
+ */
+@Slf4j
+public class StubImageProvider implements AutoCloseable {
+
+    /**
+     * 与 EnhancedImageApi 默认值一致的生成路径
+     */
+    public static final String IMAGES_PATH = "/v1/images/generations";
+
+    private static final String IMAGE_FILE_PATH = "/images/";
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    private final HttpServer server;
+
+    private final ExecutorService executor;
+
+    private final Random random;
+
+    private volatile LatencyDistribution latency = LatencyDistribution.none();
+
+    private volatile double errorRate;
+
+    private volatile double throttleRate;
+
+    private volatile Duration retryAfter = Duration.ofSeconds(1);
+
+    private final AtomicInteger throttleFirst = new AtomicInteger();
+
+    private volatile String responseFormat;
+
+    private volatile byte[] image;
+
+    private volatile String imageBase64;
+
+    private final AtomicLong requests = new AtomicLong();
+
+    private final AtomicLong succeeded = new AtomicLong();
+
+    private final AtomicLong throttled = new AtomicLong();
+
+    private final AtomicLong failed = new AtomicLong();
+
+    private final AtomicLong downloads = new AtomicLong();
+
+    private StubImageProvider(int port, long seed) throws IOException {
+        this.random = new Random(seed);
+        this.executor = Executors.newCachedThreadPool();
+        this.server = HttpServer.create(new InetSocketAddress("localhost", port), 4096);
+        this.server.setExecutor(executor);
+        this.server.createContext(IMAGES_PATH, this::generate);
+        this.server.createContext(IMAGE_FILE_PATH, this::download);
+        imageSize(64 * 1024);
+    }
+
+    /**
+     * 在随机端口启动桩服务
+     */
+    public static StubImageProvider start() throws IOException {
+        return start(0, 42L);
+    }
+
+    /**
+     * 在指定端口启动桩服务
+     *
+     * @param port 端口，0 表示随机端口
+     * @param seed 随机种子，相同种子下错误与限流的出现顺序可复现
+     */
+    public static StubImageProvider start(int port, long seed) throws IOException {
+        StubImageProvider provider = new StubImageProvider(port, seed);
+        provider.server.start();
+        log.info("Stub image provider started at {}", provider.baseUrl());
+        return provider;
+    }
+
+    /**
+     * 作为 spring.ai.openai.base-url 使用的基础 URL
+     */
+    public String baseUrl() {
+        return "http://localhost:" + server.getAddress().getPort();
+    }
+
+    /**
+     * 设置生成耗时的分布
+     */
+    public StubImageProvider latency(LatencyDistribution latency) {
+        Assert.notNull(latency, "latency 不能为空");
+        this.latency = latency;
+        return this;
+    }
+
+    /**
+     * 设置返回 500 的请求比例
+     */
+    public StubImageProvider errorRate(double errorRate) {
+        Assert.isTrue(errorRate >= 0 && errorRate <= 1, "errorRate 必须在 0 到 1 之间");
+        this.errorRate = errorRate;
+        return this;
+    }
+
+    /**
+     * 设置返回 429 的请求比例与 Retry-After
+     */
+    public StubImageProvider throttle(double throttleRate, Duration retryAfter) {
+        Assert.isTrue(throttleRate >= 0 && throttleRate <= 1, "throttleRate 必须在 0 到 1 之间");
+        Assert.notNull(retryAfter, "retryAfter 不能为空");
+        this.throttleRate = throttleRate;
+        this.retryAfter = retryAfter;
+        return this;
+    }
+
+    /**
+     * 接下来的 count 个生成请求固定返回 429，用于确定性地验证限流重试
+     */
+    public StubImageProvider throttleFirst(int count, Duration retryAfter) {
+        Assert.isTrue(count >= 0, "count 不能为负数");
+        Assert.notNull(retryAfter, "retryAfter 不能为空");
+        this.retryAfter = retryAfter;
+        this.throttleFirst.set(count);
+        return this;
+    }
+
+    /**
+     * 强制使用的响应格式（url 或 b64_json），为 null 时遵循请求中的 response_format
+     */
+    public StubImageProvider responseFormat(String responseFormat) {
+        Assert.isTrue(responseFormat == null || "url".equals(responseFormat) || "b64_json".equals(responseFormat),
+                "responseFormat 只能为 url 或 b64_json");
+        this.responseFormat = responseFormat;
+        return this;
+    }
+
+    /**
+     * 设置生成图像的大致字节数，生成一张随机噪点 PNG，压缩后大小接近该值
+     */
+    public StubImageProvider imageSize(int bytes) {
+        Assert.isTrue(bytes > 0, "bytes 必须大于 0");
+        byte[] png = noisePng(bytes);
+        this.image = png;
+        this.imageBase64 = Base64.getEncoder().encodeToString(png);
+        return this;
+    }
+
+    /**
+     * 恢复默认配置并清空统计
+     */
+    public StubImageProvider reset() {
+        latency = LatencyDistribution.none();
+        errorRate = 0;
+        throttleRate = 0;
+        throttleFirst.set(0);
+        responseFormat = null;
+        requests.set(0);
+        succeeded.set(0);
+        throttled.set(0);
+        failed.set(0);
+        downloads.set(0);
+        return this;
+    }
+
+    /**
+     * 当前的请求统计
+     */
+    public Stats stats() {
+        return new Stats(requests.get(), succeeded.get(), throttled.get(), failed.get(), downloads.get());
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private void generate(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            if (!"POST".equals(exchange.getRequestMethod())) {
+                sendJson(exchange, 405, error("method not allowed"));
+                return;
+            }
+            JsonNode request = OBJECT_MAPPER.readTree(exchange.getRequestBody());
+            requests.incrementAndGet();
+            if (!request.hasNonNull("prompt")) {
+                failed.incrementAndGet();
+                sendJson(exchange, 400, error("prompt is required"));
+                return;
+            }
+            if (throttleFirst.getAndUpdate(n -> Math.max(0, n - 1)) > 0 || random.nextDouble() < throttleRate) {
+                throttled.incrementAndGet();
+                exchange.getResponseHeaders().set("Retry-After", String.valueOf(retryAfter.toSeconds()));
+                sendJson(exchange, 429, error("rate limit exceeded"));
+                return;
+            }
+            sleep(latency.sample(random));
+            if (random.nextDouble() < errorRate) {
+                failed.incrementAndGet();
+                sendJson(exchange, 500, error("internal error"));
+                return;
+            }
+            String format = responseFormat != null ? responseFormat : request.path("response_format").asText("url");
+            int count = Math.max(1, request.path("batch_size").asInt(1));
+            ObjectNode response = OBJECT_MAPPER.createObjectNode();
+            response.put("created", System.currentTimeMillis() / 1000);
+            ArrayNode data = response.putArray("data");
+            for (int i = 0; i < count; i++) {
+                ObjectNode item = data.addObject();
+                if ("b64_json".equals(format)) {
+                    item.put("b64_json", imageBase64);
+                }
+                else {
+                    item.put("url", baseUrl() + IMAGE_FILE_PATH + requests.get() + "-" + i + ".png");
+                }
+            }
+            succeeded.incrementAndGet();
+            sendJson(exchange, 200, response);
+        }
+    }
+
+    private void download(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            downloads.incrementAndGet();
+            byte[] body = image;
+            exchange.getResponseHeaders().set("Content-Type", "image/png");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        }
+    }
+
+    private static void sendJson(HttpExchange exchange, int status, JsonNode body) throws IOException {
+        byte[] bytes = OBJECT_MAPPER.writeValueAsBytes(body);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private static JsonNode error(String message) {
+        ObjectNode body = OBJECT_MAPPER.createObjectNode();
+        body.putObject("error").put("message", message);
+        return body;
+    }
+
+    private static void sleep(long millis) {
+        if (millis <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static byte[] noisePng(int bytes) {
+        // 随机噪点几乎不可压缩，每个像素约占 3 字节
+        int side = Math.max(1, (int) Math.sqrt(bytes / 3.0));
+        BufferedImage image = new BufferedImage(side, side, BufferedImage.TYPE_INT_RGB);
+        Random random = new Random(side);
+        for (int y = 0; y < side; y++) {
+            for (int x = 0; x < side; x++) {
+                image.setRGB(x, y, random.nextInt(0x1000000));
+            }
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream(bytes + 1024);
+        try {
+            ImageIO.write(image, "png", out);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * 独立运行桩服务，将应用的 SPRING_AI_OPENAI_BASE_URL 指向输出的地址即可手工压测
+     * 参数：[端口] [中位延迟毫秒] [错误率] [限流比例]
+     */
+    public static void main(String[] args) throws Exception {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : 8089;
+        StubImageProvider provider = start(port, System.nanoTime());
+        provider.latency(LatencyDistribution.logNormal(args.length > 1 ? Long.parseLong(args[1]) : 2000, 0.5))
+                .errorRate(args.length > 2 ? Double.parseDouble(args[2]) : 0)
+                .throttle(args.length > 3 ? Double.parseDouble(args[3]) : 0, Duration.ofSeconds(1));
+        System.out.println("Stub image provider listening on " + provider.baseUrl());
+        Thread.currentThread().join();
+    }
+
+    /**
+     * 生成耗时的分布
+     */
+    @FunctionalInterface
+    public interface LatencyDistribution {
+
+        /**
+         * 采样一次耗时（毫秒）
+         */
+        long sample(Random random);
+
+        static LatencyDistribution none() {
+            return random -> 0;
+        }
+
+        static LatencyDistribution fixed(long millis) {
+            return random -> millis;
+        }
+
+        static LatencyDistribution uniform(long minMillis, long maxMillis) {
+            Assert.isTrue(minMillis <= maxMillis, "minMillis 不能大于 maxMillis");
+            return random -> minMillis + (long) (random.nextDouble() * (maxMillis - minMillis));
+        }
+
+        /**
+         * 对数正态分布，贴近真实生成服务的长尾耗时
+         *
+         * @param medianMillis 中位耗时
+         * @param sigma 对数标准差，0.5 时 p99 约为中位数的 3.2 倍
+         */
+        static LatencyDistribution logNormal(long medianMillis, double sigma) {
+            return random -> (long) (medianMillis * Math.exp(sigma * random.nextGaussian()));
+        }
+    }
+
+    /**
+     * 请求统计
+     *
+     * @param requests 收到的生成请求数
+     * @param succeeded 成功返回的请求数
+     * @param throttled 返回 429 的请求数
+     * @param failed 返回 4xx/5xx 错误的请求数
+     * @param downloads 图像下载次数
+     */
+    public record Stats(long requests, long succeeded, long throttled, long failed, long downloads) {
+    }
+}